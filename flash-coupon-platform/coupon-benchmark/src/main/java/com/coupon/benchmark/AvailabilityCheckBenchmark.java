@@ -0,0 +1,71 @@
+package com.coupon.benchmark;
+
+import com.coupon.domain.Coupon;
+import com.coupon.service.cache.CouponMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발급 기간 확인 비용 (LocalDateTime.now()의 시간대 변환 포함)
+ * isInIssuePeriodPrecomputedNow는 now를 호출 측에서 한 번만 구해 넘길 때의 비용이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityCheckBenchmark {
+
+    private Coupon coupon;
+    private CouponMetadata metadata;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        coupon = Coupon.builder()
+                .name("벤치마크 쿠폰")
+                .totalQuantity(100)
+                .startAt(LocalDateTime.now().minusMinutes(1))
+                .endAt(LocalDateTime.now().plusDays(1))
+                .build();
+        metadata = CouponMetadata.from(coupon);
+        now = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTimeNow() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public boolean couponIsAvailable() {
+        return coupon.isAvailable();
+    }
+
+    @Benchmark
+    public boolean isInIssuePeriod() {
+        return metadata.isInIssuePeriod(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public boolean isInIssuePeriodPrecomputedNow() {
+        return metadata.isInIssuePeriod(now);
+    }
+}
@@ -0,0 +1,105 @@
+package com.coupon.benchmark;
+
+import com.coupon.CouponApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트 (웹 서버 없이 H2 + 내장 Redis)
+ * 외부 Redis로 측정하려면 -Dbenchmark.redis.embedded=false -Dbenchmark.redis.port=6379
+ */
+public class BenchmarkApplication implements AutoCloseable {
+
+    private static final boolean EMBEDDED_REDIS =
+            Boolean.parseBoolean(System.getProperty("benchmark.redis.embedded", "true"));
+    private static final int REDIS_PORT = Integer.getInteger("benchmark.redis.port", 16379);
+
+    private final RedisServer redisServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    public static BenchmarkApplication start(String... properties) {
+        RedisServer redisServer = EMBEDDED_REDIS ? startRedis() : null;
+        // application.yml(PostgreSQL)보다 우선하도록 명령행 인자로 전달
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.data.redis.port=" + REDIS_PORT,
+                "--spring.profiles.active=local",
+                "--logging.level.root=WARN",
+                "--logging.level.com.coupon=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CouponApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+
+        BenchmarkApplication application = new BenchmarkApplication(redisServer, context);
+        application.clearRedis();
+        return application;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T getBean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    /**
+     * 이전 측정에서 남은 쿠폰 키 삭제 (H2는 매번 새로 만들어져 쿠폰 ID가 1부터 다시 시작됨)
+     */
+    public void clearRedis() {
+        StringRedisTemplate redisTemplate = context.getBean(StringRedisTemplate.class);
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (redisServer != null) {
+            try {
+                redisServer.stop();
+            } catch (IOException e) {
+                throw new UncheckedIOException("내장 Redis 종료 실패", e);
+            }
+        }
+    }
+
+    private static RedisServer startRedis() {
+        try {
+            RedisServer redisServer = RedisServer.newRedisServer()
+                    .port(REDIS_PORT)
+                    .setting("save \"\"")
+                    .setting("appendonly no")
+                    .build();
+            redisServer.start();
+            return redisServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("내장 Redis 시작 실패 - port: " + REDIS_PORT, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.coupon.benchmark;
+
+/**
+ * 경합 수준 = 벤치마크 스레드들이 나눠 쓰는 쿠폰 수
+ * HIGH: 모든 스레드가 쿠폰 1개의 같은 키에 몰림 (선착순 오픈 직후)
+ * LOW: 스레드마다 다른 쿠폰을 사용 (여러 이벤트 동시 진행)
+ */
+public enum Contention {
+
+    HIGH(1),
+    LOW(16);
+
+    private final int couponCount;
+
+    Contention(int couponCount) {
+        this.couponCount = couponCount;
+    }
+
+    public int couponCount() {
+        return couponCount;
+    }
+}
@@ -0,0 +1,46 @@
+package com.coupon.benchmark;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 벤치마크 대상 쿠폰 묶음
+ * 스레드는 순서대로 쿠폰을 하나씩 배정받는다. (쿠폰 수보다 스레드가 많으면 나눠 씀)
+ */
+public class CouponFixture {
+
+    private final List<Long> couponIds = new ArrayList<>();
+    private final AtomicInteger nextThread = new AtomicInteger();
+    private final int stock;
+
+    public CouponFixture(CouponService couponService, Contention contention, int stock) {
+        this.stock = stock;
+        for (int i = 0; i < contention.couponCount(); i++) {
+            couponIds.add(couponService.createCoupon(new CouponCreateRequest(
+                    "벤치마크 쿠폰 " + i,
+                    stock,
+                    LocalDateTime.now().minusMinutes(1),
+                    LocalDateTime.now().plusDays(1)
+            )).id());
+        }
+    }
+
+    /**
+     * 측정 반복마다 재고를 처음 상태로 되돌림 (발급 사용자 키는 호출 측에서 삭제)
+     */
+    public void resetStock(CouponStockService couponStockService) {
+        for (Long couponId : couponIds) {
+            couponStockService.initializeStock(couponId, stock);
+        }
+    }
+
+    public Long assignCoupon() {
+        return couponIds.get(nextThread.getAndIncrement() % couponIds.size());
+    }
+}
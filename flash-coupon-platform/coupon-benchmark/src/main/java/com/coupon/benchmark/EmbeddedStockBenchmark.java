@@ -0,0 +1,111 @@
+package com.coupon.benchmark;
+
+import com.coupon.config.EmbeddedStockProperties;
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.stock.EmbeddedStockEngine;
+import com.coupon.service.stock.StockLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EmbeddedStockEngine.decrement (CAS 재고 감소 + 발급 사용자 기록 + mmap 저널 기록)
+ * Redis 엔진의 StockDecrementBenchmark.scriptClient와 같은 조건(contention, stock)으로 비교한다.
+ * 발급 사용자가 메모리에 쌓이지 않도록 측정 반복마다 새 저널 디렉터리로 엔진을 다시 만든다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmbeddedStockBenchmark {
+
+    @Param({"HIGH", "LOW"})
+    public Contention contention;
+
+    @Param({"100", "1000000"})
+    public int stock;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+    private Path journalDir;
+    private EmbeddedStockEngine engine;
+    private StockLayout[] layouts;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class UserState {
+        int thread;
+        long nextUserId;
+
+        @Setup(Level.Trial)
+        public void setUp(EmbeddedStockBenchmark benchmark) {
+            thread = benchmark.threadCount.getAndIncrement();
+            nextUserId = (thread + 1) * 1_000_000_000L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        layouts = new StockLayout[contention.couponCount()];
+        for (int i = 0; i < layouts.length; i++) {
+            layouts[i] = new StockLayout(i + 1L, 1, IssuedEncoding.SET);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openEngine() throws IOException {
+        journalDir = Files.createTempDirectory("stock-journal");
+        engine = new EmbeddedStockEngine(
+                new EmbeddedStockProperties(journalDir.toString(), DataSize.ofMegabytes(64), Duration.ofSeconds(1)),
+                taskScheduler);
+        for (StockLayout layout : layouts) {
+            engine.initialize(layout, stock);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeEngine() {
+        engine.close();
+        try {
+            FileSystemUtils.deleteRecursively(journalDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Benchmark
+    public int decrement(UserState user) {
+        return engine.decrement(layouts[user.thread % layouts.length], user.nextUserId++);
+    }
+}
@@ -0,0 +1,88 @@
+package com.coupon.benchmark;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.CouponIssueResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CouponService.issueCoupon 전체 경로 (품절 확인 → 메타데이터 캐시 → Redis Lua → H2 INSERT)
+ * stock이 작으면 반복 초반에 소진되어 대부분 품절 즉시 거절 경로를 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class IssueCouponBenchmark {
+
+    @Param({"HIGH", "LOW"})
+    public Contention contention;
+
+    @Param({"100", "1000000"})
+    public int stock;
+
+    private BenchmarkApplication application;
+    private CouponService couponService;
+    private CouponStockService couponStockService;
+    private CouponFixture fixture;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class UserState {
+        Long couponId;
+        long nextUserId;
+
+        @Setup(Level.Trial)
+        public void setUp(IssueCouponBenchmark benchmark) {
+            couponId = benchmark.fixture.assignCoupon();
+            nextUserId = benchmark.threadCount.incrementAndGet() * 1_000_000_000L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        couponService = application.getBean(CouponService.class);
+        couponStockService = application.getBean(CouponStockService.class);
+        fixture = new CouponFixture(couponService, contention, stock);
+    }
+
+    /**
+     * 반복마다 재고 복구 (DB 발급 내역은 사용자 ID가 계속 증가하므로 지우지 않아도 중복되지 않음)
+     */
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        application.clearRedis();
+        fixture.resetStock(couponStockService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public CouponIssueResponse issueCoupon(UserState user) {
+        return couponService.issueCoupon(user.couponId, new CouponIssueRequest(user.nextUserId++));
+    }
+}
@@ -0,0 +1,85 @@
+package com.coupon.benchmark;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 임대 모드(coupon.stock.engine=leased) CouponStockService.decrementStock
+ * StockDecrementBenchmark.decrementStock(Redis 엔진)과 같은 조건으로 비교한다.
+ * 단일 노드(node-count 1)이므로 모든 사용자가 로컬 경로로 처리되고, Redis 왕복은 leaseSize건마다 한 번이다.
+ * leaseSize = 1은 발급마다 임대하는 경우로, 임대 경로 자체의 비용을 보여준다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LeasedStockBenchmark {
+
+    @Param({"HIGH", "LOW"})
+    public Contention contention;
+
+    @Param({"1", "100"})
+    public int leaseSize;
+
+    private BenchmarkApplication application;
+    private CouponStockService couponStockService;
+    private CouponFixture fixture;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class UserState {
+        Long couponId;
+        long nextUserId;
+
+        @Setup(Level.Trial)
+        public void setUp(LeasedStockBenchmark benchmark) {
+            couponId = benchmark.fixture.assignCoupon();
+            nextUserId = benchmark.threadCount.incrementAndGet() * 1_000_000_000L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(
+                "coupon.stock.engine=leased",
+                "coupon.stock.lease.lease-size=" + leaseSize);
+        couponStockService = application.getBean(CouponStockService.class);
+        fixture = new CouponFixture(application.getBean(CouponService.class), contention, 10_000_000);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        application.clearRedis();
+        fixture.resetStock(couponStockService);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int decrementStock(UserState user) {
+        return couponStockService.decrementStock(user.couponId, user.nextUserId++);
+    }
+}
@@ -0,0 +1,90 @@
+package com.coupon.benchmark;
+
+import com.coupon.repository.IssueOutboxRepository;
+import com.coupon.service.outbox.OutboxRelay;
+import com.coupon.service.writebehind.IssueGrant;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OutboxRelay 배치 발행 처리량 (H2 조회 → 메모리 발행기 → H2 삭제, Redis 잠금 포함)
+ * relay() 한 번이 배치 하나를 발행하도록 maxBatchesPerRun=1로 띄우고, 발행한 이벤트 수를 events로 집계한다.
+ * Outbox 적재(INSERT)는 측정에서 제외한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class OutboxRelayBenchmark {
+
+    @Param({"100", "500"})
+    public int batchSize;
+
+    private BenchmarkApplication application;
+    private OutboxRelay outboxRelay;
+    private IssueOutboxRepository issueOutboxRepository;
+    private List<IssueGrant> grants;
+    private long nextUserId;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Published {
+        public long events;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start(
+                "coupon.outbox.relay-enabled=false",
+                "coupon.outbox.max-batches-per-run=1",
+                "coupon.outbox.batch-size=" + batchSize);
+        outboxRelay = application.getBean(OutboxRelay.class);
+        issueOutboxRepository = application.getBean(IssueOutboxRepository.class);
+    }
+
+    /**
+     * 매 호출 전에 배치 하나만큼 Outbox 적재 (relay 한 번에 더 발행할 행이 남지 않음)
+     */
+    @Setup(Level.Invocation)
+    public void fillOutbox() {
+        LocalDateTime now = LocalDateTime.now();
+        grants = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            grants.add(new IssueGrant(1L, nextUserId++, now, null));
+        }
+        issueOutboxRepository.appendAll(grants);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int relay(Published published) {
+        int count = outboxRelay.relay();
+        published.events += count;
+        return count;
+    }
+}
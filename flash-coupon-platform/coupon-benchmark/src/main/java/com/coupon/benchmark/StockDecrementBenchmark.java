@@ -0,0 +1,182 @@
+package com.coupon.benchmark;
+
+import com.coupon.config.StockProperties;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.stock.StockLayout;
+import com.coupon.service.stock.StockScriptClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CouponStockService.decrementStock 비용 분해
+ * - decrementStock      : 서비스 전체 (StockScriptClient 경로)
+ * - scriptClient        : StockScriptClient.decrement (캐시한 키 byte[] + 재사용 버퍼 + Lettuce EVALSHA)
+ * - evalShaTemplate     : 기존 경로 (RedisTemplate + DefaultRedisScript, 키 문자열/직렬화 매번 생성)
+ * - layoutAndKeys       : 레이아웃 조회(메타데이터 캐시) + 키 문자열 생성
+ * - serializeArguments  : RedisTemplate 키/값 직렬화
+ * - evalShaRaw          : 직접 만든 byte[]로 EVALSHA (RedisTemplate 스크립트 실행 경로 제외)
+ *
+ * stock이 작으면 반복 초반에 소진되어 대부분 재고 없음(0) 경로를 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StockDecrementBenchmark {
+
+    @Param({"HIGH", "LOW"})
+    public Contention contention;
+
+    @Param({"100", "1000000"})
+    public int stock;
+
+    private BenchmarkApplication application;
+    private CouponStockService couponStockService;
+    private StockScriptClient stockScriptClient;
+    private RedisTemplate<String, Long> redisTemplate;
+    private DefaultRedisScript<Long> stockDecrementScript;
+    private StockProperties stockProperties;
+    private CouponFixture fixture;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class UserState {
+        Long couponId;
+        long nextUserId;
+
+        @Setup(Level.Trial)
+        public void setUp(StockDecrementBenchmark benchmark) {
+            couponId = benchmark.fixture.assignCoupon();
+            // 스레드마다 겹치지 않는 사용자 ID 구간 사용
+            nextUserId = benchmark.threadCount.incrementAndGet() * 1_000_000_000L;
+        }
+
+        Long nextUser() {
+            return nextUserId++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        couponStockService = application.getBean(CouponStockService.class);
+        stockScriptClient = application.getBean(StockScriptClient.class);
+        redisTemplate = application.getBean("redisTemplate", RedisTemplate.class);
+        stockDecrementScript = application.getBean("stockDecrementScript", DefaultRedisScript.class);
+        stockProperties = application.getBean(StockProperties.class);
+        fixture = new CouponFixture(application.getBean(CouponService.class), contention, stock);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStock() {
+        application.clearRedis();
+        fixture.resetStock(couponStockService);
+        redisTemplate.execute((RedisCallback<String>) connection ->
+                connection.scriptingCommands().scriptLoad(stockDecrementScript.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int decrementStock(UserState user) {
+        return couponStockService.decrementStock(user.couponId, user.nextUser());
+    }
+
+    @Benchmark
+    public int scriptClient(UserState user) {
+        return stockScriptClient.decrement(user.couponId, user.nextUser());
+    }
+
+    @Benchmark
+    public Long evalShaTemplate(UserState user) {
+        Long userId = user.nextUser();
+        StockLayout layout = couponStockService.layoutOf(user.couponId);
+        int shard = layout.shardOf(userId);
+        return redisTemplate.execute(
+                stockDecrementScript,
+                Arrays.asList(layout.stockKey(shard), layout.issuedKey(shard, userId)),
+                layout.issuedMember(userId),
+                0L,
+                layout.encoding().code(),
+                stockProperties.chunkBitmapThreshold()
+        );
+    }
+
+    @Benchmark
+    public void layoutAndKeys(UserState user, Blackhole blackhole) {
+        Long userId = user.nextUser();
+        StockLayout layout = couponStockService.layoutOf(user.couponId);
+        int shard = layout.shardOf(userId);
+        blackhole.consume(layout.stockKey(shard));
+        blackhole.consume(layout.issuedKey(shard, userId));
+        blackhole.consume(layout.issuedMember(userId));
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void serializeArguments(UserState user, Blackhole blackhole) {
+        Long userId = user.nextUser();
+        StockLayout layout = couponStockService.layoutOf(user.couponId);
+        int shard = layout.shardOf(userId);
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        blackhole.consume(keySerializer.serialize(layout.stockKey(shard)));
+        blackhole.consume(keySerializer.serialize(layout.issuedKey(shard, userId)));
+        blackhole.consume(valueSerializer.serialize(layout.issuedMember(userId)));
+        blackhole.consume(valueSerializer.serialize(0L));
+        blackhole.consume(valueSerializer.serialize(layout.encoding().code()));
+        blackhole.consume(valueSerializer.serialize(stockProperties.chunkBitmapThreshold()));
+    }
+
+    @Benchmark
+    public Long evalShaRaw(UserState user) {
+        Long userId = user.nextUser();
+        StockLayout layout = couponStockService.layoutOf(user.couponId);
+        int shard = layout.shardOf(userId);
+        byte[][] keysAndArgs = {
+                utf8(layout.stockKey(shard)),
+                utf8(layout.issuedKey(shard, userId)),
+                utf8(layout.issuedMember(userId)),
+                utf8("0"),
+                utf8(layout.encoding().code()),
+                utf8(String.valueOf(stockProperties.chunkBitmapThreshold()))
+        };
+        return redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                .evalSha(stockDecrementScript.getSha1(), ReturnType.INTEGER, 2, keysAndArgs));
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
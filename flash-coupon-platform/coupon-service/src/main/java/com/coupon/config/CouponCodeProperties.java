@@ -0,0 +1,26 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 쿠폰 코드 생성 설정
+ * secret: 순번을 코드로 섞는 라운드 키의 원본 (바꾸면 기존 코드를 순번으로 되돌릴 수 없으므로 운영 중 변경 금지)
+ *         기본값(LOCAL_SECRET)은 local/test 프로파일에서만 허용
+ * blockSize: 노드가 DB에서 한 번에 예약하는 순번 수
+ * prefetchRemaining: 현재 블록의 남은 순번이 이 값이 되면 다음 블록을 미리 예약
+ */
+@ConfigurationProperties(prefix = "coupon.code")
+public record CouponCodeProperties(
+        @DefaultValue(CouponCodeProperties.LOCAL_SECRET) String secret,
+        @DefaultValue("1000") int blockSize,
+        @DefaultValue("200") int prefetchRemaining
+) {
+
+    public static final String LOCAL_SECRET = "local-coupon-code-secret";
+
+    /**
+     * 기본 비밀값을 써도 되는 프로파일 (누구나 아는 값이라 운영에서 쓰면 다음 코드를 추측할 수 있음)
+     */
+    public static final String[] LOCAL_PROFILES = {"local", "test"};
+}
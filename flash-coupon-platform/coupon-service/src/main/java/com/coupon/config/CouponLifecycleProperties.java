@@ -0,0 +1,34 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 종료된 쿠폰 정리 설정 (Redis 재고/발급 사용자 기록 만료, 발급 내역 보관)
+ * stockRetention: 종료 후 재고 엔진에 기록을 남겨 두는 기간 (종료 직후 대사, 재고 write-back final flush보다 길어야 함)
+ * archiveAfter: 종료 후 이 기간이 지나면 발급 내역을 coupon_issues에서 coupon_issues_archive로 이동
+ * sweepInterval: 정리 주기 (여러 노드 중 잠금을 잡은 한 노드만 실행)
+ * batchSize: 한 번 실행할 때 처리하는 최대 쿠폰 수 (만료, 보관 각각)
+ * archiveChunkSize / maxChunksPerRun: 보관 청크 크기(트랜잭션 하나)와 한 번 실행할 때 처리하는 최대 청크 수
+ */
+@ConfigurationProperties(prefix = "coupon.lifecycle")
+public record CouponLifecycleProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1h") Duration stockRetention,
+        @DefaultValue("30d") Duration archiveAfter,
+        @DefaultValue("1m") Duration sweepInterval,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("1000") int archiveChunkSize,
+        @DefaultValue("20") int maxChunksPerRun,
+        @DefaultValue("10m") Duration lockLease
+) {
+
+    public CouponLifecycleProperties {
+        if (archiveAfter.compareTo(stockRetention) < 0) {
+            throw new IllegalArgumentException("archiveAfter는 stockRetention 이상이어야 합니다: "
+                    + archiveAfter + " < " + stockRetention);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 쿠폰 메타데이터 로컬 캐시 설정
+ */
+@ConfigurationProperties(prefix = "coupon.metadata-cache")
+public record CouponMetadataCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration expireAfterWrite,
+        @DefaultValue("coupon:metadata:invalidate") String invalidationChannel
+) {
+}
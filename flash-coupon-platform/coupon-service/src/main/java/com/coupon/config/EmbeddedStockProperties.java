@@ -0,0 +1,21 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 내장 재고 엔진 설정 (coupon.stock.engine=embedded 일 때 사용)
+ * journalDir: 재고 저널 디렉터리 (기동 시 재생 후 현재 상태만 남기도록 다시 씀)
+ * segmentSize: 저널을 메모리에 매핑하는 단위 (다 차면 다음 구간을 이어서 매핑)
+ * flushInterval: 매핑된 저널을 디스크에 강제로 쓰는 주기 (프로세스 장애는 주기와 무관하게 유실 없음, OS 장애 시 이 주기만큼 유실 가능)
+ */
+@ConfigurationProperties(prefix = "coupon.stock.embedded")
+public record EmbeddedStockProperties(
+        @DefaultValue("./data/stock-journal") String journalDir,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("1s") Duration flushInterval
+) {
+}
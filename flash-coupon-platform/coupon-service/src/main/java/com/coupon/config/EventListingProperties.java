@@ -0,0 +1,20 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 이벤트 목록 (진행 중 / 오픈 예정 / 종료) 설정
+ * stockRefreshInterval: 목록의 잔여 재고를 Redis에서 다시 읽는 주기 (쿠폰 변경 알림도 이 주기에 모아서 반영)
+ * reloadInterval: 변경 알림을 놓친 경우에 대비해 DB에서 목록을 다시 읽는 주기
+ * endedRetention: 종료 목록에 남겨두는 기간
+ */
+@ConfigurationProperties(prefix = "coupon.event-listing")
+public record EventListingProperties(
+        @DefaultValue("1s") Duration stockRefreshInterval,
+        @DefaultValue("5m") Duration reloadInterval,
+        @DefaultValue("7d") Duration endedRetention
+) {
+}
@@ -0,0 +1,22 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 발급 내역 가져오기 설정 (대량 사전 지정 캠페인)
+ * spoolDir: 업로드한 사용자 ID 파일을 저장하는 디렉터리 (재개할 때 다시 읽음, 여러 노드면 공유 볼륨)
+ * chunkSize: 발급 확인/재고 예약/DB 저장을 한 번에 처리하는 사용자 수 (청크마다 진행 위치 커밋)
+ * maxConcurrentJobs: 노드에서 동시에 실행하는 가져오기 작업 수 (넘으면 기다리지 않고 429로 거절)
+ * lockLease: 작업 잠금 유지 시간 (청크마다 연장, 노드가 죽으면 이 시간 뒤에 다른 노드가 재개 가능)
+ */
+@ConfigurationProperties(prefix = "coupon.grant-import")
+public record GrantImportProperties(
+        @DefaultValue("./data/grant-import") String spoolDir,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("2") int maxConcurrentJobs,
+        @DefaultValue("60s") Duration lockLease
+) {
+}
@@ -0,0 +1,47 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 발급 API 동시 처리 한도 설정 (AIMD, 노드 전체 + 쿠폰별)
+ * initialLimit / minLimit / maxLimit: 노드 전체 동시 발급 요청 수 한도의 시작값과 범위
+ * couponInitialLimit / couponMinLimit / couponMaxLimit: 쿠폰 하나의 동시 발급 요청 수 한도
+ * latencyThreshold: 발급 처리 시간이 이 값을 넘으면 과부하로 보고 한도를 backoffRatio만큼 줄인다.
+ *                   이하이면 한도를 요청 1건마다 1/한도씩 늘린다. (한도만큼 처리하면 +1)
+ * retryAfter: 한도 초과로 거절할 때 Retry-After 헤더 값
+ * couponIdleTimeout: 발급 요청이 없는 쿠폰의 한도를 메모리에서 지우는 시간
+ * couponMaximumSize: 메모리에 두는 쿠폰별 한도 수 (넘으면 오래 쓰지 않은 쿠폰부터 지움)
+ */
+@ConfigurationProperties(prefix = "coupon.issue.limiter")
+public record IssueLimiterProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") int initialLimit,
+        @DefaultValue("20") int minLimit,
+        @DefaultValue("2000") int maxLimit,
+        @DefaultValue("100") int couponInitialLimit,
+        @DefaultValue("10") int couponMinLimit,
+        @DefaultValue("1000") int couponMaxLimit,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("250ms") Duration latencyThreshold,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("10m") Duration couponIdleTimeout,
+        @DefaultValue("10000") long couponMaximumSize
+) {
+
+    public IssueLimiterProperties {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("한도는 1 <= minLimit <= initialLimit <= maxLimit 이어야 합니다: "
+                    + minLimit + "/" + initialLimit + "/" + maxLimit);
+        }
+        if (couponMinLimit < 1 || couponInitialLimit < couponMinLimit || couponMaxLimit < couponInitialLimit) {
+            throw new IllegalArgumentException("쿠폰별 한도는 1 <= couponMinLimit <= couponInitialLimit <= couponMaxLimit 이어야 합니다: "
+                    + couponMinLimit + "/" + couponInitialLimit + "/" + couponMaxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio는 0과 1 사이여야 합니다: " + backoffRatio);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.coupon.config;
+
+import com.coupon.service.outbox.InMemoryIssueEventPublisher;
+import com.coupon.service.outbox.IssueEventPublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 발급 이벤트 발행기
+ * 브로커 발행기(IssueEventPublisher 구현체)를 빈으로 등록하면 그것을 쓰고, 없으면 메모리 발행기를 쓴다.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(IssueEventPublisher.class)
+    public IssueEventPublisher issueEventPublisher(OutboxProperties properties) {
+        return new InMemoryIssueEventPublisher(properties.inMemoryCapacity());
+    }
+}
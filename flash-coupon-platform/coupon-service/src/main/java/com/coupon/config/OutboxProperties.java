@@ -0,0 +1,30 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 발급 이벤트 Outbox 설정
+ * enabled: 발급 내역 저장 트랜잭션에서 Outbox 행을 함께 기록
+ * relayEnabled: 이 노드에서 Outbox를 발행 (여러 노드가 켜도 Redis 잠금으로 한 노드씩 순서대로 발행)
+ * pollInterval: 발행할 이벤트를 확인하는 주기
+ * batchSize / maxBatchesPerRun: 한 번에 읽어 발행하는 건수, 잠금 한 번에 처리하는 최대 배치 수
+ * lockLease: 발행 잠금 유지 시간 (배치 발행 시간보다 충분히 길어야 순서가 유지됨)
+ * visibilityLag: 비어 있는 id(커밋 전 트랜잭션)를 기다리는 최대 시간
+ *                발급 트랜잭션의 최대 길이 + 노드 간 시계 차보다 길어야 늦게 커밋된 이벤트가 순서를 앞지르지 않음
+ * inMemoryCapacity: 브로커 발행기가 없을 때 쓰는 메모리 발행기의 보관 건수
+ */
+@ConfigurationProperties(prefix = "coupon.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean relayEnabled,
+        @DefaultValue("100ms") Duration pollInterval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("20") int maxBatchesPerRun,
+        @DefaultValue("30s") Duration lockLease,
+        @DefaultValue("2s") Duration visibilityLag,
+        @DefaultValue("10000") int inMemoryCapacity
+) {
+}
@@ -0,0 +1,28 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Redis ↔ DB 발급 내역 대사 설정
+ * enabled: 발급 중인 쿠폰을 interval마다 대사 (수동 API는 설정과 무관하게 사용 가능)
+ * chunkSize: DB keyset 페이지 크기, SSCAN COUNT (비트맵은 한 번에 읽는 바이트 수)
+ * maxChunksPerRun: 한 번 실행할 때 DB, Redis 쪽 각각 처리하는 최대 청크 수 (발급 중 부하 제한)
+ * grace: 이보다 최근의 불일치는 진행 중인 발급(DB 트랜잭션, Write-Behind 큐)일 수 있어 복구를 미룸
+ *        DB 트랜잭션 최대 시간과 Write-Behind reportInterval보다 길어야 한다.
+ * repair: false 이면 불일치를 기록만 하고 복구하지 않음
+ * endedWithin: 종료 후에도 이 기간 동안은 대사 대상에 포함 (마지막 발급 건 확인용)
+ */
+@ConfigurationProperties(prefix = "coupon.reconciliation")
+public record ReconciliationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("30s") Duration interval,
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("20") int maxChunksPerRun,
+        @DefaultValue("30s") Duration grace,
+        @DefaultValue("true") boolean repair,
+        @DefaultValue("10m") Duration endedWithin
+) {
+}
@@ -0,0 +1,19 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 품절 로컬 차단 설정
+ * recheckInterval: 품절 표시 후 이 시간이 지나면 한 번은 Redis로 다시 확인한다.
+ * (노드 간 메시지 순서가 뒤바뀌어 재입고 신호를 놓치는 경우 대비)
+ */
+@ConfigurationProperties(prefix = "coupon.sold-out")
+public record SoldOutProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("coupon:sold-out") String channel,
+        @DefaultValue("2s") Duration recheckInterval
+) {
+}
@@ -0,0 +1,43 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 노드 재고 임대 설정 (coupon.stock.engine=leased 일 때 사용)
+ * leaseSize: Redis 재고에서 한 번에 가져오는 수량 (발급 1건당 Redis 왕복이 1/leaseSize로 줄어듦)
+ * nodeCount / nodeIndex: 사용자 분할 (userId 해시 % nodeCount == nodeIndex 인 사용자를 이 노드가 담당)
+ *                        게이트웨이/로드밸런서도 같은 해시로 라우팅해야 한다. (LeasedStockEngine.ownerOf)
+ * flushInterval: 로컬에서 발급한 사용자를 Redis 발급 사용자 키에 반영하는 주기
+ * reportInterval: 노드가 가진 미사용 재고를 Redis에 보고하고 유휴/종료 임박 임대를 반납하는 주기
+ * idleTimeout: 미사용 재고가 이 시간 동안 줄지 않으면 Redis로 반납
+ * returnBeforeEnd: 발급 종료(endAt) 이 시간 전부터 임대를 반납하고 1개씩만 가져옴
+ * leaseTtl: 이 시간 동안 보고하지 않은 노드의 임대는 다른 노드가 회수 (노드 장애)
+ *           노드는 절반이 지나도록 보고하지 못하면 스스로 로컬 재고를 버린다. (reportInterval의 3배 이상)
+ */
+@ConfigurationProperties(prefix = "coupon.stock.lease")
+public record StockLeaseProperties(
+        @DefaultValue("100") int leaseSize,
+        @DefaultValue("1") int nodeCount,
+        @DefaultValue("0") int nodeIndex,
+        @DefaultValue("100ms") Duration flushInterval,
+        @DefaultValue("1s") Duration reportInterval,
+        @DefaultValue("10s") Duration idleTimeout,
+        @DefaultValue("30s") Duration returnBeforeEnd,
+        @DefaultValue("10s") Duration leaseTtl
+) {
+
+    public StockLeaseProperties {
+        if (leaseSize < 1) {
+            throw new IllegalArgumentException("임대 수량은 1 이상이어야 합니다: " + leaseSize);
+        }
+        if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+            throw new IllegalArgumentException("노드 번호는 0 ~ nodeCount-1 범위여야 합니다: " + nodeIndex + "/" + nodeCount);
+        }
+        if (leaseTtl.compareTo(reportInterval.multipliedBy(3)) < 0) {
+            throw new IllegalArgumentException("임대 유효 시간은 보고 주기의 3배 이상이어야 합니다: " + leaseTtl);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 재고 설정
+ * engine: 재고 엔진 (REDIS = Redis Lua Script, 여러 노드 공유 / EMBEDDED = JVM 메모리 + mmap 저널, 단일 노드 전용
+ *         / LEASED = Redis 재고를 노드가 묶음으로 임대, 사용자 해시로 노드 분할)
+ * defaultShards: 쿠폰 생성 시 샤드 수를 지정하지 않으면 사용할 값 (1 = 단일 키)
+ * borrowBatch: 담당 샤드가 소진되었을 때 다른 샤드에서 한 번에 빌려오는 최대 수량
+ * chunkBitmapThreshold: CHUNKED 인코딩에서 청크 Set을 비트맵으로 변환하는 원소 수
+ *                       (Redis set-max-intset-entries 이하로 두어야 intset 인코딩이 유지됨)
+ * bulkChunkSize: 일괄 발급 시 Lua Script 한 번에 처리하는 사용자 수
+ * warmUp: 기동 시와 Redis 재연결 시 재고 키가 없는 쿠폰을 DB 기준으로 다시 초기화
+ * initTimeout: 재고 키가 없어 다른 요청이 재초기화 중일 때 기다리는 최대 시간
+ */
+@ConfigurationProperties(prefix = "coupon.stock")
+public record StockProperties(
+        @DefaultValue("redis") Engine engine,
+        @DefaultValue("1") int defaultShards,
+        @DefaultValue("10") int borrowBatch,
+        @DefaultValue("512") int chunkBitmapThreshold,
+        @DefaultValue("500") int bulkChunkSize,
+        @DefaultValue("true") boolean warmUp,
+        @DefaultValue("5s") Duration initTimeout
+) {
+
+    public enum Engine {
+        REDIS, EMBEDDED, LEASED
+    }
+}
@@ -0,0 +1,37 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 잔여 재고 스트림(SSE) / 조회 스냅샷 설정
+ * sampleInterval: 구독자가 있는 쿠폰의 재고를 노드에서 한 번에 읽는 주기 (바뀐 쿠폰만 전송)
+ * snapshotTtl: GET /stock 응답을 노드 메모리에 두는 시간 (이 시간 동안 같은 쿠폰 조회는 Redis/DB를 읽지 않음)
+ * heartbeatInterval: 재고가 바뀌지 않아도 연결 유지용 주석을 보내는 주기 (프록시 유휴 타임아웃보다 짧게)
+ * emitterTimeout: 연결 하나를 유지하는 최대 시간 (클라이언트는 EventSource 재연결로 이어서 받음)
+ * maxSubscribers: 노드당 최대 동시 연결 수 (넘으면 503, 클라이언트는 GET /stock 폴링으로 대체)
+ * sendThreads: 연결에 이벤트를 쓰는 전용 스레드 수 (느린 연결이 공용 스케줄러를 붙잡지 않도록 분리)
+ * slowSubscriberTimeout: 쓰기 하나가 이 시간을 넘겨 막혀 있는 연결은 구독에서 빼고 닫음 (클라이언트는 재연결)
+ */
+@ConfigurationProperties(prefix = "coupon.stock-stream")
+public record StockStreamProperties(
+        @DefaultValue("200ms") Duration sampleInterval,
+        @DefaultValue("500ms") Duration snapshotTtl,
+        @DefaultValue("15s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration emitterTimeout,
+        @DefaultValue("10000") int maxSubscribers,
+        @DefaultValue("4") int sendThreads,
+        @DefaultValue("5s") Duration slowSubscriberTimeout
+) {
+
+    public StockStreamProperties {
+        if (maxSubscribers < 1) {
+            throw new IllegalArgumentException("maxSubscribers는 1 이상이어야 합니다: " + maxSubscribers);
+        }
+        if (sendThreads < 1) {
+            throw new IllegalArgumentException("sendThreads는 1 이상이어야 합니다: " + sendThreads);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Redis 재고 → coupons.remaining_quantity 반영 설정
+ * interval: Redis 재고를 읽는 주기 (발급 중인 쿠폰 전체를 파이프라인 한 번으로 조회)
+ * minDelta: 마지막 반영값과 이만큼 차이 나야 바로 UPDATE (차이가 작으면 maxLag까지 모아서 반영)
+ * maxLag: 변경이 있으면 마지막 반영 후 이 시간이 지나면 minDelta와 무관하게 UPDATE
+ * finalFlushDelay: 발급 종료(endAt) 후 이 시간 뒤 마지막으로 한 번 더 반영 (종료 직전 발급, 보상 롤백 반영)
+ */
+@ConfigurationProperties(prefix = "coupon.stock.write-back")
+public record StockWriteBackProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration interval,
+        @DefaultValue("50") long minDelta,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("5s") Duration finalFlushDelay
+) {
+}
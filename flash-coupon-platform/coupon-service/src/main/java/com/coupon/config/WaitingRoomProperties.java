@@ -0,0 +1,23 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 대기열(Virtual Waiting Room) 설정
+ * overbookRatio: 잔여 재고 대비 대기 허용 인원 비율 (이를 넘는 순번은 입장 시 바로 거절)
+ * admissionRatio: 주기마다 입장시키는 인원 = 잔여 재고 x admissionRatio (minRate ~ maxRate 범위)
+ */
+@ConfigurationProperties(prefix = "coupon.waiting-room")
+public record WaitingRoomProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1.2") double overbookRatio,
+        @DefaultValue("0.2") double admissionRatio,
+        @DefaultValue("10") long minRate,
+        @DefaultValue("500") long maxRate,
+        @DefaultValue("1s") Duration admissionInterval,
+        @DefaultValue("24h") Duration queueTtl
+) {
+}
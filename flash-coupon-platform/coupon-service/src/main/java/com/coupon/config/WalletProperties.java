@@ -0,0 +1,24 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 사용자 쿠폰함 조회 설정
+ * defaultPageSize / maxPageSize: 페이지 크기 기본값과 상한
+ * cacheMaximumSize / cacheExpireAfterWrite: 첫 페이지 로컬 캐시 (다른 노드의 무효화를 놓쳐도 이 시간 안에 갱신됨)
+ * invalidationChannel: 발급된 사용자의 캐시 무효화를 모든 노드에 알리는 Redis 채널
+ * invalidationFlushInterval: 무효화할 사용자를 모아서 발행하는 주기 (발급마다 발행하지 않음)
+ */
+@ConfigurationProperties(prefix = "coupon.wallet")
+public record WalletProperties(
+        @DefaultValue("20") int defaultPageSize,
+        @DefaultValue("100") int maxPageSize,
+        @DefaultValue("100000") long cacheMaximumSize,
+        @DefaultValue("30s") Duration cacheExpireAfterWrite,
+        @DefaultValue("coupon:wallet:invalidate") String invalidationChannel,
+        @DefaultValue("100ms") Duration invalidationFlushInterval
+) {
+}
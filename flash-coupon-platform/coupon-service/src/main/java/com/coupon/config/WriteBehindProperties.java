@@ -0,0 +1,27 @@
+package com.coupon.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 발급 내역 Write-Behind 저장 설정
+ * enabled = true 이면 발급 요청은 Redis 재고 감소 + 로컬 저널 기록 후 바로 응답하고,
+ * DB 저장은 백그라운드 파이프라인이 배치로 처리한다.
+ * syncOnAppend: 저널을 디스크에 반영(fsync)한 뒤 응답 (동시 요청은 force 한 번을 나눠 씀)
+ *               false면 OS 장애 시 마지막으로 반영되지 않은 발급 건이 유실될 수 있다.
+ * reportInterval: 저널이 DB에 반영된 시각을 Redis에 보고하는 주기 (대사가 Redis에만 있는 사용자를 복구하기 전에 확인)
+ */
+@ConfigurationProperties(prefix = "coupon.issue.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("./data/issue-journal") String journalDir,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("50ms") Duration flushInterval,
+        @DefaultValue("100ms") Duration offerTimeout,
+        @DefaultValue("true") boolean syncOnAppend,
+        @DefaultValue("1s") Duration reportInterval
+) {
+}
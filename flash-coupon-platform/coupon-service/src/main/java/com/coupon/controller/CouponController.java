@@ -2,11 +2,22 @@ package com.coupon.controller;
 
 import com.coupon.service.CouponService;
 import com.coupon.service.dto.*;
+import com.coupon.service.grantimport.GrantImportService;
+import com.coupon.service.limit.IssueConcurrencyLimiter;
+import com.coupon.service.stream.StockStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.InputStream;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/coupons")
@@ -14,6 +25,9 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
 
     private final CouponService couponService;
+    private final GrantImportService grantImportService;
+    private final IssueConcurrencyLimiter issueConcurrencyLimiter;
+    private final StockStreamService stockStreamService;
 
     /**
      * 쿠폰 생성
@@ -34,14 +48,45 @@ public class CouponController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 쿠폰 수정 (운영용)
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<CouponResponse> updateCoupon(
+            @PathVariable Long id,
+            @Valid @RequestBody CouponUpdateRequest request) {
+        CouponResponse response = couponService.updateCoupon(id, request);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 쿠폰 발급 (핵심 API)
+     * 동시 처리 한도를 넘으면 기다리지 않고 429 + Retry-After
+     * 한도는 DB/Redis 오류와 타임아웃만 과부하로 센다. (존재하지 않는 쿠폰 같은 요청 오류는 제외)
+     * 서비스가 보상 후 실패로 돌려준 DB 저장 실패, Write-Behind 큐 포화도(unavailable) 과부하로 센다.
      */
     @PostMapping("/{id}/issue")
     public ResponseEntity<CouponIssueResponse> issueCoupon(
             @PathVariable Long id,
             @Valid @RequestBody CouponIssueRequest request) {
-        CouponIssueResponse response = couponService.issueCoupon(id, request);
+        IssueConcurrencyLimiter.Permit permit = issueConcurrencyLimiter.tryAcquire(id);
+        if (permit == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(issueConcurrencyLimiter.retryAfterSeconds()))
+                    .body(CouponIssueResponse.fail("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해 주세요."));
+        }
+
+        CouponIssueResponse response;
+        boolean dropped = false;
+        try {
+            response = couponService.issueCoupon(id, request);
+            dropped = response.unavailable();
+        } catch (DataAccessException | TransactionException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            permit.release(dropped);
+        }
 
         if (response.success()) {
             return ResponseEntity.ok(response);
@@ -51,17 +96,104 @@ public class CouponController {
     }
 
     /**
-     * 잔여 수량 조회
+     * 쿠폰 일괄 발급 (제휴/CRM 캠페인용)
+     * 사용자별 결과는 results에 담기며, 한 명도 발급되지 않았으면 409
+     */
+    @PostMapping("/{id}/issue/bulk")
+    public ResponseEntity<BulkIssueResponse> bulkIssueCoupon(
+            @PathVariable Long id,
+            @Valid @RequestBody BulkIssueRequest request) {
+        BulkIssueResponse response = couponService.bulkIssueCoupon(id, request);
+
+        if (response.issued() > 0) {
+            return ResponseEntity.ok(response);
+        } else {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+    }
+
+    /**
+     * 발급 내역 가져오기 (대량 사전 지정 캠페인, 운영용)
+     * 요청 본문은 줄마다 사용자 ID 하나인 파일 (CSV면 첫 번째 열), 처리는 백그라운드에서 진행
+     * 노드에서 실행 중인 작업이 이미 최대치면 429
+     */
+    @PostMapping("/{id}/issue/import")
+    public ResponseEntity<GrantImportResponse> importGrants(
+            @PathVariable Long id,
+            InputStream body) {
+        try {
+            GrantImportResponse response = grantImportService.start(id, body);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * 발급 내역 가져오기 진행 상황
+     */
+    @GetMapping("/{id}/issue/import/{jobId}")
+    public ResponseEntity<GrantImportResponse> getGrantImport(
+            @PathVariable Long id,
+            @PathVariable Long jobId) {
+        return ResponseEntity.ok(grantImportService.get(id, jobId));
+    }
+
+    /**
+     * 발급 내역 가져오기 재개 (마지막으로 커밋한 위치부터)
+     * 노드에서 실행 중인 작업이 이미 최대치면 429
+     */
+    @PostMapping("/{id}/issue/import/{jobId}/resume")
+    public ResponseEntity<GrantImportResponse> resumeGrantImport(
+            @PathVariable Long id,
+            @PathVariable Long jobId) {
+        try {
+            GrantImportResponse response = grantImportService.resume(id, jobId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * 발급 동시 처리 한도 조회 (모니터링용)
+     */
+    @GetMapping("/{id}/issue/limit")
+    public ResponseEntity<IssueLimitResponse> getIssueLimit(@PathVariable Long id) {
+        IssueLimitResponse response = new IssueLimitResponse(
+                id,
+                issueConcurrencyLimiter.couponLimit(id),
+                issueConcurrencyLimiter.couponInflight(id),
+                issueConcurrencyLimiter.limit(),
+                issueConcurrencyLimiter.inflight(),
+                issueConcurrencyLimiter.couponRejected(),
+                issueConcurrencyLimiter.globalRejected()
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 잔여 수량 조회 (노드 메모리의 짧은 스냅샷, coupon.stock-stream.snapshot-ttl)
      */
     @GetMapping("/{id}/stock")
     public ResponseEntity<StockResponse> getStock(@PathVariable Long id) {
-        Long remainingStock = couponService.getStock(id);
-        long issuedCount = couponService.getIssuedCount(id);
-
-        StockResponse response = new StockResponse(id, remainingStock, issuedCount);
+        StockResponse response = stockStreamService.getSnapshot(id);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 잔여 수량 스트림 (SSE, 재고가 바뀔 때마다 stock 이벤트)
+     * 노드의 연결 수가 한도에 도달하면 503 (클라이언트는 GET /stock 폴링으로 대체)
+     */
+    @GetMapping(value = "/{id}/stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStock(@PathVariable Long id) {
+        SseEmitter emitter = stockStreamService.subscribe(id);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Redis-DB 동기화 (운영용)
      * DB 기준으로 Redis 재고를 재설정
@@ -72,6 +204,16 @@ public class CouponController {
         return ResponseEntity.ok("동기화 완료 - couponId: " + id);
     }
 
+    /**
+     * Redis-DB 사용자 단위 대사 (운영용)
+     * 발급을 멈추지 않고 불일치 사용자만 복구
+     */
+    @PostMapping("/{id}/reconcile")
+    public ResponseEntity<ReconciliationResponse> reconcile(@PathVariable Long id) {
+        ReconciliationResponse response = couponService.reconcile(id);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Redis-DB 일관성 체크 (모니터링용)
      */
@@ -79,10 +221,11 @@ public class CouponController {
     public ResponseEntity<ConsistencyResponse> checkConsistency(@PathVariable Long id) {
         boolean isConsistent = couponService.checkConsistency(id);
         Long redisStock = couponService.getStock(id);
+        long redisIssuedCount = couponService.getRedisIssuedCount(id);
         long dbIssuedCount = couponService.getIssuedCount(id);
 
         ConsistencyResponse response = new ConsistencyResponse(
-                id, isConsistent, redisStock, dbIssuedCount
+                id, isConsistent, redisStock, redisIssuedCount, dbIssuedCount
         );
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,26 @@
+package com.coupon.controller;
+
+import com.coupon.service.dto.EventListResponse.EventStatus;
+import com.coupon.service.listing.EventListingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventListingController {
+
+    private final EventListingService eventListingService;
+
+    /**
+     * 이벤트 목록 (미리 직렬화된 JSON을 그대로 응답)
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> getEvents(@RequestParam(defaultValue = "ACTIVE") EventStatus status) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(eventListingService.getList(status));
+    }
+}
@@ -0,0 +1,26 @@
+package com.coupon.controller;
+
+import com.coupon.service.dto.WalletResponse;
+import com.coupon.service.wallet.UserWalletService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+public class UserWalletController {
+
+    private final UserWalletService userWalletService;
+
+    /**
+     * 내 쿠폰함 조회 (최근 발급 순, cursor = 이전 응답의 nextCursor)
+     */
+    @GetMapping("/{userId}/coupons")
+    public ResponseEntity<WalletResponse> getWallet(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userWalletService.getWallet(userId, cursor, size));
+    }
+}
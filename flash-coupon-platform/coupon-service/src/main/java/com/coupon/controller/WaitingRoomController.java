@@ -0,0 +1,43 @@
+package com.coupon.controller;
+
+import com.coupon.service.dto.QueueEnterRequest;
+import com.coupon.service.dto.QueueTicketResponse;
+import com.coupon.service.queue.WaitingRoomService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/coupons/{id}/queue")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    /**
+     * 대기열 입장 (순번 발급)
+     */
+    @PostMapping
+    public ResponseEntity<QueueTicketResponse> enter(
+            @PathVariable Long id,
+            @Valid @RequestBody QueueEnterRequest request) {
+        QueueTicketResponse response = waitingRoomService.enter(id, request.userId());
+
+        if (response.status() == QueueTicketResponse.QueueStatus.REJECTED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 대기 순번 조회 (폴링)
+     */
+    @GetMapping("/{userId}")
+    public ResponseEntity<QueueTicketResponse> getTicket(
+            @PathVariable Long id,
+            @PathVariable Long userId) {
+        return ResponseEntity.ok(waitingRoomService.getTicket(id, userId));
+    }
+}
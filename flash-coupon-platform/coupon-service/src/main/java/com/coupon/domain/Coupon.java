@@ -27,6 +27,17 @@ public class Coupon {
     @Column(nullable = false)
     private Integer remainingQuantity;
 
+    /**
+     * Redis 재고 샤드 수 (null = 1, 기존 단일 키)
+     */
+    private Integer stockShards;
+
+    /**
+     * 발급 사용자 Redis 저장 방식 (null = SET)
+     */
+    @Enumerated(EnumType.STRING)
+    private IssuedEncoding issuedEncoding;
+
     @Column(nullable = false)
     private LocalDateTime startAt;
 
@@ -36,16 +47,57 @@ public class Coupon {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 재고/발급 사용자 기록 만료 시각 (발급 종료 후 CouponLifecycleManager가 설정, null = 아직 설정 전)
+     */
+    private LocalDateTime stockExpireAt;
+
+    /**
+     * 발급 내역을 coupon_issues_archive로 모두 옮긴 시각
+     */
+    private LocalDateTime archivedAt;
+
     @Builder
-    public Coupon(String name, Integer totalQuantity, LocalDateTime startAt, LocalDateTime endAt) {
+    public Coupon(String name, Integer totalQuantity, Integer stockShards, IssuedEncoding issuedEncoding,
+                  LocalDateTime startAt, LocalDateTime endAt) {
         this.name = name;
         this.totalQuantity = totalQuantity;
         this.remainingQuantity = totalQuantity;
+        this.stockShards = stockShards;
+        this.issuedEncoding = issuedEncoding;
         this.startAt = startAt;
         this.endAt = endAt;
         this.createdAt = LocalDateTime.now();
     }
 
+    public int getStockShardCount() {
+        return stockShards != null ? stockShards : 1;
+    }
+
+    public IssuedEncoding getIssuedEncodingOrDefault() {
+        return issuedEncoding != null ? issuedEncoding : IssuedEncoding.SET;
+    }
+
+    /**
+     * 종료 시각이 바뀌면 재고 만료 시각은 새 종료 시각 기준으로 다시 설정한다.
+     * (이미 걸린 Redis 만료로 키가 사라져도 발급 기간 중이면 StockInitializer가 DB 기준으로 다시 만든다)
+     */
+    public void update(String name, LocalDateTime startAt, LocalDateTime endAt) {
+        if (!endAt.equals(this.endAt)) {
+            this.stockExpireAt = null;
+        }
+        this.name = name;
+        this.startAt = startAt;
+        this.endAt = endAt;
+    }
+
+    /**
+     * 재고/발급 사용자 기록이 만료되어 Redis(재고 엔진)에 없는 쿠폰
+     */
+    public boolean isStockExpired(LocalDateTime now) {
+        return stockExpireAt != null && !now.isBefore(stockExpireAt);
+    }
+
     public boolean isAvailable() {
         LocalDateTime now = LocalDateTime.now();
         return now.isAfter(startAt) && now.isBefore(endAt) && remainingQuantity > 0;
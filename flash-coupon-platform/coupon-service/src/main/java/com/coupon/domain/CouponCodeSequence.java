@@ -0,0 +1,38 @@
+package com.coupon.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 쿠폰 코드 순번 할당 위치
+ * 노드는 블록 단위로 순번 구간을 예약하고, 블록 안에서는 DB 없이 코드를 만든다.
+ */
+@Entity
+@Table(name = "coupon_code_sequences")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CouponCodeSequence {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    public CouponCodeSequence(String name) {
+        this.name = name;
+        this.nextValue = 0L;
+    }
+
+    /**
+     * size 만큼 순번 구간 예약
+     * @return 예약한 구간의 시작 순번 (시작 ~ 시작 + size - 1)
+     */
+    public long reserve(int size) {
+        long start = nextValue;
+        nextValue = start + size;
+        return start;
+    }
+}
@@ -10,7 +10,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "coupon_issues",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"coupon_id", "user_id"}))
+       uniqueConstraints = {
+               @UniqueConstraint(columnNames = {"coupon_id", "user_id"}),
+               @UniqueConstraint(name = "uk_coupon_issues_code", columnNames = "code")
+       },
+       indexes = {
+               @Index(name = "idx_coupon_issues_coupon_id_id", columnList = "coupon_id, id"),
+               @Index(name = "idx_coupon_issues_user_id_id", columnList = "user_id, id")
+       })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class CouponIssue {
@@ -25,13 +32,28 @@ public class CouponIssue {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    /**
+     * 쿠폰 코드 (CouponCodeGenerator, 코드 도입 전 발급분은 null)
+     */
+    @Column(length = 12, updatable = false)
+    private String code;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime issuedAt;
 
+    /**
+     * DB에 저장된 시각 (DB 기본값)
+     * Write-Behind 저장이나 저널 재처리는 issuedAt보다 한참 뒤에 저장되므로, 대사는 이 값으로 커밋 대기 구간을 판단한다.
+     */
+    @Column(name = "recorded_at", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "timestamp(6) default current_timestamp not null")
+    private LocalDateTime recordedAt;
+
     @Builder
-    public CouponIssue(Long couponId, Long userId) {
+    public CouponIssue(Long couponId, Long userId, String code) {
         this.couponId = couponId;
         this.userId = userId;
+        this.code = code;
         this.issuedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,37 @@
+package com.coupon.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 보관된 발급 내역 (종료 후 coupon.lifecycle.archive-after가 지난 쿠폰)
+ * coupon_issues에서 id 그대로 옮겨오므로 쿠폰함 keyset 커서를 두 테이블에 같이 쓸 수 있다.
+ * 행은 CouponIssueBatchRepository.archiveChunk로만 만든다.
+ */
+@Entity
+@Table(name = "coupon_issues_archive",
+       uniqueConstraints = @UniqueConstraint(name = "uk_coupon_issues_archive_coupon_user", columnNames = {"coupon_id", "user_id"}),
+       indexes = @Index(name = "idx_coupon_issues_archive_user_id_id", columnList = "user_id, id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CouponIssueArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = 12)
+    private String code;
+
+    @Column(nullable = false)
+    private LocalDateTime issuedAt;
+}
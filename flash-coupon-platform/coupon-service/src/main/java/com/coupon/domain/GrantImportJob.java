@@ -0,0 +1,76 @@
+package com.coupon.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발급 내역 가져오기 작업
+ * committedOffset은 DB에 저장까지 끝난 마지막 청크의 파일 위치(byte)이며, 청크의 발급 내역과 같은 트랜잭션에서 갱신한다.
+ * 진행 위치와 건수 갱신은 GrantImportJobRepository의 update 쿼리로 한다.
+ */
+@Entity
+@Table(name = "grant_import_jobs",
+       indexes = @Index(name = "idx_grant_import_jobs_coupon_id", columnList = "coupon_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class GrantImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    @Column(nullable = false, length = 500)
+    private String filePath;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private GrantImportStatus status;
+
+    @Column(nullable = false)
+    private long committedOffset;
+
+    @Column(nullable = false)
+    private long lineCount;
+
+    @Column(nullable = false)
+    private long issuedCount;
+
+    @Column(nullable = false)
+    private long duplicatedCount;
+
+    @Column(nullable = false)
+    private long soldOutCount;
+
+    @Column(nullable = false)
+    private long invalidCount;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Builder
+    public GrantImportJob(Long couponId, String filePath, long fileSize) {
+        this.couponId = couponId;
+        this.filePath = filePath;
+        this.fileSize = fileSize;
+        this.status = GrantImportStatus.RUNNING;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.coupon.domain;
+
+/**
+ * 발급 내역 가져오기 작업 상태
+ * RUNNING   : 실행 중 (노드가 죽으면 잠금이 풀린 뒤 재개 가능)
+ * COMPLETED : 파일 끝까지 처리
+ * FAILED    : 오류로 중단 (마지막 커밋 위치부터 재개 가능)
+ */
+public enum GrantImportStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,38 @@
+package com.coupon.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발급 이벤트 Outbox (발급 내역과 같은 트랜잭션에 기록, 발행 후 삭제)
+ * 쓰기/읽기는 IssueOutboxRepository(JDBC)가 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "issue_outbox")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IssueOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private Long couponId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = 12)
+    private String code;
+
+    @Column(nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.coupon.domain;
+
+/**
+ * 발급 사용자(중복 방지) Redis 저장 방식
+ * - SET     : userId 문자열 Set (기본값, 기존 방식)
+ * - BITMAP  : userId를 비트 오프셋으로 사용하는 SETBIT 비트맵 (0 이상 2^32 미만의 조밀한 숫자 ID용)
+ * - CHUNKED : userId 상위 비트로 청크 키를 나누고, 청크 안은 하위 15비트 정수 Set(intset)으로 시작해
+ *             임계치를 넘으면 4KB 비트맵으로 변환 (Roaring 방식, 넓게 흩어진 ID용)
+ */
+public enum IssuedEncoding {
+    SET("S"),
+    BITMAP("B"),
+    CHUNKED("C");
+
+    private final String code;
+
+    IssuedEncoding(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Lua Script에 전달하는 코드
+     */
+    public String code() {
+        return code;
+    }
+}
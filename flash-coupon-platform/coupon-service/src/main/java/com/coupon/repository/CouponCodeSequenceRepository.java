@@ -0,0 +1,20 @@
+package com.coupon.repository;
+
+import com.coupon.domain.CouponCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CouponCodeSequenceRepository extends JpaRepository<CouponCodeSequence, String> {
+
+    /**
+     * 순번 행 조회 (SELECT ... FOR UPDATE, 여러 노드의 블록 예약을 직렬화)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CouponCodeSequence s where s.name = :name")
+    Optional<CouponCodeSequence> findForUpdate(@Param("name") String name);
+}
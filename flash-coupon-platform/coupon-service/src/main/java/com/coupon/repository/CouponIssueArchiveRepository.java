@@ -0,0 +1,21 @@
+package com.coupon.repository;
+
+import com.coupon.domain.CouponIssueArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface CouponIssueArchiveRepository extends JpaRepository<CouponIssueArchive, Long> {
+
+    long countByCouponId(Long couponId);
+
+    /**
+     * 사용자 쿠폰함 keyset 페이지 (CouponIssueRepository.findWalletPage와 같은 커서)
+     */
+    @Query("select new com.coupon.repository.WalletRow(a.id, a.couponId, a.code, a.issuedAt) from CouponIssueArchive a "
+            + "where a.userId = :userId and a.id < :beforeId order by a.id desc")
+    List<WalletRow> findWalletPage(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+}
@@ -0,0 +1,177 @@
+package com.coupon.repository;
+
+import com.coupon.service.writebehind.IssueGrant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 발급 내역 배치 저장 (JDBC)
+ * CouponIssue는 IDENTITY 전략이라 Hibernate 배치가 불가능하므로 JdbcTemplate으로 직접 저장한다.
+ * PostgreSQL은 reWriteBatchedInserts=true 설정 시 multi-row INSERT로 변환된다.
+ * 새로 저장한 발급 내역은 같은 트랜잭션에서 발급 이벤트 Outbox에도 기록한다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class CouponIssueBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO coupon_issues (coupon_id, user_id, code, issued_at) VALUES (?, ?, ?, ?)";
+    private static final String COPY_SQL =
+            "COPY coupon_issues (coupon_id, user_id, code, issued_at) FROM STDIN WITH (FORMAT csv)";
+    private static final String MULTI_ROW_VALUES = ", (?, ?, ?, ?)";
+    private static final String ARCHIVE_CHUNK_MAX_ID_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM coupon_issues WHERE coupon_id = ? ORDER BY id LIMIT ?) chunk";
+    private static final String ARCHIVE_INSERT_SQL =
+            "INSERT INTO coupon_issues_archive (id, coupon_id, user_id, code, issued_at) "
+                    + "SELECT id, coupon_id, user_id, code, issued_at FROM coupon_issues WHERE coupon_id = ? AND id <= ?";
+    private static final String ARCHIVE_DELETE_SQL =
+            "DELETE FROM coupon_issues WHERE coupon_id = ? AND id <= ?";
+    private static final int MULTI_ROW_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IssueOutboxRepository issueOutboxRepository;
+
+    /**
+     * 배치 저장
+     * 이미 저장된 건(저널 재처리 등)이 섞여 있으면 한 건씩 다시 저장하면서 중복은 건너뛴다.
+     * @return 새로 저장된 건수
+     */
+    public int insertAll(List<IssueGrant> grants) {
+        return grants.size() - insertAllSkippingDuplicates(grants).size();
+    }
+
+    /**
+     * 배치 저장 후 이미 저장되어 있어 건너뛴 건 반환
+     * 중복 외의 오류는 예외로 전달된다. (배치 전체가 롤백되므로 호출 측에서 보상 처리)
+     */
+    public List<IssueGrant> insertAllSkippingDuplicates(List<IssueGrant> grants) {
+        if (grants.isEmpty()) {
+            return List.of();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, grants, grants.size(), (ps, grant) -> {
+                    ps.setLong(1, grant.couponId());
+                    ps.setLong(2, grant.userId());
+                    ps.setString(3, grant.code());
+                    ps.setTimestamp(4, Timestamp.valueOf(grant.issuedAt()));
+                });
+                issueOutboxRepository.appendAll(grants);
+            });
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("배치 저장 중 중복 발견, 건별 저장으로 전환 - size: {}", grants.size());
+            return insertEach(grants);
+        }
+    }
+
+    /**
+     * 대량 저장 (발급 내역 가져오기용, 호출 측 트랜잭션에 참여)
+     * PostgreSQL은 COPY FROM STDIN으로 한 번에 보내고, 그 외(H2)는 MULTI_ROW_SIZE행씩 multi-row INSERT로 저장한다.
+     * 중복은 건너뛰지 않고 DataIntegrityViolationException으로 전달한다. (트랜잭션 전체 롤백)
+     */
+    public void copyAll(List<IssueGrant> grants) {
+        if (grants.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), grants);
+            } else {
+                insertMultiRow(connection, grants);
+            }
+            return null;
+        });
+        issueOutboxRepository.appendAll(grants);
+    }
+
+    /**
+     * 쿠폰 발급 내역 중 id가 작은 limit건을 coupon_issues_archive로 이동 (복사 + 삭제를 한 트랜잭션으로)
+     * 청크 범위는 (coupon_id, id) 인덱스로 정한 최대 id까지라서 INSERT/DELETE 모두 같은 행만 건드린다.
+     * @return 이동한 건수 (0이면 남은 발급 내역 없음)
+     */
+    public int archiveChunk(Long couponId, int limit) {
+        Integer moved = transactionTemplate.execute(status -> {
+            Long maxId = jdbcTemplate.queryForObject(ARCHIVE_CHUNK_MAX_ID_SQL, Long.class, couponId, limit);
+            if (maxId == null) {
+                return 0;
+            }
+            int inserted = jdbcTemplate.update(ARCHIVE_INSERT_SQL, couponId, maxId);
+            int deleted = jdbcTemplate.update(ARCHIVE_DELETE_SQL, couponId, maxId);
+            if (inserted != deleted) {
+                throw new IllegalStateException("발급 내역 보관 건수 불일치 - couponId: " + couponId
+                        + ", inserted: " + inserted + ", deleted: " + deleted);
+            }
+            return deleted;
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private void copy(PGConnection connection, List<IssueGrant> grants) throws SQLException {
+        // 코드는 영숫자라 CSV 이스케이프가 필요 없음
+        StringBuilder csv = new StringBuilder(grants.size() * 64);
+        for (IssueGrant grant : grants) {
+            csv.append(grant.couponId()).append(',')
+                    .append(grant.userId()).append(',')
+                    .append(grant.code() != null ? grant.code() : "").append(',')
+                    .append(Timestamp.valueOf(grant.issuedAt())).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 내역 COPY 실패", e);
+        }
+    }
+
+    private void insertMultiRow(Connection connection, List<IssueGrant> grants) throws SQLException {
+        for (int from = 0; from < grants.size(); from += MULTI_ROW_SIZE) {
+            List<IssueGrant> rows = grants.subList(from, Math.min(from + MULTI_ROW_SIZE, grants.size()));
+            String sql = INSERT_SQL + MULTI_ROW_VALUES.repeat(rows.size() - 1);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (IssueGrant grant : rows) {
+                    ps.setLong(index++, grant.couponId());
+                    ps.setLong(index++, grant.userId());
+                    ps.setString(index++, grant.code());
+                    ps.setTimestamp(index++, Timestamp.valueOf(grant.issuedAt()));
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private List<IssueGrant> insertEach(List<IssueGrant> grants) {
+        List<IssueGrant> duplicates = new ArrayList<>();
+        for (IssueGrant grant : grants) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_SQL, grant.couponId(), grant.userId(), grant.code(),
+                            Timestamp.valueOf(grant.issuedAt()));
+                    issueOutboxRepository.append(grant);
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("이미 저장된 발급 내역 - couponId: {}, userId: {}", grant.couponId(), grant.userId());
+                duplicates.add(grant);
+            }
+        }
+        return duplicates;
+    }
+}
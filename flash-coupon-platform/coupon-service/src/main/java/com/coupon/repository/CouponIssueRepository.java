@@ -1,8 +1,13 @@
 package com.coupon.repository;
 
 import com.coupon.domain.CouponIssue;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CouponIssueRepository extends JpaRepository<CouponIssue, Long> {
@@ -12,4 +17,25 @@ public interface CouponIssueRepository extends JpaRepository<CouponIssue, Long>
     boolean existsByCouponIdAndUserId(Long couponId, Long userId);
 
     long countByCouponId(Long couponId);
+
+    /**
+     * id 기준 keyset 페이지 조회 ((coupon_id, id) 인덱스 사용)
+     */
+    @Query("select new com.coupon.repository.IssuedUserRow(ci.id, ci.userId, ci.recordedAt) from CouponIssue ci "
+            + "where ci.couponId = :couponId and ci.id > :afterId order by ci.id")
+    List<IssuedUserRow> findIssuedAfter(@Param("couponId") Long couponId, @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * 주어진 사용자 중 발급 내역이 있는 사용자 ID ((coupon_id, user_id) 유니크 인덱스 사용)
+     */
+    @Query("select ci.userId from CouponIssue ci where ci.couponId = :couponId and ci.userId in :userIds")
+    List<Long> findIssuedUserIds(@Param("couponId") Long couponId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 사용자 쿠폰함 keyset 페이지 (최근 발급 순, (user_id, id) 인덱스 사용)
+     * 첫 페이지는 beforeId = Long.MAX_VALUE
+     */
+    @Query("select new com.coupon.repository.WalletRow(ci.id, ci.couponId, ci.code, ci.issuedAt) from CouponIssue ci "
+            + "where ci.userId = :userId and ci.id < :beforeId order by ci.id desc")
+    List<WalletRow> findWalletPage(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
 }
@@ -1,7 +1,58 @@
 package com.coupon.repository;
 
 import com.coupon.domain.Coupon;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
+
+    /**
+     * 시작 시각이 지났고 endedAfter 이후에 종료되는 쿠폰 ID
+     */
+    @Query("select c.id from Coupon c where c.startAt <= :now and c.endAt > :endedAfter")
+    List<Long> findStartedIdsEndingAfter(@Param("now") LocalDateTime now, @Param("endedAfter") LocalDateTime endedAfter);
+
+    /**
+     * 종료 시각이 지나지 않은 쿠폰 (시작 전 쿠폰 포함)
+     */
+    List<Coupon> findByEndAtAfter(LocalDateTime now);
+
+    /**
+     * 종료되었고 재고 만료 시각을 설정하지 않은 쿠폰 (종료 순)
+     */
+    @Query("select c from Coupon c where c.endAt <= :now and c.stockExpireAt is null order by c.endAt")
+    List<Coupon> findEndedWithoutStockExpiry(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * endedBefore 이전에 종료되었고 발급 내역을 아직 보관하지 않은 쿠폰 ID (재고 만료를 설정한 쿠폰만, 종료 순)
+     */
+    @Query("select c.id from Coupon c where c.endAt <= :endedBefore and c.stockExpireAt is not null "
+            + "and c.archivedAt is null order by c.endAt")
+    List<Long> findArchivableIds(@Param("endedBefore") LocalDateTime endedBefore, Limit limit);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Coupon c set c.stockExpireAt = :expireAt where c.id = :id")
+    int updateStockExpireAt(@Param("id") Long id, @Param("expireAt") LocalDateTime expireAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Coupon c set c.archivedAt = :archivedAt where c.id = :id")
+    int updateArchivedAt(@Param("id") Long id, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * 잔여 수량 반영 (값이 같으면 행을 갱신하지 않음)
+     * @return 갱신된 행 수
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Coupon c set c.remainingQuantity = :remaining where c.id = :id and c.remainingQuantity <> :remaining")
+    int updateRemainingQuantity(@Param("id") Long id, @Param("remaining") int remaining);
 }
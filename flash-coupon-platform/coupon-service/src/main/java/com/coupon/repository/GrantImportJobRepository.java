@@ -0,0 +1,35 @@
+package com.coupon.repository;
+
+import com.coupon.domain.GrantImportJob;
+import com.coupon.domain.GrantImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface GrantImportJobRepository extends JpaRepository<GrantImportJob, Long> {
+
+    /**
+     * 청크 커밋 (발급 내역 저장과 같은 트랜잭션에서 실행)
+     */
+    @Modifying
+    @Transactional
+    @Query("update GrantImportJob j set j.committedOffset = :offset, j.lineCount = j.lineCount + :lines, "
+            + "j.issuedCount = j.issuedCount + :issued, j.duplicatedCount = j.duplicatedCount + :duplicated, "
+            + "j.soldOutCount = j.soldOutCount + :soldOut, j.invalidCount = j.invalidCount + :invalid, "
+            + "j.updatedAt = :now where j.id = :id")
+    int commitChunk(@Param("id") Long id, @Param("offset") long offset, @Param("lines") long lines,
+                    @Param("issued") long issued, @Param("duplicated") long duplicated,
+                    @Param("soldOut") long soldOut, @Param("invalid") long invalid,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update GrantImportJob j set j.status = :status, j.errorMessage = :errorMessage, j.updatedAt = :now "
+            + "where j.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") GrantImportStatus status,
+                     @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+}
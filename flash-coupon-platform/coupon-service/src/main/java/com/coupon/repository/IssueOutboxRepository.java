@@ -0,0 +1,81 @@
+package com.coupon.repository;
+
+import com.coupon.config.OutboxProperties;
+import com.coupon.service.outbox.IssueEvent;
+import com.coupon.service.writebehind.IssueGrant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 발급 이벤트 Outbox 저장/조회 (JDBC)
+ * append는 발급 내역 INSERT와 같은 트랜잭션 안에서 호출해야 한다. (발급 내역이 롤백되면 이벤트도 남지 않음)
+ * coupon.outbox.enabled=false면 기록하지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IssueOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO issue_outbox (coupon_id, user_id, code, issued_at, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxProperties properties;
+
+    public void append(IssueGrant grant) {
+        appendAll(List.of(grant));
+    }
+
+    public void appendAll(List<IssueGrant> grants) {
+        if (!properties.enabled() || grants.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, grants, grants.size(), (ps, grant) -> {
+            ps.setLong(1, grant.couponId());
+            ps.setLong(2, grant.userId());
+            ps.setString(3, grant.code());
+            ps.setTimestamp(4, Timestamp.valueOf(grant.issuedAt()));
+            ps.setTimestamp(5, createdAt);
+        });
+    }
+
+    /**
+     * 발행 대기 이벤트 (id 순)
+     */
+    public List<IssueEvent> findBatch(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, coupon_id, user_id, code, issued_at, created_at FROM issue_outbox ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new IssueEvent(
+                        rs.getLong("id"),
+                        rs.getLong("coupon_id"),
+                        rs.getLong("user_id"),
+                        rs.getString("code"),
+                        rs.getTimestamp("issued_at").toLocalDateTime(),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                limit);
+    }
+
+    /**
+     * 발행을 마친 이벤트 삭제
+     */
+    public int deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return new NamedParameterJdbcTemplate(jdbcTemplate).update(
+                "DELETE FROM issue_outbox WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM issue_outbox", Long.class);
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,10 @@
+package com.coupon.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발급 내역 keyset 조회 결과 (대사용, 엔티티를 만들지 않음)
+ * recordedAt: DB에 저장된 시각 (발급 시각이 아님)
+ */
+public record IssuedUserRow(Long id, Long userId, LocalDateTime recordedAt) {
+}
@@ -0,0 +1,9 @@
+package com.coupon.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자 쿠폰함 조회용 발급 내역 (엔티티 대신 필요한 컬럼만 조회)
+ */
+public record WalletRow(Long issueId, Long couponId, String code, LocalDateTime issuedAt) {
+}
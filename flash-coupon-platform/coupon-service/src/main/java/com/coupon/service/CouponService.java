@@ -2,16 +2,45 @@ package com.coupon.service;
 
 import com.coupon.domain.Coupon;
 import com.coupon.domain.CouponIssue;
+import com.coupon.config.StockProperties;
+import com.coupon.repository.CouponIssueArchiveRepository;
+import com.coupon.repository.CouponIssueBatchRepository;
 import com.coupon.repository.CouponIssueRepository;
 import com.coupon.repository.CouponRepository;
+import com.coupon.repository.IssueOutboxRepository;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.code.CouponCodeGenerator;
+import com.coupon.service.dto.BulkIssueRequest;
+import com.coupon.service.dto.BulkIssueResponse;
+import com.coupon.service.dto.BulkIssueResponse.IssueStatus;
+import com.coupon.service.dto.BulkIssueResponse.UserResult;
 import com.coupon.service.dto.CouponCreateRequest;
 import com.coupon.service.dto.CouponIssueRequest;
 import com.coupon.service.dto.CouponIssueResponse;
 import com.coupon.service.dto.CouponResponse;
+import com.coupon.service.dto.CouponUpdateRequest;
+import com.coupon.service.dto.ReconciliationResponse;
+import com.coupon.service.event.CouponChangedEvent;
+import com.coupon.service.metrics.CouponMetrics;
+import com.coupon.service.queue.WaitingRoomService;
+import com.coupon.service.reconcile.IssueReconciler;
+import com.coupon.service.stock.SoldOutRegistry;
+import com.coupon.service.wallet.UserWalletService;
+import com.coupon.service.writebehind.IssueGrant;
+import com.coupon.service.writebehind.IssueWriteBehindPipeline;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -20,7 +49,21 @@ public class CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponIssueRepository couponIssueRepository;
+    private final CouponIssueBatchRepository couponIssueBatchRepository;
+    private final CouponIssueArchiveRepository couponIssueArchiveRepository;
     private final CouponStockService couponStockService;
+    private final IssueWriteBehindPipeline issueWriteBehindPipeline;
+    private final CouponMetadataCache couponMetadataCache;
+    private final SoldOutRegistry soldOutRegistry;
+    private final WaitingRoomService waitingRoomService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockProperties stockProperties;
+    private final CouponMetrics couponMetrics;
+    private final IssueReconciler issueReconciler;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final UserWalletService userWalletService;
+    private final IssueOutboxRepository issueOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 쿠폰 생성
@@ -30,6 +73,8 @@ public class CouponService {
         Coupon coupon = Coupon.builder()
                 .name(request.name())
                 .totalQuantity(request.totalQuantity())
+                .stockShards(request.stockShards() != null ? request.stockShards() : stockProperties.defaultShards())
+                .issuedEncoding(request.issuedEncoding())
                 .startAt(request.startAt())
                 .endAt(request.endAt())
                 .build();
@@ -38,9 +83,10 @@ public class CouponService {
 
         // Redis에 재고 초기화
         couponStockService.initializeStock(saved.getId(), saved.getTotalQuantity());
+        eventPublisher.publishEvent(new CouponChangedEvent(saved.getId()));
 
-        log.info("쿠폰 생성 완료 - id: {}, name: {}, quantity: {}",
-                saved.getId(), saved.getName(), saved.getTotalQuantity());
+        log.info("쿠폰 생성 완료 - id: {}, name: {}, quantity: {}, stockShards: {}",
+                saved.getId(), saved.getName(), saved.getTotalQuantity(), saved.getStockShardCount());
 
         return CouponResponse.from(saved);
     }
@@ -55,46 +101,108 @@ public class CouponService {
         return CouponResponse.from(coupon);
     }
 
+    /**
+     * 쿠폰 수정 (운영용)
+     * 커밋 후 전체 노드의 메타데이터 캐시가 무효화된다.
+     */
+    @Transactional
+    public CouponResponse updateCoupon(Long couponId, CouponUpdateRequest request) {
+        Coupon coupon = couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId));
+
+        coupon.update(request.name(), request.startAt(), request.endAt());
+        eventPublisher.publishEvent(new CouponChangedEvent(couponId));
+
+        log.info("쿠폰 수정 완료 - id: {}, name: {}, startAt: {}, endAt: {}",
+                couponId, request.name(), request.startAt(), request.endAt());
+
+        return CouponResponse.from(coupon);
+    }
+
     /**
      * 쿠폰 발급 (핵심 로직)
      * Redis Lua Script로 원자적 재고 감소 후 DB 저장
      * DB 저장 실패 시 Redis 롤백 (보상 로직)
+     *
+     * Redis 호출 동안 DB 커넥션을 점유하지 않도록 메서드 전체를 트랜잭션으로 묶지 않는다.
+     * (조회는 Repository 트랜잭션, 발급 내역과 발급 이벤트 Outbox 저장만 한 트랜잭션으로 실행)
      */
-    @Transactional
     public CouponIssueResponse issueCoupon(Long couponId, CouponIssueRequest request) {
-        // 1. 쿠폰 존재 여부 확인
-        Coupon coupon = couponRepository.findById(couponId)
-                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId));
+        // 0. 품절 쿠폰은 Redis/DB 조회 없이 즉시 거절
+        if (soldOutRegistry.isSoldOut(couponId)) {
+            couponMetrics.soldOut();
+            return CouponIssueResponse.fail("쿠폰이 모두 소진되었습니다.");
+        }
+
+        // 0-1. 대기열 모드: 입장 허용된 사용자만 발급 가능
+        if (waitingRoomService.isEnabled() && !waitingRoomService.isAdmitted(couponId, request.userId())) {
+            couponMetrics.rejected();
+            return CouponIssueResponse.fail("대기열 입장 순서가 아닙니다. 대기 순번을 확인해주세요.");
+        }
 
-        // 2. 쿠폰 유효 기간 확인
-        if (!coupon.isAvailable()) {
+        // 1. 쿠폰 존재 여부 확인 (로컬 캐시, 미스 시에만 DB 조회)
+        long metadataStart = System.nanoTime();
+        CouponMetadata coupon = couponMetadataCache.get(couponId);
+        couponMetrics.recordMetadata(metadataStart);
+
+        // 2. 쿠폰 유효 기간 확인 (재고는 Redis에서 확인)
+        if (!coupon.isInIssuePeriod(LocalDateTime.now())) {
+            couponMetrics.rejected();
             return CouponIssueResponse.fail("쿠폰 발급 기간이 아니거나 품절되었습니다.");
         }
 
         // 3. Redis에서 원자적 재고 감소 시도
-        Long result = couponStockService.decrementStock(couponId, request.userId());
+        couponMetrics.trackStock(couponId, coupon.endAt());
+        long scriptStart = System.nanoTime();
+        int result = couponStockService.decrementStock(couponId, request.userId());
+        couponMetrics.recordStockScript(scriptStart);
 
         if (result == -1) {
+            couponMetrics.duplicate();
             return CouponIssueResponse.fail("이미 발급받은 쿠폰입니다.");
         }
 
         if (result == 0) {
+            couponMetrics.soldOut();
             return CouponIssueResponse.fail("쿠폰이 모두 소진되었습니다.");
         }
 
-        // 4. 성공 시 DB에 발급 내역 저장 (보상 로직 포함)
+        if (result == -2) {
+            couponMetrics.error();
+            return CouponIssueResponse.fail("쿠폰 재고를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        // 4. 쿠폰 코드 생성 (미리 예약한 순번 블록에서 생성, I/O 없음)
+        String code = couponCodeGenerator.next();
+
+        // 4-1. Write-Behind 모드: 저널 기록 후 즉시 응답, DB 저장은 백그라운드 배치
+        if (issueWriteBehindPipeline.isEnabled()) {
+            return issueWriteBehind(couponId, request.userId(), code);
+        }
+
+        // 4-2. 성공 시 DB에 발급 내역 저장 (보상 로직 포함)
         try {
             CouponIssue couponIssue = CouponIssue.builder()
                     .couponId(couponId)
                     .userId(request.userId())
+                    .code(code)
                     .build();
 
-            CouponIssue saved = couponIssueRepository.save(couponIssue);
-
-            log.info("쿠폰 발급 성공 - couponId: {}, userId: {}, issueId: {}",
+            long insertStart = System.nanoTime();
+            CouponIssue saved = transactionTemplate.execute(status -> {
+                CouponIssue issued = couponIssueRepository.save(couponIssue);
+                issueOutboxRepository.append(
+                        new IssueGrant(couponId, request.userId(), issued.getIssuedAt(), code));
+                return issued;
+            });
+            couponMetrics.recordDbInsert(insertStart);
+            userWalletService.evict(request.userId());
+            couponMetrics.success();
+
+            log.debug("쿠폰 발급 성공 - couponId: {}, userId: {}, issueId: {}",
                     couponId, request.userId(), saved.getId());
 
-            return CouponIssueResponse.success(saved.getId(), couponId, request.userId());
+            return CouponIssueResponse.success(saved.getId(), couponId, request.userId(), code);
 
         } catch (Exception e) {
             // 5. DB 저장 실패 시 Redis 롤백 (보상 로직)
@@ -102,8 +210,153 @@ public class CouponService {
                     couponId, request.userId(), e.getMessage());
 
             couponStockService.rollback(couponId, request.userId());
+            couponMetrics.rollback();
+            couponMetrics.error();
+
+            return CouponIssueResponse.unavailable("쿠폰 발급 중 오류가 발생했습니다. 다시 시도해주세요.");
+        }
+    }
 
-            return CouponIssueResponse.fail("쿠폰 발급 중 오류가 발생했습니다. 다시 시도해주세요.");
+    /**
+     * Write-Behind 발급 처리
+     * 발급 ID는 DB 저장 시점에 생성되므로 응답의 issueId는 null
+     */
+    private CouponIssueResponse issueWriteBehind(Long couponId, Long userId, String code) {
+        try {
+            if (issueWriteBehindPipeline.submit(new IssueGrant(couponId, userId, LocalDateTime.now(), code))) {
+                couponMetrics.success();
+                log.debug("쿠폰 발급 접수 - couponId: {}, userId: {}", couponId, userId);
+                return CouponIssueResponse.success(null, couponId, userId, code);
+            }
+        } catch (Exception e) {
+            log.error("발급 저널 기록 실패 - couponId: {}, userId: {}, error: {}", couponId, userId, e.getMessage());
+        }
+
+        // 큐 포화 또는 저널 기록 실패 시 Redis 롤백 (보상 로직)
+        couponStockService.rollback(couponId, userId);
+        couponMetrics.rollback();
+        couponMetrics.rejected();
+        return CouponIssueResponse.unavailable("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    /**
+     * 쿠폰 일괄 발급 (제휴/CRM 캠페인용)
+     * bulkChunkSize 단위로 Redis Lua Script 1회 + DB 배치 INSERT 1회로 처리한다.
+     * 대기열은 거치지 않으며, Write-Behind 모드와 관계없이 청크마다 바로 DB에 저장한다.
+     *
+     * 보상 로직 (사용자 단위)
+     * - DB에 이미 발급 내역이 있는 사용자: 재고만 복구 (DUPLICATE)
+     * - 배치 저장 실패: 해당 청크 사용자 전체 Redis 롤백 (FAILED)
+     * 재고 복구는 저장이 끝난 뒤에 하므로, 복구가 실패해도 저장된 사용자의 발급 기록은 롤백하지 않는다.
+     */
+    public BulkIssueResponse bulkIssueCoupon(Long couponId, BulkIssueRequest request) {
+        List<Long> userIds = request.userIds();
+        List<UserResult> results = new ArrayList<>(userIds.size());
+
+        CouponMetadata coupon = couponMetadataCache.get(couponId);
+        if (!coupon.isInIssuePeriod(LocalDateTime.now())) {
+            log.warn("일괄 발급 거절 (발급 기간 아님) - couponId: {}, size: {}", couponId, userIds.size());
+            for (Long userId : userIds) {
+                results.add(new UserResult(userId, IssueStatus.FAILED, null));
+                couponMetrics.rejected();
+            }
+            return BulkIssueResponse.of(couponId, results);
+        }
+
+        int chunkSize = stockProperties.bulkChunkSize();
+        for (int from = 0; from < userIds.size(); from += chunkSize) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+            if (soldOutRegistry.isSoldOut(couponId)) {
+                for (Long userId : chunk) {
+                    results.add(new UserResult(userId, IssueStatus.SOLD_OUT, null));
+                    couponMetrics.soldOut();
+                }
+                continue;
+            }
+            bulkIssueChunk(couponId, chunk, results);
+        }
+
+        BulkIssueResponse response = BulkIssueResponse.of(couponId, results);
+        log.info("쿠폰 일괄 발급 완료 - couponId: {}, requested: {}, issued: {}, duplicated: {}, soldOut: {}, failed: {}",
+                couponId, response.requested(), response.issued(), response.duplicated(),
+                response.soldOut(), response.failed());
+        return response;
+    }
+
+    private void bulkIssueChunk(Long couponId, List<Long> userIds, List<UserResult> results) {
+        // 1. Redis 재고 감소 + 발급 사용자 기록 (청크당 Lua Script 1회)
+        long[] stockResults = couponStockService.decrementStockBulk(couponId, userIds);
+
+        LocalDateTime issuedAt = LocalDateTime.now();
+        List<IssueGrant> grants = new ArrayList<>();
+        String[] codes = new String[userIds.size()];
+        for (int i = 0; i < userIds.size(); i++) {
+            if (stockResults[i] == 1) {
+                codes[i] = couponCodeGenerator.next();
+                grants.add(new IssueGrant(couponId, userIds.get(i), issuedAt, codes[i]));
+            }
+        }
+
+        // 2. 재고를 받은 사용자만 배치 저장
+        List<IssueGrant> duplicates;
+        try {
+            duplicates = couponIssueBatchRepository.insertAllSkippingDuplicates(grants);
+        } catch (Exception e) {
+            log.error("일괄 발급 DB 저장 실패, Redis 롤백 시작 - couponId: {}, size: {}, error: {}",
+                    couponId, grants.size(), e.getMessage());
+            for (IssueGrant grant : grants) {
+                couponStockService.rollback(couponId, grant.userId());
+                couponMetrics.rollback();
+            }
+            duplicates = null;
+        }
+        boolean persisted = duplicates != null;
+
+        Set<Long> duplicatedUsers = new HashSet<>();
+        if (persisted) {
+            for (IssueGrant duplicate : duplicates) {
+                // DB에는 이미 발급되어 있으므로 발급 기록은 두고 재고만 복구
+                duplicatedUsers.add(duplicate.userId());
+                restock(couponId, duplicate.userId());
+            }
+            for (IssueGrant grant : grants) {
+                userWalletService.evict(grant.userId());
+            }
+        }
+
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            IssueStatus status;
+            if (stockResults[i] == -1 || duplicatedUsers.contains(userId)) {
+                status = IssueStatus.DUPLICATE;
+            } else if (stockResults[i] == 0) {
+                status = IssueStatus.SOLD_OUT;
+            } else if (stockResults[i] == -2) {
+                status = IssueStatus.FAILED;
+            } else {
+                status = persisted ? IssueStatus.ISSUED : IssueStatus.FAILED;
+            }
+            results.add(new UserResult(userId, status, status == IssueStatus.ISSUED ? codes[i] : null));
+            switch (status) {
+                case ISSUED -> couponMetrics.success();
+                case DUPLICATE -> couponMetrics.duplicate();
+                case SOLD_OUT -> couponMetrics.soldOut();
+                case FAILED -> couponMetrics.error();
+            }
+        }
+    }
+
+    /**
+     * 재고만 복구 (발급 기록은 유지)
+     * 실패해도 다른 사용자 처리는 계속한다. 재고가 1개 덜 남을 뿐 초과 발급은 없으며, restock_failed 지표로 확인한다.
+     */
+    private void restock(Long couponId, Long userId) {
+        try {
+            couponStockService.incrementStock(couponId, userId);
+            couponMetrics.restock();
+        } catch (RuntimeException e) {
+            log.error("재고 복구 실패 - couponId: {}, userId: {}, error: {}", couponId, userId, e.getMessage());
+            couponMetrics.restockFailed();
         }
     }
 
@@ -116,18 +369,35 @@ public class CouponService {
 
     /**
      * DB에 저장된 발급 내역 수 조회
+     * 보관된 쿠폰은 coupon_issues에 행이 없으므로 coupon_issues_archive에서 센다.
      */
     public long getIssuedCount(Long couponId) {
-        return couponIssueRepository.countByCouponId(couponId);
+        long count = couponIssueRepository.countByCouponId(couponId);
+        return count > 0 ? count : couponIssueArchiveRepository.countByCouponId(couponId);
+    }
+
+    /**
+     * Redis에 기록된 발급 사용자 수 조회 (인코딩별 집계)
+     */
+    public long getRedisIssuedCount(Long couponId) {
+        return couponStockService.getIssuedUserCount(couponId);
     }
 
     /**
      * Redis와 DB 동기화 (DB 기준)
      * Redis 재고 = 총 수량 - DB 발급 내역 수
+     * 발급 기간 중에는 재고 키를 덮어쓰면 진행 중인 발급과 어긋나므로 사용자 단위 대사로 대신한다.
      */
     public void syncStockFromDB(Long couponId) {
         Coupon coupon = couponRepository.findById(couponId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId));
+        requireStockNotExpired(coupon);
+
+        if (CouponMetadata.from(coupon).isInIssuePeriod(LocalDateTime.now())) {
+            ReconciliationResponse result = issueReconciler.reconcile(couponId);
+            log.info("발급 기간 중 동기화 요청 - 대사로 처리: {}", result);
+            return;
+        }
 
         long issuedCount = couponIssueRepository.countByCouponId(couponId);
         long actualStock = coupon.getTotalQuantity() - issuedCount;
@@ -139,6 +409,24 @@ public class CouponService {
                 couponId, coupon.getTotalQuantity(), issuedCount, actualStock);
     }
 
+    /**
+     * Redis와 DB 사용자 단위 대사 (불일치 사용자 복구)
+     */
+    public ReconciliationResponse reconcile(Long couponId) {
+        requireStockNotExpired(couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId)));
+        return issueReconciler.reconcile(couponId);
+    }
+
+    /**
+     * 재고/발급 사용자 기록이 만료된 쿠폰은 Redis에 만료 없는 키를 다시 만들지 않도록 동기화/대사를 거절
+     */
+    private void requireStockNotExpired(Coupon coupon) {
+        if (coupon.isStockExpired(LocalDateTime.now())) {
+            throw new IllegalStateException("재고 기록이 만료된 쿠폰입니다: " + coupon.getId());
+        }
+    }
+
     /**
      * Redis와 DB 불일치 확인
      * @return true = 일치, false = 불일치
@@ -149,14 +437,15 @@ public class CouponService {
 
         long dbIssuedCount = couponIssueRepository.countByCouponId(couponId);
         long redisStock = couponStockService.getStock(couponId);
+        long redisIssuedCount = couponStockService.getIssuedUserCount(couponId);
 
         long expectedRedisStock = coupon.getTotalQuantity() - dbIssuedCount;
 
-        boolean isConsistent = (redisStock == expectedRedisStock);
+        boolean isConsistent = (redisStock == expectedRedisStock) && (redisIssuedCount == dbIssuedCount);
 
         if (!isConsistent) {
-            log.warn("Redis-DB 불일치 감지! couponId: {}, Redis 재고: {}, 예상 재고: {}",
-                    couponId, redisStock, expectedRedisStock);
+            log.warn("Redis-DB 불일치 감지! couponId: {}, Redis 재고: {}, 예상 재고: {}, Redis 발급 사용자: {}, DB 발급 내역: {}",
+                    couponId, redisStock, expectedRedisStock, redisIssuedCount, dbIssuedCount);
         }
 
         return isConsistent;
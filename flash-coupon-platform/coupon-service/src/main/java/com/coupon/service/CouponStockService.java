@@ -1,96 +1,230 @@
 package com.coupon.service;
 
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.stock.IssuedScanPage;
+import com.coupon.service.stock.SoldOutRegistry;
+import com.coupon.service.stock.StockEngine;
+import com.coupon.service.stock.StockInitializer;
+import com.coupon.service.stock.StockLayout;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * 쿠폰 재고 서비스
+ * 재고 감소/복구는 설정으로 선택한 StockEngine(Redis 또는 내장 엔진)이 실행하고,
+ * 이 서비스는 엔진과 무관한 처리(레이아웃 조회, 재초기화 후 재시도, 품절 표시)를 맡는다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponStockService {
 
-    private static final String STOCK_KEY_PREFIX = "coupon:stock:";
-    private static final String ISSUED_KEY_PREFIX = "coupon:issued:";
+    private final StockEngine stockEngine;
+    private final StockInitializer stockInitializer;
+    private final SoldOutRegistry soldOutRegistry;
+    private final CouponMetadataCache couponMetadataCache;
 
-    private final RedisTemplate<String, Long> redisTemplate;
-    private final DefaultRedisScript<Long> stockDecrementScript;
+    /**
+     * 쿠폰의 재고 키 배치 (샤드 수, 발급 사용자 인코딩은 쿠폰 메타데이터 캐시에서 조회)
+     */
+    public StockLayout layoutOf(Long couponId) {
+        CouponMetadata metadata = couponMetadataCache.get(couponId);
+        return new StockLayout(couponId, metadata.stockShards(), metadata.issuedEncoding());
+    }
+
+    /**
+     * at이 지나면 재고와 발급 사용자 기록 삭제 (발급 종료 후 정리)
+     */
+    public void expireAt(Long couponId, Instant at) {
+        stockEngine.expireAt(layoutOf(couponId), at);
+    }
 
     /**
-     * Redis에 쿠폰 재고 초기화
+     * 쿠폰 재고 초기화
+     * 샤드 모드에서는 총 수량을 샤드별 재고 키에 균등 분배
      */
     public void initializeStock(Long couponId, Integer quantity) {
-        String stockKey = STOCK_KEY_PREFIX + couponId;
-        redisTemplate.opsForValue().set(stockKey, quantity.longValue());
-        log.info("쿠폰 재고 초기화 - couponId: {}, quantity: {}", couponId, quantity);
+        StockLayout layout = layoutOf(couponId);
+        stockEngine.initialize(layout, quantity);
+        if (quantity > 0) {
+            soldOutRegistry.clear(couponId);
+        }
+        log.info("쿠폰 재고 초기화 - couponId: {}, quantity: {}, shards: {}", couponId, quantity, layout.shards());
     }
 
     /**
-     * Lua Script를 통한 원자적 재고 감소
-     * @return 1: 성공, 0: 재고 없음, -1: 이미 발급됨
+     * 원자적 재고 감소
+     * 재고가 초기화되어 있지 않으면(Redis 재시작/키 유실) 품절로 처리하지 않고 DB 기준으로 재초기화한 뒤 한 번 재시도
+     * @return 1: 성공, 0: 재고 없음, -1: 이미 발급됨, -2: 재초기화 후에도 재고 없음
      */
-    public Long decrementStock(Long couponId, Long userId) {
-        String stockKey = STOCK_KEY_PREFIX + couponId;
-        String issuedKey = ISSUED_KEY_PREFIX + couponId;
+    public int decrementStock(Long couponId, Long userId) {
+        StockLayout layout = layoutOf(couponId);
+        int result = stockEngine.decrement(layout, userId);
+
+        if (result == -2) {
+            stockInitializer.ensureInitialized(couponId);
+            result = stockEngine.decrement(layout, userId);
+            if (result == -2) {
+                log.warn("재고 재초기화 실패 - couponId: {}", couponId);
+                return result;
+            }
+        }
 
-        Long result = redisTemplate.execute(
-                stockDecrementScript,
-                Arrays.asList(stockKey, issuedKey),
-                userId.toString()
-        );
+        if (result == 0) {
+            soldOutRegistry.markSoldOut(couponId);
+        }
 
-        log.debug("재고 감소 시도 - couponId: {}, userId: {}, result: {}", couponId, userId, result);
+        // 인자가 3개 이상이면 레벨과 무관하게 varargs 배열이 만들어지므로 확인 후 기록
+        if (log.isDebugEnabled()) {
+            log.debug("재고 감소 시도 - couponId: {}, userId: {}, shard: {}, result: {}",
+                    couponId, userId, layout.shardOf(userId), result);
+        }
         return result;
     }
 
     /**
-     * 현재 남은 재고 조회
+     * 여러 사용자 재고 일괄 감소
+     * @return userIds 순서대로 1: 성공, 0: 재고 없음, -1: 이미 발급됨, -2: 재초기화 후에도 재고 없음
+     */
+    public long[] decrementStockBulk(Long couponId, List<Long> userIds) {
+        StockLayout layout = layoutOf(couponId);
+        long[] results = stockEngine.decrementBulk(layout, userIds);
+
+        // -2를 받은 사용자는 아무것도 기록되지 않았으므로 재초기화 후 그 사용자만 다시 실행
+        List<Integer> uninitialized = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == -2) {
+                uninitialized.add(i);
+            }
+        }
+        if (!uninitialized.isEmpty()) {
+            stockInitializer.ensureInitialized(couponId);
+            List<Long> retryUsers = new ArrayList<>(uninitialized.size());
+            for (int index : uninitialized) {
+                retryUsers.add(userIds.get(index));
+            }
+            long[] retried = stockEngine.decrementBulk(layout, retryUsers);
+            for (int i = 0; i < retried.length; i++) {
+                results[uninitialized.get(i)] = retried[i];
+            }
+        }
+
+        for (long result : results) {
+            if (result == 0) {
+                soldOutRegistry.markSoldOut(couponId);
+                break;
+            }
+        }
+
+        log.debug("재고 일괄 감소 - couponId: {}, size: {}", couponId, userIds.size());
+        return results;
+    }
+
+    /**
+     * 현재 남은 재고 조회 (샤드 모드에서는 전체 샤드 합계)
      */
     public Long getStock(Long couponId) {
-        String stockKey = STOCK_KEY_PREFIX + couponId;
-        Long stock = redisTemplate.opsForValue().get(stockKey);
-        return stock != null ? stock : 0L;
+        return stockEngine.getStock(layoutOf(couponId));
+    }
+
+    /**
+     * 여러 쿠폰의 잔여 재고를 한 번에 조회 (Redis는 파이프라인 한 번)
+     * 재고 키가 없는 쿠폰은 결과에서 빠진다.
+     */
+    public Map<Long, Long> getStocks(Collection<Long> couponIds) {
+        List<StockLayout> layouts = new ArrayList<>(couponIds.size());
+        for (Long couponId : couponIds) {
+            layouts.add(layoutOf(couponId));
+        }
+        return stockEngine.getStocks(layouts);
     }
 
     /**
      * 사용자가 이미 발급받았는지 확인
      */
     public boolean isAlreadyIssued(Long couponId, Long userId) {
-        String issuedKey = ISSUED_KEY_PREFIX + couponId;
-        return Boolean.TRUE.equals(
-                redisTemplate.opsForSet().isMember(issuedKey, userId.toString())
-        );
+        return stockEngine.isIssued(layoutOf(couponId), userId);
+    }
+
+    /**
+     * 기록된 발급 사용자 수 (일관성 체크용)
+     */
+    public long getIssuedUserCount(Long couponId) {
+        return stockEngine.issuedUserCount(layoutOf(couponId));
+    }
+
+    /**
+     * 발급 사용자 키 목록 (대사 순회용)
+     */
+    public List<String> issuedKeys(StockLayout layout) {
+        return stockEngine.issuedKeys(layout);
+    }
+
+    /**
+     * 발급 사용자 키를 count 단위로 읽어 사용자 ID로 변환 (대사용)
+     */
+    public IssuedScanPage scanIssuedUsers(StockLayout layout, String issuedKey, long cursor, int count) {
+        return stockEngine.scanIssuedUsers(layout, issuedKey, cursor, count);
+    }
+
+    /**
+     * 여러 사용자의 발급 기록 여부 (대사용)
+     * @return userIds 순서대로 발급 기록 여부
+     */
+    public boolean[] areIssued(Long couponId, List<Long> userIds) {
+        return stockEngine.areIssued(layoutOf(couponId), userIds);
     }
 
     /**
      * 재고 복구 (보상 로직용)
-     * DB 저장 실패 시 Redis 재고를 다시 증가시킴
+     * DB에 이미 발급 내역이 있는 사용자의 담당 샤드 재고만 다시 증가시킴
      */
-    public void incrementStock(Long couponId) {
-        String stockKey = STOCK_KEY_PREFIX + couponId;
-        redisTemplate.opsForValue().increment(stockKey);
+    public void incrementStock(Long couponId, Long userId) {
+        stockEngine.increment(layoutOf(couponId), userId);
+        soldOutRegistry.clear(couponId);
         log.warn("재고 복구 - couponId: {}", couponId);
     }
 
     /**
      * 발급 목록에서 사용자 제거 (보상 로직용)
-     * DB 저장 실패 시 Redis에서 사용자를 제거함
      */
     public void removeIssuedUser(Long couponId, Long userId) {
-        String issuedKey = ISSUED_KEY_PREFIX + couponId;
-        redisTemplate.opsForSet().remove(issuedKey, userId.toString());
+        stockEngine.rollback(layoutOf(couponId), userId, false);
         log.warn("발급 목록에서 사용자 제거 - couponId: {}, userId: {}", couponId, userId);
     }
 
     /**
-     * Redis 롤백 (재고 복구 + 사용자 제거)
+     * 롤백 (재고 복구 + 사용자 제거)
+     * 원자적으로 처리하며, 발급 기록이 있을 때만 재고를 복구한다.
+     * @return true = 발급 기록을 제거하고 재고 복구, false = 발급 기록 없음
+     */
+    public boolean rollback(Long couponId, Long userId) {
+        boolean restored = stockEngine.rollback(layoutOf(couponId), userId, true);
+        if (restored) {
+            soldOutRegistry.clear(couponId);
+        }
+        log.warn("재고 롤백 완료 - couponId: {}, userId: {}, restored: {}", couponId, userId, restored);
+        return restored;
+    }
+
+    /**
+     * 발급 기록 복원 (대사용)
+     * DB에는 발급 내역이 있는데 발급 기록이 빠진 사용자를 다시 기록하고 담당 샤드 재고를 1 차감한다.
+     * @return 1: 복원 + 재고 차감, 2: 복원했지만 재고가 이미 0, 0: 이미 기록되어 있음
      */
-    public void rollback(Long couponId, Long userId) {
-        incrementStock(couponId);
-        removeIssuedUser(couponId, userId);
-        log.warn("Redis 롤백 완료 - couponId: {}, userId: {}", couponId, userId);
+    public long restoreIssuedUser(Long couponId, Long userId) {
+        long restored = stockEngine.restoreIssuedUser(layoutOf(couponId), userId);
+        if (restored != 0L) {
+            log.warn("발급 기록 복원 - couponId: {}, userId: {}, result: {}", couponId, userId, restored);
+        }
+        return restored;
     }
 }
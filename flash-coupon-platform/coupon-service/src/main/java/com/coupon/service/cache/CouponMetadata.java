@@ -0,0 +1,39 @@
+package com.coupon.service.cache;
+
+import com.coupon.domain.Coupon;
+import com.coupon.domain.IssuedEncoding;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발급 경로에서 사용하는 쿠폰 메타데이터 (변경이 드문 필드만 보관)
+ * 잔여 수량은 Redis가 기준이므로 포함하지 않는다.
+ */
+public record CouponMetadata(
+        Long id,
+        String name,
+        Integer totalQuantity,
+        int stockShards,
+        IssuedEncoding issuedEncoding,
+        LocalDateTime startAt,
+        LocalDateTime endAt
+) {
+    public static CouponMetadata from(Coupon coupon) {
+        return new CouponMetadata(
+                coupon.getId(),
+                coupon.getName(),
+                coupon.getTotalQuantity(),
+                coupon.getStockShardCount(),
+                coupon.getIssuedEncodingOrDefault(),
+                coupon.getStartAt(),
+                coupon.getEndAt()
+        );
+    }
+
+    /**
+     * 발급 기간 내인지 확인
+     */
+    public boolean isInIssuePeriod(LocalDateTime now) {
+        return now.isAfter(startAt) && now.isBefore(endAt);
+    }
+}
@@ -0,0 +1,97 @@
+package com.coupon.service.cache;
+
+import com.coupon.config.CouponMetadataCacheProperties;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.event.CouponChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * 쿠폰 메타데이터 로컬 캐시 (Near-Cache)
+ * 발급 요청마다 DB를 조회하지 않도록 쿠폰 기간/수량 정보를 노드 메모리에 보관한다.
+ * 쿠폰이 생성/수정되면 Redis Pub/Sub으로 모든 노드의 캐시를 무효화한다.
+ */
+@Slf4j
+@Component
+public class CouponMetadataCache implements MessageListener {
+
+    private final CouponRepository couponRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String invalidationChannel;
+    private final Cache<Long, CouponMetadata> cache;
+
+    /**
+     * 캐시 미스 시 DB 조회 (this를 캡처하는 람다가 조회마다 만들어지지 않도록 필드로 보관)
+     */
+    private final Function<Long, CouponMetadata> loader;
+
+    public CouponMetadataCache(CouponRepository couponRepository,
+                               StringRedisTemplate stringRedisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               CouponMetadataCacheProperties properties) {
+        this.couponRepository = couponRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationChannel = properties.invalidationChannel();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .build();
+        this.loader = id -> couponRepository.findById(id)
+                .map(CouponMetadata::from)
+                .orElse(null);
+        listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    /**
+     * 메타데이터 조회 (캐시 미스 시에만 DB 조회)
+     */
+    public CouponMetadata get(Long couponId) {
+        CouponMetadata metadata = cache.get(couponId, loader);
+        if (metadata == null) {
+            throw new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId);
+        }
+        return metadata;
+    }
+
+    /**
+     * 전체 노드 캐시 무효화
+     */
+    public void invalidate(Long couponId) {
+        cache.invalidate(couponId);
+        stringRedisTemplate.convertAndSend(invalidationChannel, couponId.toString());
+        log.debug("쿠폰 메타데이터 캐시 무효화 전파 - couponId: {}", couponId);
+    }
+
+    /**
+     * 쿠폰 생성/수정 트랜잭션 커밋 후 무효화
+     * (커밋 전에 무효화하면 다른 노드가 이전 값을 다시 캐싱할 수 있음)
+     */
+    @TransactionalEventListener
+    public void onCouponChanged(CouponChangedEvent event) {
+        invalidate(event.couponId());
+    }
+
+    /**
+     * 다른 노드에서 전파된 무효화 메시지 처리
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Long couponId = Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8));
+            cache.invalidate(couponId);
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 캐시 무효화 메시지: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.coupon.service.code;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 발급 순번 ↔ 쿠폰 코드 변환 (1:1, 역변환 가능)
+ * 60비트 순번을 4라운드 Feistel 네트워크로 섞은 뒤 Crockford Base32 12자리로 표기한다.
+ * Feistel 구조라 키와 무관하게 항상 전단사이므로 서로 다른 순번은 서로 다른 코드가 된다. (중복 검사 불필요)
+ * 라운드 키는 비밀값에서 만들므로 비밀값을 모르면 연속 발급된 코드에서 다음 코드를 추측하기 어렵다.
+ * 암호학적 보장은 아니므로 코드만으로 인증하지 말고 발급 내역과 함께 확인한다.
+ */
+public class CouponCodeCodec {
+
+    public static final int LENGTH = 12;
+    public static final long MAX_SEQUENCE = (1L << 60) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int HALF_BITS = 30;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = (byte) i;
+            DECODE[Character.toLowerCase(ALPHABET[i])] = (byte) i;
+        }
+        // Crockford Base32 혼동 문자
+        DECODE['O'] = DECODE['o'] = 0;
+        DECODE['I'] = DECODE['i'] = DECODE['L'] = DECODE['l'] = 1;
+    }
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public CouponCodeCodec(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("쿠폰 코드 비밀값이 비어 있습니다.");
+        }
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(
+                    MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8)));
+            for (int i = 0; i < ROUNDS; i++) {
+                roundKeys[i] = digest.getLong();
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 순번 → 12자리 코드
+     */
+    public String encode(long sequence) {
+        if (sequence < 0 || sequence > MAX_SEQUENCE) {
+            throw new IllegalArgumentException("쿠폰 코드 순번 범위를 벗어났습니다: " + sequence);
+        }
+        long left = sequence >>> HALF_BITS;
+        long right = sequence & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ mix(right, roundKeys[round]);
+            left = right;
+            right = next;
+        }
+        long permuted = (left << HALF_BITS) | right;
+
+        byte[] code = new byte[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            code[i] = (byte) ALPHABET[(int) (permuted & 31)];
+            permuted >>>= 5;
+        }
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 코드 → 순번 (소문자, 하이픈, 혼동 문자 O/I/L 허용)
+     */
+    public long decode(String code) {
+        long permuted = 0L;
+        int digits = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0 || ++digits > LENGTH) {
+                throw new IllegalArgumentException("올바르지 않은 쿠폰 코드입니다: " + code);
+            }
+            permuted = (permuted << 5) | value;
+        }
+        if (digits != LENGTH) {
+            throw new IllegalArgumentException("올바르지 않은 쿠폰 코드입니다: " + code);
+        }
+
+        long left = permuted >>> HALF_BITS;
+        long right = permuted & HALF_MASK;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ mix(left, roundKeys[round]);
+            right = left;
+            left = previous;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    /**
+     * 라운드 함수 (SplitMix64 finalizer, 결과는 30비트)
+     */
+    private static long mix(long half, long key) {
+        long z = half ^ key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) & HALF_MASK;
+    }
+}
@@ -0,0 +1,154 @@
+package com.coupon.service.code;
+
+import com.coupon.config.CouponCodeProperties;
+import com.coupon.domain.CouponCodeSequence;
+import com.coupon.repository.CouponCodeSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 쿠폰 코드 생성기
+ * DB에서 순번 블록(blockSize개)을 예약해 두고, 블록 안의 순번을 CouponCodeCodec으로 코드로 바꾼다.
+ * - 블록 안에서는 AtomicLong 증가 + 변환뿐이라 발급마다 I/O가 없다.
+ * - 남은 순번이 prefetchRemaining개가 되면 다음 블록을 백그라운드에서 미리 예약한다.
+ * - 노드가 재시작되면 쓰지 않은 순번은 버려진다. (코드에 빈 번호가 생길 뿐 중복은 없음)
+ *
+ * 순번은 Redis가 아니라 DB에 둔다. Redis 키가 유실되어 순번이 되돌아가면 이미 나간 코드가 다시 만들어지기 때문이다.
+ */
+@Slf4j
+@Component
+public class CouponCodeGenerator {
+
+    private static final String SEQUENCE_NAME = "coupon-code";
+
+    private final CouponCodeProperties properties;
+    private final CouponCodeSequenceRepository sequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final CouponCodeCodec codec;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final AtomicReference<CompletableFuture<Block>> prefetched = new AtomicReference<>();
+    private volatile Block current = new Block(0L, 0L, -1L);
+
+    public CouponCodeGenerator(CouponCodeProperties properties,
+                               CouponCodeSequenceRepository sequenceRepository,
+                               TransactionTemplate transactionTemplate,
+                               TaskScheduler taskScheduler,
+                               Environment environment) {
+        if (properties.blockSize() < 1) {
+            throw new IllegalArgumentException("쿠폰 코드 블록 크기는 1 이상이어야 합니다: " + properties.blockSize());
+        }
+        if (CouponCodeProperties.LOCAL_SECRET.equals(properties.secret())
+                && !environment.acceptsProfiles(Profiles.of(CouponCodeProperties.LOCAL_PROFILES))) {
+            throw new IllegalStateException("쿠폰 코드 비밀값(COUPON_CODE_SECRET)이 지정되지 않았습니다. "
+                    + "기본값은 local/test 프로파일에서만 쓸 수 있습니다.");
+        }
+        this.properties = properties;
+        this.sequenceRepository = sequenceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.codec = new CouponCodeCodec(properties.secret());
+    }
+
+    /**
+     * 새 쿠폰 코드 (노드 간에도 중복 없음)
+     */
+    public String next() {
+        while (true) {
+            Block block = current;
+            long sequence = block.next.getAndIncrement();
+            if (sequence < block.end) {
+                if (sequence == block.prefetchAt) {
+                    prefetch();
+                }
+                return codec.encode(sequence);
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * 코드 → 순번 (검증/조회용)
+     */
+    public long sequenceOf(String code) {
+        return codec.decode(code);
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            CompletableFuture<Block> ready = prefetched.getAndSet(null);
+            Block next = ready != null ? ready.join() : null;
+            current = next != null ? next : reserveBlock();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private void prefetch() {
+        CompletableFuture<Block> future = new CompletableFuture<>();
+        if (!prefetched.compareAndSet(null, future)) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            try {
+                future.complete(reserveBlock());
+            } catch (RuntimeException e) {
+                log.warn("쿠폰 코드 블록 미리 예약 실패 - error: {}", e.getMessage());
+                // 실패하면 블록이 바닥났을 때 발급 스레드가 직접 예약한다
+                future.complete(null);
+            }
+        }, Instant.now());
+    }
+
+    /**
+     * DB 순번 행을 잠그고 blockSize만큼 예약
+     * 순번 행이 없으면 만들고, 다른 노드와 동시에 만들다 충돌하면 다시 시도한다.
+     */
+    private Block reserveBlock() {
+        int size = properties.blockSize();
+        Long start;
+        try {
+            start = transactionTemplate.execute(status -> sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                    .orElseGet(() -> sequenceRepository.saveAndFlush(new CouponCodeSequence(SEQUENCE_NAME)))
+                    .reserve(size));
+        } catch (DataIntegrityViolationException e) {
+            start = transactionTemplate.execute(status -> sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                    .orElseThrow()
+                    .reserve(size));
+        }
+        if (start + size - 1 > CouponCodeCodec.MAX_SEQUENCE) {
+            throw new IllegalStateException("쿠폰 코드 순번을 모두 사용했습니다.");
+        }
+        log.debug("쿠폰 코드 블록 예약 - start: {}, size: {}", start, size);
+        long prefetchAt = start + Math.max(0, size - properties.prefetchRemaining());
+        return new Block(start, start + size, prefetchAt);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+        private final long prefetchAt;
+
+        private Block(long start, long end, long prefetchAt) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+}
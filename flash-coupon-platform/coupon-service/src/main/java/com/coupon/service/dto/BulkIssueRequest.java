@@ -0,0 +1,14 @@
+package com.coupon.service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkIssueRequest(
+        @NotEmpty(message = "사용자 ID 목록은 필수입니다")
+        @Size(max = 10000, message = "한 번에 최대 10000명까지 발급할 수 있습니다")
+        List<@NotNull(message = "사용자 ID는 필수입니다") Long> userIds
+) {
+}
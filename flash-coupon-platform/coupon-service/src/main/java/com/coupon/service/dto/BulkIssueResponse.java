@@ -0,0 +1,39 @@
+package com.coupon.service.dto;
+
+import java.util.List;
+
+/**
+ * 일괄 발급 결과
+ * results: 요청한 userIds 순서대로 사용자별 결과
+ * status: ISSUED(발급), DUPLICATE(이미 발급됨), SOLD_OUT(재고 없음), FAILED(저장 실패로 롤백)
+ * code: ISSUED인 사용자의 쿠폰 코드
+ */
+public record BulkIssueResponse(
+        Long couponId,
+        int requested,
+        int issued,
+        int duplicated,
+        int soldOut,
+        int failed,
+        List<UserResult> results
+) {
+    public enum IssueStatus {
+        ISSUED, DUPLICATE, SOLD_OUT, FAILED
+    }
+
+    public record UserResult(Long userId, IssueStatus status, String code) {
+    }
+
+    public static BulkIssueResponse of(Long couponId, List<UserResult> results) {
+        int[] counts = new int[IssueStatus.values().length];
+        for (UserResult result : results) {
+            counts[result.status().ordinal()]++;
+        }
+        return new BulkIssueResponse(couponId, results.size(),
+                counts[IssueStatus.ISSUED.ordinal()],
+                counts[IssueStatus.DUPLICATE.ordinal()],
+                counts[IssueStatus.SOLD_OUT.ordinal()],
+                counts[IssueStatus.FAILED.ordinal()],
+                results);
+    }
+}
@@ -4,6 +4,7 @@ public record ConsistencyResponse(
         Long couponId,
         boolean isConsistent,
         Long redisStock,
+        Long redisIssuedCount,
         Long dbIssuedCount
 ) {
 }
@@ -1,5 +1,7 @@
 package com.coupon.service.dto;
 
+import com.coupon.domain.IssuedEncoding;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,6 +20,15 @@ public record CouponCreateRequest(
         LocalDateTime startAt,
 
         @NotNull(message = "종료일시는 필수입니다")
-        LocalDateTime endAt
+        LocalDateTime endAt,
+
+        @Min(value = 1, message = "재고 샤드 수는 1 이상이어야 합니다")
+        @Max(value = 64, message = "재고 샤드 수는 64 이하여야 합니다")
+        Integer stockShards,
+
+        IssuedEncoding issuedEncoding
 ) {
+    public CouponCreateRequest(String name, Integer totalQuantity, LocalDateTime startAt, LocalDateTime endAt) {
+        this(name, totalQuantity, startAt, endAt, null, null);
+    }
 }
@@ -1,17 +1,29 @@
 package com.coupon.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 쿠폰 발급 결과
+ * unavailable: DB 저장 실패, Write-Behind 큐 포화처럼 인프라 문제로 보상 후 실패한 경우 (동시 처리 한도가 과부하로 셈, 응답에는 포함하지 않음)
+ */
 public record CouponIssueResponse(
         boolean success,
         String message,
         Long issueId,
         Long couponId,
-        Long userId
+        Long userId,
+        String code,
+        @JsonIgnore boolean unavailable
 ) {
-    public static CouponIssueResponse success(Long issueId, Long couponId, Long userId) {
-        return new CouponIssueResponse(true, "쿠폰 발급 성공", issueId, couponId, userId);
+    public static CouponIssueResponse success(Long issueId, Long couponId, Long userId, String code) {
+        return new CouponIssueResponse(true, "쿠폰 발급 성공", issueId, couponId, userId, code, false);
     }
 
     public static CouponIssueResponse fail(String message) {
-        return new CouponIssueResponse(false, message, null, null, null);
+        return new CouponIssueResponse(false, message, null, null, null, null, false);
+    }
+
+    public static CouponIssueResponse unavailable(String message) {
+        return new CouponIssueResponse(false, message, null, null, null, null, true);
     }
 }
@@ -0,0 +1,18 @@
+package com.coupon.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record CouponUpdateRequest(
+        @NotBlank(message = "쿠폰명은 필수입니다")
+        String name,
+
+        @NotNull(message = "시작일시는 필수입니다")
+        LocalDateTime startAt,
+
+        @NotNull(message = "종료일시는 필수입니다")
+        LocalDateTime endAt
+) {
+}
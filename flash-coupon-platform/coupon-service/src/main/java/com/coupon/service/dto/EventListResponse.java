@@ -0,0 +1,29 @@
+package com.coupon.service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 이벤트 목록
+ * status: ACTIVE(진행 중, 종료 임박 순), UPCOMING(오픈 예정, 오픈 임박 순), ENDED(종료, 최근 종료 순)
+ * updatedAt: 목록 내용이 마지막으로 바뀐 시각
+ */
+public record EventListResponse(
+        EventStatus status,
+        LocalDateTime updatedAt,
+        List<EventItem> events
+) {
+    public enum EventStatus {
+        ACTIVE, UPCOMING, ENDED
+    }
+
+    public record EventItem(
+            Long couponId,
+            String name,
+            Integer totalQuantity,
+            long remainingStock,
+            LocalDateTime startAt,
+            LocalDateTime endAt
+    ) {
+    }
+}
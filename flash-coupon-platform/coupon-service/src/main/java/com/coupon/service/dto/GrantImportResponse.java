@@ -0,0 +1,42 @@
+package com.coupon.service.dto;
+
+import com.coupon.domain.GrantImportJob;
+import com.coupon.domain.GrantImportStatus;
+
+/**
+ * 발급 내역 가져오기 작업 진행 상황
+ * progress: 커밋한 파일 위치 / 파일 크기 (%)
+ * lines: 처리한 줄 수 (invalid 포함), issued/duplicated/soldOut/invalid: 줄 단위 결과
+ */
+public record GrantImportResponse(
+        Long jobId,
+        Long couponId,
+        GrantImportStatus status,
+        long fileSize,
+        long committedOffset,
+        double progress,
+        long lines,
+        long issued,
+        long duplicated,
+        long soldOut,
+        long invalid,
+        String errorMessage
+) {
+    public static GrantImportResponse from(GrantImportJob job) {
+        double progress = job.getFileSize() == 0 ? 100.0 : job.getCommittedOffset() * 100.0 / job.getFileSize();
+        return new GrantImportResponse(
+                job.getId(),
+                job.getCouponId(),
+                job.getStatus(),
+                job.getFileSize(),
+                job.getCommittedOffset(),
+                Math.round(progress * 10) / 10.0,
+                job.getLineCount(),
+                job.getIssuedCount(),
+                job.getDuplicatedCount(),
+                job.getSoldOutCount(),
+                job.getInvalidCount(),
+                job.getErrorMessage()
+        );
+    }
+}
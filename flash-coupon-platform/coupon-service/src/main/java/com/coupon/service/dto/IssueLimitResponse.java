@@ -0,0 +1,16 @@
+package com.coupon.service.dto;
+
+/**
+ * 발급 동시 처리 한도 (노드 기준)
+ * couponRejected / globalRejected: 기동 후 쿠폰별 한도 / 노드 전체 한도로 거절한 요청 수 (모든 쿠폰 합계)
+ */
+public record IssueLimitResponse(
+        Long couponId,
+        int couponLimit,
+        int couponInflight,
+        int globalLimit,
+        int globalInflight,
+        long couponRejected,
+        long globalRejected
+) {
+}
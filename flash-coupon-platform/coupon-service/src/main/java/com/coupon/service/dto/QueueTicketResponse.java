@@ -0,0 +1,31 @@
+package com.coupon.service.dto;
+
+/**
+ * 대기열 티켓
+ * status: WAITING(대기 중), ADMITTED(발급 요청 가능), REJECTED(재고 대비 대기 인원 초과), NOT_QUEUED(대기열에 없음)
+ * position: 대기 중일 때 앞에 남은 인원 + 1, 그 외 0
+ */
+public record QueueTicketResponse(
+        Long couponId,
+        Long userId,
+        QueueStatus status,
+        long position
+) {
+    public enum QueueStatus {
+        WAITING, ADMITTED, REJECTED, NOT_QUEUED
+    }
+
+    public static QueueTicketResponse of(Long couponId, Long userId, long position) {
+        if (position < 0) {
+            return new QueueTicketResponse(couponId, userId, QueueStatus.NOT_QUEUED, 0);
+        }
+        if (position == 0) {
+            return new QueueTicketResponse(couponId, userId, QueueStatus.ADMITTED, 0);
+        }
+        return new QueueTicketResponse(couponId, userId, QueueStatus.WAITING, position);
+    }
+
+    public static QueueTicketResponse rejected(Long couponId, Long userId) {
+        return new QueueTicketResponse(couponId, userId, QueueStatus.REJECTED, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.coupon.service.dto;
+
+/**
+ * 대사 결과
+ * missingInRedis: DB 발급 내역은 있는데 Redis 발급 기록이 없는 사용자 (재발급 가능 상태)
+ * orphanedInRedis: Redis 발급 기록은 있는데 grace가 지나도 DB 발급 내역이 없는 사용자 (재고만 소진된 상태)
+ * stockShortage: 발급 기록은 복원했지만 재고가 이미 0이라 차감하지 못한 수
+ * pendingOrphans: grace가 지나지 않아 다음 실행에서 다시 확인할 사용자 수
+ */
+public record ReconciliationResponse(
+        Long couponId,
+        long dbRowsChecked,
+        long redisUsersChecked,
+        long missingInRedis,
+        long orphanedInRedis,
+        long repaired,
+        long stockShortage,
+        int pendingOrphans,
+        long dbHighWaterMark,
+        boolean redisSweepCompleted
+) {
+}
@@ -0,0 +1,14 @@
+package com.coupon.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔여 재고 스트림 이벤트 (SSE event: stock)
+ * remainingStock: 노드가 sampledAt에 읽은 잔여 재고 (재고 미초기화면 null)
+ */
+public record StockStreamEvent(
+        Long couponId,
+        Long remainingStock,
+        LocalDateTime sampledAt
+) {
+}
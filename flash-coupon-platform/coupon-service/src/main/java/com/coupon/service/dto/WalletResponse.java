@@ -0,0 +1,25 @@
+package com.coupon.service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 사용자 쿠폰함 (최근 발급 순)
+ * nextCursor: 다음 페이지 요청 시 cursor로 전달 (null = 마지막 페이지)
+ */
+public record WalletResponse(
+        Long userId,
+        List<WalletCoupon> coupons,
+        Long nextCursor
+) {
+    public record WalletCoupon(
+            Long issueId,
+            Long couponId,
+            String couponName,
+            String code,
+            LocalDateTime issuedAt,
+            LocalDateTime startAt,
+            LocalDateTime endAt
+    ) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.coupon.service.event;
+
+/**
+ * 쿠폰 생성/수정 이벤트 (트랜잭션 커밋 후 처리)
+ */
+public record CouponChangedEvent(Long couponId) {
+}
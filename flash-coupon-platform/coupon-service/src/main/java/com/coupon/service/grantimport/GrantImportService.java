@@ -0,0 +1,423 @@
+package com.coupon.service.grantimport;
+
+import com.coupon.config.GrantImportProperties;
+import com.coupon.domain.GrantImportJob;
+import com.coupon.domain.GrantImportStatus;
+import com.coupon.repository.CouponIssueBatchRepository;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.GrantImportJobRepository;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.code.CouponCodeGenerator;
+import com.coupon.service.dto.GrantImportResponse;
+import com.coupon.service.lock.RedisLock;
+import com.coupon.service.metrics.CouponMetrics;
+import com.coupon.service.stock.SoldOutRegistry;
+import com.coupon.service.wallet.UserWalletService;
+import com.coupon.service.writebehind.IssueGrant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 발급 내역 가져오기 (대량 사전 지정 캠페인, 사용자 수백만 명)
+ * 업로드한 사용자 ID 파일을 spoolDir에 그대로 저장한 뒤 백그라운드에서 스트리밍으로 읽는다.
+ *
+ * 청크(chunkSize)마다
+ * 1. 발급 기록 확인: Redis 발급 사용자 키를 청크 단위로 한 번에 확인 (이미 발급된 사용자는 재고 예약에서 제외)
+ * 2. 재고 예약: 일괄 발급과 같은 Lua Script로 재고 감소 + 발급 사용자 기록
+ * 3. DB 저장: PostgreSQL COPY (H2는 multi-row INSERT) + Outbox + 작업 진행 위치를 한 트랜잭션으로 커밋
+ *
+ * 진행 위치(committedOffset)는 발급 내역과 같은 트랜잭션에서 갱신되므로, 중단된 작업은 그 위치부터 재개하면 된다.
+ * 중단 시점의 청크는 재고를 예약하고 DB에 저장하지 못했을 수 있으므로, 재개 후 첫 청크에서는
+ * Redis에 발급 기록이 있는데 DB에 없는 사용자를 재고 예약 없이 다시 저장한다.
+ *
+ * 노드당 maxConcurrentJobs개까지만 실행하고, 빈 자리가 없으면 기다리지 않고 RejectedExecutionException으로 거절한다. (429)
+ * 작업 잠금은 토큰으로 잡아, lease가 지나 다른 노드가 가져간 작업은 연장/해제하지 않고 멈춘다.
+ */
+@Slf4j
+@Service
+public class GrantImportService {
+
+    private static final String LOCK_KEY_PREFIX = "coupon:import:lock:";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final GrantImportJobRepository grantImportJobRepository;
+    private final CouponIssueRepository couponIssueRepository;
+    private final CouponIssueBatchRepository couponIssueBatchRepository;
+    private final CouponStockService couponStockService;
+    private final CouponMetadataCache couponMetadataCache;
+    private final SoldOutRegistry soldOutRegistry;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final UserWalletService userWalletService;
+    private final TransactionTemplate transactionTemplate;
+    private final RedisLock redisLock;
+    private final CouponMetrics couponMetrics;
+    private final GrantImportProperties properties;
+    private final SimpleAsyncTaskExecutor executor;
+    private final Semaphore slots;
+
+    public GrantImportService(GrantImportJobRepository grantImportJobRepository,
+                              CouponIssueRepository couponIssueRepository,
+                              CouponIssueBatchRepository couponIssueBatchRepository,
+                              CouponStockService couponStockService,
+                              CouponMetadataCache couponMetadataCache,
+                              SoldOutRegistry soldOutRegistry,
+                              CouponCodeGenerator couponCodeGenerator,
+                              UserWalletService userWalletService,
+                              TransactionTemplate transactionTemplate,
+                              RedisLock redisLock,
+                              CouponMetrics couponMetrics,
+                              GrantImportProperties properties) {
+        this.grantImportJobRepository = grantImportJobRepository;
+        this.couponIssueRepository = couponIssueRepository;
+        this.couponIssueBatchRepository = couponIssueBatchRepository;
+        this.couponStockService = couponStockService;
+        this.couponMetadataCache = couponMetadataCache;
+        this.soldOutRegistry = soldOutRegistry;
+        this.couponCodeGenerator = couponCodeGenerator;
+        this.userWalletService = userWalletService;
+        this.transactionTemplate = transactionTemplate;
+        this.redisLock = redisLock;
+        this.couponMetrics = couponMetrics;
+        this.properties = properties;
+        this.executor = new SimpleAsyncTaskExecutor("grant-import-");
+        this.slots = new Semaphore(properties.maxConcurrentJobs());
+    }
+
+    /**
+     * 업로드 스트림을 파일로 저장하고 가져오기 작업 시작
+     * @throws RejectedExecutionException 노드에서 이미 maxConcurrentJobs개를 실행 중 (파일을 받기 전에 거절)
+     */
+    public GrantImportResponse start(Long couponId, InputStream body) {
+        couponMetadataCache.get(couponId);
+        acquireSlot();
+        try {
+            Path file = spool(couponId, body);
+            GrantImportJob job;
+            try {
+                job = grantImportJobRepository.save(GrantImportJob.builder()
+                        .couponId(couponId)
+                        .filePath(file.toString())
+                        .fileSize(Files.size(file))
+                        .build());
+            } catch (IOException e) {
+                throw new UncheckedIOException("가져오기 파일 크기 확인 실패: " + file, e);
+            }
+            log.info("발급 내역 가져오기 시작 - jobId: {}, couponId: {}, fileSize: {}", job.getId(), couponId, job.getFileSize());
+            submit(job, false, lock(job.getId()));
+            return GrantImportResponse.from(job);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 마지막 커밋 위치부터 재개 (실패했거나 실행하던 노드가 죽은 작업)
+     */
+    public GrantImportResponse resume(Long couponId, Long jobId) {
+        GrantImportJob job = findJob(couponId, jobId);
+        if (job.getStatus() == GrantImportStatus.COMPLETED) {
+            throw new IllegalStateException("이미 완료된 가져오기 작업입니다: " + jobId);
+        }
+        acquireSlot();
+        try {
+            JobLock jobLock = lock(jobId);
+            grantImportJobRepository.updateStatus(jobId, GrantImportStatus.RUNNING, null, LocalDateTime.now());
+            log.info("발급 내역 가져오기 재개 - jobId: {}, offset: {}", jobId, job.getCommittedOffset());
+            submit(job, true, jobLock);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        return GrantImportResponse.from(findJob(couponId, jobId));
+    }
+
+    public GrantImportResponse get(Long couponId, Long jobId) {
+        return GrantImportResponse.from(findJob(couponId, jobId));
+    }
+
+    private GrantImportJob findJob(Long couponId, Long jobId) {
+        return grantImportJobRepository.findById(jobId)
+                .filter(job -> job.getCouponId().equals(couponId))
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 가져오기 작업입니다: " + jobId));
+    }
+
+    private Path spool(Long couponId, InputStream body) {
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.spoolDir()));
+            Path file = directory.resolve(couponId + "-" + UUID.randomUUID() + ".csv");
+            Files.copy(body, file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("가져오기 파일 저장 실패", e);
+        }
+    }
+
+    /**
+     * 실행 자리 확보 (자리가 날 때까지 요청 스레드를 붙잡지 않고 바로 거절)
+     */
+    private void acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException(
+                    "실행 중인 가져오기 작업이 많습니다. 잠시 후 다시 시도해 주세요. (최대 " + properties.maxConcurrentJobs() + "개)");
+        }
+    }
+
+    /**
+     * 작업 잠금 (같은 작업이 두 노드에서 동시에 실행되지 않도록, 실행 중에는 청크마다 연장)
+     */
+    private JobLock lock(Long jobId) {
+        String lockKey = LOCK_KEY_PREFIX + jobId;
+        Long token = redisLock.tryAcquire(lockKey, properties.lockLease());
+        if (token == null) {
+            throw new IllegalStateException("다른 노드에서 실행 중인 가져오기 작업입니다: " + jobId);
+        }
+        return new JobLock(lockKey, token);
+    }
+
+    private void submit(GrantImportJob job, boolean resumed, JobLock jobLock) {
+        executor.execute(() -> {
+            try {
+                run(job, resumed, jobLock);
+            } finally {
+                if (!redisLock.release(jobLock.key(), jobLock.token())) {
+                    log.warn("가져오기 작업 잠금이 이미 만료됨 - jobId: {}", job.getId());
+                }
+                slots.release();
+            }
+        });
+    }
+
+    void run(GrantImportJob job, boolean resumed, JobLock jobLock) {
+        Long jobId = job.getId();
+        try {
+            CouponMetadata coupon = couponMetadataCache.get(job.getCouponId());
+            if (!coupon.isInIssuePeriod(LocalDateTime.now())) {
+                fail(jobId, "발급 기간이 아닙니다.");
+                return;
+            }
+
+            GrantImportJob current = grantImportJobRepository.findById(jobId).orElseThrow();
+            try (UserIdFileReader reader = new UserIdFileReader(Path.of(current.getFilePath()), current.getCommittedOffset())) {
+                boolean verifyReserved = resumed;
+                long committedOffset = current.getCommittedOffset();
+                List<Long> userIds = new ArrayList<>(properties.chunkSize());
+                long invalid = 0L;
+                long userId;
+                while ((userId = reader.next()) != UserIdFileReader.END) {
+                    if (userId == UserIdFileReader.INVALID) {
+                        invalid++;
+                    } else {
+                        userIds.add(userId);
+                    }
+                    if (userIds.size() + invalid >= properties.chunkSize()) {
+                        processChunk(jobId, job.getCouponId(), userIds, invalid, reader.position(), verifyReserved);
+                        verifyReserved = false;
+                        committedOffset = reader.position();
+                        userIds.clear();
+                        invalid = 0L;
+                        if (!redisLock.extend(jobLock.key(), jobLock.token(), properties.lockLease())) {
+                            // lease가 지나 다른 노드가 재개했을 수 있으므로 상태를 건드리지 않고 멈춤 (커밋한 위치까지는 유지)
+                            log.warn("가져오기 작업 잠금을 잃어 중단 - jobId: {}, offset: {}", jobId, committedOffset);
+                            return;
+                        }
+                    }
+                }
+                if (!userIds.isEmpty() || invalid > 0 || reader.position() > committedOffset) {
+                    processChunk(jobId, job.getCouponId(), userIds, invalid, reader.position(), verifyReserved);
+                }
+            }
+
+            grantImportJobRepository.updateStatus(jobId, GrantImportStatus.COMPLETED, null, LocalDateTime.now());
+            log.info("발급 내역 가져오기 완료 - {}", GrantImportResponse.from(grantImportJobRepository.findById(jobId).orElseThrow()));
+        } catch (Exception e) {
+            log.error("발급 내역 가져오기 실패 - jobId: {}, error: {}", jobId, e.getMessage(), e);
+            fail(jobId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void fail(Long jobId, String message) {
+        String errorMessage = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        grantImportJobRepository.updateStatus(jobId, GrantImportStatus.FAILED, errorMessage, LocalDateTime.now());
+    }
+
+    /**
+     * 청크 하나 처리 (발급 기록 확인 → 재고 예약 → DB 저장 + 진행 위치 커밋)
+     * DB 저장에 실패하면 이 청크에서 예약한 재고를 되돌리고 예외를 전달한다. (작업은 FAILED, 이 청크부터 재개)
+     */
+    private void processChunk(Long jobId, Long couponId, List<Long> userIds, long invalid, long endOffset,
+                              boolean verifyReserved) {
+        Set<Long> unique = new LinkedHashSet<>(userIds);
+        ChunkResult result = new ChunkResult(userIds.size() + invalid, invalid);
+        result.duplicated += userIds.size() - unique.size();
+
+        List<Long> reserved = new ArrayList<>();
+        if (!unique.isEmpty()) {
+            reserve(couponId, new ArrayList<>(unique), verifyReserved, reserved, result);
+        }
+
+        try {
+            LocalDateTime issuedAt = LocalDateTime.now();
+            List<IssueGrant> grants = new ArrayList<>(reserved.size());
+            for (Long userId : reserved) {
+                grants.add(new IssueGrant(couponId, userId, issuedAt, couponCodeGenerator.next()));
+            }
+            persist(jobId, couponId, grants, reserved, endOffset, result);
+            for (IssueGrant grant : grants) {
+                userWalletService.evict(grant.userId());
+            }
+        } catch (RuntimeException e) {
+            log.error("가져오기 청크 저장 실패, 재고 예약 롤백 - jobId: {}, size: {}", jobId, reserved.size());
+            for (Long userId : reserved) {
+                couponStockService.rollback(couponId, userId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 발급 기록 확인 후 기록이 없는 사용자만 재고 예약
+     * @param reserved 재고를 예약한 사용자 (DB에 저장할 대상)
+     */
+    private void reserve(Long couponId, List<Long> userIds, boolean verifyReserved,
+                         List<Long> reserved, ChunkResult result) {
+        boolean[] issued = couponStockService.areIssued(couponId, userIds);
+        List<Long> fresh = new ArrayList<>(userIds.size());
+        List<Long> marked = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            (issued[i] ? marked : fresh).add(userIds.get(i));
+        }
+
+        if (verifyReserved && !marked.isEmpty()) {
+            // 중단된 실행이 재고를 예약하고 커밋하지 못한 사용자는 DB에 없으므로 예약을 그대로 쓴다
+            Set<Long> persisted = new HashSet<>(couponIssueRepository.findIssuedUserIds(couponId, marked));
+            for (Long userId : marked) {
+                if (persisted.contains(userId)) {
+                    result.duplicated++;
+                } else {
+                    reserved.add(userId);
+                }
+            }
+        } else {
+            result.duplicated += marked.size();
+        }
+
+        if (fresh.isEmpty()) {
+            return;
+        }
+        if (soldOutRegistry.isSoldOut(couponId)) {
+            result.soldOut += fresh.size();
+            return;
+        }
+        long[] stockResults = couponStockService.decrementStockBulk(couponId, fresh);
+        boolean uninitialized = false;
+        for (int i = 0; i < stockResults.length; i++) {
+            if (stockResults[i] == 1) {
+                reserved.add(fresh.get(i));
+            } else if (stockResults[i] == -1) {
+                result.duplicated++;
+            } else if (stockResults[i] == 0) {
+                result.soldOut++;
+            } else {
+                uninitialized = true;
+            }
+        }
+        if (uninitialized) {
+            for (Long userId : reserved) {
+                couponStockService.rollback(couponId, userId);
+            }
+            throw new IllegalStateException("쿠폰 재고를 준비하지 못했습니다: " + couponId);
+        }
+    }
+
+    /**
+     * 발급 내역 + Outbox + 진행 위치를 한 트랜잭션으로 커밋
+     * 다른 경로로 이미 저장된 사용자가 섞여 있으면 그 사용자는 재고만 복구하고 나머지로 한 번 더 커밋한다.
+     * @param reserved 실패 시 롤백할 사용자 (이미 저장된 사용자는 발급 기록을 남겨야 하므로 제외)
+     */
+    private void persist(Long jobId, Long couponId, List<IssueGrant> grants, List<Long> reserved,
+                         long endOffset, ChunkResult result) {
+        try {
+            commit(jobId, grants, endOffset, result);
+        } catch (DataIntegrityViolationException e) {
+            Set<Long> persisted = new HashSet<>(couponIssueRepository.findIssuedUserIds(
+                    couponId, grants.stream().map(IssueGrant::userId).toList()));
+            // 보상 중에 실패해도 이미 저장된 사용자는 롤백 대상이 아니도록 먼저 제외
+            reserved.removeAll(persisted);
+            List<IssueGrant> remaining = new ArrayList<>(grants.size());
+            for (IssueGrant grant : grants) {
+                if (persisted.contains(grant.userId())) {
+                    // DB에는 이미 발급되어 있으므로 발급 기록은 두고 재고만 복구
+                    restock(jobId, couponId, grant.userId());
+                    result.duplicated++;
+                } else {
+                    remaining.add(grant);
+                }
+            }
+            log.warn("가져오기 청크에 이미 저장된 사용자 - jobId: {}, duplicated: {}", jobId, persisted.size());
+            grants.clear();
+            grants.addAll(remaining);
+            commit(jobId, grants, endOffset, result);
+        }
+    }
+
+    /**
+     * 재고만 복구 (실패해도 청크는 계속 처리, 재고가 1개 덜 남을 뿐 초과 발급은 없음)
+     */
+    private void restock(Long jobId, Long couponId, Long userId) {
+        try {
+            couponStockService.incrementStock(couponId, userId);
+            couponMetrics.restock();
+        } catch (RuntimeException e) {
+            log.error("가져오기 재고 복구 실패 - jobId: {}, couponId: {}, userId: {}, error: {}",
+                    jobId, couponId, userId, e.getMessage());
+            couponMetrics.restockFailed();
+        }
+    }
+
+    private void commit(Long jobId, List<IssueGrant> grants, long endOffset, ChunkResult result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            couponIssueBatchRepository.copyAll(grants);
+            grantImportJobRepository.commitChunk(jobId, endOffset, result.lines, grants.size(),
+                    result.duplicated, result.soldOut, result.invalid, LocalDateTime.now());
+        });
+    }
+
+    record JobLock(String key, long token) {
+    }
+
+    /**
+     * 청크 결과 집계 (줄 단위)
+     */
+    private static final class ChunkResult {
+        final long lines;
+        final long invalid;
+        long duplicated;
+        long soldOut;
+
+        ChunkResult(long lines, long invalid) {
+            this.lines = lines;
+            this.invalid = invalid;
+        }
+    }
+}
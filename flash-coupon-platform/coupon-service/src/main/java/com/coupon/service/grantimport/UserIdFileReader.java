@@ -0,0 +1,94 @@
+package com.coupon.service.grantimport;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 사용자 ID 파일 스트리밍 리더 (줄마다 ID 하나, 또는 CSV의 첫 번째 열)
+ * 파일 전체를 메모리에 올리지 않고 바이트 단위로 읽으며, 읽은 위치를 추적해 커밋한 위치부터 다시 읽을 수 있게 한다.
+ * 빈 줄은 건너뛰고, 첫 번째 열이 숫자가 아닌 줄(헤더 등)은 INVALID로 돌려준다.
+ */
+final class UserIdFileReader implements Closeable {
+
+    static final long END = Long.MIN_VALUE;
+    static final long INVALID = -1L;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DIGITS = 18;
+
+    private final InputStream in;
+    private long position;
+
+    UserIdFileReader(Path file, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(offset);
+        this.in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+        this.position = offset;
+    }
+
+    /**
+     * 다음 줄의 사용자 ID
+     * @return 사용자 ID, 숫자가 아니면 INVALID, 파일 끝이면 END
+     */
+    long next() throws IOException {
+        while (true) {
+            int b = read();
+            if (b == -1) {
+                return END;
+            }
+
+            long value = 0L;
+            int digits = 0;
+            boolean firstField = true;
+            boolean content = false;
+            boolean valid = true;
+            while (b != -1 && b != '\n') {
+                if (firstField) {
+                    if (b >= '0' && b <= '9') {
+                        value = value * 10 + (b - '0');
+                        valid &= ++digits <= MAX_DIGITS;
+                        content = true;
+                    } else if (b == ',') {
+                        firstField = false;
+                        content = true;
+                    } else if (b != '"' && b != ' ' && b != '\t' && b != '\r') {
+                        valid = false;
+                        content = true;
+                    }
+                }
+                b = read();
+            }
+
+            if (!content) {
+                continue;
+            }
+            return valid && digits > 0 ? value : INVALID;
+        }
+    }
+
+    /**
+     * 지금까지 읽은 위치 (byte, 다음 줄의 시작)
+     */
+    long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            position++;
+        }
+        return b;
+    }
+}
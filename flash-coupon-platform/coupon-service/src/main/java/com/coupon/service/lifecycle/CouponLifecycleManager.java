@@ -0,0 +1,145 @@
+package com.coupon.service.lifecycle;
+
+import com.coupon.config.CouponLifecycleProperties;
+import com.coupon.domain.Coupon;
+import com.coupon.repository.CouponIssueBatchRepository;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.lock.RedisLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 종료된 쿠폰 정리 (Redis와 coupon_issues에는 진행 중인 캠페인만 남긴다)
+ *
+ * 1. 재고 만료: 종료된 쿠폰의 재고/임대/발급 사용자 키에 만료 시각(endAt + stockRetention)을 건다.
+ *    Redis가 만료 시각에 스스로 지우므로 이 작업이 멈춰도 이미 설정한 키는 정리된다.
+ *    만료 시각이 이미 지났으면(밀린 쿠폰) 바로 삭제된다.
+ * 2. 보관: endAt + archiveAfter가 지난 쿠폰의 발급 내역을 archiveChunkSize건씩 coupon_issues_archive로 옮긴다.
+ *    청크마다 복사 + 삭제가 한 트랜잭션이라 중간에 멈춰도 다음 실행에서 남은 행부터 이어서 옮긴다.
+ *
+ * 쿠폰마다 처리 시각(stockExpireAt, archivedAt)을 DB에 남기므로 노드가 재시작해도 같은 쿠폰을 다시 훑지 않는다.
+ *
+ * 키
+ * - coupon:lifecycle:lock : 정리 노드 잠금 (lockLease 동안 유지, 정리가 끝나면 잡을 때의 토큰으로 해제)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponLifecycleManager {
+
+    private static final String LOCK_KEY = "coupon:lifecycle:lock";
+
+    private final CouponLifecycleProperties properties;
+    private final CouponRepository couponRepository;
+    private final CouponIssueBatchRepository couponIssueBatchRepository;
+    private final CouponStockService couponStockService;
+    private final RedisLock redisLock;
+    private final TaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeper() {
+        if (properties.enabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::sweep, properties.sweepInterval());
+        }
+    }
+
+    /**
+     * 주기 작업: 잠금을 잡은 경우에만 정리
+     */
+    public void sweep() {
+        Long token;
+        try {
+            token = redisLock.tryAcquire(LOCK_KEY, properties.lockLease());
+            if (token == null) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("쿠폰 정리 잠금 실패 - error: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            expireStock(now);
+            archive(now);
+        } catch (RuntimeException e) {
+            log.warn("쿠폰 정리 실패 - error: {}", e.getMessage());
+        } finally {
+            release(token);
+        }
+    }
+
+    /**
+     * 정리가 lockLease보다 오래 걸려 다른 노드가 잡은 잠금은 지우지 않는다.
+     */
+    private void release(long token) {
+        try {
+            if (!redisLock.release(LOCK_KEY, token)) {
+                log.warn("쿠폰 정리 잠금이 이미 만료됨 - lockLease: {}", properties.lockLease());
+            }
+        } catch (RuntimeException e) {
+            log.warn("쿠폰 정리 잠금 해제 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 종료된 쿠폰의 재고 기록에 만료 시각 설정
+     * @return 만료 시각을 설정한 쿠폰 수
+     */
+    public int expireStock(LocalDateTime now) {
+        List<Coupon> coupons = couponRepository.findEndedWithoutStockExpiry(now, Limit.of(properties.batchSize()));
+        int expired = 0;
+        for (Coupon coupon : coupons) {
+            LocalDateTime expireAt = coupon.getEndAt().plus(properties.stockRetention());
+            try {
+                couponStockService.expireAt(coupon.getId(), expireAt.atZone(ZoneId.systemDefault()).toInstant());
+                couponRepository.updateStockExpireAt(coupon.getId(), expireAt);
+                expired++;
+                log.info("재고 기록 만료 설정 - couponId: {}, expireAt: {}", coupon.getId(), expireAt);
+            } catch (RuntimeException e) {
+                log.warn("재고 기록 만료 설정 실패 - couponId: {}, error: {}", coupon.getId(), e.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 보관 대상 쿠폰의 발급 내역을 최대 maxChunksPerRun 청크만큼 이동
+     * @return 이동한 발급 내역 수
+     */
+    public long archive(LocalDateTime now) {
+        List<Long> couponIds = couponRepository.findArchivableIds(
+                now.minus(properties.archiveAfter()), Limit.of(properties.batchSize()));
+        long moved = 0L;
+        int chunks = 0;
+        for (Long couponId : couponIds) {
+            while (chunks < properties.maxChunksPerRun()) {
+                int count = couponIssueBatchRepository.archiveChunk(couponId, properties.archiveChunkSize());
+                chunks++;
+                moved += count;
+                if (count < properties.archiveChunkSize()) {
+                    couponRepository.updateArchivedAt(couponId, now);
+                    log.info("발급 내역 보관 완료 - couponId: {}", couponId);
+                    break;
+                }
+            }
+            if (chunks >= properties.maxChunksPerRun()) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            log.info("발급 내역 보관 - {}건, chunks: {}", moved, chunks);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,83 @@
+package com.coupon.service.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD 동시 처리 한도
+ * - 처리 시간이 기준 이하이고 한도의 절반 이상을 쓰고 있었으면 한도 += 1/한도 (한도만큼 처리하면 +1)
+ * - 처리 시간이 기준을 넘거나 실패하면 한도 *= backoffRatio
+ *
+ * 느려지면 처리 중인 요청이 한꺼번에 느린 응답을 보고하므로, 직전 감소 이후에 시작한 요청만 감소에 반영한다.
+ * (감소 전에 시작한 요청들 때문에 한도가 연달아 최소값까지 떨어지지 않도록)
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long thresholdNanos;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long thresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.thresholdNanos = thresholdNanos;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * 한도 안이면 처리 중 수를 늘리고 그 값을, 한도를 넘으면 -1을 반환
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * 처리 완료 (처리 시간을 한도에 반영)
+     * @param inflightAtStart 시작 시점의 처리 중 수 (tryAcquire 반환값)
+     * @param dropped 예외 등으로 처리하지 못한 요청
+     */
+    void release(long startNanos, int inflightAtStart, boolean dropped) {
+        long now = System.nanoTime();
+        inflight.decrementAndGet();
+        boolean overloaded = dropped || now - startNanos > thresholdNanos;
+        synchronized (this) {
+            if (overloaded) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inflightAtStart * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    /**
+     * 한도에 반영하지 않고 처리 중 수만 줄임 (다른 한도에 막혀 시작하지 못한 요청)
+     */
+    void cancel() {
+        inflight.decrementAndGet();
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,140 @@
+package com.coupon.service.limit;
+
+import com.coupon.config.IssueLimiterProperties;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 발급 API 동시 처리 한도 (노드 전체 + 쿠폰별)
+ * DB나 Redis가 느려지면 발급 요청이 Tomcat 스레드와 커넥션 풀에서 줄을 서면서 모든 요청의 응답 시간이 함께 늘어난다.
+ * 처리 중인 요청 수를 한도 안으로 묶고, 한도를 넘는 요청은 기다리지 않고 바로 거절(429)해서
+ * 과부하 때도 처리량이 한도만큼은 유지되도록 한다.
+ *
+ * 한도는 발급 처리 시간으로 조정한다. (AimdLimit)
+ * 쿠폰별 한도는 인기 쿠폰 하나가 노드 전체 한도를 다 쓰지 않도록 막는다.
+ * 존재하는 쿠폰에만 한도를 만들고, 메모리에 두는 쿠폰 수는 couponMaximumSize로 묶는다.
+ */
+@Component
+public class IssueConcurrencyLimiter {
+
+    private final IssueLimiterProperties properties;
+    private final CouponMetadataCache couponMetadataCache;
+    private final AimdLimit global;
+    private final Cache<Long, AimdLimit> coupons;
+
+    private final LongAdder globalRejected = new LongAdder();
+    private final LongAdder couponRejected = new LongAdder();
+
+    public IssueConcurrencyLimiter(IssueLimiterProperties properties, CouponMetadataCache couponMetadataCache) {
+        this.properties = properties;
+        this.couponMetadataCache = couponMetadataCache;
+        this.global = new AimdLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+                properties.backoffRatio(), properties.latencyThreshold().toNanos());
+        this.coupons = Caffeine.newBuilder()
+                .maximumSize(properties.couponMaximumSize())
+                .expireAfterAccess(properties.couponIdleTimeout())
+                .build();
+    }
+
+    /**
+     * 처리 허가 요청
+     * @return 허가 (처리가 끝나면 반드시 release), 한도 초과면 null
+     * @throws IllegalArgumentException 존재하지 않는 쿠폰 (한도를 만들지 않음)
+     */
+    public Permit tryAcquire(Long couponId) {
+        if (!properties.enabled()) {
+            return Permit.UNLIMITED;
+        }
+        couponMetadataCache.get(couponId);
+        AimdLimit coupon = coupons.get(couponId, id -> new AimdLimit(properties.couponInitialLimit(),
+                properties.couponMinLimit(), properties.couponMaxLimit(),
+                properties.backoffRatio(), properties.latencyThreshold().toNanos()));
+        int couponInflight = coupon.tryAcquire();
+        if (couponInflight < 0) {
+            couponRejected.increment();
+            return null;
+        }
+        int globalInflight = global.tryAcquire();
+        if (globalInflight < 0) {
+            coupon.cancel();
+            globalRejected.increment();
+            return null;
+        }
+        return new Permit(coupon, couponInflight, global, globalInflight, System.nanoTime());
+    }
+
+    public int limit() {
+        return global.limit();
+    }
+
+    public int inflight() {
+        return global.inflight();
+    }
+
+    /**
+     * 쿠폰별 한도 (발급 요청이 없었으면 시작값)
+     */
+    public int couponLimit(Long couponId) {
+        AimdLimit coupon = coupons.getIfPresent(couponId);
+        return coupon != null ? coupon.limit() : properties.couponInitialLimit();
+    }
+
+    public int couponInflight(Long couponId) {
+        AimdLimit coupon = coupons.getIfPresent(couponId);
+        return coupon != null ? coupon.inflight() : 0;
+    }
+
+    long couponCount() {
+        return coupons.estimatedSize();
+    }
+
+    public long globalRejected() {
+        return globalRejected.sum();
+    }
+
+    public long couponRejected() {
+        return couponRejected.sum();
+    }
+
+    public long retryAfterSeconds() {
+        return Math.max(1L, properties.retryAfter().toSeconds());
+    }
+
+    /**
+     * 발급 처리 허가
+     */
+    public static final class Permit {
+
+        static final Permit UNLIMITED = new Permit(null, 0, null, 0, 0L);
+
+        private final AimdLimit coupon;
+        private final int couponInflight;
+        private final AimdLimit global;
+        private final int globalInflight;
+        private final long startNanos;
+
+        private Permit(AimdLimit coupon, int couponInflight, AimdLimit global, int globalInflight, long startNanos) {
+            this.coupon = coupon;
+            this.couponInflight = couponInflight;
+            this.global = global;
+            this.globalInflight = globalInflight;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * 처리 완료
+         * @param dropped DB/Redis 오류나 타임아웃으로 끝난 요청 (과부하 신호로 보고 한도를 줄임)
+         */
+        public void release(boolean dropped) {
+            if (this == UNLIMITED) {
+                return;
+            }
+            coupon.release(startNanos, couponInflight, dropped);
+            global.release(startNanos, globalInflight, dropped);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.coupon.service.listing;
+
+import com.coupon.config.CouponMetadataCacheProperties;
+import com.coupon.config.EventListingProperties;
+import com.coupon.domain.Coupon;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.EventListResponse;
+import com.coupon.service.dto.EventListResponse.EventItem;
+import com.coupon.service.dto.EventListResponse.EventStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 이벤트 목록 (진행 중 / 오픈 예정 / 종료)
+ * 요청마다 쿠폰 테이블을 읽지 않도록 세 목록을 메모리에 미리 만들어 두고, JSON으로 직렬화한 byte[]를 그대로 응답한다.
+ *
+ * - 쿠폰 목록: 기동 시, 쿠폰 변경 알림(메타데이터 캐시 무효화 채널) 후, reloadInterval마다 DB에서 읽음
+ * - 목록 이동: 다음 startAt/endAt 경계 시각에 한 번만 실행되는 타이머로 처리 (요청마다 기간을 비교하지 않음)
+ * - 잔여 재고: stockRefreshInterval마다 진행 중/오픈 예정 쿠폰 재고를 파이프라인 한 번으로 읽음
+ * 목록 내용이 바뀐 경우에만 해당 목록을 다시 직렬화한다.
+ */
+@Slf4j
+@Component
+public class EventListingService implements MessageListener {
+
+    private final EventListingProperties properties;
+    private final CouponRepository couponRepository;
+    private final CouponStockService couponStockService;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * 모든 상태 변경(다시 읽기, 목록 이동, 재고 반영)을 한 번에 하나씩 처리
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private List<Coupon> coupons = List.of();
+    private Map<Long, Long> stocks = Map.of();
+    private final Map<EventStatus, List<EventItem>> lists = new EnumMap<>(EventStatus.class);
+    private ScheduledFuture<?> transitionTimer;
+
+    /**
+     * 직렬화된 목록 (바뀔 때마다 새 Map으로 교체, 조회는 잠금 없이 참조만 읽음)
+     */
+    private volatile Map<EventStatus, byte[]> responses;
+
+    private volatile boolean reloadRequested = true;
+    private volatile long lastReloadMillis;
+
+    public EventListingService(EventListingProperties properties,
+                               CouponRepository couponRepository,
+                               CouponStockService couponStockService,
+                               ObjectMapper objectMapper,
+                               TaskScheduler taskScheduler,
+                               RedisMessageListenerContainer listenerContainer,
+                               CouponMetadataCacheProperties metadataCacheProperties) {
+        this.properties = properties;
+        this.couponRepository = couponRepository;
+        this.couponStockService = couponStockService;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        // 쿠폰 생성/수정 시 모든 노드에 발행되는 메타데이터 캐시 무효화 메시지를 함께 받음
+        listenerContainer.addMessageListener(this, new ChannelTopic(metadataCacheProperties.invalidationChannel()));
+        Map<EventStatus, byte[]> empty = new EnumMap<>(EventStatus.class);
+        for (EventStatus status : EventStatus.values()) {
+            lists.put(status, List.of());
+            empty.put(status, serialize(status, List.of()));
+        }
+        this.responses = empty;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh();
+        taskScheduler.scheduleWithFixedDelay(this::refresh, properties.stockRefreshInterval());
+    }
+
+    /**
+     * 직렬화된 목록 (요청 경로에서는 참조만 반환)
+     */
+    public byte[] getList(EventStatus status) {
+        return responses.get(status);
+    }
+
+    /**
+     * 쿠폰 변경 알림 수신 (바로 DB를 읽지 않고 다음 refresh에 모아서 반영)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reloadRequested = true;
+    }
+
+    /**
+     * 주기 작업: 필요하면 DB에서 쿠폰을 다시 읽고, 재고를 갱신해 바뀐 목록만 다시 직렬화
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            if (reloadRequested || System.currentTimeMillis() - lastReloadMillis >= properties.reloadInterval().toMillis()) {
+                reload();
+            }
+            refreshStocks();
+            publish(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("이벤트 목록 갱신 실패 - error: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reload() {
+        reloadRequested = false;
+        lastReloadMillis = System.currentTimeMillis();
+        coupons = couponRepository.findByEndAtAfter(LocalDateTime.now().minus(properties.endedRetention()));
+        scheduleTransition(LocalDateTime.now());
+        log.debug("이벤트 목록 쿠폰 조회 - {}개", coupons.size());
+    }
+
+    /**
+     * 진행 중/오픈 예정 쿠폰 재고 조회 (종료 쿠폰은 마지막으로 읽은 값 유지)
+     */
+    private void refreshStocks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> liveIds = new ArrayList<>();
+        for (Coupon coupon : coupons) {
+            if (statusOf(coupon, now) != EventStatus.ENDED) {
+                liveIds.add(coupon.getId());
+            }
+        }
+        Map<Long, Long> refreshed = new HashMap<>(coupons.size() * 2);
+        for (Coupon coupon : coupons) {
+            Long last = stocks.get(coupon.getId());
+            if (last != null) {
+                refreshed.put(coupon.getId(), last);
+            }
+        }
+        refreshed.putAll(couponStockService.getStocks(liveIds));
+        stocks = refreshed;
+    }
+
+    /**
+     * 목록을 다시 나누고 내용이 바뀐 목록만 직렬화
+     */
+    private void publish(LocalDateTime now) {
+        Map<EventStatus, List<EventItem>> next = new EnumMap<>(EventStatus.class);
+        for (EventStatus status : EventStatus.values()) {
+            next.put(status, new ArrayList<>());
+        }
+        for (Coupon coupon : coupons) {
+            Long stock = stocks.get(coupon.getId());
+            next.get(statusOf(coupon, now)).add(new EventItem(
+                    coupon.getId(),
+                    coupon.getName(),
+                    coupon.getTotalQuantity(),
+                    stock != null ? stock : coupon.getRemainingQuantity(),
+                    coupon.getStartAt(),
+                    coupon.getEndAt()));
+        }
+        next.get(EventStatus.ACTIVE).sort(Comparator.comparing(EventItem::endAt));
+        next.get(EventStatus.UPCOMING).sort(Comparator.comparing(EventItem::startAt));
+        next.get(EventStatus.ENDED).sort(Comparator.comparing(EventItem::endAt).reversed());
+
+        Map<EventStatus, byte[]> changed = null;
+        for (EventStatus status : EventStatus.values()) {
+            List<EventItem> items = List.copyOf(next.get(status));
+            if (!items.equals(lists.get(status))) {
+                if (changed == null) {
+                    changed = new EnumMap<>(responses);
+                }
+                lists.put(status, items);
+                changed.put(status, serialize(status, items));
+            }
+        }
+        if (changed != null) {
+            responses = changed;
+        }
+    }
+
+    /**
+     * 가장 가까운 startAt/endAt 경계에 목록 이동 예약 (이전 예약은 취소)
+     */
+    private void scheduleTransition(LocalDateTime now) {
+        if (transitionTimer != null) {
+            transitionTimer.cancel(false);
+            transitionTimer = null;
+        }
+        LocalDateTime boundary = null;
+        for (Coupon coupon : coupons) {
+            for (LocalDateTime candidate : List.of(coupon.getStartAt(), coupon.getEndAt())) {
+                if (!candidate.isBefore(now) && (boundary == null || candidate.isBefore(boundary))) {
+                    boundary = candidate;
+                }
+            }
+        }
+        if (boundary == null) {
+            return;
+        }
+        // 발급 기간은 startAt < now < endAt 이므로 경계 바로 뒤에 실행
+        transitionTimer = taskScheduler.schedule(this::transition,
+                boundary.plusNanos(1_000_000).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private void transition() {
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            refreshStocks();
+            publish(now);
+            scheduleTransition(now);
+        } catch (RuntimeException e) {
+            log.warn("이벤트 목록 이동 실패 - error: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static EventStatus statusOf(Coupon coupon, LocalDateTime now) {
+        if (!now.isBefore(coupon.getEndAt())) {
+            return EventStatus.ENDED;
+        }
+        return now.isAfter(coupon.getStartAt()) ? EventStatus.ACTIVE : EventStatus.UPCOMING;
+    }
+
+    private byte[] serialize(EventStatus status, List<EventItem> items) {
+        try {
+            return objectMapper.writeValueAsBytes(new EventListResponse(status, LocalDateTime.now(), items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("이벤트 목록 직렬화 실패", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.coupon.service.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 노드 간 잠금 (SET NX PX + 토큰)
+ * 잠금 값에 잡은 쪽의 토큰을 기록하고, 연장/해제는 토큰이 같을 때만 한다. (lock_extend.lua, lock_release.lua)
+ * lease가 지나 다른 노드가 잡은 잠금을 늦게 끝난 작업이 지우지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLock {
+
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final DefaultRedisScript<Long> lockReleaseScript;
+    private final DefaultRedisScript<Long> lockExtendScript;
+
+    /**
+     * @return 잠금 토큰 (해제 시 사용), 다른 쪽이 잡고 있으면 null
+     */
+    public Long tryAcquire(String key, Duration lease) {
+        long token = ThreadLocalRandom.current().nextLong();
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, lease)) ? token : null;
+    }
+
+    /**
+     * 내 토큰일 때만 lease 연장
+     * @return false = lease가 지나 이미 풀렸거나 다른 쪽이 잡음 (잠금을 잃었으므로 작업을 멈춰야 함)
+     */
+    public boolean extend(String key, long token, Duration lease) {
+        Long extended = redisTemplate.execute(lockExtendScript, List.of(key), token, lease.toMillis());
+        return extended != null && extended == 1L;
+    }
+
+    /**
+     * 내 토큰일 때만 해제
+     * @return false = lease가 지나 이미 풀렸거나 다른 쪽이 잡음
+     */
+    public boolean release(String key, long token) {
+        Long released = redisTemplate.execute(lockReleaseScript, List.of(key), token);
+        return released != null && released == 1L;
+    }
+}
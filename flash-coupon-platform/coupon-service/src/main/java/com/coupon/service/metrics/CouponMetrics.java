@@ -0,0 +1,275 @@
+package com.coupon.service.metrics;
+
+import com.coupon.service.CouponStockService;
+import com.coupon.service.limit.IssueConcurrencyLimiter;
+import com.coupon.service.writebehind.IssueWriteBehindPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 쿠폰 발급 단계별 지표 (Prometheus: /actuator/prometheus)
+ * 발급 경로에서 태그 배열이나 Timer.Sample을 만들지 않도록 모든 미터를 기동 시 미리 등록하고,
+ * 시간은 System.nanoTime() 차이로 기록한다.
+ *
+ * - coupon_issue_stage_seconds{stage}        : metadata / stock_script / db_insert
+ * - coupon_issue_outcome_total{result}       : success / duplicate / sold_out / rejected / error
+ * - coupon_issue_compensation_total{type}    : rollback (Redis 롤백) / restock (재고만 복구) / restock_failed (재고 복구 실패, 재고가 덜 남음)
+ * - coupon_stock_remaining{couponId}         : 쿠폰별 Redis 잔여 재고 (발급 요청이 들어온 쿠폰만, 종료되면 제거)
+ * - coupon_writebehind_pending               : Write-Behind 큐 대기 건수
+ * - coupon_reconcile_divergence_total{type}  : missing_in_redis / orphaned_in_redis (대사에서 발견한 불일치)
+ * - coupon_reconcile_repaired_total          : 대사에서 복구한 건수
+ * - coupon_outbox_published_total            : Outbox에서 발행한 발급 이벤트 수
+ * - coupon_outbox_lag_seconds                : 발행을 기다리는 가장 오래된 발급 이벤트의 대기 시간 (Relay 실행 시점 기준)
+ * - coupon_issue_limit / coupon_issue_inflight : 노드 전체 발급 동시 처리 한도 / 처리 중인 요청 수
+ * - coupon_issue_limited_total{scope}        : coupon / global (동시 처리 한도를 넘어 429로 거절한 요청 수)
+ */
+@Slf4j
+@Component
+public class CouponMetrics {
+
+    private static final Duration STOCK_GAUGE_PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private final MeterRegistry registry;
+    private final CouponStockService couponStockService;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * 쿠폰별 잔여 재고 게이지 (종료 시각이 지나면 노드마다 제거)
+     */
+    private final Map<Long, StockGauge> stockGauges = new ConcurrentHashMap<>();
+
+    private final Timer metadataTimer;
+    private final Timer stockScriptTimer;
+    private final Timer dbInsertTimer;
+
+    private final Counter successCounter;
+    private final Counter duplicateCounter;
+    private final Counter soldOutCounter;
+    private final Counter rejectedCounter;
+    private final Counter errorCounter;
+
+    private final Counter rollbackCounter;
+    private final Counter restockCounter;
+    private final Counter restockFailedCounter;
+
+    private final Counter missingInRedisCounter;
+    private final Counter orphanedInRedisCounter;
+    private final Counter reconcileRepairedCounter;
+
+    private final Counter outboxPublishedCounter;
+    private final AtomicLong outboxLagMillis = new AtomicLong();
+
+    public CouponMetrics(MeterRegistry registry,
+                         CouponStockService couponStockService,
+                         IssueWriteBehindPipeline issueWriteBehindPipeline,
+                         IssueConcurrencyLimiter issueConcurrencyLimiter,
+                         TaskScheduler taskScheduler) {
+        this.registry = registry;
+        this.couponStockService = couponStockService;
+        this.taskScheduler = taskScheduler;
+
+        this.metadataTimer = stageTimer("metadata");
+        this.stockScriptTimer = stageTimer("stock_script");
+        this.dbInsertTimer = stageTimer("db_insert");
+
+        this.successCounter = outcomeCounter("success");
+        this.duplicateCounter = outcomeCounter("duplicate");
+        this.soldOutCounter = outcomeCounter("sold_out");
+        this.rejectedCounter = outcomeCounter("rejected");
+        this.errorCounter = outcomeCounter("error");
+
+        this.rollbackCounter = compensationCounter("rollback");
+        this.restockCounter = compensationCounter("restock");
+        this.restockFailedCounter = compensationCounter("restock_failed");
+
+        this.missingInRedisCounter = divergenceCounter("missing_in_redis");
+        this.orphanedInRedisCounter = divergenceCounter("orphaned_in_redis");
+        this.reconcileRepairedCounter = Counter.builder("coupon.reconcile.repaired")
+                .description("대사에서 복구한 건수")
+                .register(registry);
+
+        this.outboxPublishedCounter = Counter.builder("coupon.outbox.published")
+                .description("Outbox에서 발행한 발급 이벤트 수")
+                .register(registry);
+        Gauge.builder("coupon.outbox.lag", outboxLagMillis, lag -> lag.get() / 1000.0)
+                .description("발행을 기다리는 가장 오래된 발급 이벤트의 대기 시간")
+                .baseUnit("seconds")
+                .register(registry);
+
+        Gauge.builder("coupon.writebehind.pending", issueWriteBehindPipeline, IssueWriteBehindPipeline::pendingCount)
+                .description("Write-Behind 큐에서 DB 저장을 기다리는 발급 건수")
+                .register(registry);
+
+        Gauge.builder("coupon.issue.limit", issueConcurrencyLimiter, IssueConcurrencyLimiter::limit)
+                .description("노드 전체 발급 동시 처리 한도")
+                .register(registry);
+        Gauge.builder("coupon.issue.inflight", issueConcurrencyLimiter, IssueConcurrencyLimiter::inflight)
+                .description("처리 중인 발급 요청 수")
+                .register(registry);
+        FunctionCounter.builder("coupon.issue.limited", issueConcurrencyLimiter, IssueConcurrencyLimiter::couponRejected)
+                .description("동시 처리 한도를 넘어 거절한 발급 요청 수")
+                .tag("scope", "coupon")
+                .register(registry);
+        FunctionCounter.builder("coupon.issue.limited", issueConcurrencyLimiter, IssueConcurrencyLimiter::globalRejected)
+                .description("동시 처리 한도를 넘어 거절한 발급 요청 수")
+                .tag("scope", "global")
+                .register(registry);
+    }
+
+    public void recordMetadata(long startNanos) {
+        metadataTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStockScript(long startNanos) {
+        stockScriptTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDbInsert(long startNanos) {
+        dbInsertTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void success() {
+        successCounter.increment();
+    }
+
+    public void duplicate() {
+        duplicateCounter.increment();
+    }
+
+    public void soldOut() {
+        soldOutCounter.increment();
+    }
+
+    /**
+     * 발급 기간 아님, 대기열 순서 아님, Write-Behind 큐 포화 등 재고와 무관한 거절
+     */
+    public void rejected() {
+        rejectedCounter.increment();
+    }
+
+    public void error() {
+        errorCounter.increment();
+    }
+
+    public void rollback() {
+        rollbackCounter.increment();
+    }
+
+    public void restock() {
+        restockCounter.increment();
+    }
+
+    public void restockFailed() {
+        restockFailedCounter.increment();
+    }
+
+    public void reconciled(long missingInRedis, long orphanedInRedis, long repaired) {
+        missingInRedisCounter.increment(missingInRedis);
+        orphanedInRedisCounter.increment(orphanedInRedis);
+        reconcileRepairedCounter.increment(repaired);
+    }
+
+    public void outboxPublished(int count) {
+        outboxPublishedCounter.increment(count);
+    }
+
+    public void outboxLag(long millis) {
+        outboxLagMillis.set(millis);
+    }
+
+    /**
+     * 쿠폰별 잔여 재고 게이지 등록 (최초 1회, 값은 스크랩 시점에 Redis에서 조회)
+     * endAt이 지나면 pruneStockGauges에서 제거한다.
+     */
+    public void trackStock(Long couponId, LocalDateTime endAt) {
+        if (stockGauges.containsKey(couponId)) {
+            return;
+        }
+        stockGauges.computeIfAbsent(couponId, id -> new StockGauge(
+                Gauge.builder("coupon.stock.remaining", () -> remainingStock(id))
+                        .description("쿠폰별 Redis 잔여 재고")
+                        .tag("couponId", id.toString())
+                        .strongReference(true)
+                        .register(registry),
+                endAt));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startStockGaugePruner() {
+        taskScheduler.scheduleWithFixedDelay(() -> pruneStockGauges(LocalDateTime.now()), STOCK_GAUGE_PRUNE_INTERVAL);
+    }
+
+    /**
+     * 종료된 쿠폰의 잔여 재고 게이지 제거 (종료 후에는 발급 요청이 없어 다시 등록되지 않는다)
+     * @return 제거한 게이지 수
+     */
+    public int pruneStockGauges(LocalDateTime now) {
+        int removed = 0;
+        for (Map.Entry<Long, StockGauge> entry : stockGauges.entrySet()) {
+            if (now.isAfter(entry.getValue().endAt()) && stockGauges.remove(entry.getKey(), entry.getValue())) {
+                registry.remove(entry.getValue().gauge());
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.debug("종료된 쿠폰 잔여 재고 게이지 제거 - {}개", removed);
+        }
+        return removed;
+    }
+
+    private double remainingStock(Long couponId) {
+        try {
+            return couponStockService.getStock(couponId);
+        } catch (RuntimeException e) {
+            log.debug("잔여 재고 게이지 조회 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("coupon.issue.stage")
+                .description("쿠폰 발급 단계별 소요 시간")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter outcomeCounter(String result) {
+        return Counter.builder("coupon.issue.outcome")
+                .description("쿠폰 발급 결과별 건수")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter compensationCounter(String type) {
+        return Counter.builder("coupon.issue.compensation")
+                .description("보상 처리 건수")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private Counter divergenceCounter(String type) {
+        return Counter.builder("coupon.reconcile.divergence")
+                .description("대사에서 발견한 Redis-DB 불일치 건수")
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private record StockGauge(Gauge gauge, LocalDateTime endAt) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.coupon.service.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 메모리 보관 발행기 (브로커 없이 실행할 때와 테스트용)
+ * 최근 capacity개만 보관하고 오래된 이벤트부터 버린다.
+ */
+public class InMemoryIssueEventPublisher implements IssueEventPublisher {
+
+    private final int capacity;
+    private final Deque<IssueEvent> events = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long publishedCount;
+
+    public InMemoryIssueEventPublisher(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void publish(List<IssueEvent> batch) {
+        lock.lock();
+        try {
+            for (IssueEvent event : batch) {
+                if (events.size() == capacity) {
+                    events.pollFirst();
+                }
+                events.addLast(event);
+            }
+            publishedCount += batch.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 보관 중인 이벤트 (발행 순서)
+     */
+    public List<IssueEvent> events() {
+        lock.lock();
+        try {
+            return new ArrayList<>(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지금까지 발행된 전체 건수 (버린 이벤트 포함)
+     */
+    public long publishedCount() {
+        lock.lock();
+        try {
+            return publishedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
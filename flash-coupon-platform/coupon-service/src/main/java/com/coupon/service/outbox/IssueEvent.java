@@ -0,0 +1,17 @@
+package com.coupon.service.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰 발급 이벤트 (알림 서비스 등 외부 소비자용)
+ * eventId는 Outbox 행 ID로, 같은 이벤트가 다시 전달될 수 있으므로 소비자는 eventId로 중복을 걸러야 한다.
+ */
+public record IssueEvent(
+        long eventId,
+        long couponId,
+        long userId,
+        String code,
+        LocalDateTime issuedAt,
+        LocalDateTime createdAt
+) {
+}
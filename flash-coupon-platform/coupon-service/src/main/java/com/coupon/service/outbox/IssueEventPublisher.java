@@ -0,0 +1,15 @@
+package com.coupon.service.outbox;
+
+import java.util.List;
+
+/**
+ * 발급 이벤트 발행 (메시지 브로커 연동 지점)
+ * 예외 없이 반환하면 Outbox에서 삭제되고, 예외를 던지면 같은 배치를 다음 주기에 다시 발행한다. (at-least-once)
+ */
+public interface IssueEventPublisher {
+
+    /**
+     * eventId 순서대로 발행
+     */
+    void publish(List<IssueEvent> events);
+}
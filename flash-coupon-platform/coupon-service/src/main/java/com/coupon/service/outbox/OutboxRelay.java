@@ -0,0 +1,147 @@
+package com.coupon.service.outbox;
+
+import com.coupon.config.OutboxProperties;
+import com.coupon.repository.IssueOutboxRepository;
+import com.coupon.service.lock.RedisLock;
+import com.coupon.service.metrics.CouponMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 발급 이벤트 Outbox 발행 (Relay)
+ * 발급 경로는 Outbox 행만 기록하고, 브로커 발행은 이 Relay가 pollInterval마다 배치로 처리한다.
+ *
+ * - 순서: Redis 잠금을 잡은 한 노드만 발행하고, 배치는 Outbox id 순으로 읽어 마지막 발행 id에 이어지는 구간만 발행한다.
+ *         id는 INSERT 시점에 정해지고 커밋은 그보다 늦을 수 있어, 비어 있는 id는 커밋 전 트랜잭션일 수 있다.
+ *         빈 id 뒤의 이벤트는 그 이벤트가 visibilityLag보다 오래될 때까지 기다리고, 그 뒤에는 롤백으로 보고 건너뛴다.
+ * - at-least-once: 발행이 끝난 배치만 삭제한다. 발행 후 삭제 전에 실패하면 같은 이벤트가 다시 발행되므로
+ *                  소비자는 eventId로 중복을 걸러야 한다.
+ * - 지연: 남아 있는 가장 오래된 이벤트의 대기 시간을 coupon_outbox_lag_seconds로 노출한다.
+ *
+ * 키
+ * - coupon:outbox:relay:lock   : 발행 노드 잠금 (lockLease 동안 유지, 발행이 끝나면 토큰이 같을 때만 해제)
+ * - coupon:outbox:relay:cursor : 마지막으로 발행한 Outbox id (없으면 남아 있는 가장 작은 id부터)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final String LOCK_KEY = "coupon:outbox:relay:lock";
+    private static final String CURSOR_KEY = "coupon:outbox:relay:cursor";
+
+    private final OutboxProperties properties;
+    private final IssueOutboxRepository issueOutboxRepository;
+    private final IssueEventPublisher issueEventPublisher;
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final RedisLock redisLock;
+    private final CouponMetrics couponMetrics;
+    private final TaskScheduler taskScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelay() {
+        if (properties.enabled() && properties.relayEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::relay, properties.pollInterval());
+        }
+    }
+
+    /**
+     * 주기 작업: 잠금을 잡은 경우에만 발행
+     * @return 발행한 이벤트 수
+     */
+    public int relay() {
+        Long token;
+        try {
+            token = redisLock.tryAcquire(LOCK_KEY, properties.lockLease());
+            if (token == null) {
+                return 0;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox 발행 잠금 실패 - error: {}", e.getMessage());
+            return 0;
+        }
+
+        try {
+            return drain();
+        } catch (RuntimeException e) {
+            // 발행하지 못한 배치는 남아 있으므로 다음 주기에 같은 순서로 다시 발행
+            log.warn("Outbox 발행 실패 - error: {}", e.getMessage());
+            return 0;
+        } finally {
+            if (!redisLock.release(LOCK_KEY, token)) {
+                log.warn("Outbox 발행 잠금이 먼저 만료됨 - lockLease({})를 늘려야 합니다", properties.lockLease());
+            }
+        }
+    }
+
+    /**
+     * 최대 maxBatchesPerRun개 배치를 발행 → 삭제 순으로 처리
+     */
+    private int drain() {
+        Long cursor = redisTemplate.opsForValue().get(CURSOR_KEY);
+        long next = cursor != null ? cursor + 1 : -1L;
+        int published = 0;
+        for (int run = 0; run < properties.maxBatchesPerRun(); run++) {
+            List<IssueEvent> batch = issueOutboxRepository.findBatch(properties.batchSize());
+            if (batch.isEmpty()) {
+                couponMetrics.outboxLag(0L);
+                break;
+            }
+            couponMetrics.outboxLag(Duration.between(batch.get(0).createdAt(), LocalDateTime.now()).toMillis());
+
+            List<IssueEvent> ready = new ArrayList<>(batch.size());
+            next = visiblePrefix(batch, next, ready);
+            if (ready.isEmpty()) {
+                break;
+            }
+            issueEventPublisher.publish(ready);
+            issueOutboxRepository.deleteAll(ready.stream().map(IssueEvent::eventId).toList());
+            redisTemplate.opsForValue().set(CURSOR_KEY, next - 1);
+            couponMetrics.outboxPublished(ready.size());
+            published += ready.size();
+
+            if (ready.size() < batch.size()) {
+                break;
+            }
+            if (batch.size() < properties.batchSize()) {
+                couponMetrics.outboxLag(0L);
+                break;
+            }
+        }
+        if (published > 0) {
+            log.debug("Outbox 발행 - {}건", published);
+        }
+        return published;
+    }
+
+    /**
+     * 배치 앞에서부터 발행해도 순서가 바뀌지 않는 이벤트를 ready에 담는다.
+     * - next 이하: 이어지는 id이거나, 건너뛴 뒤 늦게 커밋된 이벤트 (순서는 어긋나지만 유실하지 않도록 바로 발행)
+     * - next 초과 (빈 id): 이 이벤트가 visibilityLag보다 오래됐으면 빈 id는 롤백으로 보고 건너뜀, 아니면 여기서 멈춤
+     * @return 다음에 기대하는 id (-1 = 아직 모름)
+     */
+    private long visiblePrefix(List<IssueEvent> batch, long next, List<IssueEvent> ready) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.visibilityLag());
+        for (IssueEvent event : batch) {
+            if (next >= 0 && event.eventId() > next && event.createdAt().isAfter(cutoff)) {
+                break;
+            }
+            if (next >= 0 && event.eventId() < next) {
+                log.warn("늦게 커밋된 Outbox 이벤트를 순서 밖에서 발행 - eventId: {}, 기대 id: {}", event.eventId(), next);
+            }
+            ready.add(event);
+            next = Math.max(next, event.eventId() + 1);
+        }
+        return next;
+    }
+}
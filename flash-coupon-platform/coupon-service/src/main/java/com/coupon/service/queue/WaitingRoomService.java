@@ -0,0 +1,202 @@
+package com.coupon.service.queue;
+
+import com.coupon.config.WaitingRoomProperties;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.dto.QueueTicketResponse;
+import com.coupon.service.stock.SoldOutRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대기열 (Virtual Waiting Room)
+ * 발급 요청 전에 Redis Sorted Set 대기열에 순번을 받고, 주기마다 잔여 재고에 비례한 인원만 입장시킨다.
+ * - 입장 시점에 잔여 재고 대비 대기 인원이 허용치를 넘으면 바로 거절
+ * - 입장 허용된 사용자만 /issue 호출 가능
+ *
+ * 키 (대기열 관련 키는 같은 슬롯에 놓이도록 해시 태그 사용)
+ * - coupon:queue:{id}          : 대기열 (member = userId, score = 순번)
+ * - coupon:queue:{id}:seq      : 순번 시퀀스
+ * - coupon:queue:{id}:admitted : 입장 허용 인원 (순위가 이 값보다 작으면 입장)
+ * - coupon:queue:{id}:tick     : 주기당 한 노드만 입장 인원을 늘리도록 하는 제어 키
+ * - coupon:queue:active        : 대기열이 열린 쿠폰 ID 목록
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitingRoomService {
+
+    private static final String QUEUE_KEY_PREFIX = "coupon:queue:";
+    private static final String ACTIVE_KEY = "coupon:queue:active";
+
+    private final WaitingRoomProperties properties;
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final DefaultRedisScript<Long> queueEnterScript;
+    private final DefaultRedisScript<Long> queueStatusScript;
+    private final DefaultRedisScript<Long> queueAdmitScript;
+    private final CouponStockService couponStockService;
+    private final CouponMetadataCache couponMetadataCache;
+    private final SoldOutRegistry soldOutRegistry;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * 입장 주기마다 갱신하는 쿠폰별 잔여 재고 (입장 요청마다 재고를 조회하지 않기 위함)
+     */
+    private final Map<Long, Long> remainingStocks = new ConcurrentHashMap<>();
+
+    /**
+     * 이 노드가 활성 목록에 등록한 쿠폰 (입장 요청마다 SADD 하지 않기 위함)
+     */
+    private final Set<Long> registeredCoupons = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * 대기열 입장 (순번 발급)
+     */
+    public QueueTicketResponse enter(Long couponId, Long userId) {
+        if (!properties.enabled()) {
+            return QueueTicketResponse.of(couponId, userId, 0);
+        }
+        if (soldOutRegistry.isSoldOut(couponId)) {
+            return QueueTicketResponse.rejected(couponId, userId);
+        }
+
+        long remaining = remainingStocks.computeIfAbsent(couponId, couponStockService::getStock);
+        long capacity = (long) Math.floor(remaining * properties.overbookRatio());
+
+        Long position = redisTemplate.execute(
+                queueEnterScript,
+                List.of(queueKey(couponId), seqKey(couponId), admittedKey(couponId)),
+                userId,
+                capacity,
+                properties.queueTtl().toSeconds()
+        );
+
+        if (position == null || position < 0) {
+            log.debug("대기열 입장 거절 - couponId: {}, userId: {}, remaining: {}", couponId, userId, remaining);
+            return QueueTicketResponse.rejected(couponId, userId);
+        }
+
+        if (registeredCoupons.add(couponId)) {
+            redisTemplate.opsForSet().add(ACTIVE_KEY, couponId);
+        }
+        return QueueTicketResponse.of(couponId, userId, position);
+    }
+
+    /**
+     * 대기 순번 조회 (클라이언트 폴링용)
+     */
+    public QueueTicketResponse getTicket(Long couponId, Long userId) {
+        if (!properties.enabled()) {
+            return QueueTicketResponse.of(couponId, userId, 0);
+        }
+        return QueueTicketResponse.of(couponId, userId, position(couponId, userId));
+    }
+
+    /**
+     * 발급 요청 가능 여부 (입장 허용된 사용자인지)
+     */
+    public boolean isAdmitted(Long couponId, Long userId) {
+        return !properties.enabled() || position(couponId, userId) == 0;
+    }
+
+    /**
+     * 대기열 모드일 때만 입장 처리 주기 작업 등록
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startAdmission() {
+        if (properties.enabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::admit, properties.admissionInterval());
+        }
+    }
+
+    /**
+     * 주기마다 대기열을 진행시킨다.
+     * 입장 인원 = 잔여 재고 x admissionRatio (minRate ~ maxRate), 한 주기에 한 노드만 반영된다.
+     */
+    public void admit() {
+        Set<Long> activeCoupons = redisTemplate.opsForSet().members(ACTIVE_KEY);
+        if (activeCoupons == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long couponId : activeCoupons) {
+            try {
+                admit(couponId, now);
+            } catch (RuntimeException e) {
+                log.warn("대기열 입장 처리 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+            }
+        }
+    }
+
+    private void admit(Long couponId, LocalDateTime now) {
+        CouponMetadata coupon = couponMetadataCache.get(couponId);
+        if (now.isAfter(coupon.endAt())) {
+            redisTemplate.opsForSet().remove(ACTIVE_KEY, couponId);
+            registeredCoupons.remove(couponId);
+            remainingStocks.remove(couponId);
+            return;
+        }
+
+        long remaining = couponStockService.getStock(couponId);
+        remainingStocks.put(couponId, remaining);
+        if (remaining <= 0 || now.isBefore(coupon.startAt())) {
+            return;
+        }
+
+        long rate = Math.max(properties.minRate(),
+                Math.min(properties.maxRate(), (long) Math.ceil(remaining * properties.admissionRatio())));
+
+        Long admitted = redisTemplate.execute(
+                queueAdmitScript,
+                List.of(admittedKey(couponId), tickKey(couponId), queueKey(couponId)),
+                rate,
+                properties.admissionInterval().toMillis(),
+                properties.queueTtl().toSeconds()
+        );
+        if (admitted != null && admitted >= 0) {
+            log.debug("대기열 입장 허용 - couponId: {}, rate: {}, admitted: {}", couponId, rate, admitted);
+        }
+    }
+
+    private long position(Long couponId, Long userId) {
+        Long position = redisTemplate.execute(
+                queueStatusScript,
+                List.of(queueKey(couponId), admittedKey(couponId)),
+                userId
+        );
+        return position != null ? position : -1L;
+    }
+
+    private String queueKey(Long couponId) {
+        return QUEUE_KEY_PREFIX + "{" + couponId + "}";
+    }
+
+    private String seqKey(Long couponId) {
+        return queueKey(couponId) + ":seq";
+    }
+
+    private String admittedKey(Long couponId) {
+        return queueKey(couponId) + ":admitted";
+    }
+
+    private String tickKey(Long couponId) {
+        return queueKey(couponId) + ":tick";
+    }
+}
@@ -0,0 +1,374 @@
+package com.coupon.service.reconcile;
+
+import com.coupon.config.ReconciliationProperties;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.CouponRepository;
+import com.coupon.repository.IssuedUserRow;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.ReconciliationResponse;
+import com.coupon.service.lock.RedisLock;
+import com.coupon.service.metrics.CouponMetrics;
+import com.coupon.service.stock.IssuedScanPage;
+import com.coupon.service.stock.StockLayout;
+import com.coupon.service.writebehind.IssueWriteBehindPipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis ↔ DB 발급 내역 대사 (사용자 단위)
+ * 발급을 멈추지 않고 청크 단위로 조금씩 비교하며, 불일치는 사용자별 Lua Script로 원자적으로 복구한다.
+ *
+ * - DB → Redis : coupon_issues를 id keyset으로 읽어 Redis 발급 기록이 없는 사용자를 찾는다. (missingInRedis)
+ *                확인한 마지막 id를 HWM으로 저장해 다음 실행은 그 뒤부터 읽는다.
+ *                DB 저장 시각(recorded_at)이 grace보다 최근인 행에서 멈추므로, 그보다 작은 id의 트랜잭션이 늦게 커밋되어도 놓치지 않는다.
+ * - Redis → DB : 발급 사용자 키를 SSCAN(비트맵은 바이트 구간)으로 순회하며 DB 발급 내역이 없는 사용자를 찾는다.
+ *                진행 중인 발급일 수 있으므로 바로 복구하지 않고, grace가 지난 뒤 다시 확인해도 없으면 복구한다. (orphanedInRedis)
+ *                Write-Behind 저널이 발견 시각 + grace 이후까지 DB에 반영되지 않았으면 (장애로 멈춘 노드 포함) 복구를 미룬다.
+ *                순회 위치는 실행 사이에 유지되어 매 실행은 maxChunksPerRun 만큼만 읽는다.
+ *
+ * 키
+ * - coupon:reconcile:{id}:hwm  : DB 쪽 HWM (확인을 마친 마지막 coupon_issues.id)
+ * - coupon:reconcile:{id}:lock : 한 쿠폰은 한 노드만 대사하도록 하는 잠금 (토큰으로 잡고 청크마다 연장, 연장에 실패하면 중단)
+ * 순회 위치와 복구 대기 사용자는 잠금을 잡은 노드의 메모리에만 둔다. (다른 노드로 넘어가면 처음부터 다시 순회)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IssueReconciler {
+
+    private static final String KEY_PREFIX = "coupon:reconcile:";
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(5);
+
+    private final ReconciliationProperties properties;
+    private final CouponRepository couponRepository;
+    private final CouponIssueRepository couponIssueRepository;
+    private final CouponStockService couponStockService;
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final RedisLock redisLock;
+    private final CouponMetrics couponMetrics;
+    private final IssueWriteBehindPipeline issueWriteBehindPipeline;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * 쿠폰별 Redis 발급 사용자 키 순회 위치
+     */
+    private final Map<Long, RedisSweep> sweeps = new ConcurrentHashMap<>();
+
+    /**
+     * 쿠폰별 DB 발급 내역이 없던 사용자 (userId → 처음 발견한 시각 ms), grace가 지나면 다시 확인
+     */
+    private final Map<Long, Map<Long, Long>> suspects = new ConcurrentHashMap<>();
+
+    /**
+     * 대사 모드일 때만 주기 작업 등록
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReconciliation() {
+        if (properties.enabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::reconcileActiveCoupons, properties.interval());
+        }
+    }
+
+    /**
+     * 발급 중(종료 후 endedWithin 이내 포함)인 쿠폰을 maxChunksPerRun 만큼씩 대사
+     */
+    public void reconcileActiveCoupons() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> couponIds = couponRepository.findStartedIdsEndingAfter(now, now.minus(properties.endedWithin()));
+        for (Long couponId : couponIds) {
+            try {
+                reconcile(couponId, properties.maxChunksPerRun());
+            } catch (RuntimeException e) {
+                log.warn("대사 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+            }
+        }
+        // 대상에서 빠진 쿠폰의 순회 상태 정리
+        sweeps.keySet().retainAll(couponIds);
+        suspects.keySet().retainAll(couponIds);
+    }
+
+    /**
+     * 한 쿠폰 전체 대사 (운영용)
+     * DB는 grace 이전 행까지, Redis는 발급 사용자 키 끝까지 읽는다.
+     * 이번에 처음 발견한 Redis 쪽 불일치는 grace가 지난 뒤 다음 실행에서 복구된다. (pendingOrphans)
+     * 청크마다 잠금을 연장하며, 대사가 길어져 잠금을 잃으면 IllegalStateException으로 중단한다.
+     */
+    public ReconciliationResponse reconcile(Long couponId) {
+        ReconciliationResponse response = reconcile(couponId, Integer.MAX_VALUE);
+        if (response == null) {
+            throw new IllegalStateException("다른 노드에서 대사 중입니다: " + couponId);
+        }
+        return response;
+    }
+
+    /**
+     * @return 다른 노드가 대사 중이면 null
+     */
+    private ReconciliationResponse reconcile(Long couponId, int maxChunks) {
+        Long token = redisLock.tryAcquire(lockKey(couponId), LOCK_LEASE);
+        if (token == null) {
+            return null;
+        }
+        try {
+            StockLayout layout = couponStockService.layoutOf(couponId);
+            Tally tally = new Tally(couponId, token);
+
+            resolveSuspects(couponId, tally);
+            long highWaterMark = reconcileDb(couponId, maxChunks, tally);
+            boolean sweepCompleted = reconcileRedis(couponId, layout, maxChunks, tally);
+
+            couponMetrics.reconciled(tally.missingInRedis, tally.orphanedInRedis, tally.repaired);
+            Map<Long, Long> pending = suspects.get(couponId);
+            ReconciliationResponse response = new ReconciliationResponse(
+                    couponId,
+                    tally.dbRowsChecked,
+                    tally.redisUsersChecked,
+                    tally.missingInRedis,
+                    tally.orphanedInRedis,
+                    tally.repaired,
+                    tally.stockShortage,
+                    pending != null ? pending.size() : 0,
+                    highWaterMark,
+                    sweepCompleted
+            );
+
+            if (tally.missingInRedis > 0 || tally.orphanedInRedis > 0) {
+                log.warn("대사 불일치 - {}", response);
+            } else {
+                log.debug("대사 완료 - {}", response);
+            }
+            return response;
+        } finally {
+            if (!redisLock.release(lockKey(couponId), token)) {
+                log.warn("대사 잠금이 이미 만료됨 - couponId: {}", couponId);
+            }
+        }
+    }
+
+    /**
+     * 청크를 처리하기 전에 잠금 연장 (잃었으면 다른 노드가 같은 쿠폰을 대사 중일 수 있으므로 중단)
+     */
+    private void extendLock(Tally tally) {
+        if (!redisLock.extend(lockKey(tally.couponId), tally.lockToken, LOCK_LEASE)) {
+            throw new IllegalStateException("대사 잠금을 잃어 중단합니다: " + tally.couponId);
+        }
+    }
+
+    /**
+     * DB → Redis: HWM 이후 발급 내역 중 Redis 발급 기록이 없는 사용자 복원
+     */
+    private long reconcileDb(Long couponId, int maxChunks, Tally tally) {
+        Long saved = redisTemplate.opsForValue().get(hwmKey(couponId));
+        long highWaterMark = saved != null ? saved : 0L;
+        LocalDateTime settledBefore = LocalDateTime.now().minus(properties.grace());
+
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            extendLock(tally);
+            List<IssuedUserRow> rows = couponIssueRepository.findIssuedAfter(
+                    couponId, highWaterMark, Limit.of(properties.chunkSize()));
+
+            // grace 이내에 저장된 행부터는 다음 실행에서 확인 (그보다 작은 id가 아직 커밋 전일 수 있음)
+            // 발급 시각(issuedAt)은 Write-Behind 저장 시각보다 한참 이를 수 있어 DB 저장 시각으로 판단한다
+            int settled = 0;
+            while (settled < rows.size() && rows.get(settled).recordedAt().isBefore(settledBefore)) {
+                settled++;
+            }
+            if (settled == 0) {
+                break;
+            }
+
+            List<Long> userIds = new ArrayList<>(settled);
+            for (int i = 0; i < settled; i++) {
+                userIds.add(rows.get(i).userId());
+            }
+            boolean[] issued = couponStockService.areIssued(couponId, userIds);
+            for (int i = 0; i < settled; i++) {
+                if (!issued[i]) {
+                    tally.missingInRedis++;
+                    if (properties.repair()) {
+                        restore(couponId, userIds.get(i), tally);
+                    }
+                }
+            }
+
+            tally.dbRowsChecked += settled;
+            highWaterMark = rows.get(settled - 1).id();
+            redisTemplate.opsForValue().set(hwmKey(couponId), highWaterMark);
+
+            if (settled < rows.size() || rows.size() < properties.chunkSize()) {
+                break;
+            }
+        }
+        return highWaterMark;
+    }
+
+    private void restore(Long couponId, Long userId, Tally tally) {
+        long result = couponStockService.restoreIssuedUser(couponId, userId);
+        if (result == 0L) {
+            return;
+        }
+        tally.repaired++;
+        if (result == 2L) {
+            tally.stockShortage++;
+        }
+    }
+
+    /**
+     * Redis → DB: 발급 사용자 키를 이어서 순회하며 DB 발급 내역이 없는 사용자를 복구 대기 목록에 추가
+     * @return 이번 실행에서 순회가 끝났는지
+     */
+    private boolean reconcileRedis(Long couponId, StockLayout layout, int maxChunks, Tally tally) {
+        RedisSweep sweep = sweeps.computeIfAbsent(couponId, id -> new RedisSweep(couponStockService.issuedKeys(layout)));
+        Map<Long, Long> pending = suspects.computeIfAbsent(couponId, id -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+
+        for (int chunk = 0; chunk < maxChunks && !sweep.isDone(); chunk++) {
+            extendLock(tally);
+            IssuedScanPage page = couponStockService.scanIssuedUsers(
+                    layout, sweep.currentKey(), sweep.cursor, properties.chunkSize());
+            sweep.advance(page);
+            tally.redisUsersChecked += page.userIds().size();
+
+            for (List<Long> userIds : partition(page.userIds())) {
+                Set<Long> persisted = new HashSet<>(couponIssueRepository.findIssuedUserIds(couponId, userIds));
+                for (Long userId : userIds) {
+                    if (!persisted.contains(userId)) {
+                        pending.putIfAbsent(userId, now);
+                    }
+                }
+            }
+        }
+
+        if (sweep.isDone()) {
+            sweeps.remove(couponId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * grace가 지난 복구 대기 사용자를 다시 확인해, 여전히 Redis에만 있으면 발급 기록 제거 + 재고 복구
+     */
+    private void resolveSuspects(Long couponId, Tally tally) {
+        Map<Long, Long> pending = suspects.get(couponId);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        // 발견 시각 이전에 발급된 사용자가 아직 어떤 노드의 저널에만 있을 수 있으면 그 저널이 반영될 때까지 기다린다
+        long now = System.currentTimeMillis();
+        long settledThrough = issueWriteBehindPipeline.clusterSettledThrough();
+        long deadline = Math.min(now, settledThrough) - properties.grace().toMillis();
+        List<Long> due = new ArrayList<>();
+        int deferred = 0;
+        for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+            if (entry.getValue() <= deadline) {
+                due.add(entry.getKey());
+            } else if (entry.getValue() <= now - properties.grace().toMillis()) {
+                deferred++;
+            }
+        }
+        if (deferred > 0) {
+            log.warn("Write-Behind 저널 미반영으로 복구 보류 - couponId: {}, users: {}, settledThrough: {}",
+                    couponId, deferred, settledThrough);
+        }
+
+        for (List<Long> userIds : partition(due)) {
+            extendLock(tally);
+            Set<Long> persisted = new HashSet<>(couponIssueRepository.findIssuedUserIds(couponId, userIds));
+            boolean[] issued = couponStockService.areIssued(couponId, userIds);
+            for (int i = 0; i < userIds.size(); i++) {
+                Long userId = userIds.get(i);
+                pending.remove(userId);
+                // 그 사이 DB에 저장되었거나 요청 경로에서 이미 롤백된 사용자는 제외
+                if (persisted.contains(userId) || !issued[i]) {
+                    continue;
+                }
+                tally.orphanedInRedis++;
+                if (properties.repair() && couponStockService.rollback(couponId, userId)) {
+                    tally.repaired++;
+                }
+            }
+        }
+    }
+
+    private List<List<Long>> partition(List<Long> userIds) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < userIds.size(); from += properties.chunkSize()) {
+            chunks.add(userIds.subList(from, Math.min(from + properties.chunkSize(), userIds.size())));
+        }
+        return chunks;
+    }
+
+    private String hwmKey(Long couponId) {
+        return KEY_PREFIX + "{" + couponId + "}:hwm";
+    }
+
+    private String lockKey(Long couponId) {
+        return KEY_PREFIX + "{" + couponId + "}:lock";
+    }
+
+    /**
+     * 발급 사용자 키 목록과 현재 키의 커서
+     */
+    private static final class RedisSweep {
+
+        private final List<String> keys;
+        private int keyIndex;
+        private long cursor;
+
+        private RedisSweep(List<String> keys) {
+            this.keys = keys;
+        }
+
+        private boolean isDone() {
+            return keyIndex >= keys.size();
+        }
+
+        private String currentKey() {
+            return keys.get(keyIndex);
+        }
+
+        private void advance(IssuedScanPage page) {
+            if (page.isLast()) {
+                keyIndex++;
+                cursor = 0L;
+            } else {
+                cursor = page.cursor();
+            }
+        }
+    }
+
+    /**
+     * 한 번의 대사 실행 상태 (잡은 잠금 토큰 + 집계)
+     */
+    private static final class Tally {
+        private final Long couponId;
+        private final long lockToken;
+        private long dbRowsChecked;
+        private long redisUsersChecked;
+        private long missingInRedis;
+        private long orphanedInRedis;
+        private long repaired;
+        private long stockShortage;
+
+        private Tally(Long couponId, long lockToken) {
+            this.couponId = couponId;
+            this.lockToken = lockToken;
+        }
+    }
+}
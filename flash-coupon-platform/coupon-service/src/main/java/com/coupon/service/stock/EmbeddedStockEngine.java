@@ -0,0 +1,410 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.EmbeddedStockProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 내장 재고 엔진 (단일 노드 전용)
+ * 재고와 발급 사용자를 JVM 메모리에 두고, 변경은 메모리 매핑 저널(StockJournal)에 기록한다.
+ * 발급 경로에 네트워크 왕복이 없으므로 한 노드로 오픈 트래픽을 받을 때 쓴다. 여러 노드가 재고를 나눠 쓰려면 Redis 엔진을 쓴다.
+ *
+ * - 재고: 쿠폰별 AtomicLong, CAS로 0 아래로 내려가지 않게 감소 (샤드 설정은 무시, 한 카운터로 충분)
+ * - 발급 사용자: 쿠폰별 ConcurrentSkipListSet (정렬되어 있어 대사 순회 커서를 사용자 ID로 쓸 수 있음)
+ * - 감소 순서: 발급 사용자 추가(이미 있으면 -1) → 재고 CAS 감소(실패하면 사용자 제거 후 0) → 저널 기록
+ *   사용자를 먼저 추가하므로 같은 사용자의 동시 요청이 재고를 두 번 가져가지 않는다.
+ * - 기동 시 저널을 재생해 상태를 복원하고, 현재 상태만 담은 새 저널로 교체해 저널 크기를 상태 크기로 줄인다.
+ * - 만료 시각(expireAt)이 지난 쿠폰은 저널 flush 주기마다 메모리에서 지우고 삭제 레코드를 남긴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "coupon.stock", name = "engine", havingValue = "embedded")
+public class EmbeddedStockEngine implements StockEngine {
+
+    /**
+     * 재고 미초기화 표시 (Redis 엔진의 "재고 키 없음"에 해당)
+     */
+    private static final long UNINITIALIZED = Long.MIN_VALUE;
+
+    private static final String JOURNAL_FILE = "stock-journal.log";
+    private static final String COMPACT_FILE = "stock-journal.log.compact";
+
+    // 저널 레코드 종류
+    private static final byte INIT = 1;            // 재고 = value
+    private static final byte ISSUE = 2;           // 사용자 value 추가, 재고 -1
+    private static final byte MARK = 3;            // 사용자 value 추가
+    private static final byte INCREMENT = 4;       // 재고 +1
+    private static final byte REMOVE = 5;          // 사용자 value 제거
+    private static final byte REMOVE_RESTOCK = 6;  // 사용자 value 제거, 재고 +1
+    private static final byte EXPIRE = 7;          // 만료 시각 = value (epoch millis)
+    private static final byte DROP = 8;            // 쿠폰 상태 삭제
+
+    private final EmbeddedStockProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final Map<Long, CouponStock> coupons = new ConcurrentHashMap<>();
+    private final StockJournal journal;
+
+    public EmbeddedStockEngine(EmbeddedStockProperties properties, TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        this.journal = openJournal(Path.of(properties.journalDir()), properties.segmentSize().toBytes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlush() {
+        log.info("내장 재고 엔진 사용 - 단일 노드 전용, journal: {}", properties.journalDir());
+        taskScheduler.scheduleWithFixedDelay(this::flush, properties.flushInterval());
+    }
+
+    private void flush() {
+        purgeExpired(System.currentTimeMillis());
+        journal.force();
+    }
+
+    private void purgeExpired(long nowMillis) {
+        for (Map.Entry<Long, CouponStock> entry : coupons.entrySet()) {
+            if (entry.getValue().expireAtMillis <= nowMillis && coupons.remove(entry.getKey(), entry.getValue())) {
+                journal.append(DROP, entry.getKey(), 0L);
+                log.info("만료된 쿠폰 재고 삭제 - couponId: {}", entry.getKey());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("재고 저널 닫기 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 기존 저널 재생 → 현재 상태만 새 저널에 기록 → 원자적으로 교체
+     */
+    private StockJournal openJournal(Path directory, long segmentSize) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(JOURNAL_FILE);
+            Path compact = directory.resolve(COMPACT_FILE);
+
+            long records = 0L;
+            try (StockJournal previous = new StockJournal(file, segmentSize)) {
+                records = previous.replay(this::apply);
+            }
+
+            Files.deleteIfExists(compact);
+            StockJournal compacted = new StockJournal(compact, segmentSize);
+            long written = writeSnapshot(compacted);
+            compacted.force();
+            // 열려 있는 채널은 이름이 바뀐 뒤에도 같은 파일에 이어 쓴다
+            Files.move(compact, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            log.info("재고 저널 복원 - coupons: {}, replayed: {}, compacted: {}", coupons.size(), records, written);
+            return compacted;
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널 초기화 실패: " + directory, e);
+        }
+    }
+
+    private long writeSnapshot(StockJournal target) {
+        long written = 0L;
+        for (Map.Entry<Long, CouponStock> entry : coupons.entrySet()) {
+            CouponStock state = entry.getValue();
+            for (Long userId : state.issued) {
+                target.append(MARK, entry.getKey(), userId);
+                written++;
+            }
+            long stock = state.stock.get();
+            if (stock != UNINITIALIZED) {
+                target.append(INIT, entry.getKey(), stock);
+                written++;
+            }
+            if (state.expireAtMillis != Long.MAX_VALUE) {
+                target.append(EXPIRE, entry.getKey(), state.expireAtMillis);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 저널 레코드 반영 (재생용, 기록 당시 실제로 일어난 변경만 기록되어 있으므로 조건 없이 적용)
+     */
+    private void apply(byte type, long couponId, long value) {
+        if (type == DROP) {
+            coupons.remove(couponId);
+            return;
+        }
+        CouponStock state = stateOf(couponId);
+        switch (type) {
+            case INIT -> state.stock.set(value);
+            case ISSUE -> {
+                state.issued.add(value);
+                state.addStock(-1);
+            }
+            case MARK -> state.issued.add(value);
+            case INCREMENT -> state.addStock(1);
+            case REMOVE -> state.issued.remove(value);
+            case REMOVE_RESTOCK -> {
+                state.issued.remove(value);
+                state.addStock(1);
+            }
+            case EXPIRE -> state.expireAtMillis = value;
+            default -> log.warn("알 수 없는 재고 저널 레코드 - type: {}, couponId: {}", type, couponId);
+        }
+    }
+
+    @Override
+    public void initialize(StockLayout layout, long quantity) {
+        stateOf(layout.couponId()).stock.set(quantity);
+        journal.append(INIT, layout.couponId(), quantity);
+    }
+
+    @Override
+    public long initializeIfAbsent(StockLayout layout, long totalQuantity) {
+        CouponStock state = stateOf(layout.couponId());
+        if (state.stock.get() != UNINITIALIZED) {
+            return 0L;
+        }
+        long remaining = Math.max(0L, totalQuantity - state.issued.size());
+        if (state.stock.compareAndSet(UNINITIALIZED, remaining)) {
+            journal.append(INIT, layout.couponId(), remaining);
+            return remaining;
+        }
+        return 0L;
+    }
+
+    @Override
+    public boolean[] missing(List<StockLayout> layouts) {
+        boolean[] missing = new boolean[layouts.size()];
+        for (int i = 0; i < layouts.size(); i++) {
+            CouponStock state = coupons.get(layouts.get(i).couponId());
+            missing[i] = state == null || state.stock.get() == UNINITIALIZED;
+        }
+        return missing;
+    }
+
+    @Override
+    public void markIssued(StockLayout layout, List<Long> userIds) {
+        CouponStock state = stateOf(layout.couponId());
+        for (Long userId : userIds) {
+            if (state.issued.add(userId)) {
+                journal.append(MARK, layout.couponId(), userId);
+            }
+        }
+    }
+
+    @Override
+    public int decrement(StockLayout layout, long userId) {
+        CouponStock state = coupons.get(layout.couponId());
+        if (state == null) {
+            return -2;
+        }
+        if (!state.issued.add(userId)) {
+            return -1;
+        }
+        long result = state.tryDecrement();
+        if (result != 1) {
+            state.issued.remove(userId);
+            return (int) result;
+        }
+        journal.append(ISSUE, layout.couponId(), userId);
+        return 1;
+    }
+
+    @Override
+    public long[] decrementBulk(StockLayout layout, List<Long> userIds) {
+        long[] results = new long[userIds.size()];
+        for (int i = 0; i < userIds.size(); i++) {
+            results[i] = decrement(layout, userIds.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public long getStock(StockLayout layout) {
+        CouponStock state = coupons.get(layout.couponId());
+        if (state == null) {
+            return 0L;
+        }
+        long stock = state.stock.get();
+        return stock == UNINITIALIZED ? 0L : stock;
+    }
+
+    @Override
+    public Map<Long, Long> getStocks(List<StockLayout> layouts) {
+        Map<Long, Long> stocks = new HashMap<>(layouts.size() * 2);
+        for (StockLayout layout : layouts) {
+            CouponStock state = coupons.get(layout.couponId());
+            long stock = state != null ? state.stock.get() : UNINITIALIZED;
+            if (stock != UNINITIALIZED) {
+                stocks.put(layout.couponId(), stock);
+            }
+        }
+        return stocks;
+    }
+
+    @Override
+    public boolean isIssued(StockLayout layout, long userId) {
+        CouponStock state = coupons.get(layout.couponId());
+        return state != null && state.issued.contains(userId);
+    }
+
+    @Override
+    public boolean[] areIssued(StockLayout layout, List<Long> userIds) {
+        boolean[] issued = new boolean[userIds.size()];
+        for (int i = 0; i < userIds.size(); i++) {
+            issued[i] = isIssued(layout, userIds.get(i));
+        }
+        return issued;
+    }
+
+    /**
+     * ConcurrentSkipListSet.size()는 전체를 세므로 대사/일관성 확인에서만 호출한다.
+     */
+    @Override
+    public long issuedUserCount(StockLayout layout) {
+        CouponStock state = coupons.get(layout.couponId());
+        return state != null ? state.issued.size() : 0L;
+    }
+
+    /**
+     * 발급 사용자는 쿠폰별 하나의 집합에 있으므로 키도 하나
+     */
+    @Override
+    public List<String> issuedKeys(StockLayout layout) {
+        return List.of(layout.issuedKey(0));
+    }
+
+    /**
+     * 사용자 ID 오름차순 순회, 커서 = 다음에 읽을 최소 사용자 ID (0 = 처음부터)
+     */
+    @Override
+    public IssuedScanPage scanIssuedUsers(StockLayout layout, String issuedKey, long cursor, int count) {
+        CouponStock state = coupons.get(layout.couponId());
+        if (state == null) {
+            return new IssuedScanPage(0L, List.of());
+        }
+        NavigableSet<Long> remaining = state.issued.tailSet(cursor == 0L ? Long.MIN_VALUE : cursor, true);
+        List<Long> userIds = new ArrayList<>(count);
+        Iterator<Long> iterator = remaining.iterator();
+        while (iterator.hasNext() && userIds.size() < count) {
+            userIds.add(iterator.next());
+        }
+        long next = iterator.hasNext() ? userIds.get(userIds.size() - 1) + 1 : 0L;
+        return new IssuedScanPage(next, userIds);
+    }
+
+    @Override
+    public void increment(StockLayout layout, long userId) {
+        if (stateOf(layout.couponId()).addStock(1)) {
+            journal.append(INCREMENT, layout.couponId(), userId);
+        }
+    }
+
+    @Override
+    public boolean rollback(StockLayout layout, long userId, boolean restoreStock) {
+        CouponStock state = coupons.get(layout.couponId());
+        if (state == null || !state.issued.remove(userId)) {
+            return false;
+        }
+        if (restoreStock) {
+            state.addStock(1);
+        }
+        journal.append(restoreStock ? REMOVE_RESTOCK : REMOVE, layout.couponId(), userId);
+        return true;
+    }
+
+    @Override
+    public long restoreIssuedUser(StockLayout layout, long userId) {
+        CouponStock state = stateOf(layout.couponId());
+        if (!state.issued.add(userId)) {
+            return 0L;
+        }
+        if (state.tryDecrement() == 1) {
+            journal.append(ISSUE, layout.couponId(), userId);
+            return 1L;
+        }
+        journal.append(MARK, layout.couponId(), userId);
+        return 2L;
+    }
+
+    /**
+     * 만료 시각을 저널에 기록하고 flush 주기에 삭제 (재시작해도 저널 재생으로 만료 시각이 유지됨)
+     */
+    @Override
+    public void expireAt(StockLayout layout, Instant at) {
+        CouponStock state = coupons.get(layout.couponId());
+        if (state == null) {
+            return;
+        }
+        state.expireAtMillis = at.toEpochMilli();
+        journal.append(EXPIRE, layout.couponId(), state.expireAtMillis);
+    }
+
+    private CouponStock stateOf(long couponId) {
+        return coupons.computeIfAbsent(couponId, id -> new CouponStock());
+    }
+
+    private static final class CouponStock {
+        private final AtomicLong stock = new AtomicLong(UNINITIALIZED);
+        private final ConcurrentSkipListSet<Long> issued = new ConcurrentSkipListSet<>();
+        private volatile long expireAtMillis = Long.MAX_VALUE;
+
+        /**
+         * @return 1: 감소, 0: 재고 없음, -2: 재고 미초기화
+         */
+        private long tryDecrement() {
+            while (true) {
+                long current = stock.get();
+                if (current == UNINITIALIZED) {
+                    return -2L;
+                }
+                if (current <= 0L) {
+                    return 0L;
+                }
+                if (stock.compareAndSet(current, current - 1)) {
+                    return 1L;
+                }
+            }
+        }
+
+        /**
+         * 초기화된 재고에만 반영
+         * @return 반영했는지
+         */
+        private boolean addStock(long delta) {
+            while (true) {
+                long current = stock.get();
+                if (current == UNINITIALIZED) {
+                    return false;
+                }
+                if (stock.compareAndSet(current, current + delta)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.coupon.service.stock;
+
+import java.util.List;
+
+/**
+ * 발급 사용자 키를 순회한 한 페이지
+ * cursor = 다음 호출에 넘길 커서 (0 = 키 끝까지 읽음)
+ */
+public record IssuedScanPage(long cursor, List<Long> userIds) {
+
+    public boolean isLast() {
+        return cursor == 0L;
+    }
+}
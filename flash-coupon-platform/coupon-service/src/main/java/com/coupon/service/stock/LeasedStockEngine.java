@@ -0,0 +1,734 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockLeaseProperties;
+import com.coupon.config.WriteBehindProperties;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 노드 재고 임대 엔진 (Redis 엔진 위에서 동작)
+ * 노드가 Redis 재고에서 leaseSize개를 한 번에 가져와(임대) 로컬 AtomicLong으로 감소하므로
+ * 발급 1건당 Redis 재고 왕복이 1/leaseSize로 줄어든다. 임대는 Redis에서 원자적으로 차감되므로 초과 발급은 없다.
+ *
+ * - 사용자 분할: userId 해시 % nodeCount == nodeIndex 인 사용자만 로컬에서 처리한다. (게이트웨이가 같은 해시로 라우팅)
+ *   담당 사용자의 발급 기록은 이 노드에만 생기므로 중복 검사는 로컬 Set으로 정확하다.
+ *   처음 쓰는 쿠폰은 Redis 발급 사용자 키에서 담당 사용자를 읽어 로컬 Set을 채운다.
+ * - 담당이 아닌 사용자(라우팅 어긋남)는 Redis 엔진 경로 그대로 처리한다.
+ * - 로컬 발급 사용자는 flushInterval마다 Redis 발급 사용자 키에 일괄 기록한다. (대사, 재초기화, 조회가 그대로 동작)
+ * - 임대 현황은 담당 샤드의 coupon:lease:{id} Hash(필드 = 노드 번호)에 있고, reportInterval마다 남은 수량을 보고한다.
+ *   보고할 때 필드가 없으면(재고 재초기화, Redis 유실) 임대가 무효가 된 것이므로 로컬 재고를 버린다.
+ * - 임대/보고할 때 coupon:lease-at:{id}에 Redis 시각을 남긴다. leaseTtl 동안 갱신되지 않은 노드(장애)의 임대는
+ *   다른 노드가 회수하고 그 샤드 재고를 재초기화한다. 노드는 leaseTtl의 절반 동안 보고하지 못하면 로컬 재고를 쓰지 않는다.
+ * - 반납: 유휴(idleTimeout 동안 감소 없음), 발급 종료 임박(returnBeforeEnd), 종료 시 남은 재고를 Redis로 돌려준다.
+ * - Write-Behind 저장과 함께 쓸 수 없다. (생성자 참고)
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "coupon.stock", name = "engine", havingValue = "leased")
+public class LeasedStockEngine implements StockEngine {
+
+    private static final int SEED_PAGE_SIZE = 1000;
+
+    private final RedisStockEngine redisStockEngine;
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final DefaultRedisScript<Long> stockBorrowScript;
+    private final DefaultRedisScript<Long> stockLeaseScript;
+    private final DefaultRedisScript<Long> stockLeaseReturnScript;
+    private final DefaultRedisScript<Long> stockLeaseReportScript;
+    private final DefaultRedisScript<Long> stockLeaseSweepScript;
+    private final StockLeaseProperties properties;
+    private final SoldOutRegistry soldOutRegistry;
+    private final CouponMetadataCache couponMetadataCache;
+    private final TaskScheduler taskScheduler;
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    // 쿠폰별 상태 생성(Redis 발급 사용자 스캔)을 한 번만 하고, 동시에 들어온 요청은 같은 결과를 기다린다
+    private final Map<Long, CompletableFuture<Lease>> seeds = new ConcurrentHashMap<>();
+
+    /**
+     * 로컬에만 있는(pending) 발급 기록은 노드 장애 시 사라지고, 재시작 후에는 Redis 발급 사용자 키로만 상태를 채운다.
+     * 동기 DB 저장이면 사라진 사용자의 재발급을 발급 내역 유니크 키가 막지만, Write-Behind는 중복을 건너뛰고
+     * 성공으로 응답하므로 함께 쓰지 않는다.
+     */
+    public LeasedStockEngine(RedisStockEngine redisStockEngine,
+                             RedisTemplate<String, Long> redisTemplate,
+                             DefaultRedisScript<Long> stockBorrowScript,
+                             DefaultRedisScript<Long> stockLeaseScript,
+                             DefaultRedisScript<Long> stockLeaseReturnScript,
+                             DefaultRedisScript<Long> stockLeaseReportScript,
+                             DefaultRedisScript<Long> stockLeaseSweepScript,
+                             StockLeaseProperties properties,
+                             WriteBehindProperties writeBehindProperties,
+                             SoldOutRegistry soldOutRegistry,
+                             CouponMetadataCache couponMetadataCache,
+                             TaskScheduler taskScheduler) {
+        if (writeBehindProperties.enabled()) {
+            throw new IllegalStateException(
+                    "임대 재고 엔진(coupon.stock.engine=leased)은 Write-Behind 저장(coupon.issue.write-behind.enabled)과 함께 쓸 수 없습니다");
+        }
+        this.redisStockEngine = redisStockEngine;
+        this.redisTemplate = redisTemplate;
+        this.stockBorrowScript = stockBorrowScript;
+        this.stockLeaseScript = stockLeaseScript;
+        this.stockLeaseReturnScript = stockLeaseReturnScript;
+        this.stockLeaseReportScript = stockLeaseReportScript;
+        this.stockLeaseSweepScript = stockLeaseSweepScript;
+        this.properties = properties;
+        this.soldOutRegistry = soldOutRegistry;
+        this.couponMetadataCache = couponMetadataCache;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * 쿠폰별 임대 상태
+     */
+    private static final class Lease {
+        final StockLayout layout;
+        final AtomicLong available = new AtomicLong();
+        final Set<Long> issued = ConcurrentHashMap.newKeySet();
+        final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+        // 임대/반납/보고는 leaseLock, Redis 발급 기록 반영과 롤백은 flushLock으로 순서를 맞춘다
+        final ReentrantLock leaseLock = new ReentrantLock();
+        final ReentrantLock flushLock = new ReentrantLock();
+        // 유휴 판단용 (보고 스레드만 사용)
+        long observedAvailable;
+        long observedAtNanos = System.nanoTime();
+        // Redis에 임대 기록이 남아 있음을 마지막으로 확인한 시각 (임대/보고 요청 직전 기준)
+        volatile long confirmedAtNanos = System.nanoTime();
+        // 다른 노드의 오래된 임대를 마지막으로 회수한 시각 (보고 스레드만 사용)
+        long sweptAtNanos = System.nanoTime();
+
+        Lease(StockLayout layout) {
+            this.layout = layout;
+        }
+    }
+
+    /**
+     * 사용자를 담당하는 노드 번호 (게이트웨이 라우팅에도 같은 계산을 사용)
+     * nodeCount가 샤드 수와 같으면 노드 i의 사용자는 모두 샤드 i에 속한다. (StockLayout.shardOf와 같은 해시)
+     */
+    public static int ownerOf(long userId, int nodeCount) {
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), nodeCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("재고 임대 모드 사용 - node: {}/{}, leaseSize: {}",
+                properties.nodeIndex(), properties.nodeCount(), properties.leaseSize());
+        taskScheduler.scheduleWithFixedDelay(this::flushIssued, properties.flushInterval());
+        taskScheduler.scheduleWithFixedDelay(this::maintain, properties.reportInterval());
+    }
+
+    /**
+     * 종료 시 로컬 발급 기록을 반영하고 남은 임대 재고를 반납
+     */
+    @PreDestroy
+    public void close() {
+        flushIssued();
+        for (Lease lease : leases.values()) {
+            returnLease(lease, "종료");
+        }
+    }
+
+    @Override
+    public void initialize(StockLayout layout, long quantity) {
+        redisStockEngine.initialize(layout, quantity);
+        // 다른 노드의 임대는 다음 보고에서 무효가 됨
+        List<String> leaseKeys = new ArrayList<>(layout.shards());
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            leaseKeys.add(layout.leaseKey(shard));
+            leaseKeys.add(layout.leaseHeartbeatKey(shard));
+        }
+        redisTemplate.delete(leaseKeys);
+        Lease lease = leases.get(layout.couponId());
+        if (lease != null) {
+            lease.available.set(0L);
+        }
+    }
+
+    /**
+     * 이 노드가 발급하고 아직 Redis 발급 사용자 키에 반영하지 않은 사용자도 발급 사용자 수에 포함
+     * (다른 노드의 미반영분은 최대 flushInterval 동안의 발급)
+     */
+    @Override
+    public long initializeIfAbsent(StockLayout layout, long totalQuantity) {
+        Lease lease = leases.get(layout.couponId());
+        long unflushed = lease != null ? lease.pending.size() : 0L;
+        return redisStockEngine.initializeIfAbsent(layout, totalQuantity - unflushed);
+    }
+
+    @Override
+    public boolean[] missing(List<StockLayout> layouts) {
+        return redisStockEngine.missing(layouts);
+    }
+
+    @Override
+    public void markIssued(StockLayout layout, List<Long> userIds) {
+        redisStockEngine.markIssued(layout, userIds);
+        Lease lease = leases.get(layout.couponId());
+        if (lease != null) {
+            for (Long userId : userIds) {
+                if (owns(userId)) {
+                    lease.issued.add(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 담당 사용자: 로컬 발급 사용자 추가(이미 있으면 -1) → 임대 재고 CAS 감소(없으면 새로 임대) → Redis 반영 대기열
+     * 사용자를 먼저 추가하므로 같은 사용자의 동시 요청이 재고를 두 번 가져가지 않는다.
+     */
+    @Override
+    public int decrement(StockLayout layout, long userId) {
+        if (!owns(userId)) {
+            return redisStockEngine.decrement(layout, userId);
+        }
+        Lease lease = leaseOf(layout);
+        if (!lease.issued.add(userId)) {
+            return -1;
+        }
+        int result = take(lease);
+        if (result != 1) {
+            lease.issued.remove(userId);
+            return result;
+        }
+        lease.pending.add(userId);
+        return 1;
+    }
+
+    private int take(Lease lease) {
+        while (true) {
+            long available = lease.available.get();
+            if (available > 0) {
+                if (unconfirmed(lease)) {
+                    discardUnconfirmed(lease);
+                    continue;
+                }
+                if (lease.available.compareAndSet(available, available - 1)) {
+                    return 1;
+                }
+                continue;
+            }
+            // 소진되면 한 스레드만 임대하고 나머지는 기다렸다가 새 재고에서 감소
+            lease.leaseLock.lock();
+            try {
+                if (lease.available.get() > 0) {
+                    continue;
+                }
+                long requestedAt = System.nanoTime();
+                long leased = acquire(lease.layout);
+                lease.confirmedAtNanos = requestedAt;
+                if (leased <= 0) {
+                    return leased < 0 ? -2 : 0;
+                }
+                lease.available.addAndGet(leased);
+            } finally {
+                lease.leaseLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 담당 샤드에서 임대, 담당 샤드가 비었으면 다른 샤드에서 빌려와 담당 샤드에 채운 뒤 임대
+     * 임대 재고는 항상 담당 샤드를 거치므로 반납과 보고도 담당 샤드 키 하나로 끝난다.
+     * @return 임대 수량, 0: 재고 없음, -1: 재고 키 없음
+     */
+    private long acquire(StockLayout layout) {
+        int home = homeShard(layout);
+        long amount = endingSoon(layout.couponId()) ? 1L : properties.leaseSize();
+        Long leased = executeLease(layout, home, amount, 0L);
+
+        if (leased != null && leased == 0 && layout.isSharded()) {
+            for (int i = 1; i < layout.shards(); i++) {
+                int sibling = (home + i) % layout.shards();
+                Long borrowed = redisTemplate.execute(stockBorrowScript, List.of(layout.stockKey(sibling)), amount);
+                if (borrowed != null && borrowed > 0) {
+                    leased = executeLease(layout, home, amount, borrowed);
+                    if (leased != null && leased < 0) {
+                        // 담당 샤드 재고 키가 없어 채우지 못한 재고
+                        redisStockEngine.returnBorrowed(layout, sibling, borrowed);
+                    }
+                    break;
+                }
+            }
+        }
+
+        log.debug("재고 임대 - couponId: {}, shard: {}, leased: {}", layout.couponId(), home, leased);
+        return leased != null ? leased : 0L;
+    }
+
+    private Long executeLease(StockLayout layout, int shard, long amount, long refill) {
+        return redisTemplate.execute(
+                stockLeaseScript,
+                List.of(layout.stockKey(shard), layout.leaseKey(shard), layout.leaseHeartbeatKey(shard)),
+                (long) properties.nodeIndex(),
+                amount,
+                refill
+        );
+    }
+
+    /**
+     * 담당 사용자는 로컬 감소, 나머지는 Redis 엔진 일괄 감소
+     */
+    @Override
+    public long[] decrementBulk(StockLayout layout, List<Long> userIds) {
+        long[] results = new long[userIds.size()];
+        List<Long> others = new ArrayList<>();
+        List<Integer> otherIndexes = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            if (owns(userId)) {
+                results[i] = decrement(layout, userId);
+            } else {
+                others.add(userId);
+                otherIndexes.add(i);
+            }
+        }
+        if (!others.isEmpty()) {
+            long[] remote = redisStockEngine.decrementBulk(layout, others);
+            for (int i = 0; i < remote.length; i++) {
+                results[otherIndexes.get(i)] = remote[i];
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Redis 재고 + 노드들이 임대해 간 미사용 재고 (다른 노드 몫은 최대 reportInterval 전 값)
+     */
+    @Override
+    public long getStock(StockLayout layout) {
+        return getStocks(List.of(layout)).getOrDefault(layout.couponId(), 0L);
+    }
+
+    @Override
+    public Map<Long, Long> getStocks(List<StockLayout> layouts) {
+        Map<Long, Long> stocks = new HashMap<>(redisStockEngine.getStocks(layouts));
+        Map<Long, Long> leased = leasedStocks(layouts);
+        // 재고 키가 없는 쿠폰은 임대분만으로 값을 만들지 않는다
+        leased.forEach((couponId, amount) -> stocks.computeIfPresent(couponId, (id, stock) -> stock + amount));
+        return stocks;
+    }
+
+    /**
+     * 쿠폰별 임대 중인 미사용 재고 (파이프라인 한 번, 이 노드 몫은 로컬 값 사용)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> leasedStocks(List<StockLayout> layouts) {
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (StockLayout layout : layouts) {
+                for (int shard = 0; shard < layout.shards(); shard++) {
+                    hGetAll(connection, layout.leaseKey(shard));
+                }
+            }
+            return null;
+        });
+
+        Map<Long, Long> leased = new HashMap<>(layouts.size() * 2);
+        long self = properties.nodeIndex();
+        int index = 0;
+        for (StockLayout layout : layouts) {
+            Lease lease = leases.get(layout.couponId());
+            long total = lease != null ? lease.available.get() : 0L;
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                Map<Object, Object> nodes = (Map<Object, Object>) values.get(index++);
+                if (nodes == null) {
+                    continue;
+                }
+                for (Map.Entry<Object, Object> node : nodes.entrySet()) {
+                    if (Long.parseLong(node.getKey().toString()) != self) {
+                        total += ((Number) node.getValue()).longValue();
+                    }
+                }
+            }
+            leased.put(layout.couponId(), total);
+        }
+        return leased;
+    }
+
+    private static void hGetAll(RedisConnection connection, String key) {
+        connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean isIssued(StockLayout layout, long userId) {
+        if (owns(userId)) {
+            return leaseOf(layout).issued.contains(userId);
+        }
+        return redisStockEngine.isIssued(layout, userId);
+    }
+
+    /**
+     * Redis 기록 + 아직 Redis에 반영하지 않은 로컬 발급 사용자
+     */
+    @Override
+    public boolean[] areIssued(StockLayout layout, List<Long> userIds) {
+        boolean[] issued = redisStockEngine.areIssued(layout, userIds);
+        Lease lease = leases.get(layout.couponId());
+        if (lease != null) {
+            for (int i = 0; i < issued.length; i++) {
+                issued[i] = issued[i] || lease.issued.contains(userIds.get(i));
+            }
+        }
+        return issued;
+    }
+
+    @Override
+    public long issuedUserCount(StockLayout layout) {
+        Lease lease = leases.get(layout.couponId());
+        return redisStockEngine.issuedUserCount(layout) + (lease != null ? lease.pending.size() : 0);
+    }
+
+    @Override
+    public List<String> issuedKeys(StockLayout layout) {
+        return redisStockEngine.issuedKeys(layout);
+    }
+
+    @Override
+    public IssuedScanPage scanIssuedUsers(StockLayout layout, String issuedKey, long cursor, int count) {
+        return redisStockEngine.scanIssuedUsers(layout, issuedKey, cursor, count);
+    }
+
+    /**
+     * 보상용 재고 복구는 드문 경로라 임대와 무관하게 Redis 재고에 더한다.
+     */
+    @Override
+    public void increment(StockLayout layout, long userId) {
+        redisStockEngine.increment(layout, userId);
+    }
+
+    /**
+     * 담당 사용자: 로컬 기록 제거 후, Redis에 이미 반영했으면 Redis 기록도 제거 (재고는 Redis로 복구)
+     */
+    @Override
+    public boolean rollback(StockLayout layout, long userId, boolean restoreStock) {
+        if (!owns(userId)) {
+            return redisStockEngine.rollback(layout, userId, restoreStock);
+        }
+        Lease lease = leaseOf(layout);
+        lease.flushLock.lock();
+        try {
+            if (!lease.issued.remove(userId)) {
+                return false;
+            }
+            if (lease.pending.remove(userId)) {
+                if (restoreStock) {
+                    redisStockEngine.increment(layout, userId);
+                }
+                return true;
+            }
+            redisStockEngine.rollback(layout, userId, restoreStock);
+            return true;
+        } finally {
+            lease.flushLock.unlock();
+        }
+    }
+
+    @Override
+    public long restoreIssuedUser(StockLayout layout, long userId) {
+        if (owns(userId)) {
+            leaseOf(layout).issued.add(userId);
+        }
+        return redisStockEngine.restoreIssuedUser(layout, userId);
+    }
+
+    /**
+     * 로컬 임대 상태는 발급 종료 후 maintain에서 이미 정리되므로 Redis 키만 만료
+     */
+    @Override
+    public void expireAt(StockLayout layout, Instant at) {
+        redisStockEngine.expireAt(layout, at);
+    }
+
+    /**
+     * 로컬 발급 사용자를 Redis 발급 사용자 키에 일괄 기록 (실패하면 다음 주기에 다시 기록)
+     */
+    public void flushIssued() {
+        for (Lease lease : leases.values()) {
+            if (!lease.pending.isEmpty()) {
+                flush(lease);
+            }
+        }
+    }
+
+    private void flush(Lease lease) {
+        lease.flushLock.lock();
+        try {
+            List<Long> userIds = new ArrayList<>();
+            Long userId;
+            while ((userId = lease.pending.poll()) != null) {
+                userIds.add(userId);
+            }
+            if (userIds.isEmpty()) {
+                return;
+            }
+            try {
+                redisStockEngine.markIssued(lease.layout, userIds);
+            } catch (RuntimeException e) {
+                lease.pending.addAll(userIds);
+                log.warn("발급 사용자 반영 실패 - couponId: {}, size: {}, error: {}",
+                        lease.layout.couponId(), userIds.size(), e.getMessage());
+            }
+        } finally {
+            lease.flushLock.unlock();
+        }
+    }
+
+    /**
+     * 임대 재고 보고 + 유휴/종료 임박 임대 반납
+     */
+    public void maintain() {
+        long now = System.nanoTime();
+        for (Lease lease : leases.values()) {
+            try {
+                maintain(lease, now);
+            } catch (RuntimeException e) {
+                log.warn("재고 임대 점검 실패 - couponId: {}, error: {}", lease.layout.couponId(), e.getMessage());
+            }
+        }
+    }
+
+    private void maintain(Lease lease, long now) {
+        long available = lease.available.get();
+        if (available != lease.observedAvailable) {
+            lease.observedAvailable = available;
+            lease.observedAtNanos = now;
+        }
+
+        LocalDateTime endAt = couponMetadataCache.get(lease.layout.couponId()).endAt();
+        if (available > 0 && !LocalDateTime.now().plus(properties.returnBeforeEnd()).isBefore(endAt)) {
+            returnLease(lease, "발급 종료 임박");
+        } else if (available > 0 && now - lease.observedAtNanos >= properties.idleTimeout().toNanos()) {
+            returnLease(lease, "유휴");
+        } else {
+            report(lease);
+        }
+        if (now - lease.sweptAtNanos >= properties.leaseTtl().toNanos()) {
+            lease.sweptAtNanos = now;
+            sweep(lease.layout);
+        }
+
+        // 발급이 끝난 쿠폰은 Redis에 모두 반영한 뒤 로컬 상태 제거
+        if (LocalDateTime.now().isAfter(endAt) && lease.available.get() == 0 && lease.pending.isEmpty()) {
+            leases.remove(lease.layout.couponId(), lease);
+        }
+    }
+
+    private void report(Lease lease) {
+        StockLayout layout = lease.layout;
+        int home = homeShard(layout);
+        lease.leaseLock.lock();
+        try {
+            long requestedAt = System.nanoTime();
+            Long reported = redisTemplate.execute(
+                    stockLeaseReportScript,
+                    List.of(layout.leaseKey(home), layout.leaseHeartbeatKey(home)),
+                    (long) properties.nodeIndex(),
+                    lease.available.get()
+            );
+            if (reported != null && reported == 1) {
+                lease.confirmedAtNanos = requestedAt;
+            } else if (reported != null && reported == 0) {
+                long dropped = lease.available.getAndSet(0L);
+                if (dropped > 0) {
+                    log.warn("임대 재고 무효화 (재고 재초기화 또는 Redis 유실) - couponId: {}, dropped: {}",
+                            layout.couponId(), dropped);
+                }
+            }
+        } finally {
+            lease.leaseLock.unlock();
+        }
+    }
+
+    private void returnLease(Lease lease, String reason) {
+        StockLayout layout = lease.layout;
+        int home = homeShard(layout);
+        lease.leaseLock.lock();
+        try {
+            long amount = lease.available.getAndSet(0L);
+            if (amount <= 0) {
+                return;
+            }
+            try {
+                Long returned = redisTemplate.execute(
+                        stockLeaseReturnScript,
+                        List.of(layout.stockKey(home), layout.leaseKey(home), layout.leaseHeartbeatKey(home)),
+                        (long) properties.nodeIndex(),
+                        amount
+                );
+                if (returned != null && returned == 1) {
+                    soldOutRegistry.clear(layout.couponId());
+                }
+                log.info("임대 재고 반납 - couponId: {}, amount: {}, reason: {}", layout.couponId(), amount, reason);
+            } catch (RuntimeException e) {
+                lease.available.addAndGet(amount);
+                log.warn("임대 재고 반납 실패 - couponId: {}, amount: {}, error: {}",
+                        layout.couponId(), amount, e.getMessage());
+            }
+        } finally {
+            lease.leaseLock.unlock();
+        }
+    }
+
+    /**
+     * leaseTtl의 절반 동안 Redis에서 임대 기록을 확인하지 못함 (다른 노드가 곧 회수할 수 있음)
+     */
+    private boolean unconfirmed(Lease lease) {
+        return System.nanoTime() - lease.confirmedAtNanos > properties.leaseTtl().toNanos() / 2;
+    }
+
+    /**
+     * 확인하지 못한 임대는 더 쓰지 않고 반납 시도 (이미 회수됐으면 반납 스크립트가 더하지 않음)
+     * 반납도 실패하면 버린다. Redis에 남은 기록은 leaseTtl 뒤 회수된다.
+     */
+    private void discardUnconfirmed(Lease lease) {
+        StockLayout layout = lease.layout;
+        int home = homeShard(layout);
+        lease.leaseLock.lock();
+        try {
+            if (!unconfirmed(lease)) {
+                return;
+            }
+            long amount = lease.available.getAndSet(0L);
+            if (amount <= 0) {
+                return;
+            }
+            try {
+                redisTemplate.execute(
+                        stockLeaseReturnScript,
+                        List.of(layout.stockKey(home), layout.leaseKey(home), layout.leaseHeartbeatKey(home)),
+                        (long) properties.nodeIndex(),
+                        amount
+                );
+            } catch (RuntimeException e) {
+                log.warn("임대 재고 반납 실패, 버림 - couponId: {}, amount: {}, error: {}",
+                        layout.couponId(), amount, e.getMessage());
+            }
+            log.warn("임대 기록을 확인하지 못해 로컬 재고 사용 중단 - couponId: {}, amount: {}", layout.couponId(), amount);
+        } finally {
+            lease.leaseLock.unlock();
+        }
+    }
+
+    /**
+     * leaseTtl 동안 보고하지 않은 노드의 임대를 회수 (샤드마다 스크립트 한 번)
+     * 회수한 샤드는 재고 키가 지워져 다음 발급에서 재초기화되므로 품절 표시를 해제한다.
+     */
+    private void sweep(StockLayout layout) {
+        long swept = 0L;
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            Long count = redisTemplate.execute(
+                    stockLeaseSweepScript,
+                    List.of(layout.stockKey(shard), layout.leaseKey(shard), layout.leaseHeartbeatKey(shard)),
+                    properties.leaseTtl().toMillis()
+            );
+            swept += count != null ? count : 0L;
+        }
+        if (swept > 0) {
+            soldOutRegistry.clear(layout.couponId());
+            log.warn("보고가 끊긴 노드의 임대 회수 - couponId: {}, nodes: {}", layout.couponId(), swept);
+        }
+    }
+
+    /**
+     * 쿠폰 임대 상태 (처음 쓰는 Redis 발급 사용자 키에서 담당 사용자를 읽어 채움)
+     * 스캔은 맵 잠금 밖에서 하고, 같은 쿠폰을 동시에 처음 쓰는 요청은 먼저 시작한 스캔을 기다린다.
+     */
+    private Lease leaseOf(StockLayout layout) {
+        Long couponId = layout.couponId();
+        Lease lease = leases.get(couponId);
+        if (lease != null) {
+            return lease;
+        }
+        CompletableFuture<Lease> seeding = new CompletableFuture<>();
+        CompletableFuture<Lease> running = seeds.putIfAbsent(couponId, seeding);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            lease = leases.get(couponId);
+            if (lease == null) {
+                lease = seed(layout);
+                leases.put(couponId, lease);
+            }
+            seeding.complete(lease);
+            return lease;
+        } catch (RuntimeException e) {
+            seeding.completeExceptionally(e);
+            throw e;
+        } finally {
+            seeds.remove(couponId, seeding);
+        }
+    }
+
+    private static Lease await(CompletableFuture<Lease> seeding) {
+        try {
+            return seeding.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Lease seed(StockLayout layout) {
+        Lease lease = new Lease(layout);
+        for (String issuedKey : redisStockEngine.issuedKeys(layout)) {
+            long cursor = 0L;
+            do {
+                IssuedScanPage page = redisStockEngine.scanIssuedUsers(layout, issuedKey, cursor, SEED_PAGE_SIZE);
+                for (Long userId : page.userIds()) {
+                    if (owns(userId)) {
+                        lease.issued.add(userId);
+                    }
+                }
+                cursor = page.cursor();
+            } while (cursor != 0L);
+        }
+        log.info("재고 임대 상태 생성 - couponId: {}, issuedUsers: {}", layout.couponId(), lease.issued.size());
+        return lease;
+    }
+
+    private boolean endingSoon(Long couponId) {
+        CouponMetadata metadata = couponMetadataCache.get(couponId);
+        return !LocalDateTime.now().plus(properties.returnBeforeEnd()).isBefore(metadata.endAt());
+    }
+
+    private boolean owns(long userId) {
+        return properties.nodeCount() == 1 || ownerOf(userId, properties.nodeCount()) == properties.nodeIndex();
+    }
+
+    private int homeShard(StockLayout layout) {
+        return properties.nodeIndex() % layout.shards();
+    }
+}
@@ -0,0 +1,527 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockProperties;
+import com.coupon.domain.IssuedEncoding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 재고 엔진 (Lua Script로 재고 감소와 발급 사용자 기록을 원자적으로 실행)
+ * 담당 샤드 감소는 StockScriptClient(키 byte[] 캐시, EVALSHA 직접 호출)로 실행한다.
+ * 샤드 모드: 담당 샤드가 소진되면 다른 샤드에서 재고를 빌려와 재시도
+ */
+@Slf4j
+@Component
+// leased 엔진은 Redis 엔진 위에서 동작하므로 embedded가 아니면 항상 등록
+@ConditionalOnExpression("!'${coupon.stock.engine:redis}'.equalsIgnoreCase('embedded')")
+@RequiredArgsConstructor
+public class RedisStockEngine implements StockEngine {
+
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final DefaultRedisScript<Long> stockDecrementScript;
+    private final DefaultRedisScript<Long> stockBorrowScript;
+    private final DefaultRedisScript<Long> stockReturnScript;
+    private final DefaultRedisScript<Long> stockRollbackScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> stockBulkDecrementScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> issuedScanScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> issuedCheckScript;
+    private final DefaultRedisScript<Long> issuedRestoreScript;
+    private final StockScriptClient stockScriptClient;
+    private final StockProperties stockProperties;
+
+    /**
+     * 샤드 모드에서는 총 수량을 샤드별 재고 키에 균등 분배
+     */
+    @Override
+    public void initialize(StockLayout layout, long quantity) {
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            redisTemplate.opsForValue().set(layout.stockKey(shard), layout.quantityOf(shard, quantity));
+        }
+    }
+
+    /**
+     * 없는 샤드 재고 키만 SET NX
+     * 남은 샤드 재고와 임대 재고(Hash)를 발급 사용자 수보다 먼저 읽는다.
+     * 그 사이 발급된 건은 양쪽에서 모두 빠져 재고가 적게 잡힐 뿐 초과 발급되지 않는다.
+     * 샤드마다 슬롯이 달라 원자적이지 않으므로, 여러 노드가 동시에 만들면 샤드별로 먼저 만든 값이 남는다.
+     */
+    @Override
+    public long initializeIfAbsent(StockLayout layout, long totalQuantity) {
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                connection.stringCommands().get(raw(layout.stockKey(shard)));
+            }
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                connection.hashCommands().hVals(raw(layout.leaseKey(shard)));
+            }
+            return null;
+        });
+
+        List<Integer> missingShards = new ArrayList<>();
+        long remaining = 0L;
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            Object value = values.get(shard);
+            if (value == null) {
+                missingShards.add(shard);
+            } else {
+                remaining += ((Number) value).longValue();
+            }
+        }
+        if (missingShards.isEmpty()) {
+            return 0L;
+        }
+        long leased = 0L;
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            Object nodes = values.get(layout.shards() + shard);
+            if (nodes instanceof List<?> amounts) {
+                for (Object amount : amounts) {
+                    leased += ((Number) amount).longValue();
+                }
+            }
+        }
+
+        long created = Math.max(0L, totalQuantity - issuedUserCount(layout) - remaining - leased);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < missingShards.size(); i++) {
+                long quantity = created / missingShards.size() + (i < created % missingShards.size() ? 1 : 0);
+                connection.stringCommands().setNX(
+                        raw(layout.stockKey(missingShards.get(i))),
+                        raw(Long.toString(quantity)));
+            }
+            return null;
+        });
+        log.debug("재고 키 재생성 - couponId: {}, shards: {}, created: {}, remaining: {}, leased: {}",
+                layout.couponId(), missingShards, created, remaining, leased);
+        return created;
+    }
+
+    /**
+     * 쿠폰별로 재고 키가 하나라도 없는지 파이프라인 한 번으로 확인
+     */
+    @Override
+    public boolean[] missing(List<StockLayout> layouts) {
+        List<Object> exists = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (StockLayout layout : layouts) {
+                for (int shard = 0; shard < layout.shards(); shard++) {
+                    connection.keyCommands().exists(raw(layout.stockKey(shard)));
+                }
+            }
+            return null;
+        });
+
+        boolean[] missing = new boolean[layouts.size()];
+        int index = 0;
+        for (int i = 0; i < layouts.size(); i++) {
+            for (int shard = 0; shard < layouts.get(i).shards(); shard++) {
+                missing[i] |= !Boolean.TRUE.equals(exists.get(index++));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 발급 사용자를 파이프라인 한 번으로 기록 (Set은 키별로 SADD 한 번)
+     */
+    @Override
+    public void markIssued(StockLayout layout, List<Long> userIds) {
+        Map<String, List<String>> membersByKey = new HashMap<>();
+        for (Long userId : userIds) {
+            String key = layout.issuedKey(layout.shardOf(userId), userId);
+            membersByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(layout.issuedMember(userId));
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, List<String>> entry : membersByKey.entrySet()) {
+                byte[] rawKey = raw(entry.getKey());
+                if (layout.encoding() == IssuedEncoding.BITMAP) {
+                    for (String member : entry.getValue()) {
+                        connection.stringCommands().setBit(rawKey, Long.parseLong(member), true);
+                    }
+                } else {
+                    connection.setCommands().sAdd(rawKey, entry.getValue().stream()
+                            .map(RedisStockEngine::raw)
+                            .toArray(byte[][]::new));
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int decrement(StockLayout layout, long userId) {
+        int result = stockScriptClient.decrement(layout.couponId(), userId);
+        if (result == 0 && layout.isSharded()) {
+            Long borrowed = decrementWithBorrow(layout, layout.shardOf(userId), userId);
+            result = borrowed != null ? borrowed.intValue() : 0;
+        }
+        return result;
+    }
+
+    private Long decrementInLayout(StockLayout layout, Long userId) {
+        int shard = layout.shardOf(userId);
+        Long result = executeDecrement(layout, shard, userId, 0L);
+
+        if (result != null && result == 0 && layout.isSharded()) {
+            result = decrementWithBorrow(layout, shard, userId);
+        }
+        return result;
+    }
+
+    /**
+     * 다른 샤드에서 재고를 빌려와 담당 샤드에 채운 뒤 재시도
+     * 빌려온 재고는 담당 샤드로 옮겨지므로 전체 재고는 보존된다. (초과 발급 없음)
+     * 그 사이 담당 샤드 재고 키가 사라졌으면(-2) 스크립트가 채우지 않으므로 빌려준 샤드에 되돌린다.
+     */
+    private Long decrementWithBorrow(StockLayout layout, int homeShard, Long userId) {
+        for (int i = 1; i < layout.shards(); i++) {
+            int sibling = (homeShard + i) % layout.shards();
+            Long borrowed = redisTemplate.execute(
+                    stockBorrowScript,
+                    List.of(layout.stockKey(sibling)),
+                    (long) stockProperties.borrowBatch()
+            );
+            if (borrowed != null && borrowed > 0) {
+                log.debug("샤드 재고 이동 - couponId: {}, from: {}, to: {}, amount: {}",
+                        layout.couponId(), sibling, homeShard, borrowed);
+                Long result = executeDecrement(layout, homeShard, userId, borrowed);
+                if (result != null && result == -2) {
+                    returnBorrowed(layout, sibling, borrowed);
+                }
+                return result;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * 빌려온 재고를 빌려준 샤드에 되돌림 (그 샤드 키도 없으면 재초기화가 DB 기준으로 만들므로 버림)
+     */
+    void returnBorrowed(StockLayout layout, int shard, long amount) {
+        redisTemplate.execute(stockReturnScript, List.of(layout.stockKey(shard)), amount);
+        log.warn("담당 샤드 재고 키 없음, 빌려온 재고 반환 - couponId: {}, to: {}, amount: {}",
+                layout.couponId(), shard, amount);
+    }
+
+    private Long executeDecrement(StockLayout layout, int shard, Long userId, long refill) {
+        return redisTemplate.execute(
+                stockDecrementScript,
+                Arrays.asList(layout.stockKey(shard), layout.issuedKey(shard, userId)),
+                layout.issuedMember(userId),
+                refill,
+                layout.encoding().code(),
+                stockProperties.chunkBitmapThreshold()
+        );
+    }
+
+    /**
+     * 사용자를 담당 샤드별로 묶고 bulkChunkSize 단위로 Lua Script를 한 번씩 실행한다.
+     * 샤드 모드에서 담당 샤드가 소진된 사용자는 단건 경로(다른 샤드 재고 차용)로 다시 시도한다.
+     */
+    @Override
+    public long[] decrementBulk(StockLayout layout, List<Long> userIds) {
+        long[] results = new long[userIds.size()];
+
+        List<List<Integer>> indexesByShard = new ArrayList<>(layout.shards());
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            indexesByShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < userIds.size(); i++) {
+            indexesByShard.get(layout.shardOf(userIds.get(i))).add(i);
+        }
+
+        int chunkSize = stockProperties.bulkChunkSize();
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            List<Integer> indexes = indexesByShard.get(shard);
+            for (int from = 0; from < indexes.size(); from += chunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+                executeBulkDecrement(layout, shard, userIds, chunk, results);
+            }
+        }
+
+        // 재시도에서도 재고를 못 받으면 모든 샤드가 소진된 것이므로 이후 사용자는 재시도하지 않는다
+        if (layout.isSharded()) {
+            boolean exhausted = false;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == 0 && !exhausted) {
+                    // 앞선 사용자가 빌려와 담당 샤드에 남긴 재고부터 사용하도록 단건 경로 전체를 다시 실행
+                    Long retried = decrementInLayout(layout, userIds.get(i));
+                    results[i] = retried != null ? retried : 0L;
+                }
+                exhausted |= results[i] == 0;
+            }
+        }
+        return results;
+    }
+
+    private void executeBulkDecrement(StockLayout layout, int shard, List<Long> userIds,
+                                      List<Integer> chunk, long[] results) {
+        List<String> keys = new ArrayList<>(chunk.size() + 1);
+        Object[] args = new Object[chunk.size() + 2];
+        keys.add(layout.stockKey(shard));
+        args[0] = layout.encoding().code();
+        args[1] = stockProperties.chunkBitmapThreshold();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long userId = userIds.get(chunk.get(i));
+            keys.add(layout.issuedKey(shard, userId));
+            args[i + 2] = layout.issuedMember(userId);
+        }
+
+        // 재고 키가 없으면 스크립트는 아무것도 기록하지 않고 청크 전체에 -2를 반환한다
+        List<?> chunkResults = redisTemplate.execute(stockBulkDecrementScript, keys, args);
+        for (int i = 0; i < chunk.size(); i++) {
+            results[chunk.get(i)] = chunkResults != null ? ((Number) chunkResults.get(i)).longValue() : 0L;
+        }
+    }
+
+    /**
+     * 샤드 모드에서는 전체 샤드 합계
+     */
+    @Override
+    public long getStock(StockLayout layout) {
+        if (!layout.isSharded()) {
+            Long stock = redisTemplate.opsForValue().get(layout.stockKey(0));
+            return stock != null ? stock : 0L;
+        }
+
+        List<String> keys = new ArrayList<>(layout.shards());
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            keys.add(layout.stockKey(shard));
+        }
+        List<Long> stocks = redisTemplate.opsForValue().multiGet(keys);
+        long total = 0L;
+        if (stocks != null) {
+            for (Long stock : stocks) {
+                total += stock != null ? stock : 0L;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 파이프라인 한 번으로 조회 (샤드 모드는 샤드 합계, 샤드 키가 하나라도 없으면 결과에서 제외)
+     */
+    @Override
+    public Map<Long, Long> getStocks(List<StockLayout> layouts) {
+        List<byte[]> rawKeys = new ArrayList<>();
+        for (StockLayout layout : layouts) {
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                rawKeys.add(raw(layout.stockKey(shard)));
+            }
+        }
+
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.stringCommands().get(rawKey);
+            }
+            return null;
+        });
+
+        Map<Long, Long> stocks = new HashMap<>(layouts.size() * 2);
+        int index = 0;
+        for (StockLayout layout : layouts) {
+            long total = 0L;
+            boolean missing = false;
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                Object value = values.get(index++);
+                if (value == null) {
+                    missing = true;
+                } else {
+                    total += ((Number) value).longValue();
+                }
+            }
+            if (!missing) {
+                stocks.put(layout.couponId(), total);
+            }
+        }
+        return stocks;
+    }
+
+    @Override
+    public boolean isIssued(StockLayout layout, long userId) {
+        String issuedKey = layout.issuedKey(layout.shardOf(userId), userId);
+        String member = layout.issuedMember(userId);
+
+        // BITMAP 또는 비트맵으로 변환된 CHUNKED 청크
+        if (layout.encoding() == IssuedEncoding.BITMAP
+                || (layout.encoding() == IssuedEncoding.CHUNKED && redisTemplate.type(issuedKey) == DataType.STRING)) {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(issuedKey, Long.parseLong(member)));
+        }
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(issuedKey, member));
+    }
+
+    /**
+     * 샤드별로 Lua Script 한 번씩 실행
+     */
+    @Override
+    public boolean[] areIssued(StockLayout layout, List<Long> userIds) {
+        boolean[] issued = new boolean[userIds.size()];
+
+        List<List<Integer>> indexesByShard = new ArrayList<>(layout.shards());
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            indexesByShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < userIds.size(); i++) {
+            indexesByShard.get(layout.shardOf(userIds.get(i))).add(i);
+        }
+
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            List<Integer> indexes = indexesByShard.get(shard);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            List<String> keys = new ArrayList<>(indexes.size());
+            Object[] args = new Object[indexes.size()];
+            for (int i = 0; i < indexes.size(); i++) {
+                Long userId = userIds.get(indexes.get(i));
+                keys.add(layout.issuedKey(shard, userId));
+                args[i] = layout.issuedMember(userId);
+            }
+            List<?> results = redisTemplate.execute(issuedCheckScript, keys, args);
+            for (int i = 0; i < indexes.size(); i++) {
+                issued[indexes.get(i)] = results != null && ((Number) results.get(i)).longValue() == 1L;
+            }
+        }
+        return issued;
+    }
+
+    /**
+     * SET: SCARD, BITMAP: BITCOUNT, CHUNKED: 청크 키를 SCAN 하며 합산
+     */
+    @Override
+    public long issuedUserCount(StockLayout layout) {
+        long total = 0L;
+        for (String issuedKey : issuedKeys(layout)) {
+            total += countIssued(issuedKey);
+        }
+        return total;
+    }
+
+    private long countIssued(String issuedKey) {
+        DataType type = redisTemplate.type(issuedKey);
+        if (type == DataType.SET) {
+            Long size = redisTemplate.opsForSet().size(issuedKey);
+            return size != null ? size : 0L;
+        }
+        if (type == DataType.STRING) {
+            byte[] rawKey = raw(issuedKey);
+            Long bits = redisTemplate.execute(
+                    (RedisCallback<Long>) connection -> connection.stringCommands().bitCount(rawKey));
+            return bits != null ? bits : 0L;
+        }
+        return 0L;
+    }
+
+    /**
+     * 재고/임대/발급 사용자 키를 파이프라인 한 번으로 PEXPIREAT (지난 시각이면 Redis가 바로 삭제)
+     */
+    @Override
+    public void expireAt(StockLayout layout, Instant at) {
+        List<String> keys = new ArrayList<>(issuedKeys(layout));
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            keys.add(layout.stockKey(shard));
+            keys.add(layout.leaseKey(shard));
+            keys.add(layout.leaseHeartbeatKey(shard));
+        }
+        long unixTimeMillis = at.toEpochMilli();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().pExpireAt(raw(key), unixTimeMillis);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 발급 사용자 키 목록 (샤드 순서, CHUNKED 인코딩은 SCAN으로 찾은 청크 키)
+     */
+    @Override
+    public List<String> issuedKeys(StockLayout layout) {
+        List<String> keys = new ArrayList<>();
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            if (layout.encoding() == IssuedEncoding.CHUNKED) {
+                ScanOptions options = ScanOptions.scanOptions().match(layout.chunkKeyPattern(shard)).count(1000).build();
+                try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                    while (cursor.hasNext()) {
+                        keys.add(cursor.next());
+                    }
+                }
+            } else {
+                keys.add(layout.issuedKey(shard));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Set은 SSCAN, 비트맵은 count 바이트씩 읽으므로 키가 커도 한 번의 호출은 짧게 끝난다.
+     */
+    @Override
+    public IssuedScanPage scanIssuedUsers(StockLayout layout, String issuedKey, long cursor, int count) {
+        List<?> page = redisTemplate.execute(issuedScanScript, List.of(issuedKey), cursor, (long) count);
+        if (page == null || page.isEmpty()) {
+            return new IssuedScanPage(0L, List.of());
+        }
+        List<Long> userIds = new ArrayList<>(page.size() - 1);
+        for (int i = 1; i < page.size(); i++) {
+            userIds.add(layout.userIdOf(issuedKey, ((Number) page.get(i)).longValue()));
+        }
+        return new IssuedScanPage(((Number) page.get(0)).longValue(), userIds);
+    }
+
+    @Override
+    public void increment(StockLayout layout, long userId) {
+        redisTemplate.opsForValue().increment(layout.stockKey(layout.shardOf(userId)));
+    }
+
+    /**
+     * 하나의 Lua Script로 원자적으로 처리하며, 발급 기록이 있을 때만 재고를 복구한다.
+     * (인코딩에 맞게 SREM 또는 SETBIT 0)
+     */
+    @Override
+    public boolean rollback(StockLayout layout, long userId, boolean restoreStock) {
+        int shard = layout.shardOf(userId);
+        Long removed = redisTemplate.execute(
+                stockRollbackScript,
+                Arrays.asList(layout.stockKey(shard), layout.issuedKey(shard, userId)),
+                layout.issuedMember(userId),
+                restoreStock ? 1L : 0L
+        );
+        return removed != null && removed == 1;
+    }
+
+    @Override
+    public long restoreIssuedUser(StockLayout layout, long userId) {
+        int shard = layout.shardOf(userId);
+        Long result = redisTemplate.execute(
+                issuedRestoreScript,
+                Arrays.asList(layout.stockKey(shard), layout.issuedKey(shard, userId)),
+                layout.issuedMember(userId),
+                layout.encoding().code(),
+                stockProperties.chunkBitmapThreshold()
+        );
+        return result != null ? result : 0L;
+    }
+
+    private static byte[] raw(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
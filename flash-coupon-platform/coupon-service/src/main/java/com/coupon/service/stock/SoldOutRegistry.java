@@ -0,0 +1,118 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.SoldOutProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 노드 로컬 품절 레지스트리
+ * Lua Script가 처음 0(재고 없음)을 반환하면 품절로 표시하고 Redis Pub/Sub으로 다른 노드에 전파한다.
+ * 품절 쿠폰 요청은 Redis/DB 조회 없이 즉시 거절된다.
+ * 재고가 복구되면(초기화, 동기화, 보상 롤백) 품절 표시를 해제하고 전파한다.
+ */
+@Slf4j
+@Component
+public class SoldOutRegistry implements MessageListener {
+
+    private static final String SOLD_OUT = "S:";
+    private static final String RESTOCK = "R:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean enabled;
+    private final String channel;
+    private final long recheckIntervalNanos;
+
+    /**
+     * couponId -> 품절 표시 시각 (System.nanoTime)
+     */
+    private final Map<Long, Long> soldOutCoupons = new ConcurrentHashMap<>();
+
+    public SoldOutRegistry(StringRedisTemplate stringRedisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           SoldOutProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = properties.enabled();
+        this.channel = properties.channel();
+        this.recheckIntervalNanos = properties.recheckInterval().toNanos();
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        }
+    }
+
+    /**
+     * 품절 여부 확인
+     * 재확인 주기가 지난 표시는 제거하여 다음 요청이 Redis로 다시 확인하도록 한다.
+     */
+    public boolean isSoldOut(Long couponId) {
+        if (!enabled) {
+            return false;
+        }
+        Long markedAt = soldOutCoupons.get(couponId);
+        if (markedAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - markedAt > recheckIntervalNanos) {
+            soldOutCoupons.remove(couponId, markedAt);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 품절 표시 (최초 표시 시에만 전파)
+     */
+    public void markSoldOut(Long couponId) {
+        if (!enabled) {
+            return;
+        }
+        if (soldOutCoupons.put(couponId, System.nanoTime()) == null) {
+            publish(SOLD_OUT + couponId);
+            log.info("쿠폰 품절 표시 - couponId: {}", couponId);
+        }
+    }
+
+    /**
+     * 품절 해제 (재고 복구 시)
+     * 다른 노드에만 표시가 남아 있을 수 있으므로 항상 전파한다.
+     */
+    public void clear(Long couponId) {
+        if (!enabled) {
+            return;
+        }
+        soldOutCoupons.remove(couponId);
+        publish(RESTOCK + couponId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Long couponId = Long.valueOf(body.substring(2));
+            if (body.startsWith(SOLD_OUT)) {
+                soldOutCoupons.putIfAbsent(couponId, System.nanoTime());
+            } else if (body.startsWith(RESTOCK)) {
+                soldOutCoupons.remove(couponId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("잘못된 품절 메시지: {}", body);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // 전파 실패 시에도 로컬 표시는 유지 (다른 노드는 Redis 결과로 스스로 판단)
+            log.warn("품절 메시지 전파 실패 - message: {}, error: {}", message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.coupon.service.stock;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고/발급 사용자 저장소 (coupon.stock.engine으로 선택)
+ * - RedisStockEngine    : Redis Lua Script (여러 노드가 재고를 공유, 기본값)
+ * - EmbeddedStockEngine : JVM 메모리 카운터 + mmap 저널 (단일 노드 전용, 네트워크 왕복 없음)
+ * - LeasedStockEngine   : Redis 재고를 노드가 묶음으로 임대해 로컬 카운터로 감소 (Redis 엔진 위에서 동작)
+ *
+ * 결과값은 모든 엔진이 같다.
+ * - 재고 감소: 1 = 성공, 0 = 재고 없음, -1 = 이미 발급됨, -2 = 재고가 초기화되지 않음 (StockInitializer가 DB 기준으로 복구)
+ * 품절 표시, 재초기화 후 재시도는 엔진을 쓰는 CouponStockService가 처리한다.
+ */
+public interface StockEngine {
+
+    /**
+     * 재고를 quantity로 설정 (발급 사용자 기록은 유지)
+     */
+    void initialize(StockLayout layout, long quantity);
+
+    /**
+     * 없는 재고 키만 만든다 (재초기화용, 다른 노드가 먼저 만든 재고를 덮어쓰지 않음)
+     * 만들 재고 = 총 수량 - 발급 사용자 수 - 남아 있는 재고 - 임대 중인 재고 (없는 샤드에만 나눔)
+     * 발급 사용자 수는 엔진의 발급 기록 기준이므로 DB 발급 내역을 markIssued로 먼저 채운 뒤 호출한다.
+     * @return 새로 만든 재고 합계
+     */
+    long initializeIfAbsent(StockLayout layout, long totalQuantity);
+
+    /**
+     * 쿠폰별 재고 초기화 여부 (layouts 순서대로, true = 초기화 필요)
+     */
+    boolean[] missing(List<StockLayout> layouts);
+
+    /**
+     * 발급 사용자 기록만 추가 (재고 변화 없음, 여러 번 실행해도 결과가 같음)
+     */
+    void markIssued(StockLayout layout, List<Long> userIds);
+
+    /**
+     * 재고 1 감소 + 발급 사용자 기록
+     * @return 1: 성공, 0: 재고 없음, -1: 이미 발급됨, -2: 재고 초기화 필요
+     */
+    int decrement(StockLayout layout, long userId);
+
+    /**
+     * 여러 사용자 재고 감소
+     * @return userIds 순서대로 decrement와 같은 결과값 (-2인 사용자는 아무것도 기록되지 않음)
+     */
+    long[] decrementBulk(StockLayout layout, List<Long> userIds);
+
+    long getStock(StockLayout layout);
+
+    /**
+     * 여러 쿠폰의 잔여 재고 (couponId → 재고)
+     * 재고 키가 없는(유실, 초기화 전) 쿠폰은 결과에서 빠진다. 0(품절)과 구분해야 잘못된 값을 저장하거나 보여주지 않는다.
+     */
+    Map<Long, Long> getStocks(List<StockLayout> layouts);
+
+    boolean isIssued(StockLayout layout, long userId);
+
+    /**
+     * @return userIds 순서대로 발급 기록 여부
+     */
+    boolean[] areIssued(StockLayout layout, List<Long> userIds);
+
+    long issuedUserCount(StockLayout layout);
+
+    /**
+     * 발급 사용자 저장 단위 목록 (대사 순회용, Redis는 발급 사용자 키)
+     */
+    List<String> issuedKeys(StockLayout layout);
+
+    /**
+     * 발급 사용자를 count 단위로 순회 (cursor 0에서 시작, 0을 반환하면 끝)
+     */
+    IssuedScanPage scanIssuedUsers(StockLayout layout, String issuedKey, long cursor, int count);
+
+    /**
+     * 사용자 담당 재고 1 증가 (발급 기록은 그대로)
+     */
+    void increment(StockLayout layout, long userId);
+
+    /**
+     * 발급 기록 제거, restoreStock이면 재고도 1 복구
+     * @return true = 발급 기록이 있어 제거함
+     */
+    boolean rollback(StockLayout layout, long userId, boolean restoreStock);
+
+    /**
+     * 발급 기록 복원 + 재고 1 차감 (대사용)
+     * @return 1: 복원 + 재고 차감, 2: 복원했지만 재고가 이미 0, 0: 이미 기록되어 있음
+     */
+    long restoreIssuedUser(StockLayout layout, long userId);
+
+    /**
+     * at이 지나면 재고와 발급 사용자 기록 삭제 (발급이 끝난 쿠폰 정리, at이 이미 지났으면 바로 삭제)
+     */
+    void expireAt(StockLayout layout, Instant at);
+}
@@ -0,0 +1,244 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockProperties;
+import com.coupon.domain.Coupon;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.CouponRepository;
+import com.coupon.repository.IssuedUserRow;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.writebehind.IssueWriteBehindPipeline;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.resource.ClientResources;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 재고 키 초기화 (Warm-up / 자가 복구)
+ * Redis가 재시작되거나 키가 유실되면(내장 엔진은 저널이 없으면) 재고 감소는 -2(재고 없음)를 반환한다.
+ * 품절로 처리하지 않고 DB 발급 내역으로 발급 사용자 기록과 재고를 StockEngine에 다시 만든다.
+ *
+ * - 기동 시, Redis 재연결 시: 종료되지 않은 쿠폰 중 재고 키가 없는 쿠폰을 한 번에 초기화
+ * - 발급 요청이 -2를 받으면: 쿠폰 단위로 한 요청만 초기화하고 나머지는 완료를 기다림 (single-flight)
+ *
+ * 발급 사용자 키를 먼저 채우고 재고 키는 마지막에 SET NX로 만든다.
+ * 재고 키가 생기기 전까지 모든 발급 요청은 -2를 받으므로 중복 발급이 끼어들 틈이 없고,
+ * 여러 노드가 동시에 초기화해도 먼저 만든 재고 키를 덮어쓰지 않는다.
+ *
+ * 없는 샤드에만 총 수량 - 발급 사용자 수 - 남은 샤드 재고 - 임대 재고를 나눠 만든다 (StockEngine#initializeIfAbsent).
+ * Write-Behind 저널에만 있고 DB에 없는 발급 건은 셀 수 없으므로, 모든 노드의 저널이 DB에 반영될 때까지 기다린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockInitializer {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 1000L;
+    private static final long JOURNAL_POLL_MILLIS = 100L;
+
+    private final StockEngine stockEngine;
+    private final CouponRepository couponRepository;
+    private final CouponIssueRepository couponIssueRepository;
+    private final SoldOutRegistry soldOutRegistry;
+    private final IssueWriteBehindPipeline issueWriteBehindPipeline;
+    private final StockProperties stockProperties;
+    private final ClientResources clientResources;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * couponId -> 진행 중인 초기화 (같은 노드의 동시 요청은 이 작업을 기다림)
+     */
+    private final Map<Long, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 재연결 이벤트가 연달아 와도 warm-up은 한 번만 예약
+     */
+    private final AtomicBoolean warmUpScheduled = new AtomicBoolean();
+
+    private Disposable reconnectSubscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (!stockProperties.warmUp()) {
+            return;
+        }
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("재고 warm-up 실패 - error: {}", e.getMessage());
+        }
+        reconnectSubscription = clientResources.eventBus().get()
+                .filter(ConnectionActivatedEvent.class::isInstance)
+                .subscribe(event -> scheduleWarmUp());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconnectSubscription != null) {
+            reconnectSubscription.dispose();
+        }
+    }
+
+    /**
+     * 종료되지 않은 쿠폰 중 재고 키가 없는 쿠폰을 DB 기준으로 초기화
+     * 재고 키 확인은 파이프라인 한 번으로 조회한다.
+     * @return 초기화한 쿠폰 수
+     */
+    public int warmUp() {
+        List<Coupon> coupons = couponRepository.findByEndAtAfter(LocalDateTime.now());
+        if (coupons.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Coupon> uninitialized = new LinkedHashMap<>();
+        List<StockLayout> layouts = coupons.stream().map(StockInitializer::layoutOf).toList();
+        boolean[] missing = stockEngine.missing(layouts);
+        for (int i = 0; i < coupons.size(); i++) {
+            if (missing[i]) {
+                uninitialized.put(coupons.get(i).getId(), coupons.get(i));
+            }
+        }
+        if (uninitialized.isEmpty()) {
+            return 0;
+        }
+
+        awaitJournalsSettled();
+        for (Coupon coupon : uninitialized.values()) {
+            try {
+                initialize(coupon);
+            } catch (RuntimeException e) {
+                log.warn("재고 warm-up 실패 - couponId: {}, error: {}", coupon.getId(), e.getMessage());
+            }
+        }
+        log.info("재고 warm-up 완료 - 대상: {}, 초기화: {}", coupons.size(), uninitialized.size());
+        return uninitialized.size();
+    }
+
+    /**
+     * 재고 키가 없는 쿠폰을 초기화 (발급 경로에서 -2를 받았을 때 호출)
+     * 같은 쿠폰을 이미 초기화 중이면 initTimeout까지 완료를 기다린다.
+     */
+    public void ensureInitialized(Long couponId) {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(couponId, mine);
+        if (running != null) {
+            await(couponId, running);
+            return;
+        }
+
+        try {
+            Coupon coupon = couponRepository.findById(couponId)
+                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 쿠폰입니다: " + couponId));
+            // 다른 노드가 먼저 만들었으면 발급 내역을 다시 읽지 않음
+            if (stockEngine.missing(List.of(layoutOf(coupon)))[0]) {
+                awaitJournalsSettled();
+                initialize(coupon);
+            }
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(couponId, mine);
+        }
+    }
+
+    private void await(Long couponId, CompletableFuture<Void> running) {
+        try {
+            running.get(stockProperties.initTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("재고 재초기화 대기 실패 - couponId: {}, error: {}", couponId, e.toString());
+        }
+    }
+
+    /**
+     * 지금까지 모든 노드의 저널에 기록된 발급 건이 DB에 반영될 때까지 대기 (initTimeout)
+     * Redis 발급 기록까지 유실됐으면 DB에 아직 없는 발급 건은 재고 계산에서 빠지므로 초과 발급이 된다.
+     */
+    private void awaitJournalsSettled() {
+        long startedAt = System.currentTimeMillis();
+        long deadline = startedAt + stockProperties.initTimeout().toMillis();
+        while (issueWriteBehindPipeline.clusterSettledThrough() < startedAt) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("Write-Behind 저널이 DB에 반영되지 않아 재고를 재초기화할 수 없습니다");
+            }
+            try {
+                Thread.sleep(JOURNAL_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("재고 재초기화 대기 중 인터럽트", e);
+            }
+        }
+    }
+
+    /**
+     * 발급 사용자 기록을 DB 발급 내역으로 채운 뒤 없는 재고 키만 생성
+     * 발급 사용자 기록(SADD/SETBIT)은 여러 번 실행해도 결과가 같다.
+     */
+    private void initialize(Coupon coupon) {
+        StockLayout layout = layoutOf(coupon);
+
+        long restoredUsers = 0L;
+        long afterId = 0L;
+        while (true) {
+            List<IssuedUserRow> rows = couponIssueRepository.findIssuedAfter(coupon.getId(), afterId, Limit.of(PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            stockEngine.markIssued(layout, rows.stream().map(IssuedUserRow::userId).toList());
+            restoredUsers += rows.size();
+            afterId = rows.get(rows.size() - 1).id();
+            if (rows.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+
+        long created = stockEngine.initializeIfAbsent(layout, coupon.getTotalQuantity());
+        if (created > 0) {
+            soldOutRegistry.clear(coupon.getId());
+        }
+        log.warn("재고 키 재초기화 - couponId: {}, created: {}, issuedUsers: {}, shards: {}",
+                coupon.getId(), created, restoredUsers, layout.shards());
+    }
+
+    private void scheduleWarmUp() {
+        if (!warmUpScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            warmUpScheduled.set(false);
+            try {
+                warmUp();
+            } catch (RuntimeException e) {
+                log.warn("재연결 후 재고 warm-up 실패 - error: {}", e.getMessage());
+            }
+        }, Instant.now().plusMillis(RECONNECT_DELAY_MILLIS));
+    }
+
+    private static StockLayout layoutOf(Coupon coupon) {
+        CouponMetadata metadata = CouponMetadata.from(coupon);
+        return new StockLayout(coupon.getId(), metadata.stockShards(), metadata.issuedEncoding());
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.coupon.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 내장 재고 엔진 저널 (append-only, 메모리 매핑 파일)
+ * 고정 길이 레코드 (type, couponId, value) 24바이트를 segmentSize 단위로 매핑한 파일에 이어 쓴다.
+ *
+ * - 기록 위치는 AtomicLong으로 예약하므로 여러 스레드가 잠금 없이 동시에 기록한다. (구간 매핑만 잠금)
+ * - type을 마지막에 쓰고, 재생할 때 type이 0인 칸(예약만 하고 쓰기 전에 종료된 칸)은 건너뛴다.
+ * - 매핑된 페이지는 프로세스가 죽어도 OS가 파일에 반영한다. OS 장애까지 대비하려면 force()를 주기적으로 호출한다.
+ */
+@Slf4j
+public class StockJournal implements Closeable {
+
+    static final int RECORD_SIZE = Long.BYTES * 3;
+
+    private final FileChannel channel;
+    private final long segmentSize;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final ReentrantLock mapLock = new ReentrantLock();
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private int forcedSegments;
+
+    /**
+     * @param segmentSize 매핑 단위 (RECORD_SIZE 배수로 내림)
+     */
+    public StockJournal(Path file, long segmentSize) {
+        this.segmentSize = Math.max(RECORD_SIZE, segmentSize - segmentSize % RECORD_SIZE);
+        try {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널을 열 수 없습니다: " + file, e);
+        }
+    }
+
+    /**
+     * 레코드 처리기 (재생용)
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void apply(byte type, long couponId, long value);
+    }
+
+    /**
+     * 기록된 레코드를 순서대로 재생하고, 마지막 레코드 뒤부터 이어 쓰도록 기록 위치를 맞춘다.
+     * @return 재생한 레코드 수
+     */
+    public long replay(RecordHandler handler) {
+        try {
+            long size = channel.size();
+            long end = 0L;
+            long records = 0L;
+            for (long position = 0; position + RECORD_SIZE <= size; position += RECORD_SIZE) {
+                MappedByteBuffer segment = segment(position);
+                int offset = (int) (position % segmentSize);
+                long type = segment.getLong(offset);
+                if (type == 0L) {
+                    continue;
+                }
+                handler.apply((byte) type, segment.getLong(offset + Long.BYTES), segment.getLong(offset + Long.BYTES * 2));
+                end = position + RECORD_SIZE;
+                records++;
+            }
+            writePosition.set(end);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널 읽기 실패", e);
+        }
+    }
+
+    /**
+     * 레코드 기록 (잠금 없음, 구간이 다 차서 새로 매핑할 때만 잠금)
+     */
+    public void append(byte type, long couponId, long value) {
+        long position = writePosition.getAndAdd(RECORD_SIZE);
+        MappedByteBuffer segment = segment(position);
+        int offset = (int) (position % segmentSize);
+        segment.putLong(offset + Long.BYTES, couponId);
+        segment.putLong(offset + Long.BYTES * 2, value);
+        segment.putLong(offset, type);
+    }
+
+    /**
+     * 마지막 force 이후 기록된 구간을 디스크에 강제로 씀
+     */
+    public void force() {
+        mapLock.lock();
+        try {
+            MappedByteBuffer[] mapped = segments;
+            int current = (int) Math.min(mapped.length - 1L, writePosition.get() / segmentSize);
+            for (int i = Math.max(0, forcedSegments - 1); i <= current; i++) {
+                mapped[i].force();
+            }
+            forcedSegments = current + 1;
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    /**
+     * 기록된 크기 (byte)
+     */
+    public long size() {
+        return writePosition.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long position) {
+        int index = (int) (position / segmentSize);
+        MappedByteBuffer[] mapped = segments;
+        if (index < mapped.length) {
+            return mapped[index];
+        }
+        return map(index);
+    }
+
+    /**
+     * index 구간까지 매핑 (파일 크기는 매핑하면서 늘어남)
+     */
+    private MappedByteBuffer map(int index) {
+        mapLock.lock();
+        try {
+            MappedByteBuffer[] mapped = segments;
+            if (index < mapped.length) {
+                return mapped[index];
+            }
+            MappedByteBuffer[] grown = Arrays.copyOf(mapped, index + 1);
+            for (int i = mapped.length; i <= index; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentSize, segmentSize);
+            }
+            segments = grown;
+            log.debug("재고 저널 구간 매핑 - segments: {}", grown.length);
+            return grown[index];
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널 매핑 실패", e);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+}
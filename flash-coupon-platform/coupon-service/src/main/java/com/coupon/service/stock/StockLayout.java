@@ -0,0 +1,127 @@
+package com.coupon.service.stock;
+
+import com.coupon.domain.IssuedEncoding;
+
+/**
+ * 쿠폰별 Redis 재고 키 배치
+ * - shards = 1 : 기존 단일 키 (coupon:stock:{id}, coupon:issued:{id})
+ * - shards > 1 : 샤드별 재고 키 + 발급 사용자 키
+ *   Redis Cluster에서 같은 샤드의 재고/발급 키가 같은 슬롯에 놓이도록 해시 태그 사용
+ *   (coupon:stock:{42:3}, coupon:issued:{42:3})
+ *
+ * 발급 사용자 키는 인코딩에 따라 달라진다.
+ * - SET/BITMAP : coupon:issued:{id}
+ * - CHUNKED    : coupon:issued:{id}:c{userId >> 15}, 멤버는 userId 하위 15비트
+ */
+public record StockLayout(Long couponId, int shards, IssuedEncoding encoding) {
+
+    public static final int CHUNK_BITS = 15;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private static final long BITMAP_MAX_USER_ID = (1L << 32) - 1;
+
+    private static final String STOCK_KEY_PREFIX = "coupon:stock:";
+    private static final String ISSUED_KEY_PREFIX = "coupon:issued:";
+    private static final String LEASE_KEY_PREFIX = "coupon:lease:";
+    private static final String LEASE_HEARTBEAT_KEY_PREFIX = "coupon:lease-at:";
+    private static final String CHUNK_SUFFIX = ":c";
+
+    public StockLayout {
+        if (shards < 1) {
+            throw new IllegalArgumentException("재고 샤드 수는 1 이상이어야 합니다: " + shards);
+        }
+    }
+
+    public boolean isSharded() {
+        return shards > 1;
+    }
+
+    /**
+     * 사용자가 속한 샤드 (같은 사용자는 항상 같은 샤드로 라우팅되어 중복 검사가 정확함)
+     */
+    public int shardOf(Long userId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), shards);
+    }
+
+    public String stockKey(int shard) {
+        return isSharded() ? STOCK_KEY_PREFIX + hashTag(shard) : STOCK_KEY_PREFIX + couponId;
+    }
+
+    /**
+     * 샤드의 노드별 임대 재고 Hash (leased 엔진, 재고 키와 같은 해시 태그)
+     */
+    public String leaseKey(int shard) {
+        return isSharded() ? LEASE_KEY_PREFIX + hashTag(shard) : LEASE_KEY_PREFIX + couponId;
+    }
+
+    /**
+     * 샤드의 노드별 임대 확인 시각 Hash (임대/보고할 때 갱신, 오래된 노드의 임대는 회수)
+     */
+    public String leaseHeartbeatKey(int shard) {
+        return isSharded() ? LEASE_HEARTBEAT_KEY_PREFIX + hashTag(shard) : LEASE_HEARTBEAT_KEY_PREFIX + couponId;
+    }
+
+    /**
+     * 샤드의 발급 사용자 기본 키 (CHUNKED 인코딩은 이 키 뒤에 청크 번호가 붙음)
+     */
+    public String issuedKey(int shard) {
+        return isSharded() ? ISSUED_KEY_PREFIX + hashTag(shard) : ISSUED_KEY_PREFIX + couponId;
+    }
+
+    /**
+     * 사용자의 발급 여부가 기록되는 키
+     */
+    public String issuedKey(int shard, Long userId) {
+        if (encoding == IssuedEncoding.CHUNKED) {
+            return issuedKey(shard) + CHUNK_SUFFIX + (userId >>> CHUNK_BITS);
+        }
+        return issuedKey(shard);
+    }
+
+    /**
+     * CHUNKED 인코딩의 청크 키 검색 패턴
+     */
+    public String chunkKeyPattern(int shard) {
+        return issuedKey(shard) + CHUNK_SUFFIX + "*";
+    }
+
+    /**
+     * 발급 사용자 키 안에서 사용자를 나타내는 값 (SET 멤버 또는 비트 오프셋)
+     */
+    public String issuedMember(Long userId) {
+        return switch (encoding) {
+            case SET -> userId.toString();
+            case BITMAP -> {
+                if (userId < 0 || userId > BITMAP_MAX_USER_ID) {
+                    throw new IllegalArgumentException("BITMAP 인코딩 쿠폰은 0 ~ 2^32-1 범위의 사용자 ID만 지원합니다: " + userId);
+                }
+                yield userId.toString();
+            }
+            case CHUNKED -> Long.toString(userId & CHUNK_MASK);
+        };
+    }
+
+    /**
+     * 발급 사용자 키와 키 안의 값으로 사용자 ID 복원 (issuedMember의 역변환)
+     */
+    public long userIdOf(String issuedKey, long member) {
+        if (encoding == IssuedEncoding.CHUNKED) {
+            long chunk = Long.parseLong(issuedKey.substring(issuedKey.lastIndexOf(CHUNK_SUFFIX) + CHUNK_SUFFIX.length()));
+            return (chunk << CHUNK_BITS) | member;
+        }
+        return member;
+    }
+
+    /**
+     * 총 수량을 샤드에 균등 분배 (나머지는 앞쪽 샤드부터 1개씩)
+     */
+    public long quantityOf(int shard, long totalQuantity) {
+        return totalQuantity / shards + (shard < totalQuantity % shards ? 1 : 0);
+    }
+
+    private String hashTag(int shard) {
+        return "{" + couponId + ":" + shard + "}";
+    }
+}
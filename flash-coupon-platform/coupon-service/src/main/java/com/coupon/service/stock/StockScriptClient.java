@@ -0,0 +1,346 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockProperties;
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisScriptingAsyncCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 재고 감소 Lua Script 전용 저수준 클라이언트 (발급 경로)
+ * RedisTemplate을 거치면 요청마다 키 문자열 연결, 인자 리스트, 직렬화 결과 byte[], 커넥션 래퍼가 만들어진다.
+ * 이 클라이언트는 빈이 소유한 전용 Lettuce 커넥션으로 EVALSHA를 직접 호출한다.
+ *
+ * - 쿠폰별 재고/발급 키 byte[]는 미리 인코딩해 메타데이터 객체에 약한 참조로 묶어 둔다.
+ *   메타데이터 캐시 항목이 바뀌거나 축출되면 그 키도 함께 사라진다. (종료된 쿠폰이 남지 않음)
+ * - 사용자 값(숫자)은 스레드별로 재사용하는 길이별 버퍼에 바로 인코딩 (가상 스레드는 매번 새 배열)
+ * - 항상 EVALSHA, 스크립트 캐시가 비어 있으면(NOSCRIPT) EVAL로 한 번 실행해 다시 등록
+ * - 결과는 stock_decrement.lua 반환값 그대로 int (1: 성공, 0: 재고 없음, -1: 이미 발급됨)
+ * - 커넥션은 팩토리의 공유 커넥션과 별개라 팩토리가 공유 커넥션을 닫거나 다시 만들어도 영향이 없다.
+ *   네트워크 재연결은 Lettuce가 같은 커넥션 안에서 처리하고, 커넥션이 닫혔으면 다음 호출에서 새로 연결한다.
+ *   연결은 블로킹 호출이므로 synchronized 대신 ReentrantLock으로 묶는다. (기다리는 가상 스레드가 캐리어를 잡지 않음)
+ *
+ * 다른 샤드 재고 차용(refill)은 드문 경로라 RedisStockEngine의 RedisTemplate 경로를 그대로 쓴다.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!'${coupon.stock.engine:redis}'.equalsIgnoreCase('embedded')")
+public class StockScriptClient {
+
+    private static final int MAX_LONG_DIGITS = 20;
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long BITMAP_MAX_USER_ID = (1L << 32) - 1;
+    private static final long CHUNK_MASK = (1L << StockLayout.CHUNK_BITS) - 1;
+    private static final byte[] NO_REFILL = {'0'};
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final CouponMetadataCache couponMetadataCache;
+    private final String sha1;
+    private final byte[] script;
+    private final byte[] chunkThreshold;
+    private final long timeoutMillis;
+
+    private final Cache<CouponMetadata, CouponKeys> couponKeys = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final ReentrantLock connectLock = new ReentrantLock();
+    private volatile StatefulConnection<byte[], byte[]> connection;
+    private volatile RedisScriptingAsyncCommands<byte[], byte[]> commands;
+
+    public StockScriptClient(LettuceConnectionFactory connectionFactory,
+                             CouponMetadataCache couponMetadataCache,
+                             DefaultRedisScript<Long> stockDecrementScript,
+                             StockProperties stockProperties) {
+        this.connectionFactory = connectionFactory;
+        this.couponMetadataCache = couponMetadataCache;
+        this.sha1 = stockDecrementScript.getSha1();
+        this.script = stockDecrementScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        this.chunkThreshold = ascii(stockProperties.chunkBitmapThreshold());
+        this.timeoutMillis = connectionFactory.getClientConfiguration().getCommandTimeout().toMillis();
+    }
+
+    /**
+     * 사용자 담당 샤드에서 재고 1 감소
+     * @return 1: 성공, 0: 재고 없음, -1: 이미 발급됨, -2: 재고 키 없음 (재초기화 필요)
+     */
+    public int decrement(Long couponId, Long userId) {
+        CouponKeys keys = keysOf(couponId);
+        long user = userId;
+        if (keys.bitmap && (user < 0 || user > BITMAP_MAX_USER_ID)) {
+            keys.layout.issuedMember(userId); // 범위 밖 사용자 ID 예외 (RedisTemplate 경로와 같은 메시지)
+        }
+        int shard = keys.layout.shardOf(userId);
+        boolean virtual = Thread.currentThread().isVirtual();
+        Buffers buffers = virtual ? new Buffers() : BUFFERS.get();
+
+        byte[][] scriptKeys = buffers.keys;
+        scriptKeys[0] = keys.stockKeys[shard];
+        scriptKeys[1] = keys.chunked
+                ? buffers.key(keys.issuedKeys[shard], user >>> StockLayout.CHUNK_BITS)
+                : keys.issuedKeys[shard];
+
+        byte[][] args = buffers.args;
+        args[0] = keys.chunked
+                ? buffers.member(user & CHUNK_MASK)
+                : buffers.member(user);
+        args[1] = NO_REFILL;
+        args[2] = keys.encoding;
+        args[3] = chunkThreshold;
+
+        try {
+            return execute(scriptKeys, args);
+        } catch (RuntimeException e) {
+            // 응답을 받지 못한 명령이 아직 버퍼를 참조할 수 있으므로 이 스레드의 버퍼는 버린다
+            if (!virtual) {
+                BUFFERS.remove();
+            }
+            throw e;
+        }
+    }
+
+    private int execute(byte[][] keys, byte[][] args) {
+        RedisScriptingAsyncCommands<byte[], byte[]> redis = commands();
+        try {
+            Long result = redis.<Long>evalsha(sha1, ScriptOutputType.INTEGER, keys, args)
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return result.intValue();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RedisNoScriptException) {
+                log.info("재고 감소 스크립트 재등록 (NOSCRIPT) - sha1: {}", sha1);
+                return evalScript(redis, keys, args);
+            }
+            discardIfClosed();
+            throw new RedisSystemException("재고 감소 스크립트 실행 실패", e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("재고 감소 스크립트 응답 시간 초과 - " + timeoutMillis + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("재고 감소 스크립트 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * EVAL은 실행과 함께 스크립트를 Redis 스크립트 캐시에 등록하므로 이후 EVALSHA가 다시 성공한다.
+     */
+    private int evalScript(RedisScriptingAsyncCommands<byte[], byte[]> redis, byte[][] keys, byte[][] args) {
+        try {
+            Long result = redis.<Long>eval(script, ScriptOutputType.INTEGER, keys, args)
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return result.intValue();
+        } catch (ExecutionException e) {
+            discardIfClosed();
+            throw new RedisSystemException("재고 감소 스크립트 실행 실패", e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("재고 감소 스크립트 응답 시간 초과 - " + timeoutMillis + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("재고 감소 스크립트 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 전용 커넥션의 비동기 명령 (없거나 닫혔으면 새로 연결)
+     */
+    private RedisScriptingAsyncCommands<byte[], byte[]> commands() {
+        StatefulConnection<byte[], byte[]> current = connection;
+        if (current != null && current.isOpen()) {
+            return commands;
+        }
+        connectLock.lock();
+        try {
+            current = connection;
+            if (current == null || !current.isOpen()) {
+                if (current != null) {
+                    current.closeAsync();
+                }
+                current = connect();
+                commands = current instanceof StatefulRedisClusterConnection<byte[], byte[]> cluster
+                        ? cluster.async()
+                        : ((StatefulRedisConnection<byte[], byte[]>) current).async();
+                connection = current;
+                log.info("재고 감소 스크립트 전용 커넥션 연결");
+            }
+            return commands;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private StatefulConnection<byte[], byte[]> connect() {
+        AbstractRedisClient client = connectionFactory.getRequiredNativeClient();
+        if (client instanceof RedisClusterClient clusterClient) {
+            return clusterClient.connect(ByteArrayCodec.INSTANCE);
+        }
+        return ((RedisClient) client).connect(ByteArrayCodec.INSTANCE);
+    }
+
+    /**
+     * 실패 후 커넥션이 닫혀 있으면 버려서 다음 호출이 새로 연결하게 한다
+     */
+    private void discardIfClosed() {
+        StatefulConnection<byte[], byte[]> current = connection;
+        if (current != null && !current.isOpen()) {
+            connectLock.lock();
+            try {
+                if (connection == current) {
+                    connection = null;
+                    current.closeAsync();
+                }
+            } finally {
+                connectLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        connectLock.lock();
+        try {
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private CouponKeys keysOf(Long couponId) {
+        return couponKeys.get(couponMetadataCache.get(couponId), CouponKeys::new);
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 쿠폰별로 미리 인코딩한 키 (CHUNKED 인코딩은 청크 번호를 붙이기 전의 "...:c" 접두어)
+     */
+    private static final class CouponKeys {
+
+        private final StockLayout layout;
+        private final boolean chunked;
+        private final boolean bitmap;
+        private final byte[] encoding;
+        private final byte[][] stockKeys;
+        private final byte[][] issuedKeys;
+
+        private CouponKeys(CouponMetadata metadata) {
+            this.layout = new StockLayout(metadata.id(), metadata.stockShards(), metadata.issuedEncoding());
+            this.chunked = layout.encoding() == IssuedEncoding.CHUNKED;
+            this.bitmap = layout.encoding() == IssuedEncoding.BITMAP;
+            this.encoding = layout.encoding().code().getBytes(StandardCharsets.US_ASCII);
+            this.stockKeys = new byte[layout.shards()][];
+            this.issuedKeys = new byte[layout.shards()][];
+            for (int shard = 0; shard < layout.shards(); shard++) {
+                stockKeys[shard] = layout.stockKey(shard).getBytes(StandardCharsets.UTF_8);
+                String issuedKey = chunked ? layout.chunkKeyPattern(shard) : layout.issuedKey(shard);
+                // chunkKeyPattern은 "...:c*" 이므로 마지막 '*'를 뺀 접두어만 보관
+                issuedKeys[shard] = (chunked ? issuedKey.substring(0, issuedKey.length() - 1) : issuedKey)
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * 스레드별 재사용 버퍼
+     * Lettuce는 인자로 받은 byte[]를 그대로 쓰기 때문에 길이가 정확히 맞아야 하므로 길이별로 배열을 둔다.
+     * 응답을 받은 뒤에만 다시 쓰므로(동기 대기) 같은 스레드 안에서 겹치지 않는다.
+     */
+    private static final class Buffers {
+
+        private final byte[][] keys = new byte[2][];
+        private final byte[][] args = new byte[4][];
+        private final byte[][] members = new byte[MAX_LONG_DIGITS + 1][];
+        private final byte[][] chunkKeys = new byte[MAX_KEY_LENGTH + 1][];
+
+        private byte[] member(long value) {
+            int length = digits(value);
+            byte[] buffer = members[length];
+            if (buffer == null) {
+                buffer = new byte[length];
+                members[length] = buffer;
+            }
+            writeDigits(buffer, length, value);
+            return buffer;
+        }
+
+        /**
+         * 접두어 + 숫자 (CHUNKED 청크 키)
+         */
+        private byte[] key(byte[] prefix, long value) {
+            int length = prefix.length + digits(value);
+            byte[] buffer = length <= MAX_KEY_LENGTH ? chunkKeys[length] : null;
+            if (buffer == null) {
+                buffer = new byte[length];
+                if (length <= MAX_KEY_LENGTH) {
+                    chunkKeys[length] = buffer;
+                }
+            }
+            System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+            writeDigits(buffer, length, value);
+            return buffer;
+        }
+
+        private static int digits(long value) {
+            if (value < 0) {
+                return value == Long.MIN_VALUE ? MAX_LONG_DIGITS : digits(-value) + 1;
+            }
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        /**
+         * buffer[end - digits(value), end) 구간에 10진수 ASCII 기록
+         */
+        private static void writeDigits(byte[] buffer, int end, long value) {
+            if (value == Long.MIN_VALUE) {
+                byte[] min = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(min, 0, buffer, end - min.length, min.length);
+                return;
+            }
+            boolean negative = value < 0;
+            long remaining = negative ? -value : value;
+            int position = end;
+            do {
+                buffer[--position] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            } while (remaining != 0);
+            if (negative) {
+                buffer[--position] = '-';
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockWriteBackProperties;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Redis 재고를 coupons.remaining_quantity에 모아서 반영 (Write-Back)
+ * 발급마다 쿠폰 행을 UPDATE 하면 모든 요청이 같은 행 잠금을 기다리므로,
+ * 주기마다 발급 중인 쿠폰의 Redis 재고를 파이프라인 한 번으로 읽고 값이 바뀐 쿠폰만 조건부 UPDATE 한다.
+ *
+ * - 마지막 반영값과 minDelta 이상 차이 나거나, 마지막 반영 후 maxLag가 지났으면 반영
+ * - 재고가 0이 되면 바로 반영 (품절이 지연 없이 보이도록)
+ * - endAt + finalFlushDelay에 마지막으로 한 번 더 반영 (종료 시각이 바뀌면 예약을 취소하고 다시 예약)
+ * - 재고 키가 없으면(유실, 재초기화 전) 반영하지 않는다
+ * 여러 노드가 함께 반영해도 모두 Redis 값을 쓰므로 다음 주기에 같은 값으로 수렴한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockWriteBack {
+
+    private final StockWriteBackProperties properties;
+    private final CouponRepository couponRepository;
+    private final CouponStockService couponStockService;
+    private final CouponMetadataCache couponMetadataCache;
+    private final TaskScheduler taskScheduler;
+
+    /**
+     * couponId -> 마지막으로 반영한 잔여 수량과 시각
+     */
+    private final Map<Long, Written> written = new ConcurrentHashMap<>();
+
+    /**
+     * couponId -> 예약한 종료 반영 (예약 기준 종료 시각)
+     */
+    private final Map<Long, FinalFlush> finalFlushes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWriteBack() {
+        if (properties.enabled()) {
+            taskScheduler.scheduleWithFixedDelay(this::flushActiveCoupons, properties.interval());
+        }
+    }
+
+    /**
+     * 발급 기간 중인 쿠폰의 Redis 재고를 읽어 lag 기준을 넘은 쿠폰만 반영
+     */
+    public void flushActiveCoupons() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> couponIds = couponRepository.findStartedIdsEndingAfter(now, now);
+        written.keySet().retainAll(couponIds);
+        // 종료 시각을 앞당기거나 시작 시각을 미뤄 발급 기간에서 빠진 쿠폰도 예약을 다시 맞춘다
+        Set<Long> active = new HashSet<>(couponIds);
+        for (Long couponId : List.copyOf(finalFlushes.keySet())) {
+            if (!active.contains(couponId)) {
+                ensureFinalFlush(couponId);
+            }
+        }
+        if (couponIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> stocks = couponStockService.getStocks(couponIds);
+        long nowMillis = System.currentTimeMillis();
+        for (Long couponId : couponIds) {
+            try {
+                ensureFinalFlush(couponId);
+                Long remaining = stocks.get(couponId);
+                if (remaining == null) {
+                    // 재고 키 유실: 재초기화 전 값을 0으로 저장하지 않는다
+                    log.debug("재고 키 없음, 잔여 수량 반영 건너뜀 - couponId: {}", couponId);
+                    continue;
+                }
+                Written last = written.get(couponId);
+                if (last == null || shouldWrite(last, remaining, nowMillis)) {
+                    write(couponId, remaining, nowMillis);
+                }
+            } catch (RuntimeException e) {
+                log.warn("잔여 수량 반영 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 한 쿠폰의 Redis 재고를 lag 기준과 무관하게 바로 반영
+     */
+    public void flush(Long couponId) {
+        Long remaining = couponStockService.getStocks(List.of(couponId)).get(couponId);
+        if (remaining == null) {
+            log.warn("재고 키 없음, 잔여 수량 반영 건너뜀 - couponId: {}", couponId);
+            return;
+        }
+        write(couponId, remaining, System.currentTimeMillis());
+    }
+
+    private boolean shouldWrite(Written last, long remaining, long nowMillis) {
+        if (remaining == last.remaining()) {
+            return false;
+        }
+        return remaining == 0L
+                || Math.abs(remaining - last.remaining()) >= properties.minDelta()
+                || nowMillis - last.writtenAtMillis() >= properties.maxLag().toMillis();
+    }
+
+    private void write(Long couponId, long remaining, long nowMillis) {
+        int updated = couponRepository.updateRemainingQuantity(couponId, (int) remaining);
+        written.put(couponId, new Written(remaining, nowMillis));
+        if (updated > 0) {
+            log.debug("잔여 수량 반영 - couponId: {}, remaining: {}", couponId, remaining);
+        }
+    }
+
+    /**
+     * 종료 반영 예약을 현재 종료 시각에 맞춤 (삭제된 쿠폰은 예약 취소, 실패해도 잔여 수량 반영은 계속)
+     */
+    private void ensureFinalFlush(Long couponId) {
+        try {
+            scheduleFinalFlush(couponId);
+        } catch (IllegalArgumentException e) {
+            FinalFlush scheduled = finalFlushes.remove(couponId);
+            if (scheduled != null) {
+                scheduled.future().cancel(false);
+            }
+            log.debug("종료 반영 예약 취소 - couponId: {}, reason: {}", couponId, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("종료 반영 재예약 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+        }
+    }
+
+    /**
+     * endAt + finalFlushDelay에 한 번 더 반영
+     * 예약은 종료 시각 기준이므로, 종료 시각이 바뀌면 이전 예약을 취소하고 새 종료 시각으로 다시 예약한다.
+     * 존재하지 않는 쿠폰이면 CouponMetadataCache가 IllegalArgumentException을 던진다.
+     */
+    private void scheduleFinalFlush(Long couponId) {
+        CouponMetadata metadata = couponMetadataCache.get(couponId);
+        FinalFlush scheduled = finalFlushes.get(couponId);
+        if (scheduled != null && scheduled.endAt().equals(metadata.endAt())) {
+            return;
+        }
+        if (scheduled != null) {
+            scheduled.future().cancel(false);
+        }
+        LocalDateTime endAt = metadata.endAt();
+        LocalDateTime flushAt = endAt.plus(properties.finalFlushDelay());
+        ScheduledFuture<?> future = taskScheduler.schedule(() -> {
+            finalFlushes.computeIfPresent(couponId, (id, current) -> current.endAt().equals(endAt) ? null : current);
+            try {
+                flush(couponId);
+                log.info("발급 종료 잔여 수량 반영 - couponId: {}", couponId);
+            } catch (RuntimeException e) {
+                log.warn("발급 종료 잔여 수량 반영 실패 - couponId: {}, error: {}", couponId, e.getMessage());
+            }
+        }, flushAt.atZone(ZoneId.systemDefault()).toInstant());
+        FinalFlush flush = new FinalFlush(endAt, future);
+        finalFlushes.put(couponId, flush);
+        if (future.isDone()) {
+            // 이미 지난 시각이면 예약 등록 전에 실행이 끝났을 수 있다
+            finalFlushes.remove(couponId, flush);
+        }
+    }
+
+    private record Written(long remaining, long writtenAtMillis) {
+    }
+
+    private record FinalFlush(LocalDateTime endAt, ScheduledFuture<?> future) {
+    }
+}
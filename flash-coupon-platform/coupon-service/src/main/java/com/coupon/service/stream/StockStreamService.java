@@ -0,0 +1,350 @@
+package com.coupon.service.stream;
+
+import com.coupon.config.StockStreamProperties;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.dto.StockResponse;
+import com.coupon.service.dto.StockStreamEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 잔여 재고 스트림 (SSE) + 조회 스냅샷
+ * 카운트다운 중 클라이언트가 GET /stock을 반복 호출하면 Redis 조회가 클라이언트 수만큼 늘어난다.
+ * 노드가 재고를 대신 읽고 결과를 나눠 주어 Redis 조회가 클라이언트 수가 아니라 노드 수에 비례하도록 한다.
+ *
+ * - 스트림: sampleInterval마다 구독자가 있는 쿠폰의 재고를 getStocks 한 번(Redis 파이프라인 한 번)으로 읽고,
+ *           바뀐 쿠폰만 이벤트를 한 번 직렬화해 그 쿠폰의 모든 연결에 보낸다. 종료된 쿠폰은 마지막 값을 보내고 연결을 닫는다.
+ * - 전송: 샘플링은 연결마다 한 칸짜리 우편함에 최신 이벤트만 넣고, 실제 쓰기는 전용 스레드(sendThreads)가 연결 단위로 한다.
+ *         한 연결의 쓰기는 한 번에 하나만 돌고 잠금 없이 진행되므로 느린 연결이 같은 쿠폰의 다른 연결을 기다리게 하지 않는다.
+ *         밀린 연결은 중간 값을 건너뛰고 최신 값만 받으며, 쓰기 하나가 slowSubscriberTimeout을 넘기면 구독에서 뺀다.
+ *         이벤트마다 버전이 있어, 구독 직후의 첫 이벤트와 샘플 이벤트가 엇갈려도 재고가 거꾸로 가거나 반복되지 않는다.
+ * - 스냅샷: GET /stock 응답을 snapshotTtl 동안 노드 메모리에 둔다. 만료된 뒤 동시에 들어온 조회는 한 번만 읽는다.
+ */
+@Slf4j
+@Component
+public class StockStreamService {
+
+    private static final String EVENT_NAME = "stock";
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final StockStreamProperties properties;
+    private final CouponService couponService;
+    private final CouponStockService couponStockService;
+    private final CouponMetadataCache couponMetadataCache;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final ExecutorService sender;
+    private final long slowSubscriberNanos;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Cache<Long, StockResponse> snapshots;
+
+    private long lastHeartbeatMillis = System.currentTimeMillis();
+
+    public StockStreamService(StockStreamProperties properties,
+                              CouponService couponService,
+                              CouponStockService couponStockService,
+                              CouponMetadataCache couponMetadataCache,
+                              ObjectMapper objectMapper,
+                              TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.couponService = couponService;
+        this.couponStockService = couponStockService;
+        this.couponMetadataCache = couponMetadataCache;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.sender = Executors.newFixedThreadPool(properties.sendThreads(),
+                Thread.ofPlatform().name("stock-stream-", 0).daemon().factory());
+        this.slowSubscriberNanos = properties.slowSubscriberTimeout().toNanos();
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(properties.snapshotTtl())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSampler() {
+        taskScheduler.scheduleWithFixedDelay(this::sample, properties.sampleInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * 잔여 재고 조회 (snapshotTtl 동안 노드 메모리의 값)
+     */
+    public StockResponse getSnapshot(Long couponId) {
+        return snapshots.get(couponId, id -> new StockResponse(
+                id, couponService.getStock(id), couponService.getIssuedCount(id)));
+    }
+
+    /**
+     * 재고 스트림 구독 (현재 재고를 바로 한 번 보내고, 이후에는 바뀔 때만 전송)
+     * @return 연결, 노드의 연결 수가 maxSubscribers에 도달했으면 null
+     */
+    public SseEmitter subscribe(Long couponId) {
+        CouponMetadata metadata = couponMetadataCache.get(couponId);
+        if (subscriberCount.incrementAndGet() > properties.maxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.emitterTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(couponId, emitter);
+        Channel channel = channels.compute(couponId, (id, current) -> {
+            Channel next = current != null ? current : new Channel();
+            next.subscribers.put(emitter, subscriber);
+            return next;
+        });
+        emitter.onCompletion(() -> unsubscribe(couponId, emitter));
+        emitter.onError(e -> unsubscribe(couponId, emitter));
+
+        Frame latest = channel.latest.get();
+        if (latest == null) {
+            // 새 쿠폰 구독: 스냅샷 값을 기준으로 삼아 첫 샘플이 같은 값을 다시 보내지 않도록
+            Long stock = getSnapshot(couponId).remainingStock();
+            channel.latest.compareAndSet(null, new Frame(1L, stock, frame(couponId, stock, LocalDateTime.now())));
+            latest = channel.latest.get();
+        }
+        if (!LocalDateTime.now().isBefore(metadata.endAt())) {
+            subscriber.closing = true;
+        }
+        offer(subscriber, latest);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * 주기 작업: 구독 중인 쿠폰 재고를 한 번에 읽어 바뀐 쿠폰만 연결별 우편함에 넣음 (쓰기는 전송 스레드)
+     */
+    public void sample() {
+        if (channels.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> couponIds = new ArrayList<>(channels.keySet());
+            Map<Long, Long> stocks = couponStockService.getStocks(couponIds);
+            LocalDateTime now = LocalDateTime.now();
+            long nowMillis = System.currentTimeMillis();
+            boolean heartbeat = nowMillis - lastHeartbeatMillis >= properties.heartbeatInterval().toMillis();
+            if (heartbeat) {
+                lastHeartbeatMillis = nowMillis;
+            }
+
+            for (Long couponId : couponIds) {
+                Channel channel = channels.get(couponId);
+                if (channel == null) {
+                    continue;
+                }
+                // 재고 키가 없으면(유실, 재초기화 전) 마지막 값을 유지
+                Long stock = stocks.get(couponId);
+                Frame latest = channel.latest.get();
+                Frame published = null;
+                if (stock != null && (latest == null || !Objects.equals(stock, latest.stock()))) {
+                    published = channel.publish(stock, frame(couponId, stock, now));
+                }
+                boolean ended = isEnded(couponId, now);
+                for (Subscriber subscriber : channel.subscribers.values()) {
+                    if (ended) {
+                        subscriber.closing = true;
+                    }
+                    if (published != null) {
+                        offer(subscriber, published);
+                    } else if (heartbeat || ended) {
+                        subscriber.heartbeat |= heartbeat;
+                        schedule(subscriber);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("재고 스트림 갱신 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    private boolean isEnded(Long couponId, LocalDateTime now) {
+        try {
+            return !now.isBefore(couponMetadataCache.get(couponId).endAt());
+        } catch (IllegalArgumentException e) {
+            // 삭제된 쿠폰
+            return true;
+        }
+    }
+
+    /**
+     * 우편함에 이벤트 넣기 (이미 더 새 이벤트가 있으면 그대로 둠)
+     */
+    private void offer(Subscriber subscriber, Frame frame) {
+        subscriber.mailbox.accumulateAndGet(frame,
+                (current, next) -> current == null || next.version() > current.version() ? next : current);
+        schedule(subscriber);
+    }
+
+    /**
+     * 연결 쓰기 예약 (이미 쓰는 중이면 그 쓰기가 우편함을 이어서 비움)
+     * 쓰기 하나가 slowSubscriberTimeout을 넘겨 막혀 있으면 더 보내지 않고 구독에서 뺀다.
+     */
+    private void schedule(Subscriber subscriber) {
+        long sendStarted = subscriber.sendStartedNanos;
+        if (sendStarted != 0L && System.nanoTime() - sendStarted > slowSubscriberNanos) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.writing.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> write(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.writing.set(false);
+            }
+        }
+    }
+
+    /**
+     * 우편함을 비울 때까지 쓰기 (연결마다 한 번에 하나만 실행되므로 이벤트가 순서대로 나감)
+     */
+    private void write(Subscriber subscriber) {
+        do {
+            if (subscriber.dropped) {
+                subscriber.emitter.complete();
+                return;
+            }
+            Frame frame = subscriber.mailbox.getAndSet(null);
+            boolean heartbeat = subscriber.heartbeat;
+            subscriber.heartbeat = false;
+            if (frame != null && frame.version() > subscriber.sentVersion) {
+                subscriber.sentVersion = frame.version();
+                send(subscriber, frame.data());
+            } else if (heartbeat) {
+                send(subscriber, HEARTBEAT);
+            }
+            if (subscriber.closing && subscriber.mailbox.get() == null) {
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.writing.set(false);
+        } while ((subscriber.mailbox.get() != null || subscriber.heartbeat || subscriber.dropped)
+                && subscriber.writing.compareAndSet(false, true));
+    }
+
+    /**
+     * 전송 실패(연결 끊김)는 구독 해제만 하고 넘어감
+     */
+    private void send(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        subscriber.sendStartedNanos = System.nanoTime();
+        try {
+            subscriber.emitter.send(frame);
+        } catch (IOException | IllegalStateException e) {
+            subscriber.dropped = true;
+            unsubscribe(subscriber.couponId, subscriber.emitter);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sendStartedNanos = 0L;
+        }
+    }
+
+    /**
+     * 느린 연결 정리: 구독에서 먼저 빼고, 막혀 있는 쓰기가 끝나면 그 스레드가 연결을 닫는다.
+     * (emitter.complete는 진행 중인 send와 같은 모니터를 기다리므로 샘플링 스레드에서 부르지 않음)
+     */
+    private void drop(Subscriber subscriber) {
+        if (!subscriber.dropped) {
+            subscriber.dropped = true;
+            log.info("느린 재고 스트림 연결 정리 - couponId: {}", subscriber.couponId);
+        }
+        unsubscribe(subscriber.couponId, subscriber.emitter);
+    }
+
+    private void unsubscribe(Long couponId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        channels.computeIfPresent(couponId, (id, channel) -> {
+            removed[0] = channel.subscribers.remove(emitter) != null;
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * 재고 이벤트 (연결 수와 무관하게 한 번만 직렬화)
+     */
+    private Set<DataWithMediaType> frame(Long couponId, Long stock, LocalDateTime sampledAt) {
+        try {
+            String data = objectMapper.writeValueAsString(new StockStreamEvent(couponId, stock, sampledAt));
+            return SseEmitter.event().name(EVENT_NAME).data(data).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("재고 이벤트 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 재고 이벤트와 버전 (샘플마다 1씩 증가)
+     */
+    private record Frame(long version, Long stock, Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * 연결 하나의 우편함과 쓰기 상태
+     * sentVersion은 writing을 잡은 쓰기 스레드만 읽고 쓴다.
+     */
+    private static final class Subscriber {
+        private final Long couponId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Frame> mailbox = new AtomicReference<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile long sendStartedNanos;
+        private volatile boolean heartbeat;
+        private volatile boolean closing;
+        private volatile boolean dropped;
+        private long sentVersion;
+
+        private Subscriber(Long couponId, SseEmitter emitter) {
+            this.couponId = couponId;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * 쿠폰별 연결 목록과 마지막 재고 이벤트
+     */
+    private static final class Channel {
+        private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+        private final AtomicReference<Frame> latest = new AtomicReference<>();
+
+        private Frame publish(Long stock, Set<DataWithMediaType> data) {
+            return latest.updateAndGet(current -> new Frame(current != null ? current.version() + 1 : 1L, stock, data));
+        }
+    }
+}
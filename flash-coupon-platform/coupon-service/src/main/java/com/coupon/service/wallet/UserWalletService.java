@@ -0,0 +1,176 @@
+package com.coupon.service.wallet;
+
+import com.coupon.config.WalletProperties;
+import com.coupon.repository.CouponIssueArchiveRepository;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.WalletRow;
+import com.coupon.service.cache.CouponMetadata;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.dto.WalletResponse;
+import com.coupon.service.dto.WalletResponse.WalletCoupon;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자 쿠폰함 조회 (Read Model)
+ * 발급 내역은 (user_id, id) 인덱스로 keyset 페이지 조회하고, 쿠폰 이름/기간은 메타데이터 캐시에서 채운다.
+ * 쿠폰 테이블과 조인하지 않으므로 페이지 크기만큼의 인덱스 범위 읽기로 끝나고, 테이블 크기와 무관하게 일정하다.
+ * 보관된 발급 내역(coupon_issues_archive)도 같은 id 커서로 읽어 합친다.
+ *
+ * 자주 조회되는 첫 페이지는 로컬 캐시에 보관한다.
+ * 발급 내역이 저장되면 해당 사용자의 캐시를 지우고, 모아둔 사용자 ID를 주기마다 Redis Pub/Sub으로 다른 노드에 알린다.
+ */
+@Slf4j
+@Component
+public class UserWalletService implements MessageListener {
+
+    private final WalletProperties properties;
+    private final CouponIssueRepository couponIssueRepository;
+    private final CouponIssueArchiveRepository couponIssueArchiveRepository;
+    private final CouponMetadataCache couponMetadataCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Cache<Long, WalletResponse> firstPages;
+
+    /**
+     * 다른 노드에 아직 알리지 않은 무효화 대상 사용자
+     */
+    private final Set<Long> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+    public UserWalletService(WalletProperties properties,
+                             CouponIssueRepository couponIssueRepository,
+                             CouponIssueArchiveRepository couponIssueArchiveRepository,
+                             CouponMetadataCache couponMetadataCache,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             TaskScheduler taskScheduler) {
+        this.properties = properties;
+        this.couponIssueRepository = couponIssueRepository;
+        this.couponIssueArchiveRepository = couponIssueArchiveRepository;
+        this.couponMetadataCache = couponMetadataCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.taskScheduler = taskScheduler;
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(properties.cacheMaximumSize())
+                .expireAfterWrite(properties.cacheExpireAfterWrite())
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(properties.invalidationChannel()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInvalidationPublisher() {
+        taskScheduler.scheduleWithFixedDelay(this::publishInvalidations, properties.invalidationFlushInterval());
+    }
+
+    /**
+     * 쿠폰함 조회 (최근 발급 순)
+     * @param cursor 이전 응답의 nextCursor (null = 첫 페이지)
+     * @param size   페이지 크기 (null = 기본값, maxPageSize로 제한)
+     */
+    public WalletResponse getWallet(Long userId, Long cursor, Integer size) {
+        int pageSize = size == null ? properties.defaultPageSize() : Math.max(1, Math.min(size, properties.maxPageSize()));
+        if (cursor == null && pageSize == properties.defaultPageSize()) {
+            return firstPages.get(userId, id -> loadPage(id, Long.MAX_VALUE, pageSize));
+        }
+        return loadPage(userId, cursor == null ? Long.MAX_VALUE : cursor, pageSize);
+    }
+
+    private WalletResponse loadPage(Long userId, long beforeId, int pageSize) {
+        // 한 건 더 읽어 다음 페이지 유무 판단 (빈 페이지 요청 방지)
+        List<WalletRow> rows = merge(
+                couponIssueRepository.findWalletPage(userId, beforeId, Limit.of(pageSize + 1)),
+                couponIssueArchiveRepository.findWalletPage(userId, beforeId, Limit.of(pageSize + 1)),
+                pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<WalletCoupon> coupons = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (WalletRow row : hasNext ? rows.subList(0, pageSize) : rows) {
+            CouponMetadata coupon = couponMetadataCache.get(row.couponId());
+            coupons.add(new WalletCoupon(row.issueId(), row.couponId(), coupon.name(), row.code(),
+                    row.issuedAt(), coupon.startAt(), coupon.endAt()));
+        }
+        Long nextCursor = hasNext ? coupons.get(coupons.size() - 1).issueId() : null;
+        return new WalletResponse(userId, coupons, nextCursor);
+    }
+
+    /**
+     * id 내림차순 두 페이지를 합쳐 앞에서 limit건
+     */
+    private static List<WalletRow> merge(List<WalletRow> hot, List<WalletRow> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<WalletRow> merged = new ArrayList<>(Math.min(hot.size() + archived.size(), limit));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < hot.size() || j < archived.size())) {
+            if (j >= archived.size() || (i < hot.size() && hot.get(i).issueId() > archived.get(j).issueId())) {
+                merged.add(hot.get(i++));
+            } else {
+                merged.add(archived.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 발급 내역 저장 후 호출 (이 노드 캐시는 바로, 다른 노드는 다음 발행 주기에 무효화)
+     */
+    public void evict(Long userId) {
+        firstPages.invalidate(userId);
+        pendingInvalidations.add(userId);
+    }
+
+    /**
+     * 모아둔 사용자 ID를 메시지 하나로 발행 (쉼표 구분)
+     */
+    public void publishInvalidations() {
+        if (pendingInvalidations.isEmpty()) {
+            return;
+        }
+        StringJoiner message = new StringJoiner(",");
+        for (Long userId : pendingInvalidations) {
+            pendingInvalidations.remove(userId);
+            message.add(userId.toString());
+        }
+        try {
+            stringRedisTemplate.convertAndSend(properties.invalidationChannel(), message.toString());
+        } catch (RuntimeException e) {
+            // 다른 노드는 cacheExpireAfterWrite 안에 갱신됨
+            log.warn("쿠폰함 캐시 무효화 발행 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드에서 발행한 무효화 메시지 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String userId : body.split(",")) {
+            try {
+                firstPages.invalidate(Long.valueOf(userId));
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 쿠폰함 캐시 무효화 메시지: {}", body);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.coupon.service.writebehind;
+
+import java.time.LocalDateTime;
+
+/**
+ * Redis에서 확정된 발급 건 (DB 저장 대기)
+ */
+public record IssueGrant(
+        long couponId,
+        long userId,
+        LocalDateTime issuedAt,
+        String code
+) {
+}
@@ -0,0 +1,307 @@
+package com.coupon.service.writebehind;
+
+import com.coupon.service.code.CouponCodeCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 발급 건 로컬 저널 (append-only 파일)
+ * - issue-journal.log : 헤더 (magic, 형식 버전) + 고정 길이 레코드 (couponId, userId, issuedAt, 쿠폰 코드 12바이트)
+ * - issue-journal.ckpt : DB 저장이 끝난 위치 (byte offset)
+ * - issue-journal.id   : 저널 ID (처음 열 때 만들고 유지, 노드가 재시작해도 같은 저널을 가리킨다)
+ * 재시작 시 체크포인트 이후 레코드를 다시 읽어 DB에 반영한다.
+ * 헤더가 다른 파일(이전 형식, 다른 파일)은 레코드를 잘못 읽게 되므로 열지 않는다. 이전 버전으로 재생한 뒤 지워야 한다.
+ *
+ * append는 OS 페이지 캐시까지만 기록한다. 디스크 반영은 sync로 모아서 한다. (group commit)
+ * 여러 스레드가 동시에 sync를 호출하면 한 스레드의 force가 그 시점까지 기록된 레코드를 모두 반영하고,
+ * 나머지는 자기 위치가 이미 반영되었으면 force 없이 돌아간다.
+ */
+@Slf4j
+public class IssueJournal implements Closeable {
+
+    static final int RECORD_SIZE = Long.BYTES * 3 + CouponCodeCodec.LENGTH;
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+    static final int MAGIC = 0x434A524E; // "CJRN"
+    /**
+     * 레코드 형식 버전 (1 = 헤더 없는 24바이트 레코드, 2 = 쿠폰 코드 포함 36바이트 레코드)
+     */
+    static final int VERSION = 2;
+
+    private static final String LOG_FILE = "issue-journal.log";
+    private static final String CHECKPOINT_FILE = "issue-journal.ckpt";
+    private static final String ID_FILE = "issue-journal.id";
+
+    private final String id;
+    private final FileChannel logChannel;
+    private final FileChannel checkpointChannel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final ByteBuffer checkpointBuffer = ByteBuffer.allocate(Long.BYTES);
+
+    private long writePosition;
+    private long checkpoint;
+    private volatile long syncedPosition;
+    private long truncations;
+
+    public IssueJournal(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            this.id = readOrCreateId(directory.resolve(ID_FILE));
+            this.logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            long size = logChannel.size();
+            if (size < HEADER_SIZE) {
+                // 새 파일이거나 헤더를 쓰다 종료됨 (완전한 레코드가 없으므로 다시 쓴다)
+                writeHeader();
+                size = HEADER_SIZE;
+            } else {
+                verifyHeader(directory);
+            }
+            // 기록 도중 종료되어 잘린 마지막 레코드는 버린다
+            this.writePosition = size - ((size - HEADER_SIZE) % RECORD_SIZE);
+            logChannel.truncate(writePosition);
+            this.checkpoint = Math.min(Math.max(readCheckpoint(), HEADER_SIZE), writePosition);
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 저널을 열 수 없습니다: " + directory, e);
+        }
+    }
+
+    /**
+     * 발급 건 기록
+     * @return 기록 후 저널 끝 위치 (commit 시 사용)
+     */
+    public long append(IssueGrant grant) {
+        lock.lock();
+        try {
+            recordBuffer.clear();
+            recordBuffer.putLong(grant.couponId())
+                    .putLong(grant.userId())
+                    .putLong(grant.issuedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .put(grant.code().getBytes(StandardCharsets.US_ASCII))
+                    .flip();
+            while (recordBuffer.hasRemaining()) {
+                writePosition += logChannel.write(recordBuffer, writePosition);
+            }
+            return writePosition;
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 저널 기록 실패", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * position까지 기록된 레코드를 디스크에 반영 (group commit)
+     * force 중에도 append는 계속 진행되고, 다음 sync가 그 사이에 기록된 레코드를 한 번에 반영한다.
+     */
+    public void sync(long position) {
+        if (position <= syncedPosition) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (position <= syncedPosition) {
+                return;
+            }
+            long target;
+            long truncatedAt;
+            lock.lock();
+            try {
+                target = writePosition;
+                truncatedAt = truncations;
+            } finally {
+                lock.unlock();
+            }
+            logChannel.force(false);
+            lock.lock();
+            try {
+                // force 도중 파일을 비웠으면 target은 이전 파일의 위치라 반영하지 않는다
+                if (truncatedAt == truncations) {
+                    syncedPosition = Math.max(syncedPosition, target);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (ClosedChannelException e) {
+            // close()가 force 후 닫았으므로 이미 반영됨
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 저널 디스크 반영 실패", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 체크포인트 이후 (DB 미반영) 레코드 조회
+     */
+    public List<IssueGrant> readUncommitted() {
+        lock.lock();
+        try {
+            List<IssueGrant> grants = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            for (long position = checkpoint; position < writePosition; position += RECORD_SIZE) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    logChannel.read(buffer, position + buffer.position());
+                }
+                buffer.flip();
+                grants.add(new IssueGrant(buffer.getLong(), buffer.getLong(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong()), ZoneOffset.UTC),
+                        StandardCharsets.US_ASCII.decode(buffer).toString()));
+            }
+            return grants;
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 저널 읽기 실패", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * DB 저장 완료 위치 기록
+     * 저널 끝까지 반영되었으면 파일을 비워 크기를 유지한다.
+     */
+    public void commit(long position) {
+        lock.lock();
+        try {
+            if (position <= checkpoint) {
+                return;
+            }
+            checkpoint = position;
+            if (checkpoint == writePosition) {
+                logChannel.truncate(HEADER_SIZE);
+                logChannel.force(true);
+                writePosition = HEADER_SIZE;
+                checkpoint = HEADER_SIZE;
+                // 비우기 전 위치로 sync를 기다리는 레코드는 이미 DB에 저장되었으므로 다시 force해도 무방
+                syncedPosition = HEADER_SIZE;
+                truncations++;
+            }
+            writeCheckpoint(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("발급 저널 체크포인트 기록 실패", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재까지 기록된 전체 레코드를 DB 반영 완료로 처리 (replay 후 사용)
+     */
+    public void commitAll() {
+        lock.lock();
+        try {
+            commit(writePosition);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public long pendingBytes() {
+        lock.lock();
+        try {
+            return writePosition - checkpoint;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            logChannel.force(true);
+            logChannel.close();
+            checkpointChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String readOrCreateId(Path file) throws IOException {
+        if (Files.exists(file)) {
+            String saved = Files.readString(file, StandardCharsets.US_ASCII).strip();
+            if (!saved.isEmpty()) {
+                return saved;
+            }
+        }
+        String created = UUID.randomUUID().toString();
+        Files.writeString(file, created, StandardCharsets.US_ASCII);
+        return created;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        logChannel.truncate(0);
+        while (header.hasRemaining()) {
+            logChannel.write(header, header.position());
+        }
+        logChannel.force(true);
+    }
+
+    private void verifyHeader(Path directory) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            logChannel.read(header, header.position());
+        }
+        header.flip();
+        int magic = header.getInt();
+        int version = header.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            logChannel.close();
+            checkpointChannel.close();
+            throw new IllegalStateException(String.format(
+                    "발급 저널 형식이 다릅니다 - dir: %s, magic: %08x, version: %d (기대값 %08x, %d). "
+                            + "기록한 버전으로 재생한 뒤 파일을 지워야 합니다.",
+                    directory, magic, version, MAGIC, VERSION));
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpointChannel.size() < Long.BYTES) {
+            return 0L;
+        }
+        checkpointBuffer.clear();
+        while (checkpointBuffer.hasRemaining()) {
+            if (checkpointChannel.read(checkpointBuffer, checkpointBuffer.position()) < 0) {
+                return 0L;
+            }
+        }
+        checkpointBuffer.flip();
+        return checkpointBuffer.getLong();
+    }
+
+    private void writeCheckpoint(long position) throws IOException {
+        checkpointBuffer.clear();
+        checkpointBuffer.putLong(position).flip();
+        while (checkpointBuffer.hasRemaining()) {
+            checkpointChannel.write(checkpointBuffer, checkpointBuffer.position());
+        }
+        checkpointChannel.force(false);
+    }
+}
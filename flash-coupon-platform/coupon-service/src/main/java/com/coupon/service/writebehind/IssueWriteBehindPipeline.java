@@ -0,0 +1,310 @@
+package com.coupon.service.writebehind;
+
+import com.coupon.config.WriteBehindProperties;
+import com.coupon.repository.CouponIssueBatchRepository;
+import com.coupon.service.wallet.UserWalletService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 발급 내역 Write-Behind 파이프라인
+ * 요청 스레드: 저널 기록 → 큐 적재 → 저널 디스크 반영(syncOnAppend, group commit) 후 반환
+ * 백그라운드 스레드: 큐를 배치 단위로 꺼내 DB 저장 → 저널 체크포인트 갱신
+ *
+ * - 큐가 가득 차면 offerTimeout 동안 대기 후 거절 (backpressure)
+ * - 기동 시 저널의 미반영 건을 먼저 DB에 반영 (replay)
+ * - 종료 시 큐에 남은 건을 모두 저장한 뒤 종료 (flush-on-shutdown)
+ * - reportInterval마다 "이 시각 이전에 기록한 건은 모두 DB에 저장됨" 시각을 Redis에 보고 (대사의 복구 보류 판단용)
+ *
+ * 키
+ * - coupon:writebehind:settled : 저널 ID → DB 반영 완료 시각 (ms)
+ *   노드가 장애로 멈추면 값이 갱신되지 않아 대사는 그 시각 이후 발견한 불일치의 복구를 미룬다.
+ *   재시작해 replay를 마치면 다시 갱신되고, 정상 종료 시 저널이 비었으면 필드를 지운다.
+ *   노드를 영구히 없앨 때는 저널을 다른 노드에서 replay 한 뒤 필드를 지운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IssueWriteBehindPipeline implements SmartLifecycle {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000L;
+    private static final String SETTLED_KEY = "coupon:writebehind:settled";
+
+    private final WriteBehindProperties properties;
+    private final CouponIssueBatchRepository couponIssueBatchRepository;
+    private final UserWalletService userWalletService;
+    private final RedisTemplate<String, Long> redisTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private IssueJournal journal;
+    private BlockingQueue<PendingGrant> queue;
+    private Semaphore capacity;
+    private Thread flusher;
+    private ScheduledFuture<?> settledReporter;
+    private volatile boolean running;
+
+    /**
+     * 이 시각(ms) 이전에 저널에 기록한 건은 모두 DB에 저장됨 (flusher만 갱신)
+     */
+    private volatile long settledThrough;
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * 발급 건 제출
+     * @return false = 큐 포화로 거절 (호출 측에서 Redis 롤백 필요)
+     */
+    public boolean submit(IssueGrant grant) {
+        if (!running) {
+            return false;
+        }
+        try {
+            if (!capacity.tryAcquire(properties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Write-Behind 큐 포화 - couponId: {}, userId: {}", grant.couponId(), grant.userId());
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        // 저널 위치와 큐 순서를 일치시키기 위해 같은 락 안에서 기록
+        // stop()은 running을 내린 뒤 이 락을 한 번 잡으므로, 락 안에서 running을 다시 보면 종료 후 기록하지 않는다
+        long position;
+        appendLock.lock();
+        try {
+            if (!running) {
+                capacity.release();
+                return false;
+            }
+            long appendedAt = System.currentTimeMillis();
+            position = journal.append(grant);
+            queue.add(new PendingGrant(grant, position, appendedAt));
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        } finally {
+            appendLock.unlock();
+        }
+
+        // 디스크 반영 전에 응답하면 OS 장애 시 Redis 재고만 줄고 발급 내역이 사라진다
+        // 락 밖에서 기다리므로 동시에 들어온 요청들이 force 한 번을 나눠 쓴다
+        if (properties.syncOnAppend()) {
+            journal.sync(position);
+        }
+        return true;
+    }
+
+    public int pendingCount() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * 모든 노드의 저널 중 가장 늦은 DB 반영 완료 시각 (ms)
+     * 이 시각 이전에 발급된 건은 어느 노드에서든 DB에 저장되었다. Write-Behind를 쓰는 노드가 없으면 Long.MAX_VALUE.
+     */
+    public long clusterSettledThrough() {
+        long min = Long.MAX_VALUE;
+        for (Object value : redisTemplate.opsForHash().values(SETTLED_KEY)) {
+            if (value instanceof Long settled) {
+                min = Math.min(min, settled);
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        journal = new IssueJournal(Path.of(properties.journalDir()));
+        queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        capacity = new Semaphore(properties.queueCapacity());
+
+        replay();
+
+        settledThrough = System.currentTimeMillis();
+        running = true;
+        reportSettled();
+        flusher = new Thread(this::flushLoop, "issue-write-behind");
+        flusher.start();
+        settledReporter = taskScheduler.scheduleAtFixedRate(this::reportSettled, properties.reportInterval());
+        log.info("Write-Behind 파이프라인 시작 - queueCapacity: {}, batchSize: {}",
+                properties.queueCapacity(), properties.batchSize());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        // 기록 중인 submit이 끝날 때까지 대기 (이후 submit은 락 안에서 running을 보고 거절)
+        appendLock.lock();
+        appendLock.unlock();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        settledReporter.cancel(false);
+        if (journal.pendingBytes() == 0) {
+            removeSettled();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.error("발급 저널 종료 실패: {}", e.getMessage());
+        }
+        log.info("Write-Behind 파이프라인 종료 - 미반영 저널: {} bytes", journal.pendingBytes());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * DataSource보다 늦게 시작하고 먼저 종료되도록 가장 늦은 phase 사용
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1;
+    }
+
+    /**
+     * 재시작 시 저널에 남아 있는 미반영 건 저장
+     */
+    private void replay() {
+        List<IssueGrant> uncommitted = journal.readUncommitted();
+        if (uncommitted.isEmpty()) {
+            return;
+        }
+        log.warn("발급 저널 재처리 시작 - {}건", uncommitted.size());
+        int inserted = 0;
+        for (int from = 0; from < uncommitted.size(); from += properties.batchSize()) {
+            List<IssueGrant> batch = uncommitted.subList(from, Math.min(from + properties.batchSize(), uncommitted.size()));
+            inserted += couponIssueBatchRepository.insertAll(batch);
+            evictWallets(batch);
+        }
+        journal.commitAll();
+        log.warn("발급 저널 재처리 완료 - 대상: {}건, 신규 저장: {}건", uncommitted.size(), inserted);
+    }
+
+    private void flushLoop() {
+        List<PendingGrant> batch = new ArrayList<>(properties.batchSize());
+        long pollMillis = properties.flushInterval().toMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                long pollStart = System.currentTimeMillis();
+                PendingGrant first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // 대기하는 동안 큐가 비어 있었으므로 그 전에 기록한 건은 모두 저장됨
+                    settledThrough = Math.max(settledThrough, pollStart);
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                if (flush(batch)) {
+                    // 같은 밀리초에 기록된 건이 아직 큐에 있을 수 있어 1ms 앞까지만
+                    settledThrough = Math.max(settledThrough, batch.get(batch.size() - 1).appendedAt() - 1);
+                }
+            } catch (InterruptedException e) {
+                // 종료 중에도 큐가 빌 때까지 계속 저장
+                log.warn("Write-Behind 스레드 인터럽트 - 남은 건: {}", queue.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 배치 저장 (성공할 때까지 재시도, 저널에 남아 있으므로 유실 없음)
+     * 종료 중 실패하면 남은 건은 저널에 그대로 두고 다음 기동 시 replay 한다.
+     * @return false = 종료 중 실패로 저장하지 못함
+     */
+    private boolean flush(List<PendingGrant> batch) {
+        List<IssueGrant> grants = new ArrayList<>(batch.size());
+        for (PendingGrant pending : batch) {
+            grants.add(pending.grant());
+        }
+
+        while (true) {
+            try {
+                couponIssueBatchRepository.insertAll(grants);
+                evictWallets(grants);
+                break;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    // 종료 중 DB 장애: 저널에 남겨두고 다음 기동 시 재처리
+                    log.error("종료 중 배치 저장 실패, 저널에 보존 - size: {}, error: {}", grants.size(), e.getMessage());
+                    queue.clear();
+                    return false;
+                }
+                log.error("발급 내역 배치 저장 실패, 재시도 - size: {}, error: {}", grants.size(), e.getMessage());
+                sleepQuietly(RETRY_BACKOFF_MILLIS);
+            }
+        }
+
+        journal.commit(batch.get(batch.size() - 1).journalPosition());
+        capacity.release(batch.size());
+        log.debug("발급 내역 배치 저장 - size: {}", batch.size());
+        return true;
+    }
+
+    private void reportSettled() {
+        if (!running) {
+            return;
+        }
+        try {
+            redisTemplate.opsForHash().put(SETTLED_KEY, journal.id(), settledThrough);
+        } catch (RuntimeException e) {
+            log.warn("저널 반영 시각 보고 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    private void removeSettled() {
+        try {
+            redisTemplate.opsForHash().delete(SETTLED_KEY, journal.id());
+        } catch (RuntimeException e) {
+            log.warn("저널 반영 시각 삭제 실패 - error: {}", e.getMessage());
+        }
+    }
+
+    private void evictWallets(List<IssueGrant> grants) {
+        for (IssueGrant grant : grants) {
+            userWalletService.evict(grant.userId());
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            log.warn("Write-Behind 재시도 대기 중 인터럽트");
+        }
+    }
+
+    private record PendingGrant(IssueGrant grant, long journalPosition, long appendedAt) {
+    }
+}
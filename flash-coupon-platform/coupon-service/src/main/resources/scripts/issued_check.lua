@@ -0,0 +1,20 @@
+-- 여러 사용자 발급 여부 확인 스크립트 (대사용)
+-- KEYS[1..n]: 사용자별 발급 사용자 키
+-- ARGV[1..n]: 사용자별 발급 사용자 값 (stock_decrement.lua의 ARGV[1]과 동일)
+-- 키 타입(Set/비트맵)으로 인코딩을 판단하므로 SET, BITMAP, CHUNKED 모두 처리
+-- 반환값: 사용자 순서대로 1 = 발급 기록 있음, 0 = 없음
+
+local results = {}
+
+for i = 1, #KEYS do
+    local keyType = redis.call('TYPE', KEYS[i]).ok
+    if keyType == 'string' then
+        results[i] = redis.call('GETBIT', KEYS[i], ARGV[i])
+    elseif keyType == 'set' then
+        results[i] = redis.call('SISMEMBER', KEYS[i], ARGV[i])
+    else
+        results[i] = 0
+    end
+end
+
+return results
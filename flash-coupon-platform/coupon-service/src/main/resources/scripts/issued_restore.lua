@@ -0,0 +1,61 @@
+-- 발급 기록 복원 스크립트 (대사: DB에는 발급 내역이 있는데 Redis에 발급 기록이 없는 사용자)
+-- KEYS[1]: 재고 키
+-- KEYS[2]: 발급 사용자 키
+-- ARGV[1]: 발급 사용자 값 (stock_decrement.lua와 동일)
+-- ARGV[2]: 발급 사용자 인코딩 S = Set, B = Bitmap, C = Chunked
+-- ARGV[3]: CHUNKED 인코딩에서 청크 Set을 비트맵으로 변환하는 원소 수
+-- 반환값: 1 = 기록 + 재고 감소, 2 = 기록했지만 재고가 이미 0 (재고 부족분), 0 = 이미 기록되어 있음
+
+local stockKey = KEYS[1]
+local issuedKey = KEYS[2]
+local member = ARGV[1]
+local encoding = ARGV[2]
+local chunkThreshold = tonumber(ARGV[3])
+
+local function isIssued()
+    if encoding == 'B' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    if encoding == 'C' and redis.call('TYPE', issuedKey).ok == 'string' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    return redis.call('SISMEMBER', issuedKey, member) == 1
+end
+
+local function markIssued()
+    if encoding == 'B' then
+        redis.call('SETBIT', issuedKey, member, 1)
+        return
+    end
+    if encoding == 'C' then
+        if redis.call('TYPE', issuedKey).ok == 'string' then
+            redis.call('SETBIT', issuedKey, member, 1)
+            return
+        end
+        redis.call('SADD', issuedKey, member)
+        -- 청크 원소가 임계치를 넘으면 정수 Set → 비트맵으로 변환
+        if redis.call('SCARD', issuedKey) > chunkThreshold then
+            local members = redis.call('SMEMBERS', issuedKey)
+            redis.call('DEL', issuedKey)
+            for _, m in ipairs(members) do
+                redis.call('SETBIT', issuedKey, m, 1)
+            end
+        end
+        return
+    end
+    redis.call('SADD', issuedKey, member)
+end
+
+if isIssued() then
+    return 0
+end
+
+markIssued()
+
+-- 발급 기록이 빠진 만큼 재고가 남아 있으므로 함께 차감 (0 미만으로는 내리지 않음)
+local stock = tonumber(redis.call('GET', stockKey) or 0)
+if stock <= 0 then
+    return 2
+end
+redis.call('DECR', stockKey)
+return 1
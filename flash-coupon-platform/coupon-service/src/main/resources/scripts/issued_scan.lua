@@ -0,0 +1,44 @@
+-- 발급 사용자 키 순회 스크립트 (대사용, 호출마다 일부만 읽고 커서를 돌려줌)
+-- KEYS[1]: 발급 사용자 키 (coupon:issued:{id}, 샤드 키 또는 CHUNKED 청크 키)
+-- ARGV[1]: 커서 (Set: SSCAN 커서, 비트맵: 바이트 오프셋), 처음 호출은 0
+-- ARGV[2]: 한 번에 읽는 양 (Set: SSCAN COUNT, 비트맵: 바이트 수)
+-- 키 타입(Set/비트맵)으로 인코딩을 판단하므로 SET, BITMAP, CHUNKED 모두 처리
+-- 반환값: { 다음 커서, 발급 사용자 값... }, 다음 커서가 0이면 끝
+
+local issuedKey = KEYS[1]
+local cursor = ARGV[1]
+local count = tonumber(ARGV[2])
+local keyType = redis.call('TYPE', issuedKey).ok
+
+if keyType == 'set' then
+    local page = redis.call('SSCAN', issuedKey, cursor, 'COUNT', count)
+    local result = { page[1] }
+    for _, member in ipairs(page[2]) do
+        result[#result + 1] = member
+    end
+    return result
+end
+
+if keyType == 'string' then
+    local from = tonumber(cursor)
+    local bytes = redis.call('GETRANGE', issuedKey, from, from + count - 1)
+    local result = { 0 }
+    for i = 1, #bytes do
+        local value = string.byte(bytes, i)
+        if value > 0 then
+            -- SETBIT 오프셋은 바이트의 최상위 비트부터 0, 1, 2 ...
+            for bitIndex = 0, 7 do
+                if bit.band(value, bit.rshift(128, bitIndex)) ~= 0 then
+                    result[#result + 1] = tostring((from + i - 1) * 8 + bitIndex)
+                end
+            end
+        end
+    end
+    local nextCursor = from + count
+    if nextCursor < redis.call('STRLEN', issuedKey) then
+        result[1] = tostring(nextCursor)
+    end
+    return result
+end
+
+return { 0 }
@@ -0,0 +1,10 @@
+-- 잠금 연장 스크립트 (잠금을 잡은 노드만 연장)
+-- KEYS[1]: 잠금 키
+-- ARGV[1]: 잠금을 잡을 때 기록한 토큰
+-- ARGV[2]: 새 유지 시간 (ms)
+-- 반환값: 1 = 연장, 0 = 이미 만료되어 다른 노드가 잡았거나 없음 (건드리지 않음)
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,9 @@
+-- 잠금 해제 스크립트 (잠금을 잡은 노드만 해제)
+-- KEYS[1]: 잠금 키
+-- ARGV[1]: 잠금을 잡을 때 기록한 토큰
+-- 반환값: 1 = 해제, 0 = 이미 만료되어 다른 노드가 잡았거나 없음 (건드리지 않음)
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
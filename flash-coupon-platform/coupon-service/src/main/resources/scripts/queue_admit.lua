@@ -0,0 +1,21 @@
+-- 대기열 입장 허용 스크립트 (주기마다 한 노드만 실행되도록 tick 키로 제어)
+-- KEYS[1]: 입장 허용 인원 키 (coupon:queue:{id}:admitted)
+-- KEYS[2]: 주기 제어 키 (coupon:queue:{id}:tick)
+-- KEYS[3]: 대기열 Sorted Set (coupon:queue:{id})
+-- ARGV[1]: 이번 주기에 입장시킬 인원
+-- ARGV[2]: 주기 (밀리초)
+-- ARGV[3]: 입장 허용 인원 키 TTL (초)
+-- 반환값: 갱신된 입장 허용 인원, 이번 주기를 다른 노드가 이미 처리했으면 -1
+
+if not redis.call('SET', KEYS[2], '1', 'NX', 'PX', ARGV[2]) then
+    return -1
+end
+
+-- 대기 인원보다 많이 허용하지 않음 (빈 대기열에 허용치가 쌓였다가 한꺼번에 몰리는 것 방지)
+local admitted = tonumber(redis.call('GET', KEYS[1]) or 0)
+local queued = redis.call('ZCARD', KEYS[3])
+local next = math.min(admitted + tonumber(ARGV[1]), queued)
+
+redis.call('SET', KEYS[1], next, 'EX', ARGV[3])
+
+return next
@@ -0,0 +1,43 @@
+-- 대기열 입장 스크립트
+-- KEYS[1]: 대기열 Sorted Set (coupon:queue:{id})
+-- KEYS[2]: 순번 시퀀스 키 (coupon:queue:{id}:seq)
+-- KEYS[3]: 입장 허용 인원 키 (coupon:queue:{id}:admitted)
+-- ARGV[1]: 사용자 ID
+-- ARGV[2]: 대기 허용 인원 (잔여 재고 x overbookRatio)
+-- ARGV[3]: 대기열 키 TTL (초)
+-- 반환값: 0 = 입장 허용, 양수 = 앞에 남은 인원 + 1, -1 = 대기 인원 초과로 거절
+
+local queueKey = KEYS[1]
+local seqKey = KEYS[2]
+local admittedKey = KEYS[3]
+local userId = ARGV[1]
+local capacity = tonumber(ARGV[2])
+local ttl = tonumber(ARGV[3])
+
+local admitted = tonumber(redis.call('GET', admittedKey) or 0)
+
+local function position(rank)
+    if rank < admitted then
+        return 0
+    end
+    return rank - admitted + 1
+end
+
+-- 이미 입장한 사용자는 기존 순번 유지 (재시도 허용)
+local rank = redis.call('ZRANK', queueKey, userId)
+if rank then
+    return position(rank)
+end
+
+-- 아직 입장하지 못한 대기 인원이 잔여 재고 기준 허용치를 넘으면 거절
+local waiting = redis.call('ZCARD', queueKey) - admitted
+if waiting >= capacity then
+    return -1
+end
+
+local seq = redis.call('INCR', seqKey)
+redis.call('ZADD', queueKey, seq, userId)
+redis.call('EXPIRE', queueKey, ttl)
+redis.call('EXPIRE', seqKey, ttl)
+
+return position(redis.call('ZCARD', queueKey) - 1)
@@ -0,0 +1,17 @@
+-- 대기열 상태 조회 스크립트
+-- KEYS[1]: 대기열 Sorted Set (coupon:queue:{id})
+-- KEYS[2]: 입장 허용 인원 키 (coupon:queue:{id}:admitted)
+-- ARGV[1]: 사용자 ID
+-- 반환값: 대기열에 없으면 -1, 입장 허용이면 0, 대기 중이면 앞에 남은 인원 + 1
+
+local rank = redis.call('ZRANK', KEYS[1], ARGV[1])
+if not rank then
+    return -1
+end
+
+local admitted = tonumber(redis.call('GET', KEYS[2]) or 0)
+if rank < admitted then
+    return 0
+end
+
+return rank - admitted + 1
@@ -0,0 +1,18 @@
+-- 샤드 간 재고 이동 스크립트 (다른 샤드에서 재고 빌려오기)
+-- KEYS[1]: 빌려줄 샤드의 재고 키 (coupon:stock:{id:shard})
+-- ARGV[1]: 최대 이동 수량
+-- 반환값: 실제로 가져간 수량 (0 = 빌려줄 재고 없음)
+
+local stockKey = KEYS[1]
+local maxAmount = tonumber(ARGV[1])
+
+local stock = tonumber(redis.call('GET', stockKey) or 0)
+
+if stock <= 0 then
+    return 0
+end
+
+local amount = math.min(stock, maxAmount)
+redis.call('DECRBY', stockKey, amount)
+
+return amount
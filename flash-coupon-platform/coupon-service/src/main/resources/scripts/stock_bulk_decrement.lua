@@ -0,0 +1,79 @@
+-- 쿠폰 재고 일괄 감소 스크립트 (여러 사용자를 한 번에 발급)
+-- KEYS[1]: 재고 키 (coupon:stock:{id} 또는 샤드 키 coupon:stock:{id:shard})
+-- KEYS[2..n+1]: 사용자별 발급 사용자 키 (CHUNKED 인코딩은 사용자마다 청크 키가 다를 수 있음)
+-- ARGV[1]: 발급 사용자 인코딩 S = Set, B = Bitmap, C = Chunked
+-- ARGV[2]: CHUNKED 인코딩에서 청크 Set을 비트맵으로 변환하는 원소 수
+-- ARGV[3..n+2]: 사용자별 발급 사용자 값 (stock_decrement.lua의 ARGV[1]과 동일)
+-- 반환값: 사용자 순서대로 1 = 성공, 0 = 재고 없음, -1 = 이미 발급됨, -2 = 재고 키 없음 (재초기화 필요)
+
+local stockKey = KEYS[1]
+local encoding = ARGV[1]
+local chunkThreshold = tonumber(ARGV[2])
+
+local function isIssued(issuedKey, member)
+    if encoding == 'B' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    if encoding == 'C' and redis.call('TYPE', issuedKey).ok == 'string' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    return redis.call('SISMEMBER', issuedKey, member) == 1
+end
+
+local function markIssued(issuedKey, member)
+    if encoding == 'B' then
+        redis.call('SETBIT', issuedKey, member, 1)
+        return
+    end
+    if encoding == 'C' then
+        if redis.call('TYPE', issuedKey).ok == 'string' then
+            redis.call('SETBIT', issuedKey, member, 1)
+            return
+        end
+        redis.call('SADD', issuedKey, member)
+        -- 청크 원소가 임계치를 넘으면 정수 Set → 비트맵으로 변환
+        if redis.call('SCARD', issuedKey) > chunkThreshold then
+            local members = redis.call('SMEMBERS', issuedKey)
+            redis.call('DEL', issuedKey)
+            for _, m in ipairs(members) do
+                redis.call('SETBIT', issuedKey, m, 1)
+            end
+        end
+        return
+    end
+    redis.call('SADD', issuedKey, member)
+end
+
+local results = {}
+
+-- 재고 키가 없으면 모든 사용자에 -2 (품절과 구분)
+if redis.call('EXISTS', stockKey) == 0 then
+    for i = 2, #KEYS do
+        results[i - 1] = -2
+    end
+    return results
+end
+
+local stock = tonumber(redis.call('GET', stockKey))
+local issued = 0
+
+for i = 2, #KEYS do
+    local issuedKey = KEYS[i]
+    local member = ARGV[i + 1]
+    if isIssued(issuedKey, member) then
+        results[i - 1] = -1
+    elseif stock <= 0 then
+        results[i - 1] = 0
+    else
+        stock = stock - 1
+        issued = issued + 1
+        markIssued(issuedKey, member)
+        results[i - 1] = 1
+    end
+end
+
+if issued > 0 then
+    redis.call('DECRBY', stockKey, issued)
+end
+
+return results
@@ -1,15 +1,66 @@
 -- 쿠폰 재고 원자적 감소 스크립트
--- KEYS[1]: 재고 키 (coupon:stock:{id})
--- KEYS[2]: 발급 사용자 Set 키 (coupon:issued:{id})
--- ARGV[1]: 사용자 ID
--- 반환값: 1 = 성공, 0 = 재고 없음, -1 = 이미 발급됨
+-- KEYS[1]: 재고 키 (coupon:stock:{id} 또는 샤드 키 coupon:stock:{id:shard})
+-- KEYS[2]: 발급 사용자 키 (coupon:issued:{id}, 샤드 키, CHUNKED 인코딩은 청크 키)
+-- ARGV[1]: 발급 사용자 값 (SET: 사용자 ID, BITMAP: 비트 오프셋, CHUNKED: 청크 내 오프셋)
+-- ARGV[2]: (선택) 다른 샤드에서 빌려온 재고 수량, 감소 전에 먼저 더한다
+-- ARGV[3]: (선택) 발급 사용자 인코딩 S = Set, B = Bitmap, C = Chunked (기본 S)
+-- ARGV[4]: (선택) CHUNKED 인코딩에서 청크 Set을 비트맵으로 변환하는 원소 수
+-- 반환값: 1 = 성공, 0 = 재고 없음, -1 = 이미 발급됨, -2 = 재고 키 없음 (Redis 재시작/키 유실, 재초기화 필요)
 
 local stockKey = KEYS[1]
 local issuedKey = KEYS[2]
-local userId = ARGV[1]
+local member = ARGV[1]
+local refill = tonumber(ARGV[2] or 0)
+local encoding = ARGV[3] or 'S'
+local chunkThreshold = tonumber(ARGV[4] or 512)
+
+local function isIssued()
+    if encoding == 'B' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    if encoding == 'C' and redis.call('TYPE', issuedKey).ok == 'string' then
+        return redis.call('GETBIT', issuedKey, member) == 1
+    end
+    return redis.call('SISMEMBER', issuedKey, member) == 1
+end
+
+local function markIssued()
+    if encoding == 'B' then
+        redis.call('SETBIT', issuedKey, member, 1)
+        return
+    end
+    if encoding == 'C' then
+        if redis.call('TYPE', issuedKey).ok == 'string' then
+            redis.call('SETBIT', issuedKey, member, 1)
+            return
+        end
+        redis.call('SADD', issuedKey, member)
+        -- 청크 원소가 임계치를 넘으면 정수 Set → 비트맵으로 변환
+        if redis.call('SCARD', issuedKey) > chunkThreshold then
+            local members = redis.call('SMEMBERS', issuedKey)
+            redis.call('DEL', issuedKey)
+            for _, m in ipairs(members) do
+                redis.call('SETBIT', issuedKey, m, 1)
+            end
+        end
+        return
+    end
+    redis.call('SADD', issuedKey, member)
+end
+
+-- 재고 키가 없으면 품절(0)과 구분해 알림 (재고 0은 키가 있고 값이 0)
+-- 빌려온 재고를 더하면 재고 키가 잘못된 값으로 생기므로 더하지 않고, 호출 측이 빌려준 샤드에 되돌린다
+if redis.call('EXISTS', stockKey) == 0 then
+    return -2
+end
+
+-- 빌려온 재고 반영 (중복 발급이어도 이동한 재고는 이 샤드에 남김)
+if refill > 0 then
+    redis.call('INCRBY', stockKey, refill)
+end
 
 -- 이미 발급받은 사용자인지 확인
-if redis.call('SISMEMBER', issuedKey, userId) == 1 then
+if isIssued() then
     return -1
 end
 
@@ -22,6 +73,6 @@ end
 
 -- 재고 감소 및 사용자 등록 (원자적 실행)
 redis.call('DECR', stockKey)
-redis.call('SADD', issuedKey, userId)
+markIssued()
 
 return 1
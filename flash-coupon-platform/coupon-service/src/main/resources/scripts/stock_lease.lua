@@ -0,0 +1,37 @@
+-- 노드 재고 임대 스크립트 (coupon.stock.engine=leased)
+-- KEYS[1]: 노드 담당 샤드의 재고 키 (coupon:stock:{id} 또는 샤드 키 coupon:stock:{id:shard})
+-- KEYS[2]: 같은 샤드의 임대 현황 Hash (필드 = 노드 번호, 값 = 노드가 가진 미사용 재고)
+-- KEYS[3]: 같은 샤드의 임대 확인 시각 Hash (필드 = 노드 번호, 값 = Redis 시각 ms)
+-- ARGV[1]: 노드 번호
+-- ARGV[2]: 최대 임대 수량
+-- ARGV[3]: 다른 샤드에서 빌려온 재고 수량, 임대 전에 먼저 더한다
+-- 반환값: 임대한 수량 (0 = 재고 없음), -1 = 재고 키 없음 (Redis 재시작/키 유실, 재초기화 필요)
+
+local stockKey = KEYS[1]
+local leaseKey = KEYS[2]
+local heartbeatKey = KEYS[3]
+local node = ARGV[1]
+local maxAmount = tonumber(ARGV[2])
+local refill = tonumber(ARGV[3] or 0)
+
+-- 빌려온 재고는 더하지 않고 반환 (호출 측이 빌려준 샤드에 되돌림)
+if redis.call('EXISTS', stockKey) == 0 then
+    return -1
+end
+
+if refill > 0 then
+    redis.call('INCRBY', stockKey, refill)
+end
+
+local stock = tonumber(redis.call('GET', stockKey) or 0)
+local amount = math.min(stock, maxAmount)
+if amount > 0 then
+    redis.call('DECRBY', stockKey, amount)
+end
+
+-- 임대는 노드의 로컬 재고가 0일 때만 요청하므로 노드 보유량은 이번 임대 수량과 같다
+redis.call('HSET', leaseKey, node, amount)
+local now = redis.call('TIME')
+redis.call('HSET', heartbeatKey, node, now[1] * 1000 + math.floor(now[2] / 1000))
+
+return amount
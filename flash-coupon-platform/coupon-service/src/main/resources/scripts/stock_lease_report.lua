@@ -0,0 +1,19 @@
+-- 노드 임대 재고 보고 스크립트 (잔여 재고 조회에 노드 보유량을 반영)
+-- KEYS[1]: 노드 담당 샤드의 임대 현황 Hash
+-- KEYS[2]: 같은 샤드의 임대 확인 시각 Hash
+-- ARGV[1]: 노드 번호
+-- ARGV[2]: 노드가 가진 미사용 재고
+-- 반환값: 1 = 기록, 0 = 임대 기록 없음 (재고 재초기화/Redis 유실로 임대가 무효가 됨)
+
+local leaseKey = KEYS[1]
+local heartbeatKey = KEYS[2]
+local node = ARGV[1]
+
+if redis.call('HEXISTS', leaseKey, node) == 0 then
+    return 0
+end
+
+redis.call('HSET', leaseKey, node, ARGV[2])
+local now = redis.call('TIME')
+redis.call('HSET', heartbeatKey, node, now[1] * 1000 + math.floor(now[2] / 1000))
+return 1
@@ -0,0 +1,26 @@
+-- 노드 임대 재고 반납 스크립트
+-- KEYS[1]: 노드 담당 샤드의 재고 키
+-- KEYS[2]: 같은 샤드의 임대 현황 Hash
+-- KEYS[3]: 같은 샤드의 임대 확인 시각 Hash
+-- ARGV[1]: 노드 번호
+-- ARGV[2]: 반납 수량
+-- 반환값: 1 = 반납, 0 = 재고 키 없음 (재초기화된 재고에 다시 더하지 않고 버림)
+--         또는 임대 기록 없음 (오래 보고하지 못해 회수됨, 재고는 회수 시 다시 계산되므로 더하지 않음)
+
+local stockKey = KEYS[1]
+local leaseKey = KEYS[2]
+local heartbeatKey = KEYS[3]
+local node = ARGV[1]
+local amount = tonumber(ARGV[2])
+
+redis.call('HDEL', heartbeatKey, node)
+if redis.call('HDEL', leaseKey, node) == 0 then
+    return 0
+end
+
+if redis.call('EXISTS', stockKey) == 0 then
+    return 0
+end
+
+redis.call('INCRBY', stockKey, amount)
+return 1
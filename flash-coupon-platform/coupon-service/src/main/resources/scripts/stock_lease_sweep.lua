@@ -0,0 +1,38 @@
+-- 오래 보고하지 않은 노드의 임대 회수 스크립트 (노드 장애로 남은 임대 기록 정리)
+-- KEYS[1]: 샤드의 재고 키
+-- KEYS[2]: 같은 샤드의 임대 현황 Hash
+-- KEYS[3]: 같은 샤드의 임대 확인 시각 Hash
+-- ARGV[1]: 임대 유효 시간 (ms), 확인 시각이 이보다 오래된 노드의 임대를 회수
+-- 반환값: 회수한 노드 수
+--
+-- 회수한 노드의 마지막 보고값에는 보고 뒤에 발급한 재고가 섞여 있어 그대로 더하면 초과 발급이 된다.
+-- 그래서 임대 기록과 함께 재고 키를 지우고, 재초기화가 DB 발급 내역과 남은 샤드/임대 기준으로 이 샤드만 다시 만든다.
+
+local stockKey = KEYS[1]
+local leaseKey = KEYS[2]
+local heartbeatKey = KEYS[3]
+local ttl = tonumber(ARGV[1])
+
+local now = redis.call('TIME')
+local nowMillis = now[1] * 1000 + math.floor(now[2] / 1000)
+
+local swept = 0
+local held = 0
+local nodes = redis.call('HKEYS', leaseKey)
+for _, node in ipairs(nodes) do
+    local confirmed = tonumber(redis.call('HGET', heartbeatKey, node))
+    if confirmed == nil then
+        -- 확인 시각이 없는 기록 (이전 버전 노드): 지금부터 유효 시간을 잰다
+        redis.call('HSET', heartbeatKey, node, nowMillis)
+    elseif nowMillis - confirmed > ttl then
+        held = held + tonumber(redis.call('HGET', leaseKey, node) or 0)
+        redis.call('HDEL', leaseKey, node)
+        redis.call('HDEL', heartbeatKey, node)
+        swept = swept + 1
+    end
+end
+
+if held > 0 then
+    redis.call('DEL', stockKey)
+end
+return swept
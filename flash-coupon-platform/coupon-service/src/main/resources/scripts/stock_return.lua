@@ -0,0 +1,14 @@
+-- 빌려온 재고 되돌리기 스크립트 (차용 후 담당 샤드 재고 키가 없어 쓰지 못한 경우)
+-- KEYS[1]: 빌려준 샤드의 재고 키 (coupon:stock:{id:shard})
+-- ARGV[1]: 되돌릴 수량
+-- 반환값: 1 = 되돌림, 0 = 재고 키 없음 (재초기화가 DB 기준으로 다시 만들므로 버림)
+
+local stockKey = KEYS[1]
+local amount = tonumber(ARGV[1])
+
+if redis.call('EXISTS', stockKey) == 0 then
+    return 0
+end
+
+redis.call('INCRBY', stockKey, amount)
+return 1
@@ -0,0 +1,27 @@
+-- 발급 취소 스크립트 (보상 로직)
+-- KEYS[1]: 재고 키
+-- KEYS[2]: 발급 사용자 키 (인코딩에 따라 Set, 비트맵 또는 청크 키)
+-- ARGV[1]: 발급 사용자 값 (stock_decrement.lua와 동일)
+-- ARGV[2]: 1 = 재고도 복구, 0 = 사용자만 제거
+-- 키 타입(Set/비트맵)으로 인코딩을 판단하므로 SET, BITMAP, CHUNKED 모두 처리
+-- 반환값: 1 = 제거됨, 0 = 발급 기록 없음 (재고도 복구하지 않음)
+
+local stockKey = KEYS[1]
+local issuedKey = KEYS[2]
+local member = ARGV[1]
+local restoreStock = ARGV[2] == '1'
+
+local removed = 0
+local keyType = redis.call('TYPE', issuedKey).ok
+
+if keyType == 'string' then
+    removed = redis.call('SETBIT', issuedKey, member, 0)
+elseif keyType == 'set' then
+    removed = redis.call('SREM', issuedKey, member)
+end
+
+if removed == 1 and restoreStock then
+    redis.call('INCR', stockKey)
+end
+
+return removed
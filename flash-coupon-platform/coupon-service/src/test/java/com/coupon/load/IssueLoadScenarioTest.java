@@ -0,0 +1,101 @@
+package com.coupon.load;
+
+import com.coupon.load.LoadHarness.LoadScenario;
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 발급 오픈 시나리오 부하 테스트
+ * 실제 애플리케이션(H2 + 내장 Redis)에 open-loop 부하를 주고 결과를 target/load-reports에 JSON으로 남긴다.
+ *
+ * mvn test -Pload-test -Dtest=IssueLoadScenarioTest [-Dload.peak-rate=300 -Dload.hold-seconds=30]
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "logging.level.com.coupon=INFO"
+        })
+class IssueLoadScenarioTest {
+
+    private static final int REDIS_PORT = Integer.getInteger("load.redis.port", 16380);
+    private static final double PEAK_RATE = Double.parseDouble(System.getProperty("load.peak-rate", "200"));
+    private static final Duration RAMP_DURATION = Duration.ofSeconds(Long.getLong("load.ramp-seconds", 10));
+    private static final Duration HOLD_DURATION = Duration.ofSeconds(Long.getLong("load.hold-seconds", 20));
+
+    private static RedisServer redisServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CouponService couponService;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+        redisServer = RedisServer.newRedisServer()
+                .port(REDIS_PORT)
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        redisServer.start();
+        registry.add("spring.data.redis.port", () -> REDIS_PORT);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("오픈 직후 급증 → 유지 구간의 발급/재고/조회 혼합 부하")
+    void openRush() throws Exception {
+        // 재고보다 사용자가 많고, 같은 사용자가 여러 번 요청하도록 구성 (성공/중복/품절이 모두 발생)
+        int stock = (int) (PEAK_RATE * HOLD_DURATION.toSeconds() / 4);
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "부하 테스트 쿠폰",
+                stock,
+                LocalDateTime.now().minusMinutes(1),
+                LocalDateTime.now().plusHours(1)
+        )).id();
+
+        LoadScenario scenario = new LoadScenario(
+                "open-rush",
+                LoadProfile.ramp(PEAK_RATE / 10, PEAK_RATE, RAMP_DURATION)
+                        .thenConstant(PEAK_RATE, HOLD_DURATION),
+                new TrafficMix(80, 15, 5),
+                stock * 2L
+        );
+
+        LoadReport report = new LoadHarness(URI.create("http://localhost:" + port), couponId).run(scenario);
+        Path file = report.write();
+
+        System.out.print(report.summary());
+        System.out.println("리포트: " + file.toAbsolutePath());
+
+        assertThat(report.total().count()).isPositive();
+        assertThat(report.operations().get(TrafficMix.Operation.ISSUE).outcomes().get(OperationStats.Outcome.SUCCESS))
+                .isEqualTo(stock);
+    }
+}
@@ -0,0 +1,202 @@
+package com.coupon.load;
+
+import com.coupon.CouponApplication;
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 발급 API 스레드 모델 비교 부하 테스트 (플랫폼 스레드 vs 가상 스레드)
+ * 같은 설정으로 애플리케이션을 두 번 띄워 동시 요청 수 단계별 TPS와 p99를 측정한다.
+ * 최대 지속 TPS = 오류 없이 p99가 P99_SLO 이내인 단계 중 가장 높은 TPS
+ *
+ * 기본 빌드에서는 제외되며 다음으로 실행한다. (Redis 필요)
+ * mvn test -Pload-test [-Dload.concurrency=50,200,800 -Dload.step-seconds=15 -Dload.p99-slo-ms=200]
+ *
+ * 부하 발생기가 같은 JVM에서 돌기 때문에 절대값보다 두 모드의 상대 비교로 본다.
+ */
+@Tag("load")
+class IssueThreadModelLoadTest {
+
+    private static final int[] CONCURRENCY_LEVELS = Arrays.stream(
+                    System.getProperty("load.concurrency", "50,200,800,2000").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+    private static final Duration WARMUP_DURATION = Duration.ofSeconds(5);
+    private static final Duration STEP_DURATION = Duration.ofSeconds(Long.getLong("load.step-seconds", 15));
+    private static final Duration P99_SLO = Duration.ofMillis(Long.getLong("load.p99-slo-ms", 200));
+
+    @Test
+    @DisplayName("가상 스레드 모드의 p99와 최대 지속 TPS를 플랫폼 스레드 모드와 비교")
+    void compareThreadModels() throws Exception {
+        List<StepResult> platform = runScenario(false);
+        List<StepResult> virtual = runScenario(true);
+
+        System.out.println("========== 스레드 모델 비교 ==========");
+        System.out.printf("%-8s %6s %10s %10s %10s %8s%n", "mode", "conc", "tps", "p50(ms)", "p99(ms)", "errors");
+        print("platform", platform);
+        print("virtual", virtual);
+        System.out.printf("최대 지속 TPS - platform: %.0f, virtual: %.0f (p99 <= %dms)%n",
+                maxSustainedTps(platform), maxSustainedTps(virtual), P99_SLO.toMillis());
+        System.out.println("=====================================");
+
+        assertThat(platform).allSatisfy(step -> assertThat(step.requests()).isPositive());
+        assertThat(virtual).allSatisfy(step -> assertThat(step.requests()).isPositive());
+    }
+
+    private List<StepResult> runScenario(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CouponApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.coupon=INFO")
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            CouponResponse coupon = context.getBean(CouponService.class).createCoupon(new CouponCreateRequest(
+                    "부하 테스트 쿠폰",
+                    Integer.MAX_VALUE,
+                    LocalDateTime.now().minusMinutes(1),
+                    LocalDateTime.now().plusHours(1)
+            ));
+            URI issueUri = URI.create("http://localhost:" + port + "/api/v1/coupons/" + coupon.id() + "/issue");
+
+            AtomicLong userIds = new AtomicLong();
+            runStep(issueUri, CONCURRENCY_LEVELS[0], WARMUP_DURATION, userIds);
+
+            List<StepResult> results = new ArrayList<>();
+            for (int concurrency : CONCURRENCY_LEVELS) {
+                results.add(runStep(issueUri, concurrency, STEP_DURATION, userIds));
+            }
+            return results;
+        } finally {
+            clearRedis(context.getBean(StringRedisTemplate.class));
+            context.close();
+        }
+    }
+
+    /**
+     * 동시 요청 수를 고정한 closed-loop 부하 (클라이언트마다 응답을 받으면 바로 다음 요청)
+     */
+    private StepResult runStep(URI issueUri, int concurrency, Duration duration, AtomicLong userIds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> issueUntil(client, issueUri, deadline, userIds)));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        // 워커별 결과: [0] = 오류 수, [1..] = 응답 시간(ns)
+        long errors = 0;
+        List<long[]> latencies = new ArrayList<>(concurrency);
+        for (Future<long[]> worker : workers) {
+            long[] result = worker.get();
+            errors += result[0];
+            latencies.add(result);
+        }
+        long[] merged = latencies.stream()
+                .flatMapToLong(result -> Arrays.stream(result, 1, result.length))
+                .sorted()
+                .toArray();
+
+        return new StepResult(concurrency, merged.length, merged.length / elapsedSeconds,
+                percentileMillis(merged, 0.50), percentileMillis(merged, 0.99), errors);
+    }
+
+    private long[] issueUntil(HttpClient client, URI issueUri, long deadline, AtomicLong userIds) {
+        long[] samples = new long[1024];
+        int count = 1;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(issueUri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + userIds.incrementAndGet() + "}"))
+                    .build();
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[count++] = System.nanoTime() - begin;
+        }
+        samples[0] = errors;
+        return Arrays.copyOf(samples, count);
+    }
+
+    private double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private double maxSustainedTps(List<StepResult> steps) {
+        return steps.stream()
+                .filter(step -> step.errors() == 0 && step.p99Millis() <= P99_SLO.toMillis())
+                .mapToDouble(StepResult::tps)
+                .max()
+                .orElse(0);
+    }
+
+    private void print(String mode, List<StepResult> steps) {
+        for (StepResult step : steps) {
+            System.out.printf("%-8s %6d %10.0f %10.1f %10.1f %8d%n",
+                    mode, step.concurrency(), step.tps(), step.p50Millis(), step.p99Millis(), step.errors());
+        }
+    }
+
+    /**
+     * 두 번째 실행에서 같은 쿠폰 ID가 다시 생성되므로 이전 실행의 Redis 키 삭제
+     */
+    private void clearRedis(StringRedisTemplate redisTemplate) {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    private record StepResult(int concurrency, long requests, double tps,
+                              double p50Millis, double p99Millis, long errors) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.coupon.load;
+
+import com.coupon.load.OperationStats.Outcome;
+import com.coupon.load.TrafficMix.Operation;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop 부하 발생기
+ * 응답을 기다리지 않고 프로파일의 도착률에 맞춰 요청을 보낸다.
+ * 서버가 느려져도 요청 간격이 늘어나지 않으므로 실제 사용자가 겪는 대기 시간이 그대로 측정된다.
+ *
+ * 사용 예)
+ * LoadReport report = new LoadHarness(baseUri, couponId)
+ *         .run(new LoadScenario("ramp-issue", LoadProfile.ramp(10, 200, Duration.ofSeconds(30)), TrafficMix.issueOnly(), 10_000));
+ */
+public class LoadHarness {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long IDLE_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double P95_TARGET_MILLIS = 500;
+
+    private final URI baseUri;
+    private final Long couponId;
+    private final int maxInFlight;
+
+    public LoadHarness(URI baseUri, Long couponId) {
+        this(baseUri, couponId, 10_000);
+    }
+
+    public LoadHarness(URI baseUri, Long couponId, int maxInFlight) {
+        this.baseUri = baseUri;
+        this.couponId = couponId;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 시나리오 정의
+     * userPoolSize: 발급 요청의 userId를 1 ~ userPoolSize에서 무작위로 고른다. (작을수록 중복 요청이 많아짐)
+     */
+    public record LoadScenario(String name, LoadProfile profile, TrafficMix mix, long userPoolSize) {
+    }
+
+    public LoadReport run(LoadScenario scenario) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        OperationStats total = new OperationStats();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong scheduled = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        String startedAt = LocalDateTime.now().toString();
+
+        long totalNanos = scenario.profile().totalDuration().toNanos();
+        long start;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .build();
+
+            start = System.nanoTime();
+            double offset = 0;
+            while (offset < totalNanos) {
+                double rate = scenario.profile().rateAt((long) offset);
+                if (rate <= 0) {
+                    offset += IDLE_STEP_NANOS;
+                    continue;
+                }
+                long intendedStart = start + (long) offset;
+                parkUntil(intendedStart);
+                offset += TimeUnit.SECONDS.toNanos(1) / rate;
+
+                scheduled.incrementAndGet();
+                if (inFlight.get() >= maxInFlight) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+
+                Operation operation = scenario.mix().next();
+                inFlight.incrementAndGet();
+                client.sendAsync(buildRequest(operation, scenario.userPoolSize()), HttpResponse.BodyHandlers.ofString())
+                        .whenComplete((response, error) -> {
+                            long latency = System.nanoTime() - intendedStart;
+                            Outcome outcome = error != null ? Outcome.ERROR : classify(operation, response);
+                            stats.get(operation).record(latency, outcome);
+                            total.record(latency, outcome);
+                            inFlight.decrementAndGet();
+                        });
+            }
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<Operation, LoadReport.OperationReport> operations = new EnumMap<>(Operation.class);
+        stats.forEach((operation, operationStats) -> {
+            if (scenario.mix().weights().get(operation) > 0) {
+                operations.put(operation, operationStats.toReport(elapsedSeconds));
+            }
+        });
+        LoadReport.OperationReport totalReport = total.toReport(elapsedSeconds);
+
+        return new LoadReport(
+                scenario.name(),
+                startedAt,
+                scenario.profile().stages(),
+                scenario.mix().weights(),
+                scheduled.get(),
+                dropped.get(),
+                elapsedSeconds,
+                totalReport.tps(),
+                P95_TARGET_MILLIS,
+                totalReport.p95() <= P95_TARGET_MILLIS && dropped.get() == 0,
+                totalReport,
+                operations
+        );
+    }
+
+    private HttpRequest buildRequest(Operation operation, long userPoolSize) {
+        String couponPath = "/api/v1/coupons/" + couponId;
+        return switch (operation) {
+            case ISSUE -> HttpRequest.newBuilder(baseUri.resolve(couponPath + "/issue"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"userId\":" + ThreadLocalRandom.current().nextLong(1, userPoolSize + 1) + "}"))
+                    .build();
+            case STOCK -> HttpRequest.newBuilder(baseUri.resolve(couponPath + "/stock"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            case GET -> HttpRequest.newBuilder(baseUri.resolve(couponPath))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+        };
+    }
+
+    /**
+     * 발급 실패(409)는 응답 메시지로 중복/품절을 구분한다. 429는 발급 동시 처리 한도 초과다.
+     */
+    private Outcome classify(Operation operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 200) {
+            return Outcome.SUCCESS;
+        }
+        if (operation == Operation.ISSUE && status == 429) {
+            return Outcome.THROTTLED;
+        }
+        if (operation == Operation.ISSUE && status == 409) {
+            String body = response.body();
+            if (body.contains("이미 발급")) {
+                return Outcome.DUPLICATE;
+            }
+            if (body.contains("소진")) {
+                return Outcome.SOLD_OUT;
+            }
+            return Outcome.FAILED;
+        }
+        return Outcome.ERROR;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.coupon.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 도착률(초당 요청 수) 프로파일
+ * 구간마다 시작 도착률에서 끝 도착률까지 선형으로 변한다. (같으면 일정 부하)
+ */
+public record LoadProfile(List<Stage> stages) {
+
+    public record Stage(Duration duration, double startRate, double endRate) {
+    }
+
+    public static LoadProfile constant(double rate, Duration duration) {
+        return new LoadProfile(List.of(new Stage(duration, rate, rate)));
+    }
+
+    public static LoadProfile ramp(double startRate, double endRate, Duration duration) {
+        return new LoadProfile(List.of(new Stage(duration, startRate, endRate)));
+    }
+
+    public LoadProfile thenConstant(double rate, Duration duration) {
+        return then(new Stage(duration, rate, rate));
+    }
+
+    public LoadProfile thenRamp(double startRate, double endRate, Duration duration) {
+        return then(new Stage(duration, startRate, endRate));
+    }
+
+    public Duration totalDuration() {
+        return stages.stream()
+                .map(Stage::duration)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * 시작 후 elapsedNanos 시점의 도착률 (프로파일이 끝났으면 0)
+     */
+    public double rateAt(long elapsedNanos) {
+        long stageStart = 0;
+        for (Stage stage : stages) {
+            long stageNanos = stage.duration().toNanos();
+            if (elapsedNanos < stageStart + stageNanos) {
+                double progress = (double) (elapsedNanos - stageStart) / stageNanos;
+                return stage.startRate() + (stage.endRate() - stage.startRate()) * progress;
+            }
+            stageStart += stageNanos;
+        }
+        return 0;
+    }
+
+    private LoadProfile then(Stage stage) {
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(stage);
+        return new LoadProfile(List.copyOf(next));
+    }
+}
@@ -0,0 +1,97 @@
+package com.coupon.load;
+
+import com.coupon.load.OperationStats.Outcome;
+import com.coupon.load.TrafficMix.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 실행 결과 (실행 간 비교용 JSON으로 저장)
+ * 응답 시간 단위는 ms
+ */
+public record LoadReport(
+        String scenario,
+        String startedAt,
+        List<LoadProfile.Stage> profile,
+        Map<Operation, Integer> mix,
+        long scheduledRequests,
+        long droppedRequests,
+        double elapsedSeconds,
+        double achievedTps,
+        double p95TargetMillis,
+        boolean p95TargetMet,
+        OperationReport total,
+        Map<Operation, OperationReport> operations
+) {
+
+    private static final Path REPORT_DIR = Path.of("target", "load-reports");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public record OperationReport(
+            long count,
+            double tps,
+            double p50,
+            double p95,
+            double p99,
+            double p999,
+            double max,
+            Map<Outcome, Long> outcomes,
+            Map<Outcome, Double> ratios
+    ) {
+    }
+
+    /**
+     * target/load-reports/{scenario}-{시각}.json 으로 저장
+     */
+    public Path write() {
+        try {
+            Files.createDirectories(REPORT_DIR);
+            Path file = REPORT_DIR.resolve(scenario + "-" + LocalDateTime.now().format(FILE_TIME) + ".json");
+            new ObjectMapper()
+                    .findAndRegisterModules()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                    .writeValue(file.toFile(), this);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("부하 리포트 저장 실패", e);
+        }
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder()
+                .append(String.format("[%s] %.1fs, %.0f TPS, dropped %d, p95 목표(%.0fms) %s%n",
+                        scenario, elapsedSeconds, achievedTps, droppedRequests, p95TargetMillis,
+                        p95TargetMet ? "충족" : "미달"))
+                .append(String.format("%-6s %8s %8s %8s %8s %8s %8s %8s%n",
+                        "op", "count", "tps", "p50", "p95", "p99", "p99.9", "max"));
+        appendLine(summary, "ALL", total);
+        operations.forEach((operation, report) -> appendLine(summary, operation.name(), report));
+        OperationReport issue = operations.get(Operation.ISSUE);
+        if (issue != null) {
+            summary.append(String.format("ISSUE 결과 - 성공 %.1f%%, 중복 %.1f%%, 품절 %.1f%%, 실패 %.1f%%, 한도 초과 %.1f%%, 오류 %.1f%%%n",
+                    issue.ratios().get(Outcome.SUCCESS) * 100,
+                    issue.ratios().get(Outcome.DUPLICATE) * 100,
+                    issue.ratios().get(Outcome.SOLD_OUT) * 100,
+                    issue.ratios().get(Outcome.FAILED) * 100,
+                    issue.ratios().get(Outcome.THROTTLED) * 100,
+                    issue.ratios().get(Outcome.ERROR) * 100));
+        }
+        return summary.toString();
+    }
+
+    private static void appendLine(StringBuilder summary, String name, OperationReport report) {
+        summary.append(String.format("%-6s %8d %8.0f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                name, report.count(), report.tps(), report.p50(), report.p95(), report.p99(),
+                report.p999(), report.max()));
+    }
+}
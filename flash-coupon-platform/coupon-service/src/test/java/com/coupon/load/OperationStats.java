@@ -0,0 +1,63 @@
+package com.coupon.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 종류 하나의 응답 시간 히스토그램과 결과별 건수
+ * 응답 시간은 예정 시작 시각부터 재므로 서버가 밀려 발송이 늦어진 시간도 포함된다. (coordinated omission 보정)
+ */
+class OperationStats {
+
+    enum Outcome {
+        SUCCESS, DUPLICATE, SOLD_OUT, FAILED, THROTTLED, ERROR
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+    OperationStats() {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    void record(long latencyNanos, Outcome outcome) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        histogram.recordValue(Math.min(Math.max(micros, 1), HIGHEST_TRACKABLE_MICROS));
+        outcomes.get(outcome).increment();
+    }
+
+    LoadReport.OperationReport toReport(double elapsedSeconds) {
+        long count = histogram.getTotalCount();
+        Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+        Map<Outcome, Double> ratios = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            long value = outcomes.get(outcome).sum();
+            counts.put(outcome, value);
+            ratios.put(outcome, count > 0 ? (double) value / count : 0);
+        }
+        return new LoadReport.OperationReport(
+                count,
+                count / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                counts,
+                ratios
+        );
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
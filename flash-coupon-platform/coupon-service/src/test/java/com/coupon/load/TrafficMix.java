@@ -0,0 +1,35 @@
+package com.coupon.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청 종류별 비율 (가중치 합으로 정규화)
+ */
+public record TrafficMix(int issueWeight, int stockWeight, int getWeight) {
+
+    public enum Operation {
+        ISSUE, STOCK, GET
+    }
+
+    public static TrafficMix issueOnly() {
+        return new TrafficMix(1, 0, 0);
+    }
+
+    public Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(issueWeight + stockWeight + getWeight);
+        if (pick < issueWeight) {
+            return Operation.ISSUE;
+        }
+        return pick < issueWeight + stockWeight ? Operation.STOCK : Operation.GET;
+    }
+
+    public Map<Operation, Integer> weights() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        weights.put(Operation.ISSUE, issueWeight);
+        weights.put(Operation.STOCK, stockWeight);
+        weights.put(Operation.GET, getWeight);
+        return weights;
+    }
+}
@@ -0,0 +1,123 @@
+package com.coupon.service;
+
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.dto.BulkIssueRequest;
+import com.coupon.service.dto.BulkIssueResponse;
+import com.coupon.service.dto.BulkIssueResponse.IssueStatus;
+import com.coupon.service.dto.BulkIssueResponse.UserResult;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "coupon.stock.bulk-chunk-size=7")
+class BulkIssueTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @ParameterizedTest(name = "shards={0}, encoding={1}")
+    @CsvSource({"1, SET", "8, SET", "4, BITMAP", "1, CHUNKED"})
+    @DisplayName("일괄 발급은 요청 순서대로 사용자별 결과를 돌려주고 재고만큼만 발급")
+    void bulkIssue_reportsPerUserResults(int shards, IssuedEncoding encoding) {
+        // Given: 재고 20개 중 1개는 단건 발급
+        Long couponId = createCoupon(20, shards, encoding);
+        couponService.issueCoupon(couponId, new CouponIssueRequest(3L));
+
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userId <= 30; userId++) {
+            userIds.add(userId);
+        }
+        userIds.add(5, 1L);
+
+        // When: 여러 청크에 걸쳐 31건 요청 (중복 2건 포함)
+        BulkIssueResponse response = couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(userIds));
+
+        // Then
+        assertThat(response.requested()).isEqualTo(31);
+        assertThat(response.issued()).isEqualTo(19);
+        assertThat(response.duplicated()).isEqualTo(2);
+        assertThat(response.soldOut()).isEqualTo(10);
+        assertThat(response.failed()).isZero();
+        assertThat(response.results()).extracting(UserResult::userId).containsExactlyElementsOf(userIds);
+        assertThat(response.results().get(2).status()).isEqualTo(IssueStatus.DUPLICATE);
+        assertThat(response.results().get(5).status()).isEqualTo(IssueStatus.DUPLICATE);
+        assertThat(response.results())
+                .filteredOn(result -> result.status() == IssueStatus.ISSUED)
+                .allSatisfy(result -> assertThat(result.code()).isNotNull());
+        assertThat(response.results())
+                .filteredOn(result -> result.status() != IssueStatus.ISSUED)
+                .allSatisfy(result -> assertThat(result.code()).isNull());
+
+        assertThat(couponService.getStock(couponId)).isZero();
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(20L);
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("DB에만 발급된 사용자는 DUPLICATE로 보고하고 차감한 재고를 사용자별로 복구")
+    void bulkIssue_restoresStockForDbDuplicates() {
+        // Given: 사용자 5는 DB에 발급되어 있지만 Redis 발급 기록은 유실된 상태
+        Long couponId = createCoupon(10, 1, null);
+        couponService.issueCoupon(couponId, new CouponIssueRequest(5L));
+        couponStockService.removeIssuedUser(couponId, 5L);
+        assertThat(couponService.getStock(couponId)).isEqualTo(9L);
+
+        // When
+        BulkIssueResponse response = couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(List.of(5L, 6L)));
+
+        // Then: 사용자 5의 재고는 복구되고 사용자 6만 발급
+        assertThat(response.results()).extracting(UserResult::status)
+                .containsExactly(IssueStatus.DUPLICATE, IssueStatus.ISSUED);
+        assertThat(couponService.getStock(couponId)).isEqualTo(8L);
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(2L);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 5L)).isTrue();
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("발급 기간이 아니면 전원 FAILED")
+    void bulkIssue_outsideIssuePeriod_failsAll() {
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "예정 쿠폰", 10, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2),
+                1, null)).id();
+
+        BulkIssueResponse response = couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(List.of(1L, 2L)));
+
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(couponService.getStock(couponId)).isEqualTo(10L);
+    }
+
+    private Long createCoupon(int quantity, int shards, IssuedEncoding encoding) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "일괄 발급 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, encoding)).id();
+    }
+}
@@ -0,0 +1,177 @@
+package com.coupon.service.cache;
+
+import com.coupon.config.CouponMetadataCacheProperties;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.CouponIssueResponse;
+import com.coupon.service.dto.CouponUpdateRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다른 노드는 같은 채널을 구독하는 두 번째 캐시로 흉내낸다.
+ * 무효화 메시지는 이 노드에도 비동기로 돌아오므로, 전파 시점은 채널에 오간 메시지로 확인한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CouponMetadataCacheTest {
+
+    private static final String CHANNEL = "coupon:metadata:invalidate";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponMetadataCache couponMetadataCache;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private CouponMetadataCache otherNode;
+
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+
+    private final MessageListener recorder = (message, pattern) -> messages.add(new String(message.getBody()));
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+        otherNode = new CouponMetadataCache(couponRepository, redisTemplate, listenerContainer,
+                new CouponMetadataCacheProperties(100, Duration.ofMinutes(10), CHANNEL));
+        listenerContainer.addMessageListener(recorder, new ChannelTopic(CHANNEL));
+        messages.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainer.removeMessageListener(otherNode);
+        listenerContainer.removeMessageListener(recorder);
+    }
+
+    @Test
+    @DisplayName("PUT으로 발급 기간을 바꾸면 다음 발급부터 새 기간이 적용됨")
+    void updateCoupon_appliesNewIssuePeriodOnNextIssue() throws Exception {
+        // Given: 발급으로 메타데이터가 캐시됨
+        LocalDateTime startAt = LocalDateTime.now().minusMinutes(1);
+        Long couponId = createCoupon(startAt, LocalDateTime.now().plusHours(1));
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(1L)).success()).isTrue();
+
+        // When: 발급 기간을 내일로 미룸
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        assertThat(put(couponId, new CouponUpdateRequest("캐시 쿠폰", tomorrow, tomorrow.plusHours(1)))).isEqualTo(200);
+
+        // Then: 캐시된 이전 기간으로 발급되지 않음
+        CouponIssueResponse response = couponService.issueCoupon(couponId, new CouponIssueRequest(2L));
+        assertThat(response.success()).isFalse();
+        assertThat(response.message()).isEqualTo("쿠폰 발급 기간이 아니거나 품절되었습니다.");
+
+        // When: 다시 지금으로 되돌림
+        assertThat(put(couponId, new CouponUpdateRequest("캐시 쿠폰", startAt, LocalDateTime.now().plusHours(1))))
+                .isEqualTo(200);
+
+        // Then
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(2L)).success()).isTrue();
+    }
+
+    @Test
+    @DisplayName("수정 트랜잭션이 커밋된 뒤에 무효화되고, 다른 노드 캐시도 Pub/Sub으로 무효화됨")
+    void updateCoupon_invalidatesAfterCommitOnAllNodes() throws Exception {
+        // Given: 두 노드가 메타데이터를 캐시
+        // DB는 마이크로초까지 저장하므로 비교할 시각은 초 단위로 맞춤
+        LocalDateTime startAt = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endAt = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Long couponId = createCoupon(startAt, endAt);
+        assertThat(until(() -> messages.contains(couponId.toString()))).isTrue();
+        assertThat(couponMetadataCache.get(couponId).endAt()).isEqualTo(endAt);
+        assertThat(otherNode.get(couponId).endAt()).isEqualTo(endAt);
+        LocalDateTime newEndAt = endAt.plusHours(1);
+        messages.clear();
+
+        // When: 트랜잭션 안에서 수정
+        transactionTemplate.executeWithoutResult(status -> {
+            couponService.updateCoupon(couponId, new CouponUpdateRequest("수정 쿠폰", startAt, newEndAt));
+
+            // Then: 커밋 전에는 전파하지 않음 (다른 노드가 커밋 전 값을 다시 캐싱하지 않도록)
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertThat(messages).isEmpty();
+        });
+
+        // Then: 커밋 후 이 노드는 바로, 다른 노드는 전파 메시지로 새 값을 읽음
+        assertThat(couponMetadataCache.get(couponId).endAt()).isEqualTo(newEndAt);
+        assertThat(until(() -> messages.contains(couponId.toString()))).isTrue();
+        assertThat(until(() -> newEndAt.equals(otherNode.get(couponId).endAt()))).isTrue();
+        assertThat(otherNode.get(couponId).name()).isEqualTo("수정 쿠폰");
+    }
+
+    private Long createCoupon(LocalDateTime startAt, LocalDateTime endAt) {
+        return couponService.createCoupon(new CouponCreateRequest("캐시 쿠폰", 10, startAt, endAt)).id();
+    }
+
+    private int put(Long couponId, CouponUpdateRequest request) throws Exception {
+        HttpRequest httpRequest = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/coupons/" + couponId))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                .build();
+        return HttpClient.newHttpClient().send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static boolean until(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.coupon.service.code;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponCodeCodecTest {
+
+    private final CouponCodeCodec codec = new CouponCodeCodec("test-secret");
+
+    @Test
+    @DisplayName("연속 순번은 겹치지 않는 12자리 코드가 되고 다시 순번으로 복원됨")
+    void encode_isCollisionFreeAndReversible() {
+        Set<String> codes = new HashSet<>();
+        for (long sequence = 0; sequence < 100_000; sequence++) {
+            String code = codec.encode(sequence);
+            assertThat(code).hasSize(CouponCodeCodec.LENGTH).matches("[0-9A-HJKMNP-TV-Z]+");
+            assertThat(codec.decode(code)).isEqualTo(sequence);
+            codes.add(code);
+        }
+        assertThat(codes).hasSize(100_000);
+        assertThat(codec.decode(codec.encode(CouponCodeCodec.MAX_SEQUENCE))).isEqualTo(CouponCodeCodec.MAX_SEQUENCE);
+    }
+
+    @Test
+    @DisplayName("비밀값이 다르면 같은 순번도 다른 코드")
+    void encode_dependsOnSecret() {
+        assertThat(new CouponCodeCodec("other-secret").encode(1L)).isNotEqualTo(codec.encode(1L));
+    }
+
+    @Test
+    @DisplayName("소문자, 하이픈, 혼동 문자(O/I/L)는 정규화하고 잘못된 코드는 거부")
+    void decode_normalizesInput() {
+        String code = codec.encode(12_345L);
+        String typed = (code.substring(0, 4) + "-" + code.substring(4, 8) + "-" + code.substring(8))
+                .toLowerCase().replace('0', 'o').replace('1', 'l');
+
+        assertThat(codec.decode(typed)).isEqualTo(12_345L);
+        assertThatThrownBy(() -> codec.decode(code.substring(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(code.substring(1) + "U")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,170 @@
+package com.coupon.service.grantimport;
+
+import com.coupon.domain.GrantImportJob;
+import com.coupon.domain.GrantImportStatus;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.GrantImportJobRepository;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.BulkIssueRequest;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.GrantImportResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "coupon.grant-import.chunk-size=100")
+class GrantImportServiceTest {
+
+    @Autowired
+    private GrantImportService grantImportService;
+
+    @Autowired
+    private GrantImportJobRepository grantImportJobRepository;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("헤더/빈 줄/중복/이미 발급된 사용자를 걸러 재고만큼 발급하고 결과를 줄 단위로 집계")
+    void import_issuesUpToStock() throws Exception {
+        // Given: 사용자 1~300 중 7번은 이미 발급, 파일에는 헤더와 중복 줄 포함
+        Long couponId = createCoupon(250);
+        couponService.issueCoupon(couponId, new CouponIssueRequest(7L));
+        String file = "user_id,name\n"
+                + LongStream.rangeClosed(1, 300).mapToObj(id -> id + ",user" + id).collect(Collectors.joining("\n"))
+                + "\n\n5\n";
+
+        // When
+        GrantImportResponse started = grantImportService.start(
+                couponId, new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+        GrantImportResponse result = await(couponId, started.jobId());
+
+        // Then: 재고 250 중 1개는 7번에게 발급되어 249명만 가져옴
+        assertThat(result.status()).isEqualTo(GrantImportStatus.COMPLETED);
+        assertThat(result.lines()).isEqualTo(302L);
+        assertThat(result.invalid()).isEqualTo(1L);
+        assertThat(result.issued()).isEqualTo(249L);
+        assertThat(result.duplicated()).isEqualTo(2L);
+        assertThat(result.soldOut()).isEqualTo(50L);
+        assertThat(result.progress()).isEqualTo(100.0);
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(250L);
+        assertThat(couponStockService.getStock(couponId)).isZero();
+    }
+
+    @Test
+    @DisplayName("중단된 작업은 커밋한 위치부터 재개하고, 예약만 하고 저장하지 못한 사용자는 재고를 다시 쓰지 않음")
+    void resume_continuesFromCommittedOffset() throws Exception {
+        // Given: 사용자 1~100은 커밋 완료, 101~150은 재고 예약 후 저장 전에 중단된 상태
+        Long couponId = createCoupon(1000);
+        String lines = LongStream.rangeClosed(1, 300).mapToObj(Long::toString).collect(Collectors.joining("\n")) + "\n";
+        Path file = Files.writeString(tempDir.resolve("grants.csv"), lines);
+        long committedOffset = LongStream.rangeClosed(1, 100).map(id -> Long.toString(id).length() + 1).sum();
+
+        GrantImportJob job = grantImportJobRepository.save(GrantImportJob.builder()
+                .couponId(couponId)
+                .filePath(file.toString())
+                .fileSize(Files.size(file))
+                .build());
+        List<Long> committed = LongStream.rangeClosed(1, 100).boxed().toList();
+        couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(committed));
+        grantImportJobRepository.commitChunk(job.getId(), committedOffset, 100, 100, 0, 0, 0, LocalDateTime.now());
+        couponStockService.decrementStockBulk(couponId, LongStream.rangeClosed(101, 150).boxed().toList());
+        grantImportJobRepository.updateStatus(job.getId(), GrantImportStatus.FAILED, "중단", LocalDateTime.now());
+
+        // When
+        grantImportService.resume(couponId, job.getId());
+        GrantImportResponse result = await(couponId, job.getId());
+
+        // Then
+        assertThat(result.status()).isEqualTo(GrantImportStatus.COMPLETED);
+        assertThat(result.errorMessage()).isNull();
+        assertThat(result.lines()).isEqualTo(300L);
+        assertThat(result.issued()).isEqualTo(300L);
+        assertThat(result.duplicated()).isZero();
+        assertThat(couponIssueRepository.findIssuedUserIds(couponId, List.of(101L, 150L, 300L)))
+                .containsExactlyInAnyOrder(101L, 150L, 300L);
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(300L);
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(700L);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 잠금을 잡은 작업은 재개를 거절하고 실행 자리를 돌려줌")
+    void resume_lockedByOther_releasesSlot() throws Exception {
+        // Given: 다른 노드가 실행 중인 작업
+        Long couponId = createCoupon(100);
+        Path file = Files.writeString(tempDir.resolve("grants.csv"), "1\n2\n");
+        GrantImportJob job = grantImportJobRepository.save(GrantImportJob.builder()
+                .couponId(couponId)
+                .filePath(file.toString())
+                .fileSize(Files.size(file))
+                .build());
+        redisTemplate.opsForValue().set("coupon:import:lock:" + job.getId(), "42");
+
+        // When / Then: 최대 동시 작업 수(2)보다 많이 시도해도 자리가 새지 않아 잠금 때문에만 거절됨
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> grantImportService.resume(couponId, job.getId()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        // 잠금이 풀리면 재개 가능
+        redisTemplate.delete("coupon:import:lock:" + job.getId());
+        grantImportService.resume(couponId, job.getId());
+        GrantImportResponse result = await(couponId, job.getId());
+        assertThat(result.status()).isEqualTo(GrantImportStatus.COMPLETED);
+        assertThat(result.issued()).isEqualTo(2L);
+    }
+
+    private GrantImportResponse await(Long couponId, Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        GrantImportResponse response = grantImportService.get(couponId, jobId);
+        while (response.status() == GrantImportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            response = grantImportService.get(couponId, jobId);
+        }
+        return response;
+    }
+
+    private Long createCoupon(int quantity) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "가져오기 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+    }
+}
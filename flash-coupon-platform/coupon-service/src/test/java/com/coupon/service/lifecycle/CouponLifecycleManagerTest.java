@@ -0,0 +1,134 @@
+package com.coupon.service.lifecycle;
+
+import com.coupon.domain.Coupon;
+import com.coupon.repository.CouponIssueArchiveRepository;
+import com.coupon.repository.CouponIssueRepository;
+import com.coupon.repository.CouponRepository;
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.BulkIssueRequest;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponUpdateRequest;
+import com.coupon.service.dto.WalletResponse;
+import com.coupon.service.wallet.UserWalletService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "coupon.lifecycle.archive-chunk-size=2",
+        "coupon.lifecycle.max-chunks-per-run=2"
+})
+class CouponLifecycleManagerTest {
+
+    @Autowired
+    private CouponLifecycleManager couponLifecycleManager;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponIssueRepository couponIssueRepository;
+
+    @Autowired
+    private CouponIssueArchiveRepository couponIssueArchiveRepository;
+
+    @Autowired
+    private UserWalletService userWalletService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("종료된 쿠폰의 재고/발급 사용자 키에 endAt + stock-retention 만료를 걸고, 이미 지났으면 바로 삭제")
+    void expireStock_setsExpiryOnEndedCoupons() {
+        // Given: 종료 후 30분 지난 쿠폰 (stock-retention 1h 이내)과 2시간 지난 쿠폰
+        Long recent = issueAndEnd(LocalDateTime.now().minusMinutes(30));
+        Long old = issueAndEnd(LocalDateTime.now().minusHours(2));
+
+        // When
+        couponLifecycleManager.expireStock(LocalDateTime.now());
+
+        // Then
+        assertThat(redisTemplate.getExpire("coupon:stock:" + recent)).isBetween(1L, 1800L);
+        assertThat(redisTemplate.getExpire("coupon:issued:" + recent)).isBetween(1L, 1800L);
+        assertThat(redisTemplate.hasKey("coupon:stock:" + old)).isFalse();
+        assertThat(redisTemplate.hasKey("coupon:issued:" + old)).isFalse();
+        assertThat(couponRepository.findById(old).map(Coupon::getStockExpireAt)).isPresent();
+
+        // 만료된 쿠폰은 만료 없는 키를 다시 만들지 않음
+        assertThatThrownBy(() -> couponService.syncStockFromDB(old)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 잡은 정리 잠금은 건드리지 않고, 직접 잡은 잠금은 정리 후 해제")
+    void sweep_releasesOnlyOwnLock() {
+        // Given: 다른 노드가 정리 중
+        redisTemplate.opsForValue().set("coupon:lifecycle:lock", "42");
+
+        // When / Then: 잠금을 잡지 못하면 정리하지 않고 잠금도 그대로
+        couponLifecycleManager.sweep();
+        assertThat(redisTemplate.opsForValue().get("coupon:lifecycle:lock")).isEqualTo("42");
+
+        // 잠금이 풀리면 직접 잡고, 끝나면 해제
+        redisTemplate.delete("coupon:lifecycle:lock");
+        couponLifecycleManager.sweep();
+        assertThat(redisTemplate.hasKey("coupon:lifecycle:lock")).isFalse();
+    }
+
+    @Test
+    @DisplayName("archive-after가 지난 쿠폰의 발급 내역을 청크 단위로 보관 테이블로 옮기고, 쿠폰함과 발급 수는 그대로")
+    void archive_movesIssuesInChunks() {
+        // Given: 발급 5건
+        Long couponId = issueAndEnd(LocalDateTime.now().minusHours(2));
+        couponLifecycleManager.expireStock(LocalDateTime.now());
+        LocalDateTime later = LocalDateTime.now().plusDays(31);
+
+        // When: 한 번에 2건씩 최대 2청크
+        long first = couponLifecycleManager.archive(later);
+        while (couponLifecycleManager.archive(later) > 0) {
+        }
+
+        // Then
+        assertThat(first).isBetween(1L, 4L);
+        assertThat(couponIssueRepository.countByCouponId(couponId)).isZero();
+        assertThat(couponIssueArchiveRepository.countByCouponId(couponId)).isEqualTo(5L);
+        assertThat(couponRepository.findById(couponId).map(Coupon::getArchivedAt)).isPresent();
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(5L);
+
+        userWalletService.evict(3L);
+        WalletResponse wallet = userWalletService.getWallet(3L, null, 100);
+        assertThat(wallet.coupons()).extracting(WalletResponse.WalletCoupon::couponId).contains(couponId);
+    }
+
+    /**
+     * 발급 기간 중에 사용자 1~5에게 발급한 뒤 종료 시각을 endAt으로 변경
+     */
+    private Long issueAndEnd(LocalDateTime endAt) {
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "정리 쿠폰", 10, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusHours(1))).id();
+        couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(List.of(1L, 2L, 3L, 4L, 5L)));
+        couponService.updateCoupon(couponId, new CouponUpdateRequest("정리 쿠폰", LocalDateTime.now().minusDays(1), endAt));
+        return couponId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.coupon.service.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimitTest {
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("한도만큼만 허가하고, 허가를 돌려받으면 다시 허가")
+    void tryAcquire_rejectsOverLimit() {
+        AimdLimit limit = new AimdLimit(3, 1, 10, 0.5, THRESHOLD_NANOS);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isEqualTo(3);
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+
+        limit.cancel();
+        assertThat(limit.inflight()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("한도를 채워 빠르게 처리하면 한도만큼 처리할 때마다 1씩 늘어남")
+    void fastSamples_increaseAdditively() {
+        AimdLimit limit = new AimdLimit(4, 1, 5, 0.5, TimeUnit.SECONDS.toNanos(1));
+
+        for (int round = 0; round < 10; round++) {
+            int permits = limit.limit();
+            long start = System.nanoTime();
+            int[] inflight = new int[permits];
+            for (int i = 0; i < permits; i++) {
+                inflight[i] = limit.tryAcquire();
+            }
+            for (int i = 0; i < permits; i++) {
+                limit.release(start, inflight[i], false);
+            }
+        }
+
+        assertThat(limit.limit()).isEqualTo(5);
+        assertThat(limit.inflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 시기에 시작한 느린 요청들은 한도를 한 번만 줄이고, 최소값 아래로 내려가지 않음")
+    void slowSamples_decreaseOncePerWindow() throws InterruptedException {
+        AimdLimit limit = new AimdLimit(100, 20, 100, 0.5, THRESHOLD_NANOS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limit.tryAcquire();
+        }
+        Thread.sleep(5);
+        for (int i = 0; i < 10; i++) {
+            limit.release(start, 10, false);
+        }
+        assertThat(limit.limit()).isEqualTo(50);
+
+        for (int round = 0; round < 5; round++) {
+            long next = System.nanoTime();
+            limit.tryAcquire();
+            limit.release(next, 1, true);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+}
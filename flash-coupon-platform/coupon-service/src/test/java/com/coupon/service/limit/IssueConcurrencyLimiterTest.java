@@ -0,0 +1,29 @@
+package com.coupon.service.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IssueConcurrencyLimiterTest {
+
+    @Autowired
+    private IssueConcurrencyLimiter issueConcurrencyLimiter;
+
+    @Test
+    @DisplayName("존재하지 않는 쿠폰은 한도를 만들지 않고 거절")
+    void tryAcquire_unknownCoupon_isRejected() {
+        // Given
+        Long unknownId = Long.MAX_VALUE;
+        long before = issueConcurrencyLimiter.couponCount();
+
+        // When / Then
+        assertThatThrownBy(() -> issueConcurrencyLimiter.tryAcquire(unknownId))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(issueConcurrencyLimiter.couponCount()).isEqualTo(before);
+    }
+}
@@ -0,0 +1,94 @@
+package com.coupon.service.listing;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.EventListResponse;
+import com.coupon.service.dto.EventListResponse.EventItem;
+import com.coupon.service.dto.EventListResponse.EventStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 주기 갱신을 사실상 끄고 경계 타이머만으로 목록이 이동하는지 확인
+@SpringBootTest(properties = "coupon.event-listing.stock-refresh-interval=1h")
+class EventListingServiceTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private EventListingService eventListingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트 컨텍스트에서 같은 쿠폰 ID로 남긴 재고/발급 기록 제거
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("진행 중/오픈 예정 목록과 잔여 재고, startAt/endAt 경계에서 목록 이동")
+    void lists_moveOnBoundaries() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Long active = createCoupon("진행 중 이벤트", now.minusMinutes(1), now.plusSeconds(3));
+        Long upcoming = createCoupon("오픈 예정 이벤트", now.plusSeconds(1), now.plusHours(1));
+        couponService.issueCoupon(active, new CouponIssueRequest(1L));
+
+        // When: 쿠폰 변경 알림(Redis Pub/Sub)이 도착한 뒤의 갱신
+        for (int i = 0; i < 20 && find(EventStatus.UPCOMING, upcoming).isEmpty(); i++) {
+            Thread.sleep(50);
+            eventListingService.refresh();
+        }
+
+        // Then
+        assertThat(find(EventStatus.ACTIVE, active)).hasValueSatisfying(item -> assertThat(item.remainingStock()).isEqualTo(9L));
+        assertThat(find(EventStatus.UPCOMING, upcoming)).isPresent();
+        byte[] unchanged = eventListingService.getList(EventStatus.UPCOMING);
+        eventListingService.refresh();
+        assertThat(eventListingService.getList(EventStatus.UPCOMING)).isSameAs(unchanged);
+
+        // When: 오픈 시각 경과
+        Thread.sleep(1_500);
+
+        // Then
+        assertThat(find(EventStatus.ACTIVE, upcoming)).isPresent();
+        assertThat(find(EventStatus.UPCOMING, upcoming)).isEmpty();
+
+        // When: 종료 시각 경과
+        Thread.sleep(2_000);
+
+        // Then: 종료 목록에는 마지막으로 읽은 잔여 재고 유지
+        assertThat(find(EventStatus.ENDED, active)).hasValueSatisfying(item -> assertThat(item.remainingStock()).isEqualTo(9L));
+        assertThat(find(EventStatus.ACTIVE, active)).isEmpty();
+    }
+
+    private Optional<EventItem> find(EventStatus status, Long couponId) throws Exception {
+        EventListResponse response = objectMapper.readValue(eventListingService.getList(status), EventListResponse.class);
+        assertThat(response.status()).isEqualTo(status);
+        return response.events().stream().filter(item -> item.couponId().equals(couponId)).findFirst();
+    }
+
+    private Long createCoupon(String name, LocalDateTime startAt, LocalDateTime endAt) {
+        return couponService.createCoupon(new CouponCreateRequest(name, 10, startAt, endAt)).id();
+    }
+}
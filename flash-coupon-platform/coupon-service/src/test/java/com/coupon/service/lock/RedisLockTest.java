@@ -0,0 +1,66 @@
+package com.coupon.service.lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RedisLockTest {
+
+    private static final String KEY = "coupon:test:lock";
+
+    @Autowired
+    private RedisLock redisLock;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.delete(KEY);
+    }
+
+    @Test
+    @DisplayName("잡은 쪽의 토큰으로만 해제되고, 만료 뒤 다른 쪽이 잡은 잠금은 지우지 않음")
+    void release_onlyWithOwnToken() {
+        // Given
+        Long token = redisLock.tryAcquire(KEY, Duration.ofSeconds(10));
+        assertThat(token).isNotNull();
+        assertThat(redisLock.tryAcquire(KEY, Duration.ofSeconds(10))).isNull();
+
+        // When: lease가 지나 다른 노드가 잡음
+        redisTemplate.delete(KEY);
+        Long other = redisLock.tryAcquire(KEY, Duration.ofSeconds(10));
+
+        // Then: 이전 토큰으로는 해제되지 않음
+        assertThat(redisLock.release(KEY, token)).isFalse();
+        assertThat(redisTemplate.hasKey(KEY)).isTrue();
+        assertThat(redisLock.release(KEY, other)).isTrue();
+        assertThat(redisTemplate.hasKey(KEY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("잡은 쪽의 토큰으로만 연장되고, 잃은 잠금은 연장하지 않음")
+    void extend_onlyWithOwnToken() {
+        // Given
+        Long token = redisLock.tryAcquire(KEY, Duration.ofSeconds(1));
+
+        // When / Then: 내 토큰이면 lease를 늘림
+        assertThat(redisLock.extend(KEY, token, Duration.ofSeconds(60))).isTrue();
+        assertThat(redisTemplate.getExpire(KEY)).isGreaterThan(1L);
+
+        // 다른 노드가 잡은 뒤에는 연장하지 않고 그쪽 lease를 유지
+        redisTemplate.delete(KEY);
+        Long other = redisLock.tryAcquire(KEY, Duration.ofSeconds(5));
+        assertThat(redisLock.extend(KEY, token, Duration.ofSeconds(60))).isFalse();
+        assertThat(redisTemplate.getExpire(KEY)).isLessThanOrEqualTo(5L);
+        assertThat(redisLock.release(KEY, other)).isTrue();
+    }
+}
@@ -0,0 +1,140 @@
+package com.coupon.service.outbox;
+
+import com.coupon.repository.IssueOutboxRepository;
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.BulkIssueRequest;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.CouponIssueResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private IssueOutboxRepository issueOutboxRepository;
+
+    @Autowired
+    private IssueEventPublisher issueEventPublisher;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트 컨텍스트에서 같은 쿠폰 ID로 남긴 재고/발급 기록 제거
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("발급 성공 건만 Outbox에 기록되고, Relay가 id 순서대로 발행한 뒤 비운다")
+    void relay_publishesIssuedEventsInOrder() {
+        // Given: 단건 발급 2건(1건은 중복) + 일괄 발급 3건
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "Outbox 쿠폰", 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+        CouponIssueResponse first = couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        couponService.bulkIssueCoupon(couponId, new BulkIssueRequest(List.of(2L, 3L, 4L)));
+
+        // When: 남은 이벤트가 없을 때까지 발행
+        drainAll();
+
+        // Then
+        List<IssueEvent> events = ((InMemoryIssueEventPublisher) issueEventPublisher).events().stream()
+                .filter(event -> event.couponId() == couponId)
+                .toList();
+        assertThat(events).extracting(IssueEvent::userId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(events).extracting(IssueEvent::eventId).isSorted();
+        assertThat(events.get(0).code()).isEqualTo(first.code());
+        assertThat(issueOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("비어 있는 id 뒤의 이벤트는 visibilityLag 동안 미루고, 지나면 빈 id를 건너뛰고 발행")
+    void relay_holdsEventsBehindUncommittedId() throws InterruptedException {
+        // Given: 앞선 이벤트를 모두 발행한 뒤 3건 발급
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "Outbox 쿠폰", 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+        drainAll();
+        for (long userId = 1; userId <= 3; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId));
+        }
+        // 가운데 이벤트를 지워 아직 커밋되지 않은 트랜잭션이 잡은 id를 흉내
+        List<IssueEvent> pending = issueOutboxRepository.findBatch(10);
+        assertThat(pending).hasSize(3);
+        issueOutboxRepository.deleteAll(List.of(pending.get(1).eventId()));
+
+        // When
+        outboxRelay.relay();
+
+        // Then: 빈 id 앞까지만 발행
+        assertThat(publishedUsers(couponId)).containsExactly(1L);
+        assertThat(issueOutboxRepository.count()).isEqualTo(1L);
+
+        // When: visibilityLag(300ms) 경과
+        Thread.sleep(500);
+        outboxRelay.relay();
+
+        // Then
+        assertThat(publishedUsers(couponId)).containsExactly(1L, 3L);
+        assertThat(issueOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 노드가 잡은 발행 잠금은 건드리지 않음")
+    void relay_skipsWhenLockedByOther() {
+        // Given
+        redisTemplate.opsForValue().set("coupon:outbox:relay:lock", "other", Duration.ofSeconds(10));
+
+        // When
+        int published = outboxRelay.relay();
+
+        // Then
+        assertThat(published).isZero();
+        assertThat(redisTemplate.opsForValue().get("coupon:outbox:relay:lock")).isEqualTo("other");
+    }
+
+    private List<Long> publishedUsers(Long couponId) {
+        return ((InMemoryIssueEventPublisher) issueEventPublisher).events().stream()
+                .filter(event -> event.couponId() == couponId)
+                .map(IssueEvent::userId)
+                .toList();
+    }
+
+    /**
+     * 다른 테스트가 남긴 이벤트 사이의 빈 id는 visibilityLag가 지나야 건너뛰므로 비워질 때까지 반복
+     */
+    private void drainAll() {
+        for (int i = 0; i < 50 && issueOutboxRepository.count() > 0; i++) {
+            if (outboxRelay.relay() == 0) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
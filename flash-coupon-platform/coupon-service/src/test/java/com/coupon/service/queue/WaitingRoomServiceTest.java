@@ -0,0 +1,107 @@
+package com.coupon.service.queue;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.QueueTicketResponse;
+import com.coupon.service.dto.QueueTicketResponse.QueueStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "coupon.waiting-room.enabled=true",
+        "coupon.waiting-room.admission-interval=200ms",
+        "coupon.waiting-room.min-rate=3",
+        "coupon.waiting-room.max-rate=3"
+})
+class WaitingRoomServiceTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("잔여 재고 x overbookRatio를 넘는 순번은 입장 시 바로 거절")
+    void enter_rejectsBeyondOverbookCapacity() {
+        // Given: 재고 10개 → 대기 허용 12명
+        Long couponId = createCoupon(10);
+
+        // When: 20명이 대기열에 입장
+        int waiting = 0;
+        int rejected = 0;
+        for (long userId = 1; userId <= 20; userId++) {
+            QueueStatus status = waitingRoomService.enter(couponId, userId).status();
+            if (status == QueueStatus.REJECTED) {
+                rejected++;
+            } else {
+                waiting++;
+            }
+        }
+
+        // Then: 입장 주기가 돌며 일부가 입장 허용돼도 대기 허용 인원은 넘지 않는다
+        assertThat(waiting).isLessThanOrEqualTo(12 + 3);
+        assertThat(rejected).isGreaterThanOrEqualTo(5);
+        assertThat(waitingRoomService.getTicket(couponId, 20L).status()).isEqualTo(QueueStatus.NOT_QUEUED);
+    }
+
+    @Test
+    @DisplayName("입장 허용 전에는 발급 요청이 거절되고, 입장 주기가 지나면 순서대로 발급 가능")
+    void issue_requiresAdmission() throws InterruptedException {
+        // Given
+        Long couponId = createCoupon(10);
+        for (long userId = 1; userId <= 10; userId++) {
+            assertThat(waitingRoomService.enter(couponId, userId).status()).isNotEqualTo(QueueStatus.REJECTED);
+        }
+        QueueTicketResponse last = waitingRoomService.getTicket(couponId, 10L);
+
+        // 주기당 3명씩 입장하므로 마지막 순번은 아직 대기 중
+        assertThat(last.status()).isEqualTo(QueueStatus.WAITING);
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(10L)).success()).isFalse();
+
+        // When: 입장 주기 경과
+        awaitAdmitted(couponId, 1L);
+
+        // Then: 앞 순번부터 입장, 대기 순번은 줄어든다
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(1L)).success()).isTrue();
+        assertThat(waitingRoomService.getTicket(couponId, 10L).position()).isLessThan(last.position());
+
+        // 대기열에 없는 사용자는 발급 불가
+        assertThat(waitingRoomService.isAdmitted(couponId, 99L)).isFalse();
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(99L)).success()).isFalse();
+    }
+
+    private void awaitAdmitted(Long couponId, Long userId) throws InterruptedException {
+        for (int i = 0; i < 50 && !waitingRoomService.isAdmitted(couponId, userId); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(waitingRoomService.getTicket(couponId, userId).status()).isEqualTo(QueueStatus.ADMITTED);
+    }
+
+    private Long createCoupon(int quantity) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "대기열 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                null, null)).id();
+    }
+}
@@ -0,0 +1,146 @@
+package com.coupon.service.reconcile;
+
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.ReconciliationResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "coupon.reconciliation.grace=0s",
+        "coupon.reconciliation.chunk-size=7",
+        "coupon.stock.chunk-bitmap-threshold=5"
+})
+class IssueReconcilerTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private IssueReconciler issueReconciler;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트 컨텍스트에서 같은 쿠폰 ID로 남긴 발급 기록, HWM 제거
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"SET, 1", "SET, 4", "BITMAP, 1", "CHUNKED, 2"})
+    @DisplayName("Redis 기록이 빠진 사용자는 복원하고, DB 내역 없는 사용자는 grace 후 제거")
+    void reconcile_repairsPerUserDivergence(IssuedEncoding encoding, int shards) {
+        // Given: 30명 발급 (청크 크기 7 → 여러 청크로 나뉨)
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "대사 쿠폰", 100, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, encoding)).id();
+        for (long userId = 1; userId <= 30; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId * 40_000));
+        }
+
+        // DB 내역은 있는데 Redis 발급 기록만 사라진 사용자 (재고도 복구됨)
+        couponStockService.rollback(couponId, 40_000L);
+        // Redis에서만 발급된 사용자 (DB 저장 전 장애)
+        couponStockService.decrementStock(couponId, 999_999L);
+        // 빠진 사용자와 남은 사용자가 1명씩이라 개수 비교로는 찾을 수 없음
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+
+        // When: 첫 실행 - DB 쪽 불일치 복원, Redis 쪽 불일치는 복구 대기
+        ReconciliationResponse first = issueReconciler.reconcile(couponId);
+
+        // Then
+        assertThat(first.dbRowsChecked()).isEqualTo(30);
+        assertThat(first.redisUsersChecked()).isEqualTo(31);
+        assertThat(first.missingInRedis()).isEqualTo(1);
+        assertThat(first.orphanedInRedis()).isZero();
+        assertThat(first.pendingOrphans()).isEqualTo(1);
+        assertThat(first.redisSweepCompleted()).isTrue();
+        assertThat(couponStockService.isAlreadyIssued(couponId, 40_000L)).isTrue();
+
+        // When: 다음 실행 - grace가 지난 복구 대기 사용자 제거, DB는 HWM 이후만 확인
+        ReconciliationResponse second = issueReconciler.reconcile(couponId);
+
+        // Then
+        assertThat(second.dbRowsChecked()).isZero();
+        assertThat(second.orphanedInRedis()).isEqualTo(1);
+        assertThat(second.repaired()).isEqualTo(1);
+        assertThat(second.pendingOrphans()).isZero();
+        assertThat(couponStockService.isAlreadyIssued(couponId, 999_999L)).isFalse();
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(70L);
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("멈춘 노드의 Write-Behind 저널이 반영되기 전에는 Redis에만 있는 사용자를 복구하지 않음")
+    void reconcile_defersOrphansWhileJournalUnsettled() {
+        // Given: Redis에서만 발급된 사용자 + 장애로 멈춘 노드의 저널 (반영 시각이 갱신되지 않음)
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "대사 보류 쿠폰", 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                1, null)).id();
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        couponStockService.decrementStock(couponId, 2L);
+        redisTemplate.opsForHash().put("coupon:writebehind:settled", "crashed-journal", "0");
+
+        // When: grace가 지나도 저널이 반영되지 않았으면 복구 대기 유지
+        issueReconciler.reconcile(couponId);
+        ReconciliationResponse deferred = issueReconciler.reconcile(couponId);
+
+        // Then
+        assertThat(deferred.orphanedInRedis()).isZero();
+        assertThat(deferred.pendingOrphans()).isEqualTo(1);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 2L)).isTrue();
+
+        // When: 노드가 재시작해 저널을 반영 (정상 종료 시 필드 삭제)
+        redisTemplate.opsForHash().delete("coupon:writebehind:settled", "crashed-journal");
+        ReconciliationResponse resolved = issueReconciler.reconcile(couponId);
+
+        // Then
+        assertThat(resolved.orphanedInRedis()).isEqualTo(1);
+        assertThat(resolved.repaired()).isEqualTo(1);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 2L)).isFalse();
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 대사 중인 쿠폰은 건너뛰고 그 노드의 잠금을 지우지 않음")
+    void reconcile_keepsOtherNodesLock() {
+        // Given: 다른 노드가 대사 잠금을 잡음
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "대사 잠금 쿠폰", 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                1, null)).id();
+        String lockKey = "coupon:reconcile:{" + couponId + "}:lock";
+        redisTemplate.opsForValue().set(lockKey, "42");
+
+        // When / Then
+        assertThatThrownBy(() -> issueReconciler.reconcile(couponId)).isInstanceOf(IllegalStateException.class);
+        assertThat(redisTemplate.opsForValue().get(lockKey)).isEqualTo("42");
+
+        // 잠금이 풀리면 대사하고, 끝나면 자기 잠금만 해제
+        redisTemplate.delete(lockKey);
+        assertThat(issueReconciler.reconcile(couponId).redisSweepCompleted()).isTrue();
+        assertThat(redisTemplate.hasKey(lockKey)).isFalse();
+    }
+}
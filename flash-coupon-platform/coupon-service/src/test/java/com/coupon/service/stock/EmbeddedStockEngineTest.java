@@ -0,0 +1,119 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.EmbeddedStockProperties;
+import com.coupon.domain.IssuedEncoding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedStockEngineTest {
+
+    private static final StockLayout LAYOUT = new StockLayout(1L, 1, IssuedEncoding.SET);
+
+    @TempDir
+    Path journalDir;
+
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Redis 엔진과 같은 결과값: 1 성공, 0 재고 없음, -1 중복, -2 미초기화, 롤백 시 재고 복구")
+    void decrement_matchesRedisSemantics() {
+        EmbeddedStockEngine engine = open();
+        assertThat(engine.decrement(LAYOUT, 100L)).isEqualTo(-2);
+
+        engine.initialize(LAYOUT, 2);
+        assertThat(engine.decrement(LAYOUT, 100L)).isEqualTo(1);
+        assertThat(engine.decrement(LAYOUT, 100L)).isEqualTo(-1);
+        assertThat(engine.decrement(LAYOUT, 101L)).isEqualTo(1);
+        assertThat(engine.decrement(LAYOUT, 102L)).isEqualTo(0);
+        assertThat(engine.isIssued(LAYOUT, 102L)).isFalse();
+
+        assertThat(engine.rollback(LAYOUT, 101L, true)).isTrue();
+        assertThat(engine.rollback(LAYOUT, 101L, true)).isFalse();
+        assertThat(engine.getStock(LAYOUT)).isEqualTo(1L);
+        assertThat(engine.decrement(LAYOUT, 102L)).isEqualTo(1);
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("동시 요청에서도 재고만큼만 발급")
+    void concurrentDecrement_neverOversells() throws Exception {
+        EmbeddedStockEngine engine = open();
+        engine.initialize(LAYOUT, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (long userId = 1; userId <= 1000; userId++) {
+            long user = userId % 500 + 1; // 사용자마다 두 번씩 요청
+            results.add(executor.submit(() -> engine.decrement(LAYOUT, user)));
+        }
+        int issued = 0;
+        for (Future<Integer> result : results) {
+            issued += result.get() == 1 ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertThat(issued).isEqualTo(100);
+        assertThat(engine.getStock(LAYOUT)).isZero();
+        assertThat(engine.issuedUserCount(LAYOUT)).isEqualTo(100L);
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("재시작 시 저널을 재생해 재고와 발급 사용자 복원")
+    void restart_replaysJournal() {
+        // Given
+        EmbeddedStockEngine engine = open();
+        engine.initialize(LAYOUT, 10);
+        for (long userId = 1; userId <= 5; userId++) {
+            engine.decrement(LAYOUT, userId);
+        }
+        engine.rollback(LAYOUT, 3L, true);
+        engine.increment(LAYOUT, 4L);
+        engine.close();
+
+        // When: 두 번 재시작 (압축된 저널에서 다시 압축)
+        open().close();
+        EmbeddedStockEngine reopened = open();
+
+        // Then
+        assertThat(reopened.getStock(LAYOUT)).isEqualTo(7L);
+        assertThat(reopened.areIssued(LAYOUT, List.of(1L, 2L, 3L, 4L, 5L)))
+                .containsExactly(true, true, false, true, true);
+        assertThat(reopened.decrement(LAYOUT, 1L)).isEqualTo(-1);
+        assertThat(reopened.scanIssuedUsers(LAYOUT, LAYOUT.issuedKey(0), 0L, 3))
+                .isEqualTo(new IssuedScanPage(5L, List.of(1L, 2L, 4L)));
+        reopened.close();
+    }
+
+    private EmbeddedStockEngine open() {
+        return new EmbeddedStockEngine(
+                new EmbeddedStockProperties(journalDir.toString(), DataSize.ofKilobytes(1), Duration.ofSeconds(1)),
+                taskScheduler);
+    }
+}
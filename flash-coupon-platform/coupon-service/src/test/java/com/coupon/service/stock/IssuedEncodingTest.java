@@ -0,0 +1,126 @@
+package com.coupon.service.stock;
+
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "coupon.stock.chunk-bitmap-threshold=5")
+class IssuedEncodingTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IssuedEncoding.class)
+    @DisplayName("인코딩과 관계없이 중복 발급을 막고, 발급 수 집계와 롤백이 같게 동작")
+    void encodings_behaveAlike(IssuedEncoding encoding) {
+        // Given: 20개, 2개 샤드
+        Long couponId = createCoupon(20, 2, encoding);
+
+        // When: 30명 요청 후 첫 사용자가 다시 요청
+        int success = 0;
+        for (long userId = 1; userId <= 30; userId++) {
+            if (couponService.issueCoupon(couponId, new CouponIssueRequest(userId * 3)).success()) {
+                success++;
+            }
+        }
+        boolean reissued = couponService.issueCoupon(couponId, new CouponIssueRequest(3L)).success();
+
+        // Then
+        assertThat(success).isEqualTo(20);
+        assertThat(reissued).isFalse();
+        assertThat(couponStockService.isAlreadyIssued(couponId, 3L)).isTrue();
+        assertThat(couponStockService.isAlreadyIssued(couponId, 4L)).isFalse();
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(20L);
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+
+        // 롤백은 기록이 있을 때만 재고를 복구
+        couponStockService.rollback(couponId, 3L);
+        couponStockService.rollback(couponId, 3L);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 3L)).isFalse();
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("CHUNKED 청크 Set이 임계치를 넘으면 비트맵으로 변환되고, 변환 전 사용자도 발급 기록이 유지됨")
+    void chunked_convertsSetToBitmapOverThreshold() {
+        // Given: 같은 청크(userId < 2^15)의 사용자, 임계치 5
+        Long couponId = createCoupon(100, 1, IssuedEncoding.CHUNKED);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        String chunkKey = layout.issuedKey(0, 1L);
+        for (long userId = 1; userId <= 5; userId++) {
+            couponStockService.decrementStock(couponId, userId);
+        }
+        assertThat(redisTemplate.type(chunkKey)).isEqualTo(DataType.SET);
+
+        // When
+        int issued = couponStockService.decrementStock(couponId, 6L);
+
+        // Then
+        assertThat(issued).isEqualTo(1);
+        assertThat(redisTemplate.type(chunkKey)).isEqualTo(DataType.STRING);
+        assertThat(couponStockService.decrementStock(couponId, 1L)).isEqualTo(-1);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 5L)).isTrue();
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(6L);
+
+        assertThat(couponStockService.rollback(couponId, 2L)).isTrue();
+        assertThat(couponStockService.isAlreadyIssued(couponId, 2L)).isFalse();
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(95L);
+    }
+
+    @Test
+    @DisplayName("CHUNKED는 userId 상위 비트마다 청크 키가 나뉘고 청크 키에서 사용자 ID를 복원")
+    void chunked_splitsKeysByUserIdRange() {
+        // Given
+        Long couponId = createCoupon(10, 1, IssuedEncoding.CHUNKED);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        long low = 7L;
+        long high = (3L << StockLayout.CHUNK_BITS) + 7L;
+
+        // When
+        couponStockService.decrementStock(couponId, low);
+        couponStockService.decrementStock(couponId, high);
+
+        // Then
+        assertThat(layout.issuedKey(0, low)).isNotEqualTo(layout.issuedKey(0, high));
+        assertThat(couponStockService.issuedKeys(layout)).hasSize(2);
+        assertThat(layout.userIdOf(layout.issuedKey(0, high), 7L)).isEqualTo(high);
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(2L);
+    }
+
+    private Long createCoupon(int quantity, int shards, IssuedEncoding encoding) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "인코딩 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, encoding)).id();
+    }
+}
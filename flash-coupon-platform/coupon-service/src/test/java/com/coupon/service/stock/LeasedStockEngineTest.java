@@ -0,0 +1,291 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.StockLeaseProperties;
+import com.coupon.config.WriteBehindProperties;
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.cache.CouponMetadataCache;
+import com.coupon.service.dto.CouponCreateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 두 노드(node 0, 1)를 같은 Redis 위에 만들어 임대 모드를 검증 (기본 Redis 엔진 컨텍스트의 빈을 재사용)
+ */
+@SpringBootTest
+class LeasedStockEngineTest {
+
+    private static final int LEASE_SIZE = 10;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private RedisStockEngine redisStockEngine;
+
+    @Autowired
+    private RedisTemplate<String, Long> redisTemplate;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockBorrowScript;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockLeaseScript;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockLeaseReturnScript;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockLeaseReportScript;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockLeaseSweepScript;
+
+    @Autowired
+    private StockInitializer stockInitializer;
+
+    @Autowired
+    private WriteBehindProperties writeBehindProperties;
+
+    @Autowired
+    private SoldOutRegistry soldOutRegistry;
+
+    @Autowired
+    private CouponMetadataCache couponMetadataCache;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    @DisplayName("두 노드가 재고를 나눠 임대해도 재고만큼만 발급하고, 반납 후 Redis 재고와 발급 기록이 일치")
+    void concurrentDecrement_neverOversells(int shards) throws Exception {
+        // Given
+        Long couponId = createCoupon(95, shards);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        LeasedStockEngine[] nodes = {open(0), open(1)};
+
+        // When: 사용자마다 담당 노드로 두 번씩 요청
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (long request = 1; request <= 800; request++) {
+            long userId = request % 400 + 1;
+            LeasedStockEngine owner = nodes[LeasedStockEngine.ownerOf(userId, 2)];
+            results.add(executor.submit(() -> owner.decrement(layout, userId)));
+        }
+        int issued = 0;
+        for (Future<Integer> result : results) {
+            issued += result.get() == 1 ? 1 : 0;
+        }
+        executor.shutdown();
+        for (LeasedStockEngine node : nodes) {
+            node.close();
+        }
+
+        // Then
+        assertThat(issued).isEqualTo(95);
+        assertThat(couponStockService.getStock(couponId)).isZero();
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(95L);
+    }
+
+    @Test
+    @DisplayName("임대한 재고는 잔여 재고에 포함되고, 종료 시 Redis로 반납")
+    void lease_isReportedAndReturned() {
+        // Given
+        Long couponId = createCoupon(100, 1);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        LeasedStockEngine node0 = open(0);
+        LeasedStockEngine node1 = open(1);
+        long userId = ownedBy(0);
+
+        // When: 첫 발급에서 LEASE_SIZE만큼 임대
+        assertThat(node0.decrement(layout, userId)).isEqualTo(1);
+        node0.maintain();
+
+        // Then: Redis에는 임대분이 빠져 있고, 두 노드 모두 임대분을 포함해 잔여 재고를 계산
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(100L - LEASE_SIZE);
+        assertThat(node0.getStock(layout)).isEqualTo(99L);
+        assertThat(node1.getStock(layout)).isEqualTo(99L);
+
+        // When: 종료
+        node0.close();
+
+        // Then: 남은 임대분이 반납되고 발급 기록이 Redis에 반영됨
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(99L);
+        assertThat(node1.getStock(layout)).isEqualTo(99L);
+        assertThat(redisStockEngine.isIssued(layout, userId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("재고 재초기화로 임대가 무효가 되면 다음 보고에서 로컬 재고를 버림")
+    void reinitializedStock_dropsLease() {
+        // Given: node 0이 임대 중
+        Long couponId = createCoupon(100, 1);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        LeasedStockEngine node0 = open(0);
+        node0.decrement(layout, ownedBy(0));
+
+        // When: 다른 노드가 재고를 1개로 다시 설정
+        open(1).initialize(layout, 1);
+        node0.maintain();
+
+        // Then: 남은 임대분(9)으로 발급하지 않고 새 재고 1개만 발급
+        long issued = 0;
+        for (long userId = 1_000; userId < 1_200; userId++) {
+            if (LeasedStockEngine.ownerOf(userId, 2) == 0 && node0.decrement(layout, userId) == 1) {
+                issued++;
+            }
+        }
+        node0.close();
+        assertThat(issued).isEqualTo(1L);
+        assertThat(redisStockEngine.getStock(layout)).isZero();
+    }
+
+    @Test
+    @DisplayName("중복 검사는 로컬 기록으로 처리하고, 재시작한 노드는 Redis 발급 기록에서 담당 사용자를 복원")
+    void duplicate_isExactAcrossRestart() {
+        // Given
+        Long couponId = createCoupon(100, 1);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        long userId = ownedBy(0);
+        LeasedStockEngine node0 = open(0);
+
+        // When / Then
+        assertThat(node0.decrement(layout, userId)).isEqualTo(1);
+        assertThat(node0.decrement(layout, userId)).isEqualTo(-1);
+        assertThat(node0.isIssued(layout, userId)).isTrue();
+        node0.close();
+
+        LeasedStockEngine restarted = open(0);
+        assertThat(restarted.decrement(layout, userId)).isEqualTo(-1);
+        assertThat(restarted.rollback(layout, userId, true)).isTrue();
+        assertThat(restarted.isIssued(layout, userId)).isFalse();
+        assertThat(redisStockEngine.isIssued(layout, userId)).isFalse();
+        restarted.close();
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("보고가 끊긴 노드의 임대는 leaseTtl 뒤 회수되고, 그 샤드 재고는 마지막 보고값이 아닌 발급 기록 기준으로 다시 만든다")
+    void crashedNode_leaseIsSweptAndShardRebuilt() throws InterruptedException {
+        // Given: node 1이 10개 임대 → 3건 발급 후 보고(7) → 2건 더 발급하고 장애 (실제 미사용 5개)
+        Long couponId = createCoupon(100, 1);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        LeasedStockEngine node1 = open(1);
+        List<Long> users = ownedUsers(1, 5);
+        for (int i = 0; i < 3; i++) {
+            node1.decrement(layout, users.get(i));
+        }
+        node1.maintain();
+        for (int i = 3; i < 5; i++) {
+            node1.decrement(layout, users.get(i));
+        }
+        node1.flushIssued();
+        redisTemplate.opsForHash().put(layout.leaseHeartbeatKey(0), "1", 0L);
+
+        // node 0은 임대 후 계속 보고
+        LeasedStockEngine node0 = open(0, Duration.ofMillis(100), Duration.ofMillis(300));
+        assertThat(node0.decrement(layout, ownedBy(0))).isEqualTo(1);
+        node0.flushIssued();
+
+        // When: leaseTtl이 지난 뒤 점검 → 회수, 다음 발급이 재초기화
+        Thread.sleep(400);
+        node0.maintain();
+        assertThat(redisTemplate.opsForHash().hasKey(layout.leaseKey(0), "1")).isFalse();
+        stockInitializer.ensureInitialized(couponId);
+
+        // Then: 100 - 발급 6 - node 0 임대 9
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(85L);
+        assertThat(node0.getStock(layout)).isEqualTo(94L);
+        node0.close();
+    }
+
+    @Test
+    @DisplayName("leaseTtl의 절반 동안 보고하지 못한 노드는 로컬 재고를 반납하고 새로 임대")
+    void unconfirmedLease_isNotUsed() throws InterruptedException {
+        // Given
+        Long couponId = createCoupon(100, 1);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        LeasedStockEngine node0 = open(0, Duration.ofMillis(100), Duration.ofMillis(300));
+        List<Long> users = ownedUsers(0, 2);
+        assertThat(node0.decrement(layout, users.get(0))).isEqualTo(1);
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(90L);
+
+        // When: 보고 없이 leaseTtl의 절반 경과
+        Thread.sleep(200);
+        assertThat(node0.decrement(layout, users.get(1))).isEqualTo(1);
+
+        // Then: 남은 9개를 돌려주고 10개를 다시 임대
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(89L);
+        assertThat(node0.getStock(layout)).isEqualTo(98L);
+        node0.close();
+        assertThat(redisStockEngine.getStock(layout)).isEqualTo(98L);
+    }
+
+    private LeasedStockEngine open(int nodeIndex) {
+        return open(nodeIndex, Duration.ofSeconds(1), Duration.ofSeconds(10));
+    }
+
+    private LeasedStockEngine open(int nodeIndex, Duration reportInterval, Duration leaseTtl) {
+        StockLeaseProperties properties = new StockLeaseProperties(LEASE_SIZE, 2, nodeIndex,
+                Duration.ofMillis(100), reportInterval, Duration.ofSeconds(10), Duration.ofSeconds(30), leaseTtl);
+        return new LeasedStockEngine(redisStockEngine, redisTemplate, stockBorrowScript, stockLeaseScript,
+                stockLeaseReturnScript, stockLeaseReportScript, stockLeaseSweepScript, properties, writeBehindProperties, soldOutRegistry,
+                couponMetadataCache, taskScheduler);
+    }
+
+    private static List<Long> ownedUsers(int nodeIndex, int count) {
+        List<Long> userIds = new ArrayList<>();
+        for (long userId = 1; userIds.size() < count; userId++) {
+            if (LeasedStockEngine.ownerOf(userId, 2) == nodeIndex) {
+                userIds.add(userId);
+            }
+        }
+        return userIds;
+    }
+
+    private static long ownedBy(int nodeIndex) {
+        long userId = 1L;
+        while (LeasedStockEngine.ownerOf(userId, 2) != nodeIndex) {
+            userId++;
+        }
+        return userId;
+    }
+
+    private Long createCoupon(int quantity, int shards) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "임대 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, IssuedEncoding.SET)).id();
+    }
+}
@@ -0,0 +1,133 @@
+package com.coupon.service.stock;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ShardedStockTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private RedisStockEngine redisStockEngine;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("샤드 재고를 동시에 감소해도 총 수량만큼만 발급")
+    void concurrentIssue_issuesExactlyTotalQuantity() throws InterruptedException {
+        // Given: 100개를 8개 샤드에 분배
+        Long couponId = createCoupon(100, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(1000);
+        AtomicInteger success = new AtomicInteger();
+
+        // When: 1000명이 동시에 요청
+        for (long userId = 1; userId <= 1000; userId++) {
+            long id = userId;
+            executor.submit(() -> {
+                try {
+                    if (couponService.issueCoupon(couponId, new CouponIssueRequest(id)).success()) {
+                        success.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executor.shutdown();
+
+        // Then
+        assertThat(success.get()).isEqualTo(100);
+        assertThat(couponStockService.getStock(couponId)).isZero();
+        assertThat(couponService.getIssuedCount(couponId)).isEqualTo(100L);
+        assertThat(couponService.checkConsistency(couponId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("담당 샤드가 소진되면 다른 샤드에서 빌려와 발급하고, 전체 재고가 소진되면 품절")
+    void exhaustedShard_borrowsFromSiblings() {
+        // Given: 4개를 4개 샤드에 1개씩, 모두 샤드 0 담당인 사용자 5명
+        Long couponId = createCoupon(4, 4);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        List<Long> users = usersOfShard(layout, 0, 5);
+
+        // When
+        List<Integer> results = new ArrayList<>();
+        for (Long userId : users) {
+            results.add(couponStockService.decrementStock(couponId, userId));
+        }
+
+        // Then: 샤드 1~3의 재고를 빌려 4명까지 발급
+        assertThat(results).containsExactly(1, 1, 1, 1, 0);
+        assertThat(couponStockService.getStock(couponId)).isZero();
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            assertThat(redisTemplate.opsForValue().get(layout.stockKey(shard))).isEqualTo("0");
+        }
+    }
+
+    @Test
+    @DisplayName("빌려온 재고는 빌려준 샤드에 되돌리고, 그 샤드 키가 없으면 키를 만들지 않음")
+    void returnBorrowed_onlyToExistingShard() {
+        // Given
+        Long couponId = createCoupon(8, 2);
+        StockLayout layout = couponStockService.layoutOf(couponId);
+
+        // When & Then
+        redisStockEngine.returnBorrowed(layout, 1, 3L);
+        assertThat(redisTemplate.opsForValue().get(layout.stockKey(1))).isEqualTo("7");
+
+        redisTemplate.delete(layout.stockKey(1));
+        redisStockEngine.returnBorrowed(layout, 1, 3L);
+        assertThat(redisTemplate.hasKey(layout.stockKey(1))).isFalse();
+    }
+
+    private List<Long> usersOfShard(StockLayout layout, int shard, int count) {
+        List<Long> users = new ArrayList<>();
+        for (long userId = 1; users.size() < count; userId++) {
+            if (layout.shardOf(userId) == shard) {
+                users.add(userId);
+            }
+        }
+        return users;
+    }
+
+    private Long createCoupon(int quantity, int shards) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "샤드 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, null)).id();
+    }
+}
@@ -0,0 +1,149 @@
+package com.coupon.service.stock;
+
+import com.coupon.config.SoldOutProperties;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다른 노드는 같은 채널을 구독하는 두 번째 레지스트리로 흉내낸다. (재확인 주기는 길게 두어 Pub/Sub만으로 해제되는지 확인)
+ */
+@SpringBootTest(properties = "coupon.sold-out.recheck-interval=300ms")
+class SoldOutRegistryTest {
+
+    private static final String CHANNEL = "coupon:sold-out";
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private SoldOutRegistry soldOutRegistry;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    private SoldOutRegistry otherNode;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+        otherNode = new SoldOutRegistry(redisTemplate, listenerContainer,
+                new SoldOutProperties(true, CHANNEL, Duration.ofMinutes(1)));
+        // 구독이 끝났는지 확인 (존재하지 않는 쿠폰 0으로 표시 후 해제)
+        assertThat(until(() -> {
+            redisTemplate.convertAndSend(CHANNEL, "S:0");
+            return otherNode.isSoldOut(0L);
+        })).isTrue();
+        otherNode.clear(0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainer.removeMessageListener(otherNode);
+    }
+
+    @Test
+    @DisplayName("품절 표시는 재확인 주기가 지나면 사라져 Redis로 다시 확인")
+    void isSoldOut_expiresAfterRecheckInterval() throws InterruptedException {
+        // Given: 1개짜리 쿠폰을 소진해 품절 표시
+        Long couponId = createCoupon(1);
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(1L)).success()).isTrue();
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(2L)).success()).isFalse();
+        assertThat(soldOutRegistry.isSoldOut(couponId)).isTrue();
+
+        // When: 재확인 주기 경과
+        Thread.sleep(400);
+
+        // Then: 표시가 사라지고, Redis 재고가 0이므로 다시 품절 표시
+        assertThat(soldOutRegistry.isSoldOut(couponId)).isFalse();
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(3L)).success()).isFalse();
+        assertThat(soldOutRegistry.isSoldOut(couponId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("보상 롤백과 재고 복구는 다른 노드의 품절 표시도 해제")
+    void clear_reopensIssuanceOnOtherNodes() throws InterruptedException {
+        // Given: 소진되어 다른 노드에도 품절이 전파됨
+        Long couponId = createCoupon(1);
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        couponService.issueCoupon(couponId, new CouponIssueRequest(2L));
+        assertThat(until(() -> otherNode.isSoldOut(couponId))).isTrue();
+
+        // When: 보상 롤백으로 재고 복구
+        couponStockService.rollback(couponId, 1L);
+
+        // Then: 재확인 주기(1분) 전에 다른 노드의 표시도 해제되고 다시 발급됨
+        assertThat(until(() -> !otherNode.isSoldOut(couponId))).isTrue();
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(3L)).success()).isTrue();
+
+        // Given: 다시 소진되어 품절 전파
+        couponService.issueCoupon(couponId, new CouponIssueRequest(4L));
+        assertThat(until(() -> otherNode.isSoldOut(couponId))).isTrue();
+
+        // When: 재고만 복구 (DB에 이미 발급 내역이 있는 사용자 보상)
+        couponStockService.incrementStock(couponId, 3L);
+
+        // Then: 다른 노드 표시 해제
+        assertThat(until(() -> !otherNode.isSoldOut(couponId))).isTrue();
+        assertThat(soldOutRegistry.isSoldOut(couponId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("재고가 남아 있는데 늦게 도착한 품절 메시지는 재확인 주기 뒤 발급을 막지 않음")
+    void staleSoldOut_doesNotSuppressIssuanceAfterRestore() throws InterruptedException {
+        // Given: 재고 복구 뒤 순서가 뒤바뀐 품절 메시지가 도착
+        Long couponId = createCoupon(10);
+        redisTemplate.convertAndSend(CHANNEL, "S:" + couponId);
+        assertThat(until(() -> soldOutRegistry.isSoldOut(couponId))).isTrue();
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(1L)).success()).isFalse();
+
+        // When: 재확인 주기 경과
+        Thread.sleep(400);
+
+        // Then: Redis 재고로 다시 확인해 발급되고 품절로 표시되지 않음
+        assertThat(couponService.issueCoupon(couponId, new CouponIssueRequest(1L)).success()).isTrue();
+        assertThat(soldOutRegistry.isSoldOut(couponId)).isFalse();
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(9L);
+    }
+
+    private Long createCoupon(int quantity) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "품절 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+    }
+
+    private static boolean until(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
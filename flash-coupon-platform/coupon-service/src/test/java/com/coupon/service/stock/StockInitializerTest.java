@@ -0,0 +1,132 @@
+package com.coupon.service.stock;
+
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StockInitializerTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private StockInitializer stockInitializer;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        flushCouponKeys();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"SET, 1", "SET, 4", "BITMAP, 1", "CHUNKED, 2"})
+    @DisplayName("Redis 키가 모두 사라져도 품절로 처리하지 않고 DB 기준으로 재초기화 후 발급")
+    void decrement_reinitializesMissingKeys(IssuedEncoding encoding, int shards) {
+        // Given: 10개 중 3개 발급 후 Redis 키 유실 (재시작)
+        Long couponId = createCoupon(10, shards, encoding);
+        for (long userId = 1; userId <= 3; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId * 50_000));
+        }
+        flushCouponKeys();
+
+        // When: 이미 발급받은 사용자 → 새 사용자 순서로 요청
+        int duplicated = couponStockService.decrementStock(couponId, 50_000L);
+        int issued = couponStockService.decrementStock(couponId, 999_999L);
+
+        // Then: 발급 사용자 기록과 재고(10 - 3)가 복원된 상태에서 처리됨
+        assertThat(duplicated).isEqualTo(-1);
+        assertThat(issued).isEqualTo(1);
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(6L);
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(4L);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"SET, 1", "SET, 4"})
+    @DisplayName("warm-up은 재고 키가 없는 쿠폰만 초기화하고 남아 있는 재고는 덮어쓰지 않음")
+    void warmUp_initializesOnlyMissingCoupons(IssuedEncoding encoding, int shards) {
+        // Given: 앞선 테스트가 키를 지운 쿠폰은 먼저 초기화
+        stockInitializer.warmUp();
+        Long lost = createCoupon(5, shards, encoding);
+        Long kept = createCoupon(5, shards, encoding);
+        couponService.issueCoupon(lost, new CouponIssueRequest(1L));
+        couponService.issueCoupon(kept, new CouponIssueRequest(1L));
+        StockLayout layout = couponStockService.layoutOf(lost);
+        for (int shard = 0; shard < layout.shards(); shard++) {
+            redisTemplate.delete(layout.stockKey(shard));
+            redisTemplate.delete(layout.issuedKey(shard));
+        }
+
+        // When
+        int initialized = stockInitializer.warmUp();
+
+        // Then
+        assertThat(initialized).isEqualTo(1);
+        assertThat(couponStockService.getStock(lost)).isEqualTo(4L);
+        assertThat(couponStockService.isAlreadyIssued(lost, 1L)).isTrue();
+        assertThat(couponStockService.getStock(kept)).isEqualTo(4L);
+        assertThat(stockInitializer.warmUp()).isZero();
+    }
+
+    @Test
+    @DisplayName("샤드 하나만 사라지면 남은 샤드와 임대 재고를 빼고 그 샤드만 다시 만들어 총 수량을 넘지 않음")
+    void warmUp_rebuildsOnlyMissingShard() {
+        // Given: 4개 샤드 40개 중 6개 발급, 다른 노드가 샤드 1에서 2개 임대 중
+        stockInitializer.warmUp();
+        Long couponId = createCoupon(40, 4, IssuedEncoding.SET);
+        for (long userId = 1; userId <= 6; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId));
+        }
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        redisTemplate.opsForValue().decrement(layout.stockKey(1), 2);
+        redisTemplate.opsForHash().put(layout.leaseKey(1), "other-node", "2");
+        long surviving = 0L;
+        for (int shard = 1; shard < layout.shards(); shard++) {
+            surviving += Long.parseLong(redisTemplate.opsForValue().get(layout.stockKey(shard)));
+        }
+
+        // When: 샤드 0의 재고 키만 유실
+        redisTemplate.delete(layout.stockKey(0));
+        int initialized = stockInitializer.warmUp();
+
+        // Then: 재고 + 임대 + 발급 = 총 수량
+        assertThat(initialized).isEqualTo(1);
+        assertThat(Long.parseLong(redisTemplate.opsForValue().get(layout.stockKey(0))))
+                .isEqualTo(40 - 6 - 2 - surviving);
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(40L - 6 - 2);
+        assertThat(stockInitializer.warmUp()).isZero();
+    }
+
+    private Long createCoupon(int quantity, int shards, IssuedEncoding encoding) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "warm-up 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, encoding)).id();
+    }
+
+    private void flushCouponKeys() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+}
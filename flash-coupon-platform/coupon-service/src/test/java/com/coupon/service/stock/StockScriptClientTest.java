@@ -0,0 +1,127 @@
+package com.coupon.service.stock;
+
+import com.coupon.domain.IssuedEncoding;
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "coupon.stock.chunk-bitmap-threshold=5")
+class StockScriptClientTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private StockScriptClient stockScriptClient;
+
+    @Autowired
+    private DefaultRedisScript<Long> stockDecrementScript;
+
+    @Autowired
+    private LettuceConnectionFactory connectionFactory;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @ParameterizedTest(name = "encoding={0}, shards={1}")
+    @CsvSource({"SET, 1", "SET, 3", "BITMAP, 1", "CHUNKED, 2"})
+    @DisplayName("스크립트 캐시가 비어 있으면(NOSCRIPT) EVAL로 실행하고 다시 등록")
+    void decrement_fallsBackToEvalOnNoScript(IssuedEncoding encoding, int shards) {
+        // Given
+        Long couponId = createCoupon(10, shards, encoding);
+        flushScripts();
+        assertThat(scriptExists()).isFalse();
+
+        // When: 10개 재고에 20명 요청 (CHUNKED는 청크가 나뉘도록 간격을 둔 ID, 샤드 차용은 엔진이 처리)
+        int issued = 0;
+        for (long userId = 1; userId <= 20; userId++) {
+            if (couponStockService.decrementStock(couponId, userId * 33_333) == 1) {
+                issued++;
+            }
+        }
+
+        // Then: 첫 호출의 EVAL로 스크립트가 다시 등록되고 결과는 EVALSHA와 같음
+        assertThat(scriptExists()).isTrue();
+        assertThat(issued).isEqualTo(10);
+        assertThat(stockScriptClient.decrement(couponId, 33_333L)).isEqualTo(-1);
+        assertThat(couponStockService.isAlreadyIssued(couponId, 33_333L)).isTrue();
+        assertThat(couponStockService.getIssuedUserCount(couponId)).isEqualTo(10);
+        assertThat(couponStockService.getStock(couponId)).isZero();
+    }
+
+    @Test
+    @DisplayName("재고 키가 없으면 -2, 비트맵 범위 밖 사용자 ID는 거절")
+    void decrement_reportsMissingKeyAndInvalidUser() {
+        Long setCoupon = createCoupon(10, 1, IssuedEncoding.SET);
+        redisTemplate.delete(couponStockService.layoutOf(setCoupon).stockKey(0));
+        assertThat(stockScriptClient.decrement(setCoupon, 1L)).isEqualTo(-2);
+
+        Long bitmapCoupon = createCoupon(10, 1, IssuedEncoding.BITMAP);
+        assertThatThrownBy(() -> stockScriptClient.decrement(bitmapCoupon, -7L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("공유 커넥션이 다시 만들어지거나 전용 커넥션이 닫혀도 다음 호출에서 계속 실행")
+    void decrement_reconnectsAfterConnectionClosed() {
+        Long couponId = createCoupon(10, 1, IssuedEncoding.SET);
+        assertThat(stockScriptClient.decrement(couponId, 1L)).isEqualTo(1);
+
+        // 팩토리의 공유 커넥션과는 별개
+        connectionFactory.resetConnection();
+        assertThat(stockScriptClient.decrement(couponId, 2L)).isEqualTo(1);
+
+        // 전용 커넥션이 닫히면 새로 연결
+        stockScriptClient.close();
+        assertThat(stockScriptClient.decrement(couponId, 3L)).isEqualTo(1);
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(7L);
+    }
+
+    private void flushScripts() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+    }
+
+    private boolean scriptExists() {
+        List<Boolean> exists = redisTemplate.execute((RedisCallback<List<Boolean>>) connection ->
+                connection.scriptingCommands().scriptExists(stockDecrementScript.getSha1()));
+        return exists != null && exists.get(0);
+    }
+
+    private Long createCoupon(int quantity, int shards, IssuedEncoding encoding) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "스크립트 쿠폰", quantity, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                shards, encoding)).id();
+    }
+}
@@ -0,0 +1,96 @@
+package com.coupon.service.stock;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.CouponUpdateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "coupon.stock.write-back.enabled=false",
+        "coupon.stock.write-back.min-delta=1",
+        "coupon.stock.write-back.final-flush-delay=100ms"
+})
+class StockWriteBackTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private StockWriteBack stockWriteBack;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("재고 키가 유실되면 잔여 수량을 0으로 덮어쓰지 않음")
+    void flush_skipsMissingStockKey() {
+        // Given: 4개 샤드 중 3명 발급 후 반영
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "반영 쿠폰", 20, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1),
+                4, null)).id();
+        for (long userId = 1; userId <= 3; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId));
+        }
+        stockWriteBack.flushActiveCoupons();
+        assertThat(couponService.getCoupon(couponId).remainingQuantity()).isEqualTo(17);
+
+        // When: 샤드 하나의 재고 키가 사라짐
+        StockLayout layout = couponStockService.layoutOf(couponId);
+        redisTemplate.delete(layout.stockKey(2));
+        stockWriteBack.flushActiveCoupons();
+        stockWriteBack.flush(couponId);
+
+        // Then: 조회 결과에서 빠지고 DB 값은 유지
+        assertThat(couponStockService.getStocks(List.of(couponId))).doesNotContainKey(couponId);
+        assertThat(couponService.getCoupon(couponId).remainingQuantity()).isEqualTo(17);
+    }
+
+    @Test
+    @DisplayName("종료 시각을 앞당기면 종료 반영을 새 종료 시각으로 다시 예약")
+    void finalFlush_followsEarlierEndAt() throws InterruptedException {
+        // Given: 1시간 뒤 종료되는 쿠폰을 반영해 종료 반영이 예약됨
+        LocalDateTime startAt = LocalDateTime.now().minusMinutes(1);
+        Long couponId = couponService.createCoupon(new CouponCreateRequest(
+                "종료 변경 쿠폰", 20, startAt, LocalDateTime.now().plusHours(1), 1, null)).id();
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        stockWriteBack.flushActiveCoupons();
+        assertThat(couponService.getCoupon(couponId).remainingQuantity()).isEqualTo(19);
+        for (long userId = 2; userId <= 4; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId));
+        }
+
+        // When: 종료 시각을 곧바로 앞당기고, 발급 기간에서 빠진 뒤 주기가 돌아옴
+        couponService.updateCoupon(couponId, new CouponUpdateRequest(
+                "종료 변경 쿠폰", startAt, LocalDateTime.now().plusNanos(200_000_000L)));
+        Thread.sleep(300);
+        stockWriteBack.flushActiveCoupons();
+
+        // Then: 이전 종료 시각(1시간 뒤)을 기다리지 않고 마지막 잔여 수량이 반영됨
+        Thread.sleep(500);
+        assertThat(couponService.getCoupon(couponId).remainingQuantity()).isEqualTo(16);
+    }
+}
@@ -0,0 +1,150 @@
+package com.coupon.service.stream;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.CouponStockService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.StockStreamEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "coupon.stock-stream.snapshot-ttl=1m")
+class StockStreamServiceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StockStreamService stockStreamService;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponStockService couponStockService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> keys = redisTemplate.keys("coupon:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Test
+    @DisplayName("연결하면 현재 재고를 바로 받고, 이후 발급으로 재고가 바뀌면 stock 이벤트를 받음")
+    void stream_pushesStockChanges() throws Exception {
+        // Given
+        Long couponId = createCoupon();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/coupons/" + couponId + "/stock/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .get(10, TimeUnit.SECONDS);
+
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> events = lines.filter(line -> line.startsWith("data:")).iterator();
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(nextEvent(events).remainingStock()).isEqualTo(10L);
+            assertThat(stockStreamService.subscriberCount()).isEqualTo(1);
+
+            // When
+            couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+            couponService.issueCoupon(couponId, new CouponIssueRequest(2L));
+
+            // Then: 샘플링 주기 안에 두 건이 모두 반영될 수도 있으므로 8이 올 때까지 읽음
+            StockStreamEvent event = nextEvent(events);
+            if (event.remainingStock() == 9L) {
+                event = nextEvent(events);
+            }
+            assertThat(event.couponId()).isEqualTo(couponId);
+            assertThat(event.remainingStock()).isEqualTo(8L);
+        }
+    }
+
+    @Test
+    @DisplayName("발급이 이어지는 중에 연결해도 받는 재고는 같은 값을 반복하거나 거꾸로 가지 않음")
+    void stream_neverGoesBackwards() throws Exception {
+        // Given: 발급이 진행 중인 쿠폰
+        Long couponId = createCoupon();
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/coupons/" + couponId + "/stock/stream"))
+                .header("Accept", "text/event-stream")
+                .build();
+
+        // When: 연결 직후에도 발급이 계속됨
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .get(10, TimeUnit.SECONDS);
+        for (long userId = 2; userId <= 5; userId++) {
+            couponService.issueCoupon(couponId, new CouponIssueRequest(userId));
+            Thread.sleep(100);
+        }
+
+        // Then: 마지막 재고(5)까지 엄격하게 줄어드는 순서로만 받음
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> events = lines.filter(line -> line.startsWith("data:")).iterator();
+            List<Long> received = new ArrayList<>();
+            while (received.isEmpty() || received.get(received.size() - 1) > 5L) {
+                received.add(nextEvent(events).remainingStock());
+            }
+            assertThat(received).isSortedAccordingTo(Comparator.reverseOrder()).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    @DisplayName("GET /stock은 snapshot-ttl 동안 노드 메모리의 값을 응답")
+    void getSnapshot_servesFromLocalSnapshot() {
+        // Given
+        Long couponId = createCoupon();
+        assertThat(stockStreamService.getSnapshot(couponId).remainingStock()).isEqualTo(10L);
+
+        // When
+        couponService.issueCoupon(couponId, new CouponIssueRequest(1L));
+
+        // Then
+        assertThat(couponStockService.getStock(couponId)).isEqualTo(9L);
+        assertThat(stockStreamService.getSnapshot(couponId).remainingStock()).isEqualTo(10L);
+    }
+
+    private StockStreamEvent nextEvent(Iterator<String> events) throws Exception {
+        return objectMapper.readValue(events.next().substring("data:".length()), StockStreamEvent.class);
+    }
+
+    private Long createCoupon() {
+        return couponService.createCoupon(new CouponCreateRequest(
+                "스트림 쿠폰", 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+    }
+}
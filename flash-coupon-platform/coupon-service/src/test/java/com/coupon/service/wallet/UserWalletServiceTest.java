@@ -0,0 +1,71 @@
+package com.coupon.service.wallet;
+
+import com.coupon.service.CouponService;
+import com.coupon.service.dto.CouponCreateRequest;
+import com.coupon.service.dto.CouponIssueRequest;
+import com.coupon.service.dto.WalletResponse;
+import com.coupon.service.dto.WalletResponse.WalletCoupon;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "coupon.wallet.default-page-size=2")
+class UserWalletServiceTest {
+
+    private static final Long USER_ID = 777_001L;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private UserWalletService userWalletService;
+
+    @Test
+    @DisplayName("최근 발급 순 keyset 페이지, 발급 시 캐시된 첫 페이지 무효화")
+    void wallet_pagesByCursorAndEvictsOnIssue() {
+        // Given: 쿠폰 5개를 순서대로 발급
+        List<Long> couponIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long couponId = createCoupon("쿠폰함 쿠폰 " + i);
+            couponIds.add(couponId);
+            couponService.issueCoupon(couponId, new CouponIssueRequest(USER_ID));
+        }
+
+        // When: cursor로 끝까지 조회
+        List<Long> listed = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            WalletResponse page = userWalletService.getWallet(USER_ID, cursor, null);
+            page.coupons().forEach(coupon -> listed.add(coupon.couponId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then: 최근 발급 순, 빈 페이지 없이 3페이지
+        assertThat(listed).containsExactlyElementsOf(couponIds.reversed());
+        assertThat(pages).isEqualTo(3);
+        WalletCoupon latest = userWalletService.getWallet(USER_ID, null, null).coupons().get(0);
+        assertThat(latest.couponName()).isEqualTo("쿠폰함 쿠폰 4");
+        assertThat(latest.code()).hasSize(12);
+
+        // When: 첫 페이지가 캐시된 상태에서 새로 발급
+        Long newest = createCoupon("쿠폰함 쿠폰 5");
+        couponService.issueCoupon(newest, new CouponIssueRequest(USER_ID));
+
+        // Then
+        assertThat(userWalletService.getWallet(USER_ID, null, null).coupons().get(0).couponId()).isEqualTo(newest);
+    }
+
+    private Long createCoupon(String name) {
+        return couponService.createCoupon(new CouponCreateRequest(
+                name, 10, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusHours(1))).id();
+    }
+}
@@ -0,0 +1,113 @@
+package com.coupon.service.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IssueJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    @DisplayName("재시작 시 체크포인트 이후 발급 건만 재처리 대상")
+    void replay_onlyUncommittedGrants() throws Exception {
+        // Given
+        LocalDateTime issuedAt = LocalDateTime.of(2025, 1, 1, 10, 0, 0);
+        IssueJournal journal = new IssueJournal(journalDir);
+        long first = journal.append(new IssueGrant(1L, 100L, issuedAt, "00000000000A"));
+        journal.append(new IssueGrant(1L, 101L, issuedAt, "00000000000B"));
+        journal.append(new IssueGrant(1L, 102L, issuedAt, "00000000000C"));
+        journal.commit(first);
+        journal.close();
+
+        // When: 재시작
+        IssueJournal reopened = new IssueJournal(journalDir);
+        List<IssueGrant> uncommitted = reopened.readUncommitted();
+
+        // Then
+        assertThat(uncommitted).extracting(IssueGrant::userId).containsExactly(101L, 102L);
+        assertThat(uncommitted.get(0).issuedAt()).isEqualTo(issuedAt);
+        assertThat(uncommitted.get(0).code()).isEqualTo("00000000000B");
+
+        reopened.commitAll();
+        assertThat(reopened.pendingBytes()).isZero();
+        assertThat(reopened.readUncommitted()).isEmpty();
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("기록 도중 잘린 마지막 레코드는 무시")
+    void tornRecord_isDiscarded() throws Exception {
+        // Given
+        IssueJournal journal = new IssueJournal(journalDir);
+        journal.sync(journal.append(new IssueGrant(1L, 100L, LocalDateTime.now(), "00000000000A")));
+        journal.close();
+
+        try (FileChannel channel = FileChannel.open(journalDir.resolve("issue-journal.log"),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        }
+
+        // When
+        IssueJournal reopened = new IssueJournal(journalDir);
+
+        // Then
+        assertThat(reopened.readUncommitted()).extracting(IssueGrant::userId).containsExactly(100L);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("헤더가 없거나 형식 버전이 다른 저널 파일은 열지 않음")
+    void mismatchedFormat_isRefused() throws Exception {
+        // Given: 헤더 없는 이전 형식 (24바이트 레코드 1건)
+        Path logFile = journalDir.resolve("issue-journal.log");
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES * 3).putLong(1L).putLong(100L).putLong(0L).flip());
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> new IssueJournal(journalDir))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Given: magic은 같고 버전만 다름
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(IssueJournal.HEADER_SIZE)
+                    .putInt(IssueJournal.MAGIC).putInt(IssueJournal.VERSION + 1).flip());
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> new IssueJournal(journalDir))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("version: " + (IssueJournal.VERSION + 1));
+    }
+
+    @Test
+    @DisplayName("끝까지 반영해 비운 저널도 헤더는 유지")
+    void commitAll_keepsHeader() throws Exception {
+        // Given
+        IssueJournal journal = new IssueJournal(journalDir);
+        journal.append(new IssueGrant(1L, 100L, LocalDateTime.now(), "00000000000A"));
+        journal.commitAll();
+        journal.close();
+
+        // When
+        IssueJournal reopened = new IssueJournal(journalDir);
+        long position = reopened.append(new IssueGrant(1L, 101L, LocalDateTime.now(), "00000000000B"));
+
+        // Then
+        assertThat(position).isEqualTo(IssueJournal.HEADER_SIZE + IssueJournal.RECORD_SIZE);
+        assertThat(reopened.readUncommitted()).extracting(IssueGrant::userId).containsExactly(101L);
+        reopened.close();
+    }
+}
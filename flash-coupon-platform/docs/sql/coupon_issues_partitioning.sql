@@ -0,0 +1,99 @@
+-- coupon_issues를 coupon_id 범위로 파티셔닝 (PostgreSQL 14+)
+-- 자세한 설명은 docs/lifecycle.md 참고
+--
+-- - 파티션 키는 coupon_id. 발급 중복 검사(coupon_id, user_id)와 countByCouponId, 보관 청크 이동이 모두 파티션 하나에서 끝난다.
+--   (발급일 기준 파티셔닝은 (coupon_id, user_id) 유니크 제약에 파티션 키를 넣을 수 없어 쓰지 않는다)
+-- - 파티셔닝된 테이블의 PK/유니크 제약은 파티션 키를 포함해야 하므로 PK는 (coupon_id, id)가 된다.
+--   code 유니크 제약은 일반 인덱스로 바꾼다. 코드 유일성은 CouponCodeGenerator가 (couponId, 발급 순번)으로 보장한다.
+-- - 서비스 점검 시간에 실행한다. 실행 후에는 spring.jpa.hibernate.ddl-auto=validate로 운영한다.
+
+BEGIN;
+
+ALTER TABLE coupon_issues RENAME TO coupon_issues_legacy;
+
+CREATE TABLE coupon_issues (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    coupon_id  BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    code       VARCHAR(12),
+    issued_at  TIMESTAMP(6) NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (coupon_id, id),
+    CONSTRAINT uk_coupon_issues_coupon_user UNIQUE (coupon_id, user_id)
+) PARTITION BY RANGE (coupon_id);
+
+CREATE INDEX idx_coupon_issues_coupon_id_id ON coupon_issues (coupon_id, id);
+CREATE INDEX idx_coupon_issues_user_id_id ON coupon_issues (user_id, id);
+CREATE INDEX idx_coupon_issues_code ON coupon_issues (code);
+
+-- 범위에 들지 않는 coupon_id를 받는 파티션 (파티션 생성이 늦어져도 발급이 실패하지 않도록)
+CREATE TABLE coupon_issues_default PARTITION OF coupon_issues DEFAULT;
+
+-- upto 까지의 coupon_id를 span 단위 파티션으로 만든다. 이미 있는 범위는 건너뛴다.
+-- 새 쿠폰이 기존 파티션 범위를 넘기 전에 주기적으로 호출한다. 예) SELECT create_coupon_issue_partitions((SELECT max(id) FROM coupons) + 10000, 1000);
+CREATE OR REPLACE FUNCTION create_coupon_issue_partitions(upto BIGINT, span BIGINT) RETURNS INTEGER AS $$
+DECLARE
+    lower_bound BIGINT := 0;
+    created     INTEGER := 0;
+    name        TEXT;
+BEGIN
+    WHILE lower_bound <= upto LOOP
+        name := format('coupon_issues_p%s', lower_bound / span);
+        IF to_regclass(name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF coupon_issues FOR VALUES FROM (%s) TO (%s)',
+                           name, lower_bound, lower_bound + span);
+            created := created + 1;
+        END IF;
+        lower_bound := lower_bound + span;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_coupon_issue_partitions(COALESCE((SELECT max(id) FROM coupons), 0) + 10000, 1000);
+
+-- recorded_at은 옮긴 시각으로 채워진다. (대사는 grace 동안 이 행들을 커밋 대기로 보고 건너뛴 뒤 확인한다)
+INSERT INTO coupon_issues (id, coupon_id, user_id, code, issued_at)
+SELECT id, coupon_id, user_id, code, issued_at FROM coupon_issues_legacy;
+
+SELECT setval(pg_get_serial_sequence('coupon_issues', 'id'),
+              COALESCE((SELECT max(id) FROM coupon_issues), 0) + 1, false);
+
+DROP TABLE coupon_issues_legacy;
+
+-- 범위 안의 쿠폰이 모두 보관(archived_at)되어 비어 있는 파티션을 삭제한다.
+-- CouponLifecycleManager가 행을 coupon_issues_archive로 옮긴 뒤에 호출한다. 예) SELECT drop_archived_coupon_issue_partitions();
+CREATE OR REPLACE FUNCTION drop_archived_coupon_issue_partitions() RETURNS INTEGER AS $$
+DECLARE
+    part    RECORD;
+    dropped INTEGER := 0;
+    active  BOOLEAN;
+    filled  BOOLEAN;
+BEGIN
+    FOR part IN
+        SELECT c.relname AS name,
+               (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'FROM \(''?(\d+)''?\) TO \(''?(\d+)''?\)')) AS bounds
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'coupon_issues'::regclass
+    LOOP
+        CONTINUE WHEN part.bounds IS NULL;
+        -- 범위 끝에 아직 쿠폰이 만들어지지 않은 파티션은 앞으로 쓸 파티션이므로 남긴다.
+        SELECT EXISTS (SELECT 1 FROM coupons
+                       WHERE id >= part.bounds[2]::BIGINT - 1 AND id < part.bounds[2]::BIGINT) INTO active;
+        CONTINUE WHEN NOT active;
+        SELECT EXISTS (SELECT 1 FROM coupons
+                       WHERE id >= part.bounds[1]::BIGINT AND id < part.bounds[2]::BIGINT
+                         AND archived_at IS NULL) INTO active;
+        CONTINUE WHEN active;
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I)', part.name) INTO filled;
+        CONTINUE WHEN filled;
+        EXECUTE format('ALTER TABLE coupon_issues DETACH PARTITION %I', part.name);
+        EXECUTE format('DROP TABLE %I', part.name);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;